@@ -23,6 +23,26 @@ tasks.test {
     }
 }
 
+// benchmarks are tests that only run when the 'mmtc.benchmarks' system property is set, as it is by this task, e.g. './gradlew :mmtc-core:benchmark'
+tasks.register<Test>("benchmark") {
+    group = "verification"
+    description = "Runs the tests that benchmark MMTC's performance, which the 'test' task skips, and logs their timings"
+
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+
+    systemProperty("mmtc.benchmarks", "true")
+    filter {
+        includeTestsMatching("*BenchmarkTest")
+        includeTestsMatching("*.benchmark*")
+        isFailOnNoMatchingTests = false
+    }
+
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+    shouldRunAfter(tasks.test)
+}
+
 dependencies {
     spotbugsPlugins("com.h3xstream.findsecbugs:findsecbugs-plugin:1.14.0")
 }
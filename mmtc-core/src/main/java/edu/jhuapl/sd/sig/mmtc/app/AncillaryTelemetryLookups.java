@@ -0,0 +1,189 @@
+package edu.jhuapl.sd.sig.mmtc.app;
+
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.util.SpiceKernelPoolLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Issues the telemetry lookups needed for a correlation's ancillary information (the active oscillator and its
+ * temperature, the active radio, and the GNC parameters), which are independent of each other and of the correlation's
+ * geometry and error metrics.  Lookups are started on construction and run concurrently on background threads while
+ * the caller continues with other work, and are joined by {@link #await()}.
+ *
+ * When concurrent lookups are disabled, each lookup is instead run to completion, in order, on the calling thread
+ * during construction.
+ *
+ * Lookups that are abandoned, such as by timing out, are cancelled without interrupting them, as telemetry sources
+ * may not tolerate being interrupted mid-query; an abandoned lookup is left to finish on its background thread.
+ */
+public class AncillaryTelemetryLookups implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    /**
+     * The values retrieved by all ancillary telemetry lookups.
+     */
+    public static final class Results {
+        public final String oscillatorId;
+        public final double oscillatorTemperature;
+        public final String activeRadioId;
+        public final TelemetrySource.GncParms gncParms;
+
+        private Results(String oscillatorId, double oscillatorTemperature, String activeRadioId, TelemetrySource.GncParms gncParms) {
+            this.oscillatorId = oscillatorId;
+            this.oscillatorTemperature = oscillatorTemperature;
+            this.activeRadioId = activeRadioId;
+            this.gncParms = gncParms;
+        }
+    }
+
+    private static final class OscillatorState {
+        final String id;
+        final double temperature;
+
+        OscillatorState(String id, double temperature) {
+            this.id = id;
+            this.temperature = temperature;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+    private final long startNanos;
+
+    // in the fixed order in which they are joined and any failures are reported
+    private final Future<OscillatorState> oscillatorLookup;
+    private final Future<String> radioLookup;
+    private final Future<TelemetrySource.GncParms> gncLookup;
+
+    /**
+     * Starts all ancillary telemetry lookups for the given target sample.
+     *
+     * @param tlmSource the telemetry source to query
+     * @param targetSample the correlation's target sample
+     * @param scetForTdtG the SCET equivalent of the target sample's TDT(G), near which to look up values
+     * @param tdtG the target sample's TDT(G)
+     * @param concurrent whether to run the lookups concurrently on background threads
+     * @param timeoutSec the maximum number of seconds to wait for each concurrent lookup, measured from the time the
+     *                   lookups are started
+     */
+    public AncillaryTelemetryLookups(TelemetrySource tlmSource, FrameSample targetSample, OffsetDateTime scetForTdtG, double tdtG, boolean concurrent, int timeoutSec) {
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSec);
+        this.executor = concurrent ? Executors.newFixedThreadPool(3, AncillaryTelemetryLookups::newLookupThread) : null;
+        this.startNanos = System.nanoTime();
+
+        this.oscillatorLookup = submit(() -> {
+            final String oscillatorId = tlmSource.getActiveOscillatorId(targetSample);
+            if (oscillatorId.equals("-")) {
+                return new OscillatorState(oscillatorId, Double.NaN);
+            }
+            return new OscillatorState(oscillatorId, tlmSource.getOscillatorTemperature(scetForTdtG, oscillatorId));
+        });
+        this.radioLookup = submit(() -> tlmSource.getActiveRadioId(targetSample));
+        this.gncLookup = submit(() -> tlmSource.getGncTkParms(scetForTdtG, tdtG));
+    }
+
+    private <T> Future<T> submit(Callable<T> lookup) {
+        if (executor != null) {
+            // lookups made on background threads contribute to the metrics of the run that started them
+            return executor.submit(RunMetrics.current().bound(lookup));
+        }
+
+        final FutureTask<T> task = new FutureTask<>(lookup);
+        task.run();
+        return task;
+    }
+
+    private static Thread newLookupThread(Runnable r) {
+        final Thread thread = new Thread(r, "mmtc-ancillary-tlm-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Waits for all lookups to complete.  Each lookup is waited on, in a fixed order, until no later than the timeout
+     * after the lookups were started; any that have not completed by then are cancelled.  If any lookup failed or timed
+     * out, the exception thrown describes every failed lookup in that same order, such that the reported error does
+     * not depend on which lookup happened to finish first.
+     *
+     * @return the values retrieved by all lookups
+     * @throws MmtcException if any lookup failed or timed out
+     */
+    public Results await() throws MmtcException {
+        final List<String> failedLookups = new ArrayList<>();
+        final List<Throwable> causes = new ArrayList<>();
+
+        final OscillatorState oscillator = join("active oscillator ID and temperature", oscillatorLookup, failedLookups, causes);
+        final String activeRadioId = join("active radio ID", radioLookup, failedLookups, causes);
+        final TelemetrySource.GncParms gncParms = join("GNC parameters", gncLookup, failedLookups, causes);
+
+        if (! failedLookups.isEmpty()) {
+            final MmtcException ex = new MmtcException(
+                    "Unable to retrieve ancillary telemetry (" + String.join(", ", failedLookups) + "): " + causes.get(0).getMessage(),
+                    causes.get(0)
+            );
+            for (Throwable suppressed : causes.subList(1, causes.size())) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+
+        return new Results(oscillator.id, oscillator.temperature, activeRadioId, gncParms);
+    }
+
+    private <T> T join(String lookupName, Future<T> lookup, List<String> failedLookups, List<Throwable> causes) {
+        // other missions correlated in this process may use SPICE while this lookup completes
+        try (SpiceKernelPoolLock.Released released = SpiceKernelPoolLock.releaseHeldSession()) {
+            final long remainingNanos = Math.max(0, timeoutNanos - (System.nanoTime() - startNanos));
+            return lookup.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            logger.error("Ancillary telemetry lookup of " + lookupName + " failed: " + e.getCause().getMessage());
+            failedLookups.add(lookupName);
+            causes.add(e.getCause());
+        } catch (TimeoutException e) {
+            lookup.cancel(false);
+            final String msg = String.format("Lookup of %s did not complete within %d seconds", lookupName, TimeUnit.NANOSECONDS.toSeconds(timeoutNanos));
+            logger.error(msg);
+            failedLookups.add(lookupName);
+            causes.add(new TimeoutException(msg));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lookup.cancel(false);
+            failedLookups.add(lookupName);
+            causes.add(e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Cancels any lookups that have not yet started, and releases their threads once any running lookups finish.
+     */
+    @Override
+    public void close() {
+        oscillatorLookup.cancel(false);
+        radioLookup.cancel(false);
+        gncLookup.cancel(false);
+
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
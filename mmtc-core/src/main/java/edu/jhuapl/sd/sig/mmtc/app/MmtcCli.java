@@ -1,9 +1,21 @@
 package edu.jhuapl.sd.sig.mmtc.app;
 
+import edu.jhuapl.sd.sig.mmtc.cfg.MigrationConfig;
 import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcSandboxCreatorConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.MultiMissionConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.ReplayConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.RollbackConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.SweepConfig;
+import edu.jhuapl.sd.sig.mmtc.daemon.MmtcDaemon;
+import edu.jhuapl.sd.sig.mmtc.daemon.MmtcDaemonClient;
+import edu.jhuapl.sd.sig.mmtc.daemon.MmtcDaemonConfig;
+import edu.jhuapl.sd.sig.mmtc.multimission.MultiMissionCorrelation;
 import edu.jhuapl.sd.sig.mmtc.products.util.BuiltInOutputProductMigrationManager;
+import edu.jhuapl.sd.sig.mmtc.replay.TimeCorrelationReplay;
 import edu.jhuapl.sd.sig.mmtc.rollback.TimeCorrelationRollback;
 import edu.jhuapl.sd.sig.mmtc.sandbox.MmtcSandboxCreator;
+import edu.jhuapl.sd.sig.mmtc.sweep.TimeCorrelationSweep;
 import edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache.TelemetryCacheUserOperations;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,11 +34,16 @@ public class MmtcCli {
 
     public enum ApplicationCommand {
         CORRELATION,
+        REPLAY,
+        SWEEP,
+        MULTI_MISSION,
         ROLLBACK,
         CREATE_SANDBOX,
         MIGRATE,
         PRECACHE,
-        CACHE_STATS
+        CACHE_STATS,
+        DAEMON,
+        CLIENT
     }
 
     private static class ApplicationInvocation {
@@ -47,13 +64,18 @@ public class MmtcCli {
 
         if (Arrays.asList("-h", "--help").contains(cliArgs[0])) {
             final String helpMessage =
-                    "usage: mmtc [correlation|rollback|create-sandbox|migrate|precache|cache-stats] [options] <additional arguments>\n" +
+                    "usage: mmtc [correlation|replay|sweep|multi-mission|rollback|create-sandbox|migrate|precache|cache-stats|daemon|client] [options] <additional arguments>\n" +
                     " -h,--help      Print this message.\n" +
                     " -v,--version   Print the MMTC version.\n" +
                     "\n" +
                     "MMTC can be invoked with one of the following commands:\n" +
                     "- correlation: run a new correlation (this is the default command if none\n" +
                     "is specified)\n" +
+                    "- replay: run a sequence of correlations in order, in a single process\n" +
+                    "- sweep: evaluate a correlation under a grid of alternate configuration\n" +
+                    "values, without writing any output products\n" +
+                    "- multi-mission: run the correlations of several missions, each with its\n" +
+                    "own configuration, concurrently in a single process\n" +
                     "- rollback: roll back (undo) one or many correlations\n" +
                     "- create-sandbox: create a copy of this MMTC installation to run locally,\n" +
                     "without affecting this installation\n" +
@@ -61,13 +83,23 @@ public class MmtcCli {
                     "- precache: query the configured telemetry source to proactively retrieve\n" +
                     "and store time correlation telemetry into a local cache\n" +
                     "- cache-stats: log statistics about the locally-cached telemetry\n" +
+                    "- daemon: start a long-running MMTC process that keeps its configuration\n" +
+                    "and SPICE kernels loaded to run commands sent by 'mmtc client'\n" +
+                    "- client: send a correlation, rollback, or precache command to a running\n" +
+                    "MMTC daemon\n" +
                     "\n" +
                     "For more information on any of these commands, run: mmtc <command> --help";
             System.out.println(helpMessage);
             System.exit(0);
         }
 
-        if (cliArgs[0].equalsIgnoreCase("rollback")) {
+        if (cliArgs[0].equalsIgnoreCase("replay")) {
+            return new ApplicationInvocation(ApplicationCommand.REPLAY, removeFirstElement(cliArgs));
+        } else if (cliArgs[0].equalsIgnoreCase("sweep")) {
+            return new ApplicationInvocation(ApplicationCommand.SWEEP, removeFirstElement(cliArgs));
+        } else if (cliArgs[0].equalsIgnoreCase("multi-mission")) {
+            return new ApplicationInvocation(ApplicationCommand.MULTI_MISSION, removeFirstElement(cliArgs));
+        } else if (cliArgs[0].equalsIgnoreCase("rollback")) {
             return new ApplicationInvocation(ApplicationCommand.ROLLBACK, removeFirstElement(cliArgs));
         } else if (cliArgs[0].equalsIgnoreCase("create-sandbox")) {
             return new ApplicationInvocation(ApplicationCommand.CREATE_SANDBOX, removeFirstElement(cliArgs));
@@ -79,6 +111,10 @@ public class MmtcCli {
             return new ApplicationInvocation(ApplicationCommand.PRECACHE, removeFirstElement(cliArgs));
         } else if (cliArgs[0].equalsIgnoreCase("cache-stats")) {
             return new ApplicationInvocation(ApplicationCommand.CACHE_STATS, removeFirstElement(cliArgs));
+        } else if (cliArgs[0].equalsIgnoreCase("daemon")) {
+            return new ApplicationInvocation(ApplicationCommand.DAEMON, removeFirstElement(cliArgs));
+        } else if (cliArgs[0].equalsIgnoreCase("client")) {
+            return new ApplicationInvocation(ApplicationCommand.CLIENT, removeFirstElement(cliArgs));
         } else {
             // to maintain backwards compatibility on MMTC's CLI
             return new ApplicationInvocation(ApplicationCommand.CORRELATION, cliArgs);
@@ -101,6 +137,37 @@ public class MmtcCli {
 
         final ApplicationInvocation appInvoc = determineApplicationCommand(args);
 
+        // the daemon acquires the lock file separately for each command it runs, the client does not need it, and a
+        // multi-mission run acquires the lock file of each mission it correlates
+        if (appInvoc.command == ApplicationCommand.DAEMON) {
+            try (MmtcDaemon daemon = new MmtcDaemon(new MmtcDaemonConfig(appInvoc.args))) {
+                Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+                daemon.serve();
+            } catch (Exception e) {
+                logger.fatal("MMTC daemon failed.", e);
+                System.exit(1);
+            }
+            return;
+        } else if (appInvoc.command == ApplicationCommand.CLIENT) {
+            int status;
+            try {
+                status = MmtcDaemonClient.run(appInvoc.args);
+            } catch (Exception e) {
+                logger.fatal("MMTC daemon client failed.", e);
+                status = 1;
+            }
+            System.exit(status);
+        } else if (appInvoc.command == ApplicationCommand.MULTI_MISSION) {
+            try {
+                new MultiMissionCorrelation(new MultiMissionConfig(appInvoc.args)).run();
+            } catch (Exception e) {
+                logger.fatal("Multi-mission correlation failed.", e);
+                System.exit(1);
+            }
+            return;
+        }
+
+        // this configuration is loaded once, and shared by the lock file and the invoked command
         final MmtcConfig cfg;
 
         try {
@@ -116,16 +183,34 @@ public class MmtcCli {
         switch (appInvoc.command) {
             case CORRELATION: {
                 try {
-                    new TimeCorrelationApp(appInvoc.args).run();
+                    new TimeCorrelationApp(cfg, appInvoc.args).run();
                 } catch (Exception ex) {
                     logger.fatal("MMTC correlation run failed.", ex);
                     failed = true;
                 }
                 break;
             }
+            case REPLAY: {
+                try {
+                    new TimeCorrelationReplay(new ReplayConfig(cfg, appInvoc.args)).replay();
+                } catch (Exception e) {
+                    logger.fatal("Replay failed.", e);
+                    failed = true;
+                }
+                break;
+            }
+            case SWEEP: {
+                try {
+                    new TimeCorrelationSweep(new SweepConfig(cfg, appInvoc.args)).sweep();
+                } catch (Exception e) {
+                    logger.fatal("Sweep failed.", e);
+                    failed = true;
+                }
+                break;
+            }
             case ROLLBACK: {
                 try {
-                    new TimeCorrelationRollback(appInvoc.args).rollback(Optional.empty());
+                    new TimeCorrelationRollback(new RollbackConfig(cfg, appInvoc.args)).rollback(Optional.empty());
                 } catch (Exception e) {
                     logger.fatal("Rollback failed.", e);
                     failed = true;
@@ -134,7 +219,7 @@ public class MmtcCli {
             }
             case CREATE_SANDBOX: {
                 try {
-                    new MmtcSandboxCreator(appInvoc.args).create();
+                    new MmtcSandboxCreator(new MmtcSandboxCreatorConfig(cfg, appInvoc.args)).create();
                 } catch (Exception e) {
                     logger.fatal("Sandbox creation failed.", e);
                     failed = true;
@@ -143,7 +228,7 @@ public class MmtcCli {
             }
             case MIGRATE: {
                 try {
-                    new BuiltInOutputProductMigrationManager(appInvoc.args).migrate();
+                    new BuiltInOutputProductMigrationManager(new MigrationConfig(cfg, appInvoc.args)).migrate();
                 } catch (Exception e) {
                     logger.fatal("Output product migration failed.", e);
                     failed = true;
@@ -152,7 +237,7 @@ public class MmtcCli {
             }
             case PRECACHE: {
                 try {
-                    TelemetryCacheUserOperations.precache(appInvoc.args);
+                    TelemetryCacheUserOperations.precache(cfg, appInvoc.args);
                 } catch (Exception e) {
                     logger.fatal("Precaching failed.", e);
                     failed = true;
@@ -161,7 +246,7 @@ public class MmtcCli {
             }
             case CACHE_STATS: {
                 try {
-                    TelemetryCacheUserOperations.logCacheStatistics(appInvoc.args);
+                    TelemetryCacheUserOperations.logCacheStatistics(cfg, appInvoc.args);
                 } catch (Exception e) {
                     logger.fatal("Failed to calculate cache statistics.", e);
                     failed = true;
@@ -1,6 +1,7 @@
 package edu.jhuapl.sd.sig.mmtc.app;
 
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.correlation.EphemerisStates;
 import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
 import edu.jhuapl.sd.sig.mmtc.products.model.SclkKernel;
 import edu.jhuapl.sd.sig.mmtc.products.model.TextProductException;
@@ -15,7 +16,6 @@ import spice.basic.SpiceErrorException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Arrays;
 
 public class TimeCorrelationAncillaryOperations {
     private static final Logger logger = LogManager.getLogger();
@@ -27,10 +27,24 @@ public class TimeCorrelationAncillaryOperations {
     }
 
     public void perform() throws Exception {
-        computeErrorMetrics();
-        computeGeometryValues();
-        retrieveSpacecraftStateValues();
-        retrieveAndComputeGncParams();
+        // the telemetry lookups are independent of each other and of the error metrics and geometry, so start them
+        // first and let them run while the (SPICE-bound) computations proceed on this thread
+        final TimeCorrelationTarget tcTarget = ctx.correlation.target.get();
+        try (AncillaryTelemetryLookups lookups = new AncillaryTelemetryLookups(
+                ctx.telemetrySource,
+                tcTarget.getTargetSample(),
+                ctx.correlation.equivalent_scet_utc_for_tdt_g.get(),
+                tcTarget.getTargetSampleTdtG(),
+                ctx.config.isConcurrentAncillaryTelemetryLookupEnabled() && ctx.telemetrySource.supportsConcurrentQueries(),
+                ctx.config.getAncillaryTelemetryLookupTimeoutSec()
+        )) {
+            computeErrorMetrics();
+            computeGeometryValues();
+
+            final AncillaryTelemetryLookups.Results lookupResults = lookups.await();
+            recordSpacecraftStateValues(lookupResults);
+            computeGncParams(lookupResults.gncParms);
+        }
     }
 
     private void computeErrorMetrics() throws TimeConvertException, MmtcException, TextProductException {
@@ -74,6 +88,7 @@ public class TimeCorrelationAncillaryOperations {
 
         try {
             // these SPICE calls will use the currently-loaded SCLK kernel, which will be the 'prior' one once this run finishes
+            TimeConvert.countSpiceCalls(2);
             double estimatedEtUsingPriorCorrelation  = CSPICE.sct2e(ctx.config.getNaifSpacecraftId(), actualEncSclk);
             double estimatedTdtUsingPriorCorrelation = CSPICE.unitim(estimatedEtUsingPriorCorrelation, "ET", "TDT");
             return (estimatedTdtUsingPriorCorrelation - actualTdt) * TimeConvert.MSEC_PER_SECOND;
@@ -83,40 +98,19 @@ public class TimeCorrelationAncillaryOperations {
         }
     }
 
-    private void retrieveSpacecraftStateValues() throws MmtcException {
-        final TelemetrySource tlmSource = ctx.telemetrySource;
-        final FrameSample targetSample = ctx.correlation.target.get().getTargetSample();
-
-        final String oscillatorId = tlmSource.getActiveOscillatorId(targetSample);
-        ctx.ancillary.oscillator_id.set(oscillatorId);
-
-        final double oscillatorTemperature;
-        if (! oscillatorId.equals("-")) {
-            oscillatorTemperature = tlmSource.getOscillatorTemperature(
-                    ctx.correlation.equivalent_scet_utc_for_tdt_g.get(),
-                    oscillatorId
-            );
-        } else {
-            oscillatorTemperature = Double.NaN;
-        }
-
-        ctx.ancillary.oscillator_temperature_deg_c.set(oscillatorTemperature);
-        ctx.ancillary.active_radio_id.set(
-            tlmSource.getActiveRadioId(targetSample)
-        );
+    private void recordSpacecraftStateValues(AncillaryTelemetryLookups.Results lookupResults) {
+        ctx.ancillary.oscillator_id.set(lookupResults.oscillatorId);
+        ctx.ancillary.oscillator_temperature_deg_c.set(lookupResults.oscillatorTemperature);
+        ctx.ancillary.active_radio_id.set(lookupResults.activeRadioId);
     }
 
-    private void retrieveAndComputeGncParams() throws MmtcException, TimeConvertException {
-        logger.info("Retrieving GNC parameter values and calculating related metrics");
+    private void computeGncParams(TelemetrySource.GncParms gncParms) throws MmtcException, TimeConvertException {
+        logger.info("Calculating metrics related to GNC parameter values");
 
         // create local refs for brevity throughout the rest of this method
         final TimeCorrelationRunConfig config = ctx.config;
-        final TelemetrySource tlmSource = ctx.telemetrySource;
-        // final FrameSample targetSample = ctx.correlation.target.get().getTargetSample();
         final TimeCorrelationTarget tcTarget = ctx.correlation.target.get();
 
-        final TelemetrySource.GncParms gncParms = tlmSource.getGncTkParms(ctx.correlation.equivalent_scet_utc_for_tdt_g.get(), tcTarget.getTargetSampleTdtG());
-
         ctx.ancillary.gnc.sclk_1.set(gncParms.getSclk1());
         ctx.ancillary.gnc.tdt_1.set(gncParms.getTdt1());
         ctx.ancillary.gnc.clk_change_rate_for_tdt_s.set(gncParms.getClkchgrate1());
@@ -154,6 +148,7 @@ public class TimeCorrelationAncillaryOperations {
     private void computeGeometryValues() throws MmtcException, TimeConvertException {
         logger.info("Computing geometrical (distance & velocity) values");
         final String naifScId = String.valueOf(ctx.config.getNaifSpacecraftId());
+        final EphemerisStates ephemeris = ctx.ephemeris;
 
         double scSunDistKm = Double.NaN;
         double scEarthDistKm = Double.NaN;
@@ -164,16 +159,21 @@ public class TimeCorrelationAncillaryOperations {
         double scSunDistAu = Double.NaN;
         double earthSunDistAu = Double.NaN;
 
+        // all states are evaluated at the epoch of the target sample, which only needs to be computed once
+        final double et = computeTargetSampleEt();
+
         // If in test mode, ephemeris data might not be available, so don't try to compute spacecraft state vectors
         if (ctx.config.isTestMode()) {
             logger.warn("MMTC is operating in test mode. Spacecraft and Earth distance and velocity values will not be computed. They will be recorded as NaN.");
         } else {
-            scSunDistKm = computeDistanceKm(naifScId, "SUN");
-            scEarthDistKm = computeDistanceKm(naifScId, "EARTH");
-            scVelSsbKmS = computeVelocityKmS(naifScId, "SSB");
-            scVelEarthKmS = computeVelocityKmS(naifScId, "EARTH");
+            // the SC-Earth distance and velocity are both derived from the same SC-Earth state
+            scSunDistKm = ephemeris.getDistanceKm(naifScId, "SUN", et);
+            scEarthDistKm = ephemeris.getDistanceKm(naifScId, "EARTH", et);
+            scVelSsbKmS = ephemeris.getVelocityKmS(naifScId, "SSB", et);
+            scVelEarthKmS = ephemeris.getVelocityKmS(naifScId, "EARTH", et);
 
             try {
+                TimeConvert.countSpiceCalls(1);
                 scSunDistAu = CSPICE.convrt(scSunDistKm, "KM", "AU");
             } catch (SpiceErrorException ex) {
                 logger.warn("Unable to convert SC-Sun distance to AU: " + ex.getMessage());
@@ -182,10 +182,11 @@ public class TimeCorrelationAncillaryOperations {
         }
 
         // Compute the Earth-Sun state vectors.
-        earthVelSsbKmS = computeVelocityKmS("EARTH", "SSB");
-        earthSunDistKm = computeDistanceKm("EARTH", "SUN");
+        earthVelSsbKmS = ephemeris.getVelocityKmS("EARTH", "SSB", et);
+        earthSunDistKm = ephemeris.getDistanceKm("EARTH", "SUN", et);
 
         try {
+            TimeConvert.countSpiceCalls(1);
             earthSunDistAu = CSPICE.convrt(earthSunDistKm, "KM", "AU");
         } catch (SpiceErrorException e) {
             throw new MmtcException("Could not convert Earth-Sun distance from km to AU", e);
@@ -229,27 +230,16 @@ public class TimeCorrelationAncillaryOperations {
 
 
     /**
-     * Compute the state vector for a given target body relative to an
-     * observer.
-     *
-     * The J2000 reference frame is used and no aberration correction is applied.
+     * Compute the ephemeris time of the target sample's SCLK, at which all geometry values for this run are evaluated.
      *
-     * @param target the SPICE target as a string
-     * @param observer the SPICE observer as a string
-     * @return the position and velocity of the target relative to the observer
+     * @return the ET of the target sample
      * @throws TimeConvertException if a computation error occurred
-     * @throws MmtcException if the state vector could not be computed
      */
-    private double[] computeTargetState(String target, String observer) throws TimeConvertException, MmtcException {
+    private double computeTargetSampleEt() throws TimeConvertException {
         final TimeCorrelationRunConfig config = ctx.config;
         final FrameSample targetSample = ctx.correlation.target.get().getTargetSample();
 
-        final String corr = "NONE";               // Aberration correction
-        final String ref = "J2000";               // Reference frame
-        double[] state = new double[6];     // State vector; [0, 2] is dist, [3, 5] is velocity
-        double[] lightTime = new double[1]; // OWLT between observer and target in seconds
-
-        double et = TimeConvert.sclkToEt(
+        return TimeConvert.sclkToEt(
                 config.getNaifSpacecraftId(),
                 config.getSclkPartition(TimeConvert.parseIsoDoyUtcStr(targetSample.getErtStr())),
                 targetSample.getTkSclkCoarse(),
@@ -258,61 +248,5 @@ public class TimeCorrelationAncillaryOperations {
                         .multiply(new BigDecimal(ctx.sclk_kernel_fine_tick_modulus.get()))
                         .intValue()
         );
-
-        try {
-            CSPICE.spkezr(target, et, ref, corr, observer, state, lightTime);
-            return state;
-        } catch (SpiceErrorException ex) {
-            throw new MmtcException("Unable to compute state vector: " + ex.getMessage(), ex);
-        }
-    }
-
-    /**
-     * Get the distance between two bodies.
-     *
-     * @param target the SPICE target as a string
-     * @param observer the SPICE observer as a string
-     * @return the distance between the two objects in km
-     * @throws TimeConvertException if a computation could not be performed
-     * @throws MmtcException if the target distance could not be computed
-     */
-    private double computeDistanceKm(String target, String observer) throws TimeConvertException, MmtcException {
-        double[] state;
-        double dist;
-
-        try {
-            state = computeTargetState(target, observer);
-            dist = CSPICE.vnorm(Arrays.copyOfRange(state, 0, 3));
-        }
-        catch (SpiceErrorException ex) {
-            throw new MmtcException("Unable to compute distance: " + target + " to " + observer + ": " + ex.getMessage(), ex);
-        }
-
-        return dist;
-    }
-
-
-    /**
-     * Get the velocity of a target body relative to an observer.
-     *
-     * @param target the SPICE target as a string
-     * @param observer the SPICE observer as a string
-     * @return the target's velocity in km/s
-     * @throws TimeConvertException if a computation could not be performed
-     * @throws MmtcException if the velocity vector could not be computed
-     */
-    private double computeVelocityKmS(String target, String observer) throws TimeConvertException, MmtcException {
-        double[] state;
-        double vel;
-
-        try {
-            state = computeTargetState(target, observer);
-            vel = CSPICE.vnorm(Arrays.copyOfRange(state, 3, 6));
-        }
-        catch (SpiceErrorException ex) {
-            throw new MmtcException("Unable to compute velocity: " + target + " to " + observer + ": " + ex.getMessage(), ex);
-        }
-
-        return vel;
     }
 }
@@ -1,16 +1,26 @@
 package edu.jhuapl.sd.sig.mmtc.app;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.math.BigDecimal;
 
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationCliInputConfig;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
 import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
 import edu.jhuapl.sd.sig.mmtc.filter.ContactFilter;
 import edu.jhuapl.sd.sig.mmtc.filter.TimeCorrelationFilter;
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics;
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetricsSummaryFile;
+import edu.jhuapl.sd.sig.mmtc.metrics.StageTimer;
+import edu.jhuapl.sd.sig.mmtc.metrics.jfr.FlightRecording;
+import edu.jhuapl.sd.sig.mmtc.metrics.jfr.OutputProductWriteEvent;
 import edu.jhuapl.sd.sig.mmtc.products.definition.OutputProductDefinition;
 import edu.jhuapl.sd.sig.mmtc.products.definition.SclkKernelProductDefinition;
 import edu.jhuapl.sd.sig.mmtc.products.definition.util.ProductWriteResult;
@@ -21,6 +31,7 @@ import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
 import edu.jhuapl.sd.sig.mmtc.tlm.selection.SamplingTelemetrySelectionStrategy;
 import edu.jhuapl.sd.sig.mmtc.tlm.selection.WindowingTelemetrySelectionStrategy;
 import edu.jhuapl.sd.sig.mmtc.tlm.selection.TelemetrySelectionStrategy;
+import edu.jhuapl.sd.sig.mmtc.util.ResidentSpiceKernels;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
 
@@ -29,6 +40,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
 import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static edu.jhuapl.sd.sig.mmtc.metrics.CorrelationMetricNames.*;
 
 /**
  * <p><strong>The Multi-Mission Time Correlation System (MMTC)</strong></p>
@@ -40,13 +52,16 @@ import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
  */
 public class TimeCorrelationApp {
     private static final Logger logger = LogManager.getLogger();
+    private static final DateTimeFormatter FLIGHT_RECORDING_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-DDD'T'HH-mm-ss.SSS'Z'");
 
     private final TimeCorrelationRunConfig config;
     private final TimeCorrelationContext ctx;
     private final boolean managingTlmSourceConnection;
+    private final Optional<ResidentSpiceKernels> residentSpiceKernels;
 
     private RunHistoryFile runHistoryFile;
     private TableRecord newRunHistoryFileRecord;
+    private Optional<FlightRecording> flightRecording = Optional.empty();
 
     // This is the SCLK modulus (i.e., fine time ticks per second) related to FrameSample.tkSclkFine.
     // It is used to compute TF Offset for use in clock change rate calculations.
@@ -57,25 +72,95 @@ public class TimeCorrelationApp {
     private int sclk_kernel_fine_tick_modulus = -1;
 
     public TimeCorrelationApp(String... args) throws Exception {
+        this(loadConfig(), args);
+    }
+
+    /**
+     * Creates a correlation run from CLI arguments, atop an already-loaded configuration snapshot.  The run manages its
+     * own telemetry source connection, as when constructed from CLI arguments alone.
+     *
+     * @param loadedConfig the already-loaded configuration
+     * @param args the correlation command's CLI arguments
+     * @throws Exception if initialization fails
+     */
+    public TimeCorrelationApp(MmtcConfig loadedConfig, String... args) throws Exception {
         try {
-            this.config = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig(args));
+            this.config = TimeCorrelationRunConfig.withSnapshotTlmSource(new TimeCorrelationCliInputConfig(args), loadedConfig);
             this.ctx = new TimeCorrelationContext(config);
-            init();
+            this.residentSpiceKernels = Optional.empty();
+            init(Optional.empty());
 
             this.managingTlmSourceConnection = true;
             this.config.getTelemetrySource().connect();
         } catch (Exception e) {
+            finishFlightRecording();
             throw new MmtcException("MMTC correlation initialization failed.", e);
         }
     }
 
     public TimeCorrelationApp(TimeCorrelationRunConfig config) throws MmtcException {
+        this(config, Optional.empty());
+    }
+
+    /**
+     * Creates a correlation run whose telemetry source connection is managed by the caller, optionally loading its
+     * SPICE kernels through a set of kernels kept loaded between runs in this process.
+     *
+     * @param config the configuration for this run
+     * @param residentSpiceKernels if present, the kernels kept loaded between runs, which are updated to those this run
+     *                             requires and left loaded afterward
+     * @throws MmtcException if initialization fails
+     */
+    public TimeCorrelationApp(TimeCorrelationRunConfig config, Optional<ResidentSpiceKernels> residentSpiceKernels) throws MmtcException {
+        try {
+            this.config = config;
+            this.ctx = new TimeCorrelationContext(config);
+            this.residentSpiceKernels = residentSpiceKernels;
+            init(Optional.empty());
+
+            this.managingTlmSourceConnection = false;
+        } catch (Exception e) {
+            finishFlightRecording();
+            throw new MmtcException("MMTC correlation initialization failed.", e);
+        }
+    }
+
+    /**
+     * Creates a correlation run that directly follows a prior run in this process (as in a replay), whose telemetry
+     * source connection is managed by the caller.  If the prior run's new SCLK kernel is this run's input SCLK kernel,
+     * that kernel and the prior run's Run History File are carried over from memory instead of being re-read from disk;
+     * otherwise, this run initializes as usual.
+     *
+     * @param config the configuration for this run
+     * @param residentSpiceKernels the kernels kept loaded between runs, which are updated to those this run requires
+     *                             and left loaded afterward
+     * @param priorRun the prior run, which must have completed successfully
+     * @throws MmtcException if initialization fails
+     */
+    public TimeCorrelationApp(TimeCorrelationRunConfig config, ResidentSpiceKernels residentSpiceKernels, TimeCorrelationApp priorRun) throws MmtcException {
         try {
             this.config = config;
             this.ctx = new TimeCorrelationContext(config);
-            init();
+            this.residentSpiceKernels = Optional.of(residentSpiceKernels);
+            init(Optional.of(priorRun));
 
             this.managingTlmSourceConnection = false;
+        } catch (Exception e) {
+            finishFlightRecording();
+            throw new MmtcException("MMTC correlation initialization failed.", e);
+        }
+    }
+
+    /**
+     * @return the context of this run, which holds the results of the run so far, even if it did not complete
+     */
+    public TimeCorrelationContext getContext() {
+        return ctx;
+    }
+
+    private static MmtcConfig loadConfig() throws MmtcException {
+        try {
+            return new MmtcConfig();
         } catch (Exception e) {
             throw new MmtcException("MMTC correlation initialization failed.", e);
         }
@@ -84,21 +169,47 @@ public class TimeCorrelationApp {
     /**
      * Initialize the time correlation application by loading configuration and
      * the specified SPICE kernels. Load the SCLK kernel separately.
+     *
+     * @param priorRun a prior run in this process whose written products this run may carry over, if any
      */
-    private void init() throws Exception {
+    private void init(Optional<TimeCorrelationApp> priorRun) throws Exception {
+        startFlightRecording();
+
+        try (RunMetrics.Binding metricsBinding = ctx.metrics.bindToCurrentThread(); StageTimer initTimer = ctx.metrics.time(STAGE_INIT)) {
+            doInit(priorRun);
+        }
+    }
+
+    private void doInit(Optional<TimeCorrelationApp> priorRun) throws Exception {
         config.validate();
 
-        new BuiltInOutputProductMigrationManager(config).assertExistingProductsDoNotRequireMigration();
+        // the prior run has already checked the products it built on, and written its own with this version of MMTC
+        final boolean carryOverPriorRun = priorRun.isPresent() && canCarryOver(priorRun.get());
+        if (! carryOverPriorRun) {
+            new BuiltInOutputProductMigrationManager(config).assertExistingProductsDoNotRequireMigration();
+        }
 
-        logger.debug("Loading SPICE library");
-        TimeConvert.loadSpiceLib();
-        TimeConvert.loadSpiceKernels(config.getKernelsToLoad());
+        try (StageTimer spiceLoadTimer = ctx.metrics.time(STAGE_SPICE_LOAD)) {
+            logger.debug("Loading SPICE library");
+            TimeConvert.loadSpiceLib();
+            if (residentSpiceKernels.isPresent()) {
+                residentSpiceKernels.get().load(config.getKernelsToLoad());
+            } else {
+                TimeConvert.loadSpiceKernels(config.getKernelsToLoad());
+            }
+        }
 
         logger.info("SPICE kernels loaded:\n" + String.join("\n", TimeConvert.getLoadedKernelNames()));
 
         {
-            SclkKernel currentSclkKernel = new SclkKernel(config.getInputSclkKernelPath().toString());
-            logger.info("Loaded SCLK kernel: " + currentSclkKernel.getPath() + ".");
+            final SclkKernel currentSclkKernel;
+            if (carryOverPriorRun) {
+                currentSclkKernel = SclkKernel.fromWrittenKernel(priorRun.get().ctx.newSclkKernel.get());
+                logger.info("Carried over SCLK kernel from the prior run: " + currentSclkKernel.getPath() + ".");
+            } else {
+                currentSclkKernel = new SclkKernel(config.getInputSclkKernelPath().toString());
+                logger.info("Loaded SCLK kernel: " + currentSclkKernel.getPath() + ".");
+            }
 
             // Check that the SCLK is a 2-stage clock. Only 2-stage clocks are currently supported. The number of
             // stages is given in the SCLK01_N_FIELDS_nnn field of the SCLK Kernel.
@@ -108,12 +219,18 @@ public class TimeCorrelationApp {
                         "ERROR: SCLK Kernel variable SCLK01_N_FIELDS_nnn indicates an SCLK with %d stages. Only 2-stage clocks are supported by MMTC.", numSclkStages
                 ));
             }
-            currentSclkKernel.readSourceProduct();
+            if (! carryOverPriorRun) {
+                currentSclkKernel.readSourceProduct();
+            }
             ctx.currentSclkKernel.set(currentSclkKernel);
         }
 
-        runHistoryFile = new RunHistoryFile(config.getRunHistoryFilePath(), config.getAllOutputProductDefs());
-        runHistoryFile.updateRowsForNewProducts();
+        if (carryOverPriorRun) {
+            runHistoryFile = priorRun.get().runHistoryFile;
+        } else {
+            runHistoryFile = new RunHistoryFile(config.getRunHistoryFilePath(), config.getAllOutputProductDefs());
+            runHistoryFile.updateRowsForNewProducts();
+        }
         newRunHistoryFileRecord = new TableRecord(runHistoryFile.getHeaders());
         if (!ctx.config.isDryRun()) {
             recordRunHistoryFilePreRunValues();
@@ -128,6 +245,23 @@ public class TimeCorrelationApp {
         ctx.sclk_kernel_fine_tick_modulus.set(sclk_kernel_fine_tick_modulus);
     }
 
+    /**
+     * Determines whether this run can carry over the products written by a prior run in this process: only if the prior
+     * run wrote the SCLK kernel that is this run's input SCLK kernel, and both runs share a Run History File.
+     *
+     * @param priorRun a prior run in this process
+     * @return true if this run can carry over the prior run's SCLK kernel and Run History File, false otherwise
+     * @throws MmtcException if this run's input SCLK kernel could not be determined
+     */
+    private boolean canCarryOver(TimeCorrelationApp priorRun) throws MmtcException {
+        if (priorRun.config.isDryRun() || ! priorRun.ctx.newSclkKernelPath.isSet()) {
+            return false;
+        }
+
+        return priorRun.ctx.newSclkKernelPath.get().toAbsolutePath().normalize().equals(config.getInputSclkKernelPath().toAbsolutePath().normalize())
+                && priorRun.config.getRunHistoryFilePath().toAbsolutePath().normalize().equals(config.getRunHistoryFilePath().toAbsolutePath().normalize());
+    }
+
     private TimeCorrelationTarget selectSampleSetAndTimeCorrelationTarget() throws MmtcException {
         final TelemetrySource tlmSource = config.getTelemetrySource();
         final TelemetrySelectionStrategy tlmSelecStrat;
@@ -147,7 +281,25 @@ public class TimeCorrelationApp {
         }
 
         logger.info(USER_NOTICE, "Querying and filtering for valid telemetry...");
-        return tlmSelecStrat.get(this::processFilters);
+        final AtomicInteger numRejectedSampleSets = new AtomicInteger();
+        try (StageTimer selectTargetTimer = ctx.metrics.time(STAGE_SELECT_TARGET)) {
+            return tlmSelecStrat.get(candidate -> {
+                ctx.metrics.increment(COUNT_SAMPLE_SETS_EVALUATED);
+                final boolean passed;
+                try (StageTimer filtersTimer = ctx.metrics.time(STAGE_FILTERS)) {
+                    passed = processFilters(candidate);
+                }
+                if (! passed) {
+                    numRejectedSampleSets.incrementAndGet();
+                    ctx.metrics.increment(COUNT_SAMPLE_SETS_REJECTED);
+                }
+                return passed;
+            });
+        } finally {
+            // recorded even if no valid sample set was found, as the count of rejected sample sets explains why
+            logger.info(String.format("%d candidate sample set(s) failed a filter", numRejectedSampleSets.get()));
+            ctx.correlation.rejected_sample_set_count.set(numRejectedSampleSets.get());
+        }
     }
 
     /**
@@ -163,10 +315,16 @@ public class TimeCorrelationApp {
         // Apply all 'regular' filters
         for (Map.Entry<String, TimeCorrelationFilter> entry : config.getFilters().entrySet()) {
             String filterName = entry.getValue().getClass().getSimpleName();
-            if (entry.getValue().process(tcTarget.getSampleSet(), config)) {
+            final boolean passed;
+            try (StageTimer filterTimer = ctx.metrics.time(filterStage(filterName))) {
+                passed = entry.getValue().process(tcTarget.getSampleSet(), config);
+            }
+
+            if (passed) {
                 logger.info(USER_NOTICE, "The candidate sample set passed the " + filterName);
             } else {
                 logger.warn(USER_NOTICE, "The candidate sample set failed the " + filterName);
+                ctx.metrics.increment(filterRejectionCount(filterName));
                 return false;
             }
         }
@@ -195,10 +353,16 @@ public class TimeCorrelationApp {
                 contactFilter.setTdt_g_previous(lookBackRec[SclkKernel.TRIPLET_TDTG_FIELD_INDEX]);
                 contactFilter.setTdt_g_current(tcTarget.getTargetSampleTdtG());
 
-                if (contactFilter.process(tcTarget.getTargetSample(), config, sclk_kernel_fine_tick_modulus)) {
+                final boolean passed;
+                try (StageTimer filterTimer = ctx.metrics.time(filterStage(ContactFilter.class.getSimpleName()))) {
+                    passed = contactFilter.process(tcTarget.getTargetSample(), config, sclk_kernel_fine_tick_modulus);
+                }
+
+                if (passed) {
                     logger.info(USER_NOTICE, "The candidate sample passed the ContactFilter.");
                 } else {
                     logger.warn(USER_NOTICE, "The candidate sample failed the ContactFilter.");
+                    ctx.metrics.increment(filterRejectionCount(ContactFilter.class.getSimpleName()));
                     return false;
                 }
             }
@@ -419,15 +583,76 @@ public class TimeCorrelationApp {
     }
 
     public TimeCorrelationContext run() throws Exception {
-        try {
-            return doRun();
+        try (RunMetrics.Binding metricsBinding = ctx.metrics.bindToCurrentThread()) {
+            try (StageTimer runTimer = ctx.metrics.time(STAGE_RUN)) {
+                doRun();
+            }
+
+            reportRunMetrics();
+            return ctx;
         } finally {
+            finishFlightRecording();
+
             if (this.managingTlmSourceConnection) {
                 this.config.getTelemetrySource().disconnect();
             }
         }
     }
 
+    /**
+     * If enabled, starts a flight recording of this run.  A recording that can't be started is logged, but doesn't
+     * fail the run.
+     */
+    private void startFlightRecording() {
+        if (config.isFlightRecordingEnabled()) {
+            try {
+                flightRecording = Optional.of(FlightRecording.start("MMTC run at " + ctx.appRunTime));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not start a flight recording of this run", e);
+            }
+        }
+    }
+
+    /**
+     * Writes this run's flight recording, if any, to a file named by the run's start time, whether or not the run
+     * succeeded.  A recording that can't be written is logged, but doesn't fail the run.
+     */
+    private void finishFlightRecording() {
+        if (! flightRecording.isPresent()) {
+            return;
+        }
+
+        final Path recordingPath = config.getFlightRecordingDirectory().resolve(String.format("mmtc-run-%s.jfr", FLIGHT_RECORDING_TIMESTAMP_FORMAT.format(ctx.appRunTime)));
+        try {
+            flightRecording.get().dump(recordingPath);
+            logger.info("Wrote flight recording to " + recordingPath);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write flight recording to " + recordingPath, e);
+        } finally {
+            flightRecording.get().close();
+            flightRecording = Optional.empty();
+        }
+    }
+
+    /**
+     * Logs the time spent in each stage of this run, and, if enabled and this run was recorded in the Run History
+     * File, writes the run's metrics to a summary file named by its run ID.  A summary that can't be written is
+     * logged, but doesn't fail the run, which has already been recorded.
+     */
+    private void reportRunMetrics() {
+        logger.info("Run stage timings: " + RunMetricsSummaryFile.summarizeStageTimings(ctx.metrics));
+
+        if (config.isRunMetricsSummaryEnabled() && ! config.isDryRun()) {
+            final Path summaryPath = config.getRunMetricsSummaryDirectory().resolve(String.format("run-%05d-metrics.csv", ctx.runId.get()));
+            try {
+                RunMetricsSummaryFile.write(ctx.metrics, summaryPath);
+                logger.info("Wrote run metrics summary to " + summaryPath);
+            } catch (IOException e) {
+                logger.warn("Could not write run metrics summary to " + summaryPath, e);
+            }
+        }
+    }
+
     /**
      * Perform the new time correlation run
      *
@@ -459,6 +684,10 @@ public class TimeCorrelationApp {
                 logger.warn("Dry run mode is enabled! Only the SCLK kernel will be retained at a separate location; no data products from this run will be kept and will instead be printed to the console and recorded in the log file");
                 break;
             }
+            case DRY_RUN_GENERATE_SCLK_IN_MEMORY_ONLY: {
+                logger.warn("Dry run mode is enabled! Only the SCLK kernel will be generated, in memory; no data products from this run will be kept and will instead be printed to the console and recorded in the log file");
+                break;
+            }
             default: throw new IllegalStateException("Unexpected dry run config: " + config.getDryRunConfig().mode);
         }
 
@@ -516,7 +745,7 @@ public class TimeCorrelationApp {
         ensureIncreasingTdtAndSclkCorrelationValues(ctx);
 
         // Determine clock change rate mode, and calculate the appropriate rate(s)
-        {
+        try (StageTimer clockChangeRateTimer = ctx.metrics.time(STAGE_CLOCK_CHANGE_RATE)) {
             final int curr_sclk_coarse = tcTarget.getTargetSample().getTkSclkCoarse();
             final double curr_tdt_g = tcTarget.getTargetSampleTdtG();
             final double predictedClockChangeRate;
@@ -568,7 +797,9 @@ public class TimeCorrelationApp {
         }
 
         // Perform all ancillary post-correlation operations
-        new TimeCorrelationAncillaryOperations(ctx).perform();
+        try (StageTimer ancillaryOperationsTimer = ctx.metrics.time(STAGE_ANCILLARY_OPERATIONS)) {
+            new TimeCorrelationAncillaryOperations(ctx).perform();
+        }
 
         // Write or log all output products
         ctx.newSclkVersionString.set(getNextSclkKernelVersionString());
@@ -576,25 +807,36 @@ public class TimeCorrelationApp {
             final String postRunColProdColName = RunHistoryFile.getPostRunProductColNameFor(prodDef);
 
             if (prodDef.shouldBeWritten(ctx)) {
-                switch(ctx.config.getDryRunConfig().mode) {
-                    case NOT_DRY_RUN: {
-                        final ProductWriteResult res = prodDef.write(ctx);
-                        newRunHistoryFileRecord.setValue(postRunColProdColName, res.newVersion);
-                        break;
-                    }
-                    case DRY_RUN_RETAIN_NO_PRODUCTS: {
-                        // Log/print output products instead of writing them to files
-                        final String productPrintout = prodDef.getDryRunPrintout(ctx);
-                        logger.info(USER_NOTICE, productPrintout);
-                        break;
-                    }
-                    case DRY_RUN_GENERATE_SEPARATE_SCLK_ONLY: {
-                        // Intentionally skip all processing for other output products, and only write the SCLK kernel to a special path
-                        if (prodDef.getName().equals(SclkKernelProductDefinition.PRODUCT_NAME)) {
-                            SclkKernelProductDefinition sclkKernelProdDef = (SclkKernelProductDefinition) prodDef;
-                            sclkKernelProdDef.writeToAlternatePath(ctx, ctx.config.getDryRunConfig().sclkKernelOutputPath);
+                try (StageTimer writeTimer = ctx.metrics.time(writeProductStage(prodDef.getName()));
+                     OutputProductWriteEvent writeEvent = OutputProductWriteEvent.begin(prodDef.getName(), ctx.config.getDryRunConfig().mode.name())) {
+                    switch(ctx.config.getDryRunConfig().mode) {
+                        case NOT_DRY_RUN: {
+                            final ProductWriteResult res = prodDef.write(ctx);
+                            newRunHistoryFileRecord.setValue(postRunColProdColName, res.newVersion);
+                            break;
+                        }
+                        case DRY_RUN_RETAIN_NO_PRODUCTS: {
+                            // Log/print output products instead of writing them to files
+                            final String productPrintout = prodDef.getDryRunPrintout(ctx);
+                            logger.info(USER_NOTICE, productPrintout);
+                            break;
+                        }
+                        case DRY_RUN_GENERATE_SEPARATE_SCLK_ONLY: {
+                            // Intentionally skip all processing for other output products, and only write the SCLK kernel to a special path
+                            if (prodDef.getName().equals(SclkKernelProductDefinition.PRODUCT_NAME)) {
+                                SclkKernelProductDefinition sclkKernelProdDef = (SclkKernelProductDefinition) prodDef;
+                                sclkKernelProdDef.writeToAlternatePath(ctx, ctx.config.getDryRunConfig().sclkKernelOutputPath);
+                            }
+                            break;
+                        }
+                        case DRY_RUN_GENERATE_SCLK_IN_MEMORY_ONLY: {
+                            // As above, but the SCLK kernel's contents are only retained in ctx.newSclkKernel
+                            if (prodDef.getName().equals(SclkKernelProductDefinition.PRODUCT_NAME)) {
+                                SclkKernelProductDefinition sclkKernelProdDef = (SclkKernelProductDefinition) prodDef;
+                                sclkKernelProdDef.generateInMemory(ctx);
+                            }
+                            break;
                         }
-                        break;
                     }
                 }
             } else {
@@ -604,7 +846,9 @@ public class TimeCorrelationApp {
 
         // Update run history file if this isn't a dry run. If it is, delete the previously created temp SCLK kernel.
         if (! ctx.config.isDryRun()) {
-            runHistoryFile.writeRecord(newRunHistoryFileRecord);
+            try (StageTimer runHistoryTimer = ctx.metrics.time(STAGE_WRITE_RUN_HISTORY)) {
+                runHistoryFile.writeRecord(newRunHistoryFileRecord);
+            }
             logger.info(USER_NOTICE, "Appended a new entry to Run History File located at " + runHistoryFile.getPath());
             logger.info(String.format("Run at %s recorded to %s", ctx.appRunTime, config.getRunHistoryFilePath().toString()));
         }
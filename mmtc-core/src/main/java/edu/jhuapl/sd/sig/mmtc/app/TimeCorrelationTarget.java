@@ -5,6 +5,7 @@ import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationMetricsConfig;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
 import edu.jhuapl.sd.sig.mmtc.util.Owlt;
+import edu.jhuapl.sd.sig.mmtc.util.OwltService;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
 
@@ -18,6 +19,7 @@ public class TimeCorrelationTarget {
     private final FrameSample targetSample;
     private final TimeCorrelationMetricsConfig config;
     private final int tk_sclk_fine_tick_modulus;
+    private final OwltService owltService;
 
     // computed values, assigned in `computeCorrelationValues` below
     private String groundStationId;
@@ -30,10 +32,19 @@ public class TimeCorrelationTarget {
     private Double tdtG;
 
     public TimeCorrelationTarget(List<FrameSample> sampleSet, TimeCorrelationMetricsConfig config, int tk_sclk_fine_tick_modulus) throws MmtcException {
+        this(sampleSet, config, tk_sclk_fine_tick_modulus, null);
+    }
+
+    /**
+     * @param owltService if non-null, the service used to compute the target frame's OWLT, which may interpolate it
+     *                    within the service's tolerance; if null, the OWLT is computed exactly
+     */
+    public TimeCorrelationTarget(List<FrameSample> sampleSet, TimeCorrelationMetricsConfig config, int tk_sclk_fine_tick_modulus, OwltService owltService) throws MmtcException {
         this.sampleSet = sampleSet;
         this.targetSample = sampleSet.get(sampleSet.size() / 2);
         this.tk_sclk_fine_tick_modulus = tk_sclk_fine_tick_modulus;
         this.config = config;
+        this.owltService = owltService;
 
         try {
             computeCorrelationValues();
@@ -53,8 +64,10 @@ public class TimeCorrelationTarget {
         if (config.isTestMode()) {
             owlt = config.getTestModeOwlt();
         } else {
-            int gsNaifId = TimeConvert.nameToNaifId(groundStationId);
-            owlt = Owlt.getDownlinkOwlt(gsNaifId, config.getNaifSpacecraftId(), stationErtEt);
+            int gsNaifId = config.getStationNaifId(targetSample.getPathId());
+            owlt = owltService != null
+                    ? owltService.getDownlinkOwlt(gsNaifId, config.getNaifSpacecraftId(), stationErtEt)
+                    : Owlt.getDownlinkOwlt(gsNaifId, config.getNaifSpacecraftId(), stationErtEt);
         }
 
         // Convert the SCLK to encoded SCLK. The fine part of the SCLK is set to zero.
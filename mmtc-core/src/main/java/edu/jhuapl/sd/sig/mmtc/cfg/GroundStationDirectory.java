@@ -0,0 +1,193 @@
+package edu.jhuapl.sd.sig.mmtc.cfg;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A precompiled view of the Ground Station Map and the ground station filter's path IDs, built once per configuration
+ * load so that the per-frame lookups of a correlation are array accesses rather than map lookups, configuration reads,
+ * and string parsing.
+ * <p>
+ * Each path ID known to either the map or the filter is given a slot.  When the path IDs span a small range, as they
+ * do for DSN path IDs, a path ID's slot is its offset from the smallest path ID; otherwise, slots are assigned through
+ * a hash map.
+ * </p>
+ */
+public class GroundStationDirectory {
+    // the largest range of path IDs whose slots are assigned by offset rather than by hash map
+    private static final int MAX_DENSE_PATH_ID_SPAN = 1 << 16;
+
+    /**
+     * A ground station listed in the Ground Station Map.
+     */
+    public static class Station {
+        private final int pathId;
+        private final String stationId;
+        private final String stationName;
+
+        // the station's NAIF ID, and the kernel pool generation it was resolved in
+        private volatile ResolvedNaifId resolvedNaifId;
+
+        private Station(int pathId, String stationId, String stationName) {
+            this.pathId = pathId;
+            this.stationId = stationId;
+            this.stationName = stationName;
+        }
+
+        public int getPathId() {
+            return pathId;
+        }
+
+        public String getStationId() {
+            return stationId;
+        }
+
+        public String getStationName() {
+            return stationName;
+        }
+
+        /**
+         * Gets the NAIF ID of the station, as TimeConvert.nameToNaifId would for its station ID.  The ID is resolved
+         * with SPICE only the first time it is requested after the kernel pool changes, as a kernel may define or
+         * redefine station names.
+         *
+         * @return the station's NAIF ID code
+         * @throws TimeConvertException if the NAIF ID could not be determined
+         */
+        public int getNaifId() throws TimeConvertException {
+            final long kernelPoolGeneration = TimeConvert.getKernelPoolGeneration();
+
+            final ResolvedNaifId resolved = resolvedNaifId;
+            if (resolved != null && resolved.kernelPoolGeneration == kernelPoolGeneration) {
+                return resolved.naifId;
+            }
+
+            final int naifId = TimeConvert.nameToNaifId(stationId);
+            resolvedNaifId = new ResolvedNaifId(naifId, kernelPoolGeneration);
+            return naifId;
+        }
+    }
+
+    private static class ResolvedNaifId {
+        private final int naifId;
+        private final long kernelPoolGeneration;
+
+        private ResolvedNaifId(int naifId, long kernelPoolGeneration) {
+            this.naifId = naifId;
+            this.kernelPoolGeneration = kernelPoolGeneration;
+        }
+    }
+
+    private final int minPathId;
+    private final Map<Integer, Integer> sparseSlots;
+
+    private final Station[] stationsBySlot;
+    private final BitSet filterPathIdSlots;
+
+    // if the ground station filter's path IDs could not be parsed, the error to raise when the filter is applied
+    private final NumberFormatException filterPathIdError;
+
+    /**
+     * Builds the directory.
+     *
+     * @param groundStationMap the loaded Ground Station Map
+     * @param filterPathIds the path IDs accepted by the ground station filter, as read from configuration
+     */
+    GroundStationDirectory(GroundStationMap groundStationMap, String[] filterPathIds) {
+        final Set<Integer> filterPathIdSet = new TreeSet<>();
+        NumberFormatException parseError = null;
+        try {
+            for (String filterPathId : filterPathIds) {
+                filterPathIdSet.add(Integer.parseInt(filterPathId));
+            }
+        } catch (NumberFormatException e) {
+            // only a problem if the ground station filter is used, where it is reported as before
+            parseError = e;
+            filterPathIdSet.clear();
+        }
+        this.filterPathIdError = parseError;
+
+        final TreeSet<Integer> allPathIds = new TreeSet<>(groundStationMap.getPathIds());
+        allPathIds.addAll(filterPathIdSet);
+
+        if (allPathIds.isEmpty() || (long) allPathIds.last() - allPathIds.first() < MAX_DENSE_PATH_ID_SPAN) {
+            this.minPathId = allPathIds.isEmpty() ? 0 : allPathIds.first();
+            this.sparseSlots = null;
+            this.stationsBySlot = new Station[allPathIds.isEmpty() ? 0 : allPathIds.last() - minPathId + 1];
+        } else {
+            this.minPathId = 0;
+            this.sparseSlots = new HashMap<>();
+            for (int pathId : allPathIds) {
+                sparseSlots.put(pathId, sparseSlots.size());
+            }
+            this.stationsBySlot = new Station[allPathIds.size()];
+        }
+
+        for (int pathId : groundStationMap.getPathIds()) {
+            try {
+                stationsBySlot[slotOf(pathId)] = new Station(pathId, groundStationMap.getStationId(pathId), groundStationMap.getStationName(pathId));
+            } catch (MmtcException e) {
+                // every path ID read from the map is in it
+                throw new IllegalStateException(e);
+            }
+        }
+
+        this.filterPathIdSlots = new BitSet(stationsBySlot.length);
+        for (int pathId : filterPathIdSet) {
+            filterPathIdSlots.set(slotOf(pathId));
+        }
+    }
+
+    /**
+     * @param pathId a path ID
+     * @return the path ID's slot, or -1 if the path ID is in neither the Ground Station Map nor the ground station filter
+     */
+    private int slotOf(int pathId) {
+        if (sparseSlots != null) {
+            final Integer slot = sparseSlots.get(pathId);
+            return slot == null ? -1 : slot;
+        }
+
+        final long slot = (long) pathId - minPathId;
+        return slot >= 0 && slot < stationsBySlot.length ? (int) slot : -1;
+    }
+
+    /**
+     * Retrieve the station corresponding to the provided path ID.
+     *
+     * @param pathId the path ID
+     * @return the station mapped to the provided path ID
+     * @throws MmtcException if the path ID is not in the Ground Station Map
+     */
+    public Station getStation(int pathId) throws MmtcException {
+        final int slot = slotOf(pathId);
+        final Station station = slot < 0 ? null : stationsBySlot[slot];
+        if (station == null) {
+            throw new MmtcException("Ground station Path ID " + pathId + " not found in ground stations map file.");
+        }
+        return station;
+    }
+
+    /**
+     * Check whether the provided path ID is one of those accepted by the ground station filter.
+     *
+     * @param pathId the path ID
+     * @return true if the ground station filter accepts the path ID, false otherwise
+     * @throws NumberFormatException if the ground station filter's configured path IDs could not be parsed
+     */
+    public boolean isAcceptedByGroundStationFilter(int pathId) {
+        if (filterPathIdError != null) {
+            throw filterPathIdError;
+        }
+
+        final int slot = slotOf(pathId);
+        return slot >= 0 && filterPathIdSlots.get(slot);
+    }
+}
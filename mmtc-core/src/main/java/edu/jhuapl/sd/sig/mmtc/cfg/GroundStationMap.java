@@ -14,8 +14,10 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -81,6 +83,13 @@ class GroundStationMap extends AbstractConfig {
         return true;
     }
 
+    /**
+     * @return the path IDs listed in the ground station map file
+     */
+    Set<Integer> getPathIds() {
+        return Collections.unmodifiableSet(records.keySet());
+    }
+
     /**
      * Retrieve the station ID corresponding to the provided path ID.
      *
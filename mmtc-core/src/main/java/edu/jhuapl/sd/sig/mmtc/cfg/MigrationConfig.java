@@ -5,7 +5,18 @@ import org.apache.commons.cli.*;
 
 public class MigrationConfig extends MmtcConfig {
     public MigrationConfig(String... args) throws Exception {
-        super();
+        this(new MmtcConfig(), args);
+    }
+
+    /**
+     * Creates a migration configuration atop an already-loaded configuration snapshot.
+     *
+     * @param config the already-loaded configuration
+     * @param args the migrate command's CLI arguments
+     * @throws Exception if the arguments are invalid
+     */
+    public MigrationConfig(MmtcConfig config, String... args) throws Exception {
+        super(config);
 
         final Options opts = new Options();
         opts.addOption("h", "help", false, "Print this message.");
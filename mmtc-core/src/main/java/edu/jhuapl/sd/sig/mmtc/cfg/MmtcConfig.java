@@ -4,12 +4,12 @@ import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -46,9 +46,16 @@ import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
  *
  * Functions in this class provide access to each item in the TimeCorrelationConfigProperties.xml
  * configuration parameters file.
+ *
+ * An instance constructed with {@link #MmtcConfig()} is a snapshot of the configuration as loaded from disk, which is
+ * not modified afterward.  Command-specific configurations (e.g. {@link RollbackConfig} or
+ * {@link TimeCorrelationRunConfig}) can be layered atop an already-loaded snapshot via their constructors that accept
+ * one, in which case they share the snapshot's parsed configuration files, output product plugins, and telemetry
+ * source rather than loading their own.
  */
 public class MmtcConfig {
     private static final String BASE_CONFIG_FILENAME = "TimeCorrelationConfigProperties-base.xml";
+    private static final String GROUND_STATION_FILTER_PATH_IDS_KEY = "filter.groundStation.pathIds";
     private static final Set<String> BUILT_IN_TLM_SOURCES = new HashSet<>(Collections.singletonList("rawTlmTable"));
 
     public static final List<ClockChangeRateMode> CLOCK_CHANGE_RATE_ASSIGN_MODES = Arrays.asList(ClockChangeRateMode.ASSIGN, ClockChangeRateMode.ASSIGN_KEY);
@@ -59,18 +66,36 @@ public class MmtcConfig {
     protected final Path mmtcHome;
     protected final TimeCorrelationConfig timeCorrelationConfig;
     protected final List<OutputProductDefinition<?>> allProductDefs;
+    protected final GroundStationMap groundStationMap;
+    protected final GroundStationDirectory groundStationDirectory;
+    protected final SclkPartitionMap sclkPartitionMap;
 
-    protected GroundStationMap groundStationMap;
-    protected SclkPartitionMap sclkPartitionMap;
+    // the telemetry source, discovered upon first use and shared by all configurations created from the same snapshot
+    private final AtomicReference<TelemetrySource> discoveredTlmSource;
 
     private static final Logger logger = LogManager.getLogger();
 
     public MmtcConfig() throws Exception {
+        this(new TimeCorrelationXmlPropertiesConfig());
+    }
+
+    /**
+     * Loads the configuration in the given directory, rather than in $TK_CONFIG_PATH, such as to load the configuration
+     * of one of several missions correlated in the same process.
+     *
+     * @param configDirectory the directory holding TimeCorrelationConfigProperties.xml
+     * @throws Exception if the configuration could not be loaded
+     */
+    public MmtcConfig(Path configDirectory) throws Exception {
+        this(new TimeCorrelationXmlPropertiesConfig(configDirectory));
+    }
+
+    private MmtcConfig(TimeCorrelationXmlPropertiesConfig timeCorrelationConfig) throws Exception {
         logger.debug("Running on Java " + System.getProperty("java.version"));
         logger.debug("Loading configuration");
 
         this.mmtcHome = Paths.get(System.getenv("MMTC_HOME")).toAbsolutePath();
-        this.timeCorrelationConfig = new TimeCorrelationXmlPropertiesConfig();
+        this.timeCorrelationConfig = timeCorrelationConfig;
 
         if (! timeCorrelationConfig.load()) {
             throw new MmtcException("Error loading " + timeCorrelationConfig.getPath());
@@ -81,6 +106,7 @@ public class MmtcConfig {
             throw new MmtcException("Error loading " + groundStationMap.getPath());
         }
         logger.info("Loaded ground stations map " + groundStationMap.getPath());
+        this.groundStationDirectory = new GroundStationDirectory(groundStationMap, getGroundStationFilterPathIds());
 
         this.sclkPartitionMap = new SclkPartitionMap(getSclkPartitionMapPath());
         if (!sclkPartitionMap.load()) {
@@ -89,14 +115,44 @@ public class MmtcConfig {
         logger.info("Loaded SCLK clock partition map " + sclkPartitionMap.getPath());
 
         this.allProductDefs = Collections.unmodifiableList(constructAllOutputProductDefinitions());
+        this.discoveredTlmSource = new AtomicReference<>();
     }
 
+    /**
+     * Creates a configuration sharing everything already loaded by the given configuration, without reading any
+     * configuration files or discovering any plugins.
+     *
+     * @param config the already-loaded configuration
+     */
     public MmtcConfig(MmtcConfig config) {
         this.mmtcHome = config.mmtcHome;
         this.timeCorrelationConfig = config.timeCorrelationConfig;
         this.groundStationMap = config.groundStationMap;
+        this.groundStationDirectory = config.groundStationDirectory;
+        this.sclkPartitionMap = config.sclkPartitionMap;
+        this.allProductDefs = config.allProductDefs;
+        this.discoveredTlmSource = config.discoveredTlmSource;
+    }
+
+    /**
+     * Creates a configuration sharing everything already loaded by the given configuration, as above, except that the
+     * given keys of TimeCorrelationConfigProperties.xml have different values.  Only keys read afresh on each access
+     * may be overridden; keys that determine what was loaded with the given configuration (e.g. the telemetry source,
+     * output product plugins, or Ground Station and SCLK Partition Maps) keep their loaded values.
+     *
+     * @param config the already-loaded configuration
+     * @param overriddenValues the keys to set, and the values to set them to, parsed as if read from the configuration file
+     */
+    public MmtcConfig(MmtcConfig config, Map<String, String> overriddenValues) {
+        this.mmtcHome = config.mmtcHome;
+        this.timeCorrelationConfig = new OverriddenTimeCorrelationConfig(config.timeCorrelationConfig, overriddenValues);
+        this.groundStationMap = config.groundStationMap;
+        this.groundStationDirectory = overriddenValues.containsKey(GROUND_STATION_FILTER_PATH_IDS_KEY)
+                ? new GroundStationDirectory(groundStationMap, getGroundStationFilterPathIds())
+                : config.groundStationDirectory;
         this.sclkPartitionMap = config.sclkPartitionMap;
         this.allProductDefs = config.allProductDefs;
+        this.discoveredTlmSource = config.discoveredTlmSource;
     }
 
     public Path getConfigFilepath() {
@@ -188,10 +244,8 @@ public class MmtcConfig {
             if (! perJarServiceLoaders.containsKey(pluginJarPath)) {
                 logger.info("Loading output product plugin implementations from {}", pluginJarPath);
 
-                final URL[] urls = { pluginJarPath.toAbsolutePath().toUri().toURL() };
-
                 // not closing this classloader here, because if we did, further classes won't be able to be loaded from the jar file
-                URLClassLoader cl = new IsolatingUrlClassLoader(urls);
+                URLClassLoader cl = IsolatingUrlClassLoader.forPluginJar(pluginJarPath);
                 final ServiceLoader<OutputProductDefinitionFactory> outputProductDefFactoryLoader = ServiceLoader.load(OutputProductDefinitionFactory.class, cl);
                 perJarServiceLoaders.put(pluginJarPath, outputProductDefFactoryLoader);
             }
@@ -271,12 +325,23 @@ public class MmtcConfig {
     }
 
     /**
-     * Use Java ServiceLoader to find and load a telemetry source
+     * Use Java ServiceLoader to find and load a telemetry source.  The telemetry source is only discovered once per
+     * loaded configuration snapshot; subsequent calls, including those from configurations created from this one,
+     * return the same instance.
      *
      * @return the initialized telemetry source
      * @throws Exception if the configured plugin can not be found or initialized
      */
     protected TelemetrySource initTlmSource() throws Exception {
+        synchronized (discoveredTlmSource) {
+            if (discoveredTlmSource.get() == null) {
+                discoveredTlmSource.set(discoverTlmSource());
+            }
+            return discoveredTlmSource.get();
+        }
+    }
+
+    private TelemetrySource discoverTlmSource() throws Exception {
         TelemetrySource tlmSource = null;
 
         if (BUILT_IN_TLM_SOURCES.contains(getTelemetrySourceName())) {
@@ -296,10 +361,8 @@ public class MmtcConfig {
             // load tlm plugin from an external jar
             logger.info("Loading telemetry source implementation from {}", pluginJarPath);
 
-            final URL[] urls = { pluginJarPath.toAbsolutePath().toUri().toURL() };
-
             // not closing this classloader here, because if we did, further classes won't be able to be loaded from the jar file
-            URLClassLoader cl = new IsolatingUrlClassLoader(urls);
+            URLClassLoader cl = IsolatingUrlClassLoader.forPluginJar(pluginJarPath);
             final ServiceLoader<TelemetrySource> tlmSourceLoader = ServiceLoader.load(TelemetrySource.class, cl);
 
             for (TelemetrySource tlmSourceCandidate : tlmSourceLoader) {
@@ -345,7 +408,20 @@ public class MmtcConfig {
      * @throws MmtcException if the ground station is not found
      */
     public String getStationId(int pathId) throws MmtcException {
-        return groundStationMap.getStationId(pathId);
+        return groundStationDirectory.getStation(pathId).getStationId();
+    }
+
+    /**
+     * Retrieves the NAIF ID of the ground station associated with a path ID, resolving it with SPICE only the first
+     * time it is needed after the loaded kernels change.
+     *
+     * @param pathId the path ID
+     * @return the NAIF ID of the ground station
+     * @throws MmtcException if the ground station is not found
+     * @throws TimeConvertException if the station's NAIF ID could not be determined
+     */
+    public int getStationNaifId(int pathId) throws MmtcException, TimeConvertException {
+        return groundStationDirectory.getStation(pathId).getNaifId();
     }
 
     /**
@@ -359,6 +435,16 @@ public class MmtcConfig {
         return sclkPartitionMap.getSclkPartition(groundReceiptTime);
     }
 
+    /**
+     * Creates a cursor for determining the SCLK partitions of a run of ERTs, as {@link #getSclkPartition(OffsetDateTime)}
+     * does, which is fastest when the ERTs are in time order.
+     *
+     * @return a new cursor over the SCLK Partition Map
+     */
+    public SclkPartitionMap.Cursor newSclkPartitionCursor() {
+        return sclkPartitionMap.newCursor();
+    }
+
     /**
      * Gets the name of the mission from configuration parameters.
      * @return the name of the mission as a string
@@ -625,7 +711,17 @@ public class MmtcConfig {
      * @return the list of ground station IDs
      */
     public String[] getGroundStationFilterPathIds() {
-        return timeCorrelationConfig.getConfig().getStringArray("filter.groundStation.pathIds");
+        return timeCorrelationConfig.getConfig().getStringArray(GROUND_STATION_FILTER_PATH_IDS_KEY);
+    }
+
+    /**
+     * Checks whether data received via the given path ID may be used for time correlation, per the ground station filter.
+     * @param pathId the path ID
+     * @return true if the path ID is one of the ground station filter's path IDs
+     * @throws NumberFormatException if the ground station filter's path IDs are not all integers
+     */
+    public boolean isGroundStationFilterPathId(int pathId) {
+        return groundStationDirectory.isAcceptedByGroundStationFilter(pathId);
     }
 
     /**
@@ -996,6 +1092,86 @@ public class MmtcConfig {
         }
     }
 
+    /**
+     * Get the path of the file through which a running MMTC daemon advertises the local port it is listening on, and
+     * the token that clients must present to it.  If unset, defaults to a dotfile in the same directory as the lock
+     * file.
+     *
+     * @return the path of the daemon endpoint file
+     */
+    public Path getDaemonEndpointFileLocation() {
+        if (containsKey("daemon.endpointFile.path")) {
+            return Paths.get(getString("daemon.endpointFile.path"));
+        } else {
+            return getLockFileLocation().resolveSibling(".mmtc_daemon");
+        }
+    }
+
+    /**
+     * Get the loopback port on which the MMTC daemon listens for commands.  If unset, defaults to 0, such that the
+     * daemon listens on any free port, which it advertises in its endpoint file.
+     *
+     * @return the port on which the daemon listens
+     * @throws MmtcException if the configured value is not a valid port
+     */
+    public int getDaemonPort() throws MmtcException {
+        final int val = timeCorrelationConfig.getConfig().getInt("daemon.port", 0);
+        if (val < 0 || val > 65535) {
+            throw new MmtcException("The config key 'daemon.port' must have a value between 0 and 65535.");
+        }
+        return val;
+    }
+
+    /**
+     * Get whether a summary of each correlation run's stage timings, counters, and histograms is written alongside
+     * the run's Run History File entry.  If unset, defaults to false.
+     *
+     * @return true if run metrics summaries should be written, false otherwise
+     */
+    public boolean isRunMetricsSummaryEnabled() {
+        return timeCorrelationConfig.getConfig().getBoolean("metrics.runSummary.enabled", false);
+    }
+
+    /**
+     * Get the directory into which run metrics summaries are written, one file per run, named by the run's ID.  If
+     * unset, defaults to a new directory named 'run-metrics', created within the same directory as the Run History
+     * File.
+     *
+     * @return the path of the run metrics summary directory
+     */
+    public Path getRunMetricsSummaryDirectory() {
+        if (containsKey("metrics.runSummary.directory")) {
+            return Paths.get(getString("metrics.runSummary.directory"));
+        } else {
+            return getRunHistoryFilePath().getParent().resolve("run-metrics");
+        }
+    }
+
+    /**
+     * Get whether a Java Flight Recording of each correlation run, including MMTC's SPICE call, telemetry fetch, and
+     * output product write events, is written for the duration of the run.  If unset, defaults to false.
+     *
+     * @return true if flight recordings should be written, false otherwise
+     */
+    public boolean isFlightRecordingEnabled() {
+        return timeCorrelationConfig.getConfig().getBoolean("metrics.flightRecording.enabled", false);
+    }
+
+    /**
+     * Get the directory into which flight recordings are written, one file per run, named by the run's start time.
+     * If unset, defaults to a new directory named 'flight-recordings', created within the same directory as the Run
+     * History File.
+     *
+     * @return the path of the flight recording directory
+     */
+    public Path getFlightRecordingDirectory() {
+        if (containsKey("metrics.flightRecording.directory")) {
+            return Paths.get(getString("metrics.flightRecording.directory"));
+        } else {
+            return getRunHistoryFilePath().getParent().resolve("flight-recordings");
+        }
+    }
+
     // todo upgrade this to use Linux's file locking facilities to provide an actual guarantee
     public synchronized void acquireLockFile() throws MmtcException {
         final Path lockFile = getLockFileLocation();
@@ -1199,6 +1375,33 @@ public class MmtcConfig {
         return timeCorrelationConfig.getConfig().getInt("telemetry.tkParmWindowSec", 600);
     }
 
+    /**
+     * Get whether the ancillary telemetry lookups made after each correlation (active oscillator & its temperature,
+     * active radio, and GNC parameters) are issued concurrently with each other and with the geometry computations.
+     * If unset, defaults to true.  Lookups are only made concurrently if the telemetry source also declares that it
+     * supports concurrent queries.
+     *
+     * @return true if ancillary telemetry lookups should be made concurrently, false otherwise
+     */
+    public boolean isConcurrentAncillaryTelemetryLookupEnabled() {
+        return timeCorrelationConfig.getConfig().getBoolean("telemetry.ancillary.concurrentLookups.enabled", true);
+    }
+
+    /**
+     * Get the maximum number of seconds to wait for each concurrent ancillary telemetry lookup to complete.  If unset,
+     * defaults to 600 seconds (10 minutes.)
+     *
+     * @return the timeout in seconds
+     * @throws MmtcException if the configured value is not a positive integer
+     */
+    public int getAncillaryTelemetryLookupTimeoutSec() throws MmtcException {
+        final int val = timeCorrelationConfig.getConfig().getInt("telemetry.ancillary.lookupTimeoutSec", 600);
+        if (val < 1) {
+            throw new MmtcException("The config key 'telemetry.ancillary.lookupTimeoutSec' must have a value of 1 or greater.");
+        }
+        return val;
+    }
+
     /**
      * Gets the full file specification (directory/name) of the input Ground Stations Map file.
      * @return the ground station map file path
@@ -1352,6 +1555,62 @@ public class MmtcConfig {
         return timeCorrelationConfig.getConfig().getInt("telemetry.sampleSetBuildingStrategy.sampling.samplingRateMinutes");
     }
 
+    /**
+     * Get the number of query ranges beyond the one being evaluated that the sampling sample set building strategy
+     * queries the telemetry source for concurrently, in the background.  If unset, defaults to 0, such that each query
+     * range is queried only once the previous one has been evaluated.  Only takes effect for telemetry sources that
+     * declare support for concurrent queries.
+     *
+     * @return the number of query ranges to query ahead of the one being evaluated
+     * @throws MmtcException if the configured value is negative
+     */
+    public int getSamplingSampleSetBuildingStrategyPrefetchedQueries() throws MmtcException {
+        final int val = timeCorrelationConfig.getConfig().getInt("telemetry.sampleSetBuildingStrategy.sampling.prefetchedQueries", 0);
+        if (val < 0) {
+            throw new MmtcException("The config key 'telemetry.sampleSetBuildingStrategy.sampling.prefetchedQueries' must have a value of 0 or greater.");
+        }
+        return val;
+    }
+
+    /**
+     * Get whether the windowing sample set building strategies read telemetry newest-first, one frame at a time, and
+     * stop reading as soon as they find a candidate sample set that passes all filters, rather than retrieving and
+     * validating all telemetry within the query interval up front.  If unset, defaults to false.
+     *
+     * @return true if the windowing strategies should stream telemetry, false otherwise
+     */
+    public boolean isStreamingWindowingSampleSetBuildingStrategyEnabled() {
+        return timeCorrelationConfig.getConfig().getBoolean("telemetry.sampleSetBuildingStrategy.windowing.streaming.enabled", false);
+    }
+
+    /**
+     * Get whether the windowing sample set building strategies query the telemetry source for progressively older,
+     * exponentially growing chunks of the query interval, newest first, and stop querying as soon as they find a
+     * candidate sample set that passes all filters, rather than querying the whole interval at once.  Takes precedence
+     * over streaming (see {@link #isStreamingWindowingSampleSetBuildingStrategyEnabled()}.)  If unset, defaults to false.
+     *
+     * @return true if the windowing strategies should query telemetry progressively, false otherwise
+     */
+    public boolean isProgressiveWindowingSampleSetBuildingStrategyEnabled() {
+        return timeCorrelationConfig.getConfig().getBoolean("telemetry.sampleSetBuildingStrategy.windowing.progressive.enabled", false);
+    }
+
+    /**
+     * Get the duration in minutes of the first, most recent chunk of the query interval that the windowing sample set
+     * building strategies query when querying progressively; each older chunk is twice as long as the last.  If unset,
+     * defaults to 60 minutes.
+     *
+     * @return the duration of the first chunk, in minutes
+     * @throws MmtcException if the configured value is not a positive integer
+     */
+    public int getProgressiveWindowingSampleSetBuildingStrategyInitialChunkMinutes() throws MmtcException {
+        final int val = timeCorrelationConfig.getConfig().getInt("telemetry.sampleSetBuildingStrategy.windowing.progressive.initialChunkMinutes", 60);
+        if (val < 1) {
+            throw new MmtcException("The config key 'telemetry.sampleSetBuildingStrategy.windowing.progressive.initialChunkMinutes' must have a value of 1 or greater.");
+        }
+        return val;
+    }
+
     public enum ClockChangeRateMode {
         COMPUTE_INTERPOLATE,
         COMPUTE_PREDICT,
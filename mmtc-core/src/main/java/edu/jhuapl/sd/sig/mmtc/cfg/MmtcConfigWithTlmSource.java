@@ -13,11 +13,35 @@ public abstract class MmtcConfigWithTlmSource extends MmtcConfig {
         this.telemetrySource = this.initTlmSource();
     }
 
+    /**
+     * Creates a configuration atop an already-loaded configuration snapshot, using the snapshot's telemetry source
+     * (which is discovered now, if it has not been already).
+     *
+     * @param config the already-loaded configuration
+     * @throws Exception if the configured telemetry source can not be found or initialized
+     */
+    public MmtcConfigWithTlmSource(MmtcConfig config) throws Exception {
+        super(config);
+        this.telemetrySource = this.initTlmSource();
+    }
+
     public MmtcConfigWithTlmSource(MmtcConfigWithTlmSource config) {
         super(config);
         this.telemetrySource = config.telemetrySource;
     }
 
+    /**
+     * Creates a configuration atop an already-loaded configuration snapshot, using the given telemetry source instead of
+     * the snapshot's.
+     *
+     * @param config the already-loaded configuration
+     * @param telemetrySource the telemetry source to use, which has already been configured
+     */
+    protected MmtcConfigWithTlmSource(MmtcConfig config, TelemetrySource telemetrySource) {
+        super(config);
+        this.telemetrySource = telemetrySource;
+    }
+
     public TelemetrySource getTelemetrySource() {
         return telemetrySource;
     }
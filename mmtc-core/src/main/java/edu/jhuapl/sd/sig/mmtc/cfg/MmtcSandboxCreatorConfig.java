@@ -12,7 +12,18 @@ public class MmtcSandboxCreatorConfig extends MmtcConfig {
     private final Path newSandboxPath;
 
     public MmtcSandboxCreatorConfig(String... args) throws Exception {
-        super();
+        this(new MmtcConfig(), args);
+    }
+
+    /**
+     * Creates a sandbox creation configuration atop an already-loaded configuration snapshot.
+     *
+     * @param config the already-loaded configuration
+     * @param args the create-sandbox command's CLI arguments
+     * @throws Exception if the arguments are invalid or the telemetry source can not be initialized
+     */
+    public MmtcSandboxCreatorConfig(MmtcConfig config, String... args) throws Exception {
+        super(config);
         this.telemetrySource = this.initTlmSource();
 
         final Options opts = new Options();
@@ -0,0 +1,142 @@
+package edu.jhuapl.sd.sig.mmtc.cfg;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import org.apache.commons.cli.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The configuration for correlating several missions in a single process.  The correlations to run are read from a
+ * missions file, one per line, each given as the name of a mission, the directory holding that mission's configuration
+ * (as would otherwise be given by $TK_CONFIG_PATH), and the arguments to 'mmtc correlation'.  Each mission's
+ * correlations are run in the order they are listed.
+ */
+public class MultiMissionConfig {
+    /**
+     * A mission to correlate, and the correlations to run for it.
+     */
+    public static class Mission {
+        public final String name;
+        public final Path configDirectory;
+        private final List<String[]> correlationArgs = new ArrayList<>();
+
+        Mission(String name, Path configDirectory) {
+            this.name = name;
+            this.configDirectory = configDirectory;
+        }
+
+        /**
+         * @return the arguments of each correlation to run, as they would be given to 'mmtc correlation', in order
+         */
+        public List<String[]> getCorrelationArgs() {
+            return Collections.unmodifiableList(correlationArgs);
+        }
+    }
+
+    private final List<Mission> missions;
+    private final int maxConcurrentMissions;
+
+    /**
+     * @param args the multi-mission command's CLI arguments
+     * @throws MmtcException if the arguments or missions file are invalid
+     */
+    public MultiMissionConfig(String... args) throws Exception {
+        final Options opts = new Options();
+        opts.addOption(Option.builder().longOpt("missions-file").hasArg().argName("path").desc("Run the correlations listed in this file, one per line, each given as a mission name, the mission's configuration directory, and the arguments to 'mmtc correlation'.  Blank lines and lines beginning with '#' are ignored.").build());
+        opts.addOption(Option.builder().longOpt("max-concurrent-missions").hasArg().argName("n").desc("The maximum number of missions to correlate concurrently.  Defaults to the number of missions.").build());
+        opts.addOption("h", "help", false, "Print this message.");
+
+        final CommandLineParser parser = new DefaultParser();
+        final CommandLine cmdLine = parser.parse(opts, args);
+
+        if (cmdLine.hasOption("h") || cmdLine.hasOption("help")) {
+            final HelpFormatter help = new HelpFormatter();
+            final String helpFooter = "\nCorrelates several missions in a single MMTC process, sharing the SPICE kernels common to all missions.  " +
+                    "Each mission's correlations run in the order they are listed, while different missions' correlations run concurrently.  " +
+                    "Each mission must have its own configuration directory, output products, and lock file.";
+            help.printHelp("mmtc multi-mission --missions-file <path> [--max-concurrent-missions <n>]", "", opts, helpFooter);
+            System.exit(0);
+        }
+
+        if (! cmdLine.hasOption("missions-file")) {
+            throw new MmtcException("Error parsing command line arguments: --missions-file must be given.");
+        }
+
+        if (! cmdLine.getArgList().isEmpty()) {
+            throw new MmtcException("Error parsing command line arguments: unexpected arguments " + cmdLine.getArgList() + "; correlation arguments must be given in the missions file.");
+        }
+
+        this.missions = Collections.unmodifiableList(readMissionsFile(Paths.get(cmdLine.getOptionValue("missions-file"))));
+
+        if (cmdLine.hasOption("max-concurrent-missions")) {
+            this.maxConcurrentMissions = Integer.parseInt(cmdLine.getOptionValue("max-concurrent-missions"));
+            if (maxConcurrentMissions < 1) {
+                throw new MmtcException("The maximum number of concurrent missions must be at least 1.");
+            }
+        } else {
+            this.maxConcurrentMissions = missions.size();
+        }
+    }
+
+    private static List<Mission> readMissionsFile(Path missionsFile) throws MmtcException {
+        final List<String> lines;
+        try {
+            lines = Files.readAllLines(missionsFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MmtcException("Unable to read missions file: " + missionsFile, e);
+        }
+
+        final Map<String, Mission> missionsByName = new LinkedHashMap<>();
+        for (String line : lines) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            final String[] fields = trimmed.split("\\s+");
+            if (fields.length < 3) {
+                throw new MmtcException("Invalid line in missions file (expected <mission name> <config directory> <correlation arguments>): " + trimmed);
+            }
+
+            final String name = fields[0];
+            final Path configDirectory = Paths.get(fields[1]).toAbsolutePath().normalize();
+
+            final Mission mission = missionsByName.computeIfAbsent(name, n -> new Mission(n, configDirectory));
+            if (! mission.configDirectory.equals(configDirectory)) {
+                throw new MmtcException(String.format("Mission %s is listed with more than one configuration directory: %s and %s", name, mission.configDirectory, configDirectory));
+            }
+
+            mission.correlationArgs.add(Arrays.copyOfRange(fields, 2, fields.length));
+        }
+
+        if (missionsByName.isEmpty()) {
+            throw new MmtcException("No correlations were listed in the missions file: " + missionsFile);
+        }
+
+        return new ArrayList<>(missionsByName.values());
+    }
+
+    /**
+     * @return the missions to correlate, in the order they were first listed
+     */
+    public List<Mission> getMissions() {
+        return missions;
+    }
+
+    /**
+     * @return the maximum number of missions to correlate concurrently
+     */
+    public int getMaxConcurrentMissions() {
+        return maxConcurrentMissions;
+    }
+}
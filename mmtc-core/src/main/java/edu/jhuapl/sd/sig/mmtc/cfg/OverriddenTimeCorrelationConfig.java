@@ -0,0 +1,45 @@
+package edu.jhuapl.sd.sig.mmtc.cfg;
+
+import org.apache.commons.configuration2.XMLPropertiesConfiguration;
+import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+
+import java.util.Map;
+
+/**
+ * Provides the time correlation properties of an already-loaded configuration, with some of its keys set to different
+ * values.  The loaded configuration is copied once, on construction, and neither copy is modified afterward.
+ */
+class OverriddenTimeCorrelationConfig extends TimeCorrelationConfig {
+    private final XMLPropertiesConfiguration config;
+
+    /**
+     * Create the configuration from the given loaded configuration and overridden values.
+     *
+     * @param loadedConfig the already-loaded configuration
+     * @param overriddenValues the keys to set, and the values to set them to, parsed as if read from the configuration file
+     */
+    OverriddenTimeCorrelationConfig(TimeCorrelationConfig loadedConfig, Map<String, String> overriddenValues) {
+        super(loadedConfig.getPath());
+
+        this.config = new XMLPropertiesConfiguration();
+        this.config.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        this.config.copy(loadedConfig.getConfig());
+        overriddenValues.forEach(this.config::setProperty);
+    }
+
+    /**
+     * The configuration is already loaded, on construction.
+     *
+     * @return true
+     */
+    public boolean load() {
+        return true;
+    }
+
+    /**
+     * @return the properties configuration object
+     */
+    XMLPropertiesConfiguration getConfig() {
+        return config;
+    }
+}
@@ -0,0 +1,151 @@
+package edu.jhuapl.sd.sig.mmtc.cfg;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import org.apache.commons.cli.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The configuration for replaying a sequence of correlations in a single process.  Each correlation in the sequence is
+ * described by the arguments it would be given to 'mmtc correlation', which are either read from a targets file or
+ * generated from a series of consecutive target ERT windows.
+ */
+public class ReplayConfig extends MmtcConfigWithTlmSource {
+    private final List<String[]> correlationArgs;
+    private final boolean keepGoing;
+
+    public ReplayConfig(String... args) throws Exception {
+        this(new MmtcConfig(), args);
+    }
+
+    /**
+     * Creates a replay configuration atop an already-loaded configuration snapshot.
+     *
+     * @param config the already-loaded configuration
+     * @param args the replay command's CLI arguments
+     * @throws Exception if the arguments or targets file are invalid, or the telemetry source can not be initialized
+     */
+    public ReplayConfig(MmtcConfig config, String... args) throws Exception {
+        super(config);
+
+        final Options opts = new Options();
+        opts.addOption(Option.builder().longOpt("targets-file").hasArg().argName("path").desc("Replay the correlations listed in this file, one per line, each given as the arguments to 'mmtc correlation'.  Blank lines and lines beginning with '#' are ignored.").build());
+        opts.addOption(Option.builder().longOpt("start").hasArg().argName("time").desc("Replay correlations over consecutive target ERT windows, beginning at this time.").build());
+        opts.addOption(Option.builder().longOpt("stop").hasArg().argName("time").desc("Replay correlations over consecutive target ERT windows, ending at this time.").build());
+        opts.addOption(Option.builder().longOpt("interval-hours").hasArg().argName("hours").desc("The length of each target ERT window between --start and --stop.").build());
+        opts.addOption(Option.builder().longOpt("keep-going").desc("Continue replaying subsequent correlations after a correlation fails.").build());
+        opts.addOption("h", "help", false, "Print this message.");
+
+        // stop at the first argument that isn't a replay option; the remainder are correlation options applied to every correlation
+        final CommandLineParser parser = new DefaultParser();
+        final CommandLine cmdLine = parser.parse(opts, args, true);
+
+        if (cmdLine.hasOption("h") || cmdLine.hasOption("help")) {
+            final HelpFormatter help = new HelpFormatter();
+            final String helpFooter = "\nRuns a sequence of correlations in order, in a single MMTC process, building each on the output products of the last.  " +
+                    "Replay options must precede any correlation options, which are applied to every correlation in the sequence.  " +
+                    "Either --targets-file, or all of --start, --stop, and --interval-hours, must be given.";
+            help.printHelp("mmtc replay (--targets-file <path> | --start <time> --stop <time> --interval-hours <hours>) [correlation options]", "", opts, helpFooter);
+            System.exit(0);
+        }
+
+        final List<String> commonCorrelationArgs = cmdLine.getArgList();
+        final boolean hasSeriesOptions = cmdLine.hasOption("start") || cmdLine.hasOption("stop") || cmdLine.hasOption("interval-hours");
+
+        if (cmdLine.hasOption("targets-file") && ! hasSeriesOptions) {
+            correlationArgs = readTargetsFile(Paths.get(cmdLine.getOptionValue("targets-file")), commonCorrelationArgs);
+        } else if (! cmdLine.hasOption("targets-file") && cmdLine.hasOption("start") && cmdLine.hasOption("stop") && cmdLine.hasOption("interval-hours")) {
+            correlationArgs = generateSeries(
+                    CorrelationCommandLineConfig.formDateTime(cmdLine.getOptionValue("start")),
+                    CorrelationCommandLineConfig.formDateTime(cmdLine.getOptionValue("stop")),
+                    Double.parseDouble(cmdLine.getOptionValue("interval-hours")),
+                    commonCorrelationArgs
+            );
+        } else {
+            throw new MmtcException("Error parsing command line arguments: either --targets-file, or all of --start, --stop, and --interval-hours, must be given.");
+        }
+
+        if (correlationArgs.isEmpty()) {
+            throw new MmtcException("No correlations to replay were given.");
+        }
+
+        keepGoing = cmdLine.hasOption("keep-going");
+
+        this.telemetrySource.applyConfiguration(this);
+    }
+
+    private static List<String[]> readTargetsFile(Path targetsFile, List<String> commonCorrelationArgs) throws MmtcException {
+        final List<String> lines;
+        try {
+            lines = Files.readAllLines(targetsFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MmtcException("Unable to read replay targets file: " + targetsFile, e);
+        }
+
+        final List<String[]> correlationArgs = new ArrayList<>();
+        for (String line : lines) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            final List<String> args = new ArrayList<>(commonCorrelationArgs);
+            args.addAll(Arrays.asList(trimmed.split("\\s+")));
+            correlationArgs.add(args.toArray(new String[0]));
+        }
+
+        return correlationArgs;
+    }
+
+    private static List<String[]> generateSeries(OffsetDateTime start, OffsetDateTime stop, double intervalHours, List<String> commonCorrelationArgs) throws MmtcException {
+        if (! (intervalHours > 0)) {
+            throw new MmtcException("The replay interval must be greater than zero hours.");
+        }
+
+        if (! stop.isAfter(start)) {
+            throw new MmtcException("The replay stop time must be after its start time.");
+        }
+
+        final Duration interval = Duration.ofNanos(Math.round(intervalHours * 3600 * 1e9));
+
+        final List<String[]> correlationArgs = new ArrayList<>();
+        OffsetDateTime windowStart = start;
+        while (windowStart.isBefore(stop)) {
+            final OffsetDateTime windowStop = windowStart.plus(interval).isBefore(stop) ? windowStart.plus(interval) : stop;
+
+            final List<String> args = new ArrayList<>(commonCorrelationArgs);
+            args.add(TimeConvert.timeToIsoUtcString(windowStart));
+            args.add(TimeConvert.timeToIsoUtcString(windowStop));
+            correlationArgs.add(args.toArray(new String[0]));
+
+            windowStart = windowStop;
+        }
+
+        return correlationArgs;
+    }
+
+    /**
+     * @return the arguments of each correlation to replay, as they would be given to 'mmtc correlation', in order
+     */
+    public List<String[]> getCorrelationArgs() {
+        return Collections.unmodifiableList(correlationArgs);
+    }
+
+    /**
+     * @return true if subsequent correlations should still be replayed after a correlation fails, false otherwise
+     */
+    public boolean isKeepGoing() {
+        return keepGoing;
+    }
+}
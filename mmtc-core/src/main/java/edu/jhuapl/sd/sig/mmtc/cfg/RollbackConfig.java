@@ -5,7 +5,18 @@ import org.apache.commons.cli.*;
 
 public class RollbackConfig extends MmtcConfig {
     public RollbackConfig(String... args) throws Exception {
-        super();
+        this(new MmtcConfig(), args);
+    }
+
+    /**
+     * Creates a rollback configuration atop an already-loaded configuration snapshot.
+     *
+     * @param config the already-loaded configuration
+     * @param args the rollback command's CLI arguments
+     * @throws Exception if the arguments are invalid
+     */
+    public RollbackConfig(MmtcConfig config, String... args) throws Exception {
+        super(config);
 
         final Options opts = new Options();
         opts.addOption("h", "help", false, "Print this message.");
@@ -1,6 +1,7 @@
 package edu.jhuapl.sd.sig.mmtc.cfg;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -14,6 +15,8 @@ import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
@@ -31,6 +34,10 @@ import java.util.TreeMap;
  * naturally sorts on the key (partition number). This makes it straightforward
  * to retrieve the "current" partition, which is the map entry with the largest
  * key.
+ * <p>
+ * Partitions are also indexed by their start times, so that the partition in
+ * effect at a given time can be found with a binary search rather than a scan
+ * of every partition.
  * </p>
  */
 public class SclkPartitionMap extends AbstractConfig {
@@ -39,6 +46,12 @@ public class SclkPartitionMap extends AbstractConfig {
 
     private NavigableMap<Integer, OffsetDateTime> partitions;
 
+    // partition start times, in epoch nanoseconds, in ascending order
+    private long[] partitionStartNanos;
+
+    // for each start time above, the largest partition number of those partitions starting at or before it
+    private int[] latestPartitionStartedBy;
+
     private static final Logger logger = LogManager.getLogger();
 
     /**
@@ -77,8 +90,10 @@ public class SclkPartitionMap extends AbstractConfig {
                 logger.error("No entries found in SCLK partition file; at least one entry is required");
                 return false;
             }
+
+            buildStartTimeIndex();
         }
-        catch (IOException | NullPointerException | DateTimeParseException | NumberFormatException ex) {
+        catch (IOException | NullPointerException | DateTimeParseException | NumberFormatException | ArithmeticException ex) {
             logger.error("Could not load SCLK partion map file: " + this.path + "." + ex);
             return false;
         }
@@ -102,25 +117,115 @@ public class SclkPartitionMap extends AbstractConfig {
         }
     }
 
+    /**
+     * Index the loaded partitions by their start times.
+     *
+     * @throws ArithmeticException if a partition's start time is too far from the epoch to be represented in nanoseconds
+     */
+    private void buildStartTimeIndex() {
+        final List<Map.Entry<Integer, OffsetDateTime>> byStartTime = new ArrayList<>(partitions.entrySet());
+        byStartTime.sort(Map.Entry.comparingByValue());
+
+        partitionStartNanos = new long[byStartTime.size()];
+        latestPartitionStartedBy = new int[byStartTime.size()];
+
+        // partition numbers need not increase with start time, so carry forward the largest seen so far
+        int latestPartition = Integer.MIN_VALUE;
+        for (int i = 0; i < byStartTime.size(); i++) {
+            latestPartition = Math.max(latestPartition, byStartTime.get(i).getKey());
+            partitionStartNanos[i] = IsoDoyUtc.toEpochNanos(byStartTime.get(i).getValue());
+            latestPartitionStartedBy[i] = latestPartition;
+        }
+    }
+
+    /**
+     * @param groundReceiptTime a time
+     * @return the number of partitions that start strictly before the given time
+     */
+    private int countPartitionsStartedBefore(OffsetDateTime groundReceiptTime) {
+        final long ertNanos;
+        try {
+            ertNanos = IsoDoyUtc.toEpochNanos(groundReceiptTime);
+        } catch (ArithmeticException e) {
+            // every partition start time is representable in epoch nanoseconds, so the time is outside all of them
+            return groundReceiptTime.toEpochSecond() < 0 ? 0 : partitionStartNanos.length;
+        }
+
+        int low = 0;
+        int high = partitionStartNanos.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (partitionStartNanos[mid] < ertNanos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private int partitionForStartCount(int numPartitionsStarted) {
+        return numPartitionsStarted == 0 ? 1 : latestPartitionStartedBy[numPartitionsStarted - 1];
+    }
+
     /**
      * Retrieve the partition number that immediately precedes provided time.
      * <p>
-     * Since the SCLK partition map is sorted based on key (partition number),
-     * the entry set is searched sequentially for the latest partition that
-     * occurred before the provided GRT.
+     * This is the largest partition number of those partitions that started
+     * before the provided GRT, or partition 1 if no partition started before it.
      *
      * @param groundReceiptTime the ground receipt time
      * @return the partition number that precedes the provided time
      */
     int getSclkPartition(OffsetDateTime groundReceiptTime) {
-        int partition = 1;
+        return partitionForStartCount(countPartitionsStartedBefore(groundReceiptTime));
+    }
+
+    /**
+     * @return a new cursor for looking up the partitions of a run of times
+     */
+    public Cursor newCursor() {
+        return new Cursor();
+    }
 
-        for (Map.Entry<Integer, OffsetDateTime> entry : partitions.entrySet()) {
-            if (entry.getValue().isBefore(groundReceiptTime)) {
-                partition = entry.getKey();
+    /**
+     * Looks up the partitions of a run of times, as {@link #getSclkPartition(OffsetDateTime)} does, remembering the
+     * span of times between the partition start times surrounding the last lookup.  Each lookup of a time within that
+     * span is answered without a search, so a run of times sorted in time order (such as the frames of a telemetry
+     * query) is only searched when it crosses a partition start time.  Times in any order give the same results.
+     * <p>
+     * A Cursor is not thread-safe; each thread should use its own.
+     */
+    public class Cursor {
+        // the partition in effect for times after spanStartNanos and up to and including spanEndNanos
+        private long spanStartNanos = Long.MAX_VALUE;
+        private long spanEndNanos = Long.MIN_VALUE;
+        private int spanPartition;
+
+        private Cursor() { }
+
+        /**
+         * @param groundReceiptTime the ground receipt time
+         * @return the partition number that precedes the provided time
+         */
+        public int getSclkPartition(OffsetDateTime groundReceiptTime) {
+            final long ertNanos = IsoDoyUtc.toEpochNanosSaturated(groundReceiptTime);
+            if (ertNanos > spanStartNanos && ertNanos <= spanEndNanos) {
+                return spanPartition;
             }
-        }
 
-        return partition;
+            final int numPartitionsStarted = countPartitionsStartedBefore(groundReceiptTime);
+            final int partition = partitionForStartCount(numPartitionsStarted);
+
+            // saturated times are never within a span, and are always searched
+            if (ertNanos != Long.MIN_VALUE && ertNanos != Long.MAX_VALUE) {
+                spanStartNanos = numPartitionsStarted == 0 ? Long.MIN_VALUE : partitionStartNanos[numPartitionsStarted - 1];
+                spanEndNanos = numPartitionsStarted == partitionStartNanos.length ? Long.MAX_VALUE - 1 : partitionStartNanos[numPartitionsStarted];
+                spanPartition = partition;
+            }
+
+            return partition;
+        }
     }
 }
@@ -0,0 +1,182 @@
+package edu.jhuapl.sd.sig.mmtc.cfg;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.tlm.MemoizingTelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import org.apache.commons.cli.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The configuration for a sweep, which evaluates a single correlation under each combination of a grid of alternate
+ * configuration values, without writing any output products.  The correlation is described by the arguments it would be
+ * given to 'mmtc correlation', and the grid by one or more configuration keys, each with a list of values to try.
+ */
+public class SweepConfig extends MmtcConfigWithTlmSource {
+    // only keys that affect how a correlation is computed, rather than what is loaded or where products are written, can be varied
+    private static final List<String> VARIABLE_KEY_PREFIXES = Arrays.asList(
+            "filter.",
+            "compute.",
+            "telemetry.samplesPerSet",
+            "telemetry.supplementalSampleOffset",
+            "telemetry.sampleSetBuildingStrategy"
+    );
+
+    private final String[] correlationArgs;
+    private final List<Map<String, String>> variations;
+    private final int numThreads;
+    private final MemoizingTelemetrySource memoizingTelemetrySource;
+
+    public SweepConfig(String... args) throws Exception {
+        this(new MmtcConfig(), args);
+    }
+
+    /**
+     * Creates a sweep configuration atop an already-loaded configuration snapshot.
+     *
+     * @param config the already-loaded configuration
+     * @param args the sweep command's CLI arguments
+     * @throws Exception if the arguments are invalid, or the telemetry source can not be initialized
+     */
+    public SweepConfig(MmtcConfig config, String... args) throws Exception {
+        super(config);
+
+        final Options opts = new Options();
+        opts.addOption(Option.builder().longOpt("vary").hasArg().argName("key=values").desc("A configuration key to vary, and a comma-separated list of the values to evaluate it at.  May be given more than once, in which case every combination of the given values is evaluated.").build());
+        opts.addOption(Option.builder().longOpt("threads").hasArg().argName("n").desc("The maximum number of variations to evaluate concurrently.  Defaults to the number of available processors.").build());
+        opts.addOption("h", "help", false, "Print this message.");
+
+        // stop at the first argument that isn't a sweep option; the remainder are the arguments of the correlation to evaluate
+        final CommandLineParser parser = new DefaultParser();
+        final CommandLine cmdLine = parser.parse(opts, args, true);
+
+        if (cmdLine.hasOption("h") || cmdLine.hasOption("help")) {
+            final HelpFormatter help = new HelpFormatter();
+            final String helpFooter = "\nEvaluates a correlation under every combination of the given configuration values, and logs a table comparing the results.  " +
+                    "No output products are written.  Sweep options must precede the correlation's arguments.  " +
+                    "Only keys beginning with " + String.join(", ", VARIABLE_KEY_PREFIXES) + " may be varied.";
+            help.printHelp("mmtc sweep --vary <key=values> [--vary <key=values> ...] [--threads <n>] <correlation arguments>", "", opts, helpFooter);
+            System.exit(0);
+        }
+
+        if (! cmdLine.hasOption("vary")) {
+            throw new MmtcException("Error parsing command line arguments: at least one --vary option must be given.");
+        }
+
+        this.correlationArgs = cmdLine.getArgList().toArray(new String[0]);
+        this.variations = Collections.unmodifiableList(expandGrid(parseVariedValues(cmdLine.getOptionValues("vary"))));
+
+        if (cmdLine.hasOption("threads")) {
+            this.numThreads = Integer.parseInt(cmdLine.getOptionValue("threads"));
+            if (numThreads < 1) {
+                throw new MmtcException("The number of sweep threads must be at least 1.");
+            }
+        } else {
+            this.numThreads = Runtime.getRuntime().availableProcessors();
+        }
+
+        this.telemetrySource.applyConfiguration(this);
+        this.memoizingTelemetrySource = new MemoizingTelemetrySource(this.telemetrySource);
+    }
+
+    private static Map<String, List<String>> parseVariedValues(String[] varyArgs) throws MmtcException {
+        final Map<String, List<String>> variedValues = new LinkedHashMap<>();
+
+        for (String varyArg : varyArgs) {
+            final int separatorIndex = varyArg.indexOf('=');
+            if (separatorIndex < 1 || separatorIndex == varyArg.length() - 1) {
+                throw new MmtcException("Invalid --vary option (expected <key>=<value>[,<value>...]): " + varyArg);
+            }
+
+            final String key = varyArg.substring(0, separatorIndex).trim();
+            if (VARIABLE_KEY_PREFIXES.stream().noneMatch(key::startsWith)) {
+                throw new MmtcException(String.format("Configuration key %s cannot be varied in a sweep; only keys beginning with %s may be varied.", key, String.join(", ", VARIABLE_KEY_PREFIXES)));
+            }
+
+            if (variedValues.containsKey(key)) {
+                throw new MmtcException("Configuration key " + key + " was given more than once; please list all of its values in a single --vary option.");
+            }
+
+            final List<String> values = new ArrayList<>();
+            for (String value : varyArg.substring(separatorIndex + 1).split(",")) {
+                values.add(value.trim());
+            }
+            variedValues.put(key, values);
+        }
+
+        return variedValues;
+    }
+
+    /**
+     * Expands the varied values into every combination of them, varying the first-given key slowest.
+     */
+    private static List<Map<String, String>> expandGrid(Map<String, List<String>> variedValues) {
+        List<Map<String, String>> variations = new ArrayList<>();
+        variations.add(new LinkedHashMap<>());
+
+        for (Map.Entry<String, List<String>> variedKey : variedValues.entrySet()) {
+            final List<Map<String, String>> expandedVariations = new ArrayList<>();
+            for (Map<String, String> variation : variations) {
+                for (String value : variedKey.getValue()) {
+                    final Map<String, String> expandedVariation = new LinkedHashMap<>(variation);
+                    expandedVariation.put(variedKey.getKey(), value);
+                    expandedVariations.add(Collections.unmodifiableMap(expandedVariation));
+                }
+            }
+            variations = expandedVariations;
+        }
+
+        return variations;
+    }
+
+    /**
+     * Creates the run configuration for evaluating the correlation under the given variation.  The run generates its
+     * SCLK kernel in memory only, and writes no output products.  All run configurations created by this sweep
+     * configuration share one telemetry source, which retrieves telemetry for each distinct query only once.
+     *
+     * @param variation the configuration values to evaluate the correlation with, in place of those in configuration
+     * @return the run configuration
+     * @throws Exception if the correlation's arguments or the varied configuration values are invalid
+     */
+    public TimeCorrelationRunConfig createRunConfig(Map<String, String> variation) throws Exception {
+        final TimeCorrelationCliInputConfig cliInputConfig = new TimeCorrelationCliInputConfig(correlationArgs);
+        final TimeCorrelationRunConfig.DryRunConfig inMemoryOnly = new TimeCorrelationRunConfig.DryRunConfig(TimeCorrelationRunConfig.DryRunMode.DRY_RUN_GENERATE_SCLK_IN_MEMORY_ONLY, null);
+
+        return new TimeCorrelationRunConfig(
+                additionalTlmSourceOptions -> cliInputConfig.getRunConfigInputs(additionalTlmSourceOptions).withDryRunConfig(inMemoryOnly),
+                new VariationConfig(new MmtcConfig(this, variation), memoizingTelemetrySource)
+        );
+    }
+
+    /**
+     * @return every combination of varied configuration values to evaluate, in order
+     */
+    public List<Map<String, String>> getVariations() {
+        return variations;
+    }
+
+    /**
+     * @return the maximum number of variations to evaluate concurrently
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * @return the telemetry source shared by every variation's run configuration
+     */
+    public MemoizingTelemetrySource getMemoizingTelemetrySource() {
+        return memoizingTelemetrySource;
+    }
+
+    private static class VariationConfig extends MmtcConfigWithTlmSource {
+        VariationConfig(MmtcConfig config, TelemetrySource telemetrySource) {
+            super(config, telemetrySource);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.jhuapl.sd.sig.mmtc.cfg;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
 
 import java.time.OffsetDateTime;
@@ -15,6 +16,10 @@ public interface TimeCorrelationMetricsConfig {
 
     String getStationId(int pathId) throws MmtcException;
 
+    default int getStationNaifId(int pathId) throws MmtcException, TimeConvertException {
+        return TimeConvert.nameToNaifId(getStationId(pathId));
+    }
+
     int getSclkPartition(OffsetDateTime groundReceiptTime);
 
     double getSpacecraftTimeDelaySec();
@@ -78,7 +78,9 @@ public class TimeCorrelationRunConfig extends MmtcConfigWithTlmSource implements
     public enum DryRunMode {
         NOT_DRY_RUN,
         DRY_RUN_RETAIN_NO_PRODUCTS,
-        DRY_RUN_GENERATE_SEPARATE_SCLK_ONLY
+        DRY_RUN_GENERATE_SEPARATE_SCLK_ONLY,
+        // generates the new SCLK kernel's contents into TimeCorrelationContext.newSclkKernel without writing any file
+        DRY_RUN_GENERATE_SCLK_IN_MEMORY_ONLY
     }
 
     public static class DryRunConfig {
@@ -152,24 +154,80 @@ public class TimeCorrelationRunConfig extends MmtcConfigWithTlmSource implements
             this.dryRunConfig = dryRunConfig;
             this.additionalTlmSourceOptions = additionalTlmSourceOptions;
         }
+
+        /**
+         * @param dryRunConfig the dry run configuration to use instead of this one's
+         * @return a copy of these inputs, with the given dry run configuration
+         */
+        public TimeCorrelationRunConfigInputs withDryRunConfig(DryRunConfig dryRunConfig) {
+            return new TimeCorrelationRunConfigInputs(
+                    targetSampleInputErtMode,
+                    targetSampleRangeStartErt,
+                    targetSampleRangeStopErt,
+                    targetSampleExactErt,
+                    priorCorrelationExactTdt,
+                    testModeOwltEnabled,
+                    testModeOwltSec,
+                    clockChangeRateAssignedValue,
+                    clockChangeRateAssignedKey,
+                    clockChangeRateModeOverride,
+                    additionalSmoothingRecordConfigOverride,
+                    isDisableContactFilter,
+                    isCreateUplinkCmdFile,
+                    dryRunConfig,
+                    additionalTlmSourceOptions
+            );
+        }
     }
 
     public TimeCorrelationRunConfig(TimeCorrelationRunConfigInputSupplier runConfigInputSupplier) throws Exception {
-        super();
-        this.runConfigInputs = runConfigInputSupplier.getRunConfigInputs(this.getTelemetrySource().getAdditionalOptions());
-        resolveCalculatedRunConfigInputs();
-        this.telemetrySource.applyConfiguration(this);
-        for (TelemetrySource.ParsedAdditionalOption opt : this.runConfigInputs.additionalTlmSourceOptions) {
-            if (opt.value.isPresent()) {
-                this.telemetrySource.applyOption(opt.name, opt.value.get());
-            }
-        }
+        this(runConfigInputSupplier, new SnapshotTlmSourceConfig(new MmtcConfig()), true);
+    }
+
+    /**
+     * Creates a run configuration atop an already-loaded configuration snapshot, using the snapshot's telemetry source.
+     * The configuration is applied to the telemetry source, as when the run configuration is created from its inputs
+     * alone.
+     *
+     * @param runConfigInputSupplier the supplier of this run's inputs
+     * @param config the already-loaded configuration
+     * @return the run configuration
+     * @throws Exception if the run configuration is invalid or the telemetry source can not be initialized
+     */
+    public static TimeCorrelationRunConfig withSnapshotTlmSource(TimeCorrelationRunConfigInputSupplier runConfigInputSupplier, MmtcConfig config) throws Exception {
+        return new TimeCorrelationRunConfig(runConfigInputSupplier, new SnapshotTlmSourceConfig(config), true);
     }
 
+    /**
+     * Creates a run configuration that shares the given configuration's telemetry source, which its owner has already
+     * applied configuration to.  Equivalent to {@code new TimeCorrelationRunConfig(runConfigInputSupplier, config, false)}.
+     *
+     * @param runConfigInputSupplier the supplier of this run's inputs
+     * @param config the configuration whose telemetry source to share
+     * @throws Exception if the run configuration is invalid
+     */
     public TimeCorrelationRunConfig(TimeCorrelationRunConfigInputSupplier runConfigInputSupplier, MmtcConfigWithTlmSource config) throws Exception {
+        this(runConfigInputSupplier, config, false);
+    }
+
+    /**
+     * Creates a run configuration that shares the given configuration's telemetry source.  Whichever way the source is
+     * configured, this run's telemetry source options are then applied to it.
+     *
+     * @param runConfigInputSupplier the supplier of this run's inputs
+     * @param config the configuration whose telemetry source to share
+     * @param applyConfigurationToTlmSource whether to call {@link TelemetrySource#applyConfiguration} on the telemetry
+     *                                      source with this run configuration; should be false if the source's owner has
+     *                                      already done so, as the source may then be in use by other runs
+     * @throws Exception if the run configuration is invalid or the telemetry source can not be configured
+     */
+    public TimeCorrelationRunConfig(TimeCorrelationRunConfigInputSupplier runConfigInputSupplier, MmtcConfigWithTlmSource config, boolean applyConfigurationToTlmSource) throws Exception {
         super(config);
         this.runConfigInputs = runConfigInputSupplier.getRunConfigInputs(this.getTelemetrySource().getAdditionalOptions());
         resolveCalculatedRunConfigInputs();
+        if (applyConfigurationToTlmSource) {
+            this.telemetrySource.applyConfiguration(this);
+        }
         for (TelemetrySource.ParsedAdditionalOption opt : this.runConfigInputs.additionalTlmSourceOptions) {
             if (opt.value.isPresent()) {
                 this.telemetrySource.applyOption(opt.name, opt.value.get());
@@ -177,6 +235,13 @@ public class TimeCorrelationRunConfig extends MmtcConfigWithTlmSource implements
         }
     }
 
+    // a configuration snapshot paired with the snapshot's own telemetry source
+    private static class SnapshotTlmSourceConfig extends MmtcConfigWithTlmSource {
+        SnapshotTlmSourceConfig(MmtcConfig config) throws Exception {
+            super(config);
+        }
+    }
+
     private void resolveCalculatedRunConfigInputs() throws MmtcException {
         setTargetAndBasisSampleInputs();
         setClockChangeRateConfiguration();
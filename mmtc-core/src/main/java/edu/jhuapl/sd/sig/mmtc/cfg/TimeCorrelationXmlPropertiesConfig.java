@@ -24,11 +24,22 @@ public class TimeCorrelationXmlPropertiesConfig extends TimeCorrelationConfig {
 
     private FileBasedConfigurationBuilder<LocatedXMLPropertiesConfiguration> builder;
 
+    // the directory to load the file from, or null to load it from $TK_CONFIG_PATH
+    private final Path configDirectory;
+
     private static final Logger logger = LogManager.getLogger();
 
     TimeCorrelationXmlPropertiesConfig() {
+        this(null);
+    }
+
+    /**
+     * @param configDirectory the directory holding the configuration file, or null to use $TK_CONFIG_PATH
+     */
+    TimeCorrelationXmlPropertiesConfig(Path configDirectory) {
         // Do not set path; the file will be discovered based on filename in load()
         super(null);
+        this.configDirectory = configDirectory;
     }
 
     /**
@@ -38,10 +49,16 @@ public class TimeCorrelationXmlPropertiesConfig extends TimeCorrelationConfig {
      */
     public boolean load() {
         try {
-            String basePath = Environment.getEnvironmentVariable("TK_CONFIG_PATH");
+            String basePath;
+            if (configDirectory != null) {
+                basePath = configDirectory.toAbsolutePath().toString();
+                logger.info(String.format("Attempting to load configuration file %s from %s.", TIME_COR_CONFIG_PROPERTIES_FILENAME, basePath));
+            } else {
+                basePath = Environment.getEnvironmentVariable("TK_CONFIG_PATH");
+                logger.info(String.format("Attempting to load configuration file %s from $TK_CONFIG_PATH (%s).", TIME_COR_CONFIG_PROPERTIES_FILENAME, basePath));
+            }
             Parameters params = new Parameters();
 
-            logger.info(String.format("Attempting to load configuration file %s from $TK_CONFIG_PATH (%s).", TIME_COR_CONFIG_PROPERTIES_FILENAME, basePath));
             builder = new FileBasedConfigurationBuilder<>(LocatedXMLPropertiesConfiguration.class)
                     .configure(params.properties()
                     .setBasePath(basePath)
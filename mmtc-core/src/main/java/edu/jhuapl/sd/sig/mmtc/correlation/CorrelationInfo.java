@@ -16,6 +16,9 @@ public class CorrelationInfo {
     // time correlation target information, including the sample set, the chosen FrameSample, and some computed information
     public final Settable<TimeCorrelationTarget> target = new Settable<>();
 
+    // the number of candidate sample sets that failed a filter before the target's sample set was selected
+    public final Settable<Integer> rejected_sample_set_count = new Settable<>();
+
     public final Settable<TimeCorrelationRunConfig.ClockChangeRateMode> actual_clock_change_rate_mode = new Settable<>();
     public final Settable<Double> predicted_clock_change_rate = new Settable<>();
     public final Settable<Double> interpolated_clock_change_rate = new Settable<>();
@@ -0,0 +1,170 @@
+package edu.jhuapl.sd.sig.mmtc.correlation;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import spice.basic.CSPICE;
+import spice.basic.SpiceErrorException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Evaluates and memoizes ephemeris state vectors for the duration of a single time correlation, so that each distinct
+ * (target, observer, frame, aberration correction, epoch) state is computed by SPICE only once no matter how many
+ * distances and velocities are derived from it.
+ *
+ * The required SPICE kernels must be loaded for as long as an instance is in use, and the loaded ephemeris kernels
+ * must not change during that time.
+ */
+public class EphemerisStates {
+    public static final String DEFAULT_FRAME = "J2000";
+    public static final String DEFAULT_ABERRATION_CORRECTION = "NONE";
+
+    /**
+     * Computes a state vector, as by CSPICE spkezr.
+     */
+    @FunctionalInterface
+    public interface StateFunction {
+        double[] computeState(String target, double et, String frame, String abcorr, String observer) throws SpiceErrorException;
+    }
+
+    private static final class StateKey {
+        private final String target;
+        private final String observer;
+        private final String frame;
+        private final String abcorr;
+        private final double et;
+
+        private StateKey(String target, String observer, String frame, String abcorr, double et) {
+            this.target = target;
+            this.observer = observer;
+            this.frame = frame;
+            this.abcorr = abcorr;
+            this.et = et;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StateKey stateKey = (StateKey) o;
+            return Double.compare(stateKey.et, et) == 0 && target.equals(stateKey.target) && observer.equals(stateKey.observer) && frame.equals(stateKey.frame) && abcorr.equals(stateKey.abcorr);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, observer, frame, abcorr, et);
+        }
+    }
+
+    private final StateFunction stateFunction;
+    private final Map<StateKey, double[]> states = new HashMap<>();
+    private int stateComputationCount = 0;
+
+    public EphemerisStates() {
+        this(EphemerisStates::spkezr);
+    }
+
+    public EphemerisStates(StateFunction stateFunction) {
+        this.stateFunction = stateFunction;
+    }
+
+    /**
+     * Get the state of a target body relative to an observer in the J2000 frame, with no aberration correction.
+     *
+     * @param target the SPICE target as a string
+     * @param observer the SPICE observer as a string
+     * @param et the epoch of the state, in ET
+     * @return a copy of the state vector; [0, 2] is position in km, [3, 5] is velocity in km/s
+     * @throws MmtcException if the state vector could not be computed
+     */
+    public double[] getState(String target, String observer, double et) throws MmtcException {
+        return getState(target, observer, DEFAULT_FRAME, DEFAULT_ABERRATION_CORRECTION, et);
+    }
+
+    /**
+     * Get the state of a target body relative to an observer, computing it only if it has not been computed before.
+     *
+     * @param target the SPICE target as a string
+     * @param observer the SPICE observer as a string
+     * @param frame the SPICE reference frame
+     * @param abcorr the SPICE aberration correction
+     * @param et the epoch of the state, in ET
+     * @return a copy of the state vector; [0, 2] is position in km, [3, 5] is velocity in km/s
+     * @throws MmtcException if the state vector could not be computed
+     */
+    public synchronized double[] getState(String target, String observer, String frame, String abcorr, double et) throws MmtcException {
+        final StateKey key = new StateKey(target, observer, frame, abcorr, et);
+
+        double[] state = states.get(key);
+        if (state == null) {
+            try {
+                state = stateFunction.computeState(target, et, frame, abcorr, observer);
+            } catch (SpiceErrorException ex) {
+                throw new MmtcException("Unable to compute state vector: " + ex.getMessage(), ex);
+            }
+            stateComputationCount++;
+            states.put(key, state);
+        }
+
+        return Arrays.copyOf(state, state.length);
+    }
+
+    /**
+     * Get the distance between two bodies.
+     *
+     * @param target the SPICE target as a string
+     * @param observer the SPICE observer as a string
+     * @param et the epoch, in ET
+     * @return the distance between the two objects in km
+     * @throws MmtcException if the distance could not be computed
+     */
+    public double getDistanceKm(String target, String observer, double et) throws MmtcException {
+        final double[] state = getState(target, observer, et);
+
+        try {
+            TimeConvert.countSpiceCalls(1);
+            return CSPICE.vnorm(Arrays.copyOfRange(state, 0, 3));
+        } catch (SpiceErrorException ex) {
+            throw new MmtcException("Unable to compute distance: " + target + " to " + observer + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Get the speed of a target body relative to an observer.
+     *
+     * @param target the SPICE target as a string
+     * @param observer the SPICE observer as a string
+     * @param et the epoch, in ET
+     * @return the target's speed in km/s
+     * @throws MmtcException if the velocity could not be computed
+     */
+    public double getVelocityKmS(String target, String observer, double et) throws MmtcException {
+        final double[] state = getState(target, observer, et);
+
+        try {
+            TimeConvert.countSpiceCalls(1);
+            return CSPICE.vnorm(Arrays.copyOfRange(state, 3, 6));
+        } catch (SpiceErrorException ex) {
+            throw new MmtcException("Unable to compute velocity: " + target + " to " + observer + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @return the number of state vectors that have been computed (rather than served from memory) by this instance
+     */
+    public synchronized int getStateComputationCount() {
+        return stateComputationCount;
+    }
+
+    private static double[] spkezr(String target, double et, String frame, String abcorr, String observer) throws SpiceErrorException {
+        final double[] state = new double[6];     // State vector; [0, 2] is dist, [3, 5] is velocity
+        final double[] lightTime = new double[1]; // OWLT between observer and target in seconds
+
+        TimeConvert.countSpiceCalls(1);
+        CSPICE.spkezr(target, et, frame, abcorr, observer, state, lightTime);
+        return state;
+    }
+}
@@ -1,6 +1,7 @@
 package edu.jhuapl.sd.sig.mmtc.correlation;
 
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics;
 import edu.jhuapl.sd.sig.mmtc.products.model.SclkKernel;
 import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
 import edu.jhuapl.sd.sig.mmtc.util.Settable;
@@ -16,11 +17,13 @@ public class TimeCorrelationContext {
     public final CorrelationInfo correlation = new CorrelationInfo();
     public final GeometryInfo geometry = new GeometryInfo();
     public final AncillaryInfo ancillary = new AncillaryInfo();
+    public final EphemerisStates ephemeris = new EphemerisStates();
 
     public final TimeCorrelationRunConfig config;
     public final TelemetrySource telemetrySource;
     public final OffsetDateTime appRunTime;
     public final Settable<Integer> runId = new Settable<>();
+    public final RunMetrics metrics = new RunMetrics();
 
     public final Settable<SclkKernel> currentSclkKernel = new Settable<>();
     public final Settable<SclkKernel> newSclkKernel = new Settable<>();
@@ -0,0 +1,80 @@
+package edu.jhuapl.sd.sig.mmtc.daemon;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+
+/**
+ * Forwards the log messages that MMTC would print to the console (those marked as user notices, and warnings or worse)
+ * to a daemon client, for as long as the client's command runs.  Only messages logged by the thread running the
+ * command are forwarded, so that concurrently-handled connections do not see each other's output.
+ */
+class ClientOutputAppender extends AbstractAppender {
+    private final DataOutputStream out;
+    private final long commandThreadId;
+
+    private volatile boolean clientConnected = true;
+
+    private ClientOutputAppender(String name, DataOutputStream out, long commandThreadId) {
+        super(name, null, PatternLayout.newBuilder().withPattern("%m%n").build(), true, Property.EMPTY_ARRAY);
+        this.out = out;
+        this.commandThreadId = commandThreadId;
+    }
+
+    /**
+     * Starts forwarding the current thread's console log messages to the given client output stream.
+     *
+     * @param out the client's output stream
+     * @return the appender, which must be passed to {@link #detach} once the command completes
+     */
+    static ClientOutputAppender attachForCurrentThread(DataOutputStream out) {
+        final Thread thread = Thread.currentThread();
+        final ClientOutputAppender appender = new ClientOutputAppender("mmtcDaemonClient-" + thread.getId(), out, thread.getId());
+        appender.start();
+
+        final LoggerContext loggerContext = LoggerContext.getContext(false);
+        final Configuration loggingConfig = loggerContext.getConfiguration();
+        loggingConfig.getRootLogger().addAppender(appender, null, null);
+        loggerContext.updateLoggers();
+
+        return appender;
+    }
+
+    void detach() {
+        final LoggerContext loggerContext = LoggerContext.getContext(false);
+        final Configuration loggingConfig = loggerContext.getConfiguration();
+        loggingConfig.getRootLogger().removeAppender(getName());
+        loggerContext.updateLoggers();
+        stop();
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        if (! clientConnected || event.getThreadId() != commandThreadId) {
+            return;
+        }
+
+        final boolean isUserNotice = event.getMarker() != null && event.getMarker().isInstanceOf(USER_NOTICE);
+        if (! isUserNotice && ! event.getLevel().isMoreSpecificThan(Level.WARN)) {
+            return;
+        }
+
+        try {
+            synchronized (out) {
+                MmtcDaemonProtocol.writeOutput(out, getLayout().toSerializable(event).toString());
+            }
+        } catch (IOException e) {
+            // the command carries on to completion even if its client has gone away
+            clientConnected = false;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package edu.jhuapl.sd.sig.mmtc.daemon;
+
+import edu.jhuapl.sd.sig.mmtc.app.BuildInfo;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.cfg.RollbackConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationCliInputConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.rollback.TimeCorrelationRollback;
+import edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache.TelemetryCacheUserOperations;
+import edu.jhuapl.sd.sig.mmtc.util.ResidentSpiceKernels;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+
+/**
+ * A long-running MMTC process that loads its configuration, plugins, the SPICE library, and its telemetry source
+ * connection once, and then runs the correlation, rollback, and precache commands sent to it by {@link MmtcDaemonClient}
+ * against that warm state.  SPICE kernels are kept loaded between correlation runs, so that each run only loads the
+ * kernels that differ from the previous run's.
+ * <p>
+ * The daemon listens on a loopback-only TCP port, which it advertises (along with a randomly-generated access token
+ * that clients must present) in an endpoint file readable only by the user running the daemon.
+ * <p>
+ * Each command that modifies MMTC's state acquires MMTC's lock file for its duration, exactly as it would if run
+ * directly from the CLI; a command that finds the lock file already held fails immediately.
+ */
+public class MmtcDaemon implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int CONNECTION_BACKLOG = 50;
+    static final int NUM_CONNECTION_THREADS = 4;
+
+    // how long a client has to send its request, so that idle connections cannot hold the connection threads
+    static final Duration REQUEST_READ_TIMEOUT = Duration.ofSeconds(10);
+
+    private final MmtcDaemonConfig config;
+    private final ResidentSpiceKernels residentSpiceKernels = new ResidentSpiceKernels();
+    private final ServerSocket serverSocket;
+    private final String token;
+    private final Path endpointFile;
+    private final ExecutorService connectionExecutor;
+    private final Instant startTime = Instant.now();
+
+    private final AtomicInteger numCommandsRun = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    // false after a failed reconnection, until the telemetry source is next successfully connected
+    private volatile boolean telemetrySourceConnected;
+
+    public MmtcDaemon(MmtcDaemonConfig config) throws Exception {
+        this.config = config;
+        this.endpointFile = config.getDaemonEndpointFileLocation();
+
+        assertNoOtherDaemonRunning(endpointFile);
+
+        TimeConvert.loadSpiceLib();
+        config.getTelemetrySource().connect();
+        this.telemetrySourceConnected = true;
+
+        try {
+            this.serverSocket = new ServerSocket(config.getDaemonPort(), CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+            this.token = UUID.randomUUID().toString();
+            MmtcDaemonProtocol.writeEndpointFile(endpointFile, new MmtcDaemonProtocol.Endpoint(serverSocket.getLocalPort(), token));
+        } catch (Exception e) {
+            config.getTelemetrySource().disconnect();
+            throw e;
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.connectionExecutor = Executors.newFixedThreadPool(NUM_CONNECTION_THREADS, r -> {
+            final Thread t = new Thread(r, "mmtc-daemon-connection-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return the local port the daemon is listening on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts and handles client connections until the daemon is shut down, either by a client's shutdown command or
+     * by {@link #close()}.
+     */
+    public void serve() {
+        logger.info(USER_NOTICE, String.format("MMTC daemon listening on %s:%d (endpoint file: %s)", serverSocket.getInetAddress().getHostAddress(), getPort(), endpointFile.toAbsolutePath()));
+
+        while (! serverSocket.isClosed()) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (! serverSocket.isClosed()) {
+                    logger.error("Failed to accept MMTC daemon client connection", e);
+                }
+                continue;
+            }
+
+            connectionExecutor.execute(() -> handleConnection(socket));
+        }
+
+        logger.info(USER_NOTICE, "MMTC daemon stopped accepting connections.");
+    }
+
+    private void handleConnection(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+
+            s.setSoTimeout((int) REQUEST_READ_TIMEOUT.toMillis());
+            final MmtcDaemonProtocol.Request request = MmtcDaemonProtocol.readRequest(in);
+            if (! MmtcDaemonProtocol.tokensMatch(token, request.token)) {
+                logger.warn("Rejected an MMTC daemon client connection that presented an invalid token.");
+                MmtcDaemonProtocol.writeOutput(out, "Invalid MMTC daemon token; please check that the endpoint file is current.\n");
+                MmtcDaemonProtocol.writeExit(out, MmtcDaemonProtocol.EXIT_FAILURE);
+                return;
+            }
+
+            // commands may run for much longer than the request took to arrive
+            s.setSoTimeout(0);
+
+            final ClientOutputAppender clientOutput = ClientOutputAppender.attachForCurrentThread(out);
+            final boolean succeeded;
+            try {
+                succeeded = runCommand(request, out);
+            } finally {
+                clientOutput.detach();
+            }
+
+            MmtcDaemonProtocol.writeExit(out, succeeded ? MmtcDaemonProtocol.EXIT_SUCCESS : MmtcDaemonProtocol.EXIT_FAILURE);
+        } catch (SocketTimeoutException e) {
+            logger.warn(String.format("Closed an MMTC daemon client connection that did not send a request within %d seconds.", REQUEST_READ_TIMEOUT.getSeconds()));
+        } catch (SocketException | EOFException e) {
+            logger.debug("MMTC daemon client disconnected", e);
+        } catch (Exception e) {
+            logger.error("Failed to handle MMTC daemon client connection", e);
+        }
+    }
+
+    private boolean runCommand(MmtcDaemonProtocol.Request request, DataOutputStream out) throws IOException {
+        final String[] args = request.args;
+
+        if (Arrays.asList(args).contains("-h") || Arrays.asList(args).contains("--help")) {
+            logger.error("Help options are not supported through the MMTC daemon; please run the command directly with --help instead.");
+            return false;
+        }
+
+        switch (request.command) {
+            case MmtcDaemonProtocol.CMD_CORRELATION: {
+                return runLocked("MMTC correlation run failed.", true, () -> {
+                    final TimeCorrelationRunConfig runConfig = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig(args), config);
+                    new TimeCorrelationApp(runConfig, Optional.of(residentSpiceKernels)).run();
+                });
+            }
+            case MmtcDaemonProtocol.CMD_ROLLBACK: {
+                if (args.length != 1) {
+                    logger.error("Rollback through the MMTC daemon requires exactly one argument: the run ID to roll back to.");
+                    return false;
+                }
+
+                return runLocked("Rollback failed.", false, () -> new TimeCorrelationRollback(new RollbackConfig(config)).rollback(Optional.of(args[0])));
+            }
+            case MmtcDaemonProtocol.CMD_PRECACHE: {
+                return runLocked("Precaching failed.", true, () -> TelemetryCacheUserOperations.precacheWithConnectedSource(config, args));
+            }
+            case MmtcDaemonProtocol.CMD_STATUS: {
+                synchronized (out) {
+                    MmtcDaemonProtocol.writeOutput(out, String.format("MMTC daemon v%s is running on port %d; up since %s (%d seconds), %d commands run%n",
+                            new BuildInfo().version,
+                            getPort(),
+                            startTime,
+                            Duration.between(startTime, Instant.now()).getSeconds(),
+                            numCommandsRun.get()
+                    ));
+                }
+                return true;
+            }
+            case MmtcDaemonProtocol.CMD_SHUTDOWN: {
+                logger.info(USER_NOTICE, "MMTC daemon shutting down at client request.");
+                closeServerSocket();
+                return true;
+            }
+            default: {
+                logger.error("Unrecognized MMTC daemon command code: " + request.command);
+                return false;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface DaemonCommand {
+        void run() throws Exception;
+    }
+
+    private boolean runLocked(String failureMessage, boolean usesTelemetrySource, DaemonCommand command) {
+        try {
+            config.acquireLockFile();
+        } catch (MmtcException e) {
+            // the reason has already been logged
+            return false;
+        }
+
+        try {
+            numCommandsRun.incrementAndGet();
+            if (usesTelemetrySource) {
+                prepareTelemetrySource();
+            }
+            command.run();
+            return true;
+        } catch (Exception e) {
+            logger.fatal(failureMessage, e);
+            if (usesTelemetrySource) {
+                // a failed command may have left the connection unusable, e.g. after a telemetry query failed or timed out
+                reconnectTelemetrySource();
+            }
+            return false;
+        } finally {
+            try {
+                config.releaseLockFile();
+            } catch (Exception e) {
+                logger.error("Failed to release lock file", e);
+            }
+        }
+    }
+
+    /**
+     * Readies the telemetry source for a command: connects it if a previous reconnection failed, and clears the options
+     * applied by the previous command, so that the command's options are applied to the source as configured.
+     */
+    private void prepareTelemetrySource() throws MmtcException {
+        if (! telemetrySourceConnected) {
+            config.getTelemetrySource().connect();
+            telemetrySourceConnected = true;
+        }
+
+        config.getTelemetrySource().resetOptions();
+    }
+
+    private void reconnectTelemetrySource() {
+        try {
+            config.getTelemetrySource().disconnect();
+        } catch (Exception e) {
+            logger.warn("Failed to disconnect from telemetry source", e);
+        }
+        telemetrySourceConnected = false;
+
+        try {
+            config.getTelemetrySource().connect();
+            telemetrySourceConnected = true;
+            logger.info("Reconnected to telemetry source after failed command.");
+        } catch (Exception e) {
+            logger.error("Failed to reconnect to telemetry source; will retry before the next command that uses it.", e);
+        }
+    }
+
+    private static void assertNoOtherDaemonRunning(Path endpointFile) throws MmtcException {
+        if (! Files.exists(endpointFile)) {
+            return;
+        }
+
+        final MmtcDaemonProtocol.Endpoint existing;
+        try {
+            existing = MmtcDaemonProtocol.readEndpointFile(endpointFile);
+        } catch (MmtcException e) {
+            logger.warn("Replacing unreadable MMTC daemon endpoint file " + endpointFile.toAbsolutePath());
+            return;
+        }
+
+        try (Socket s = new Socket(InetAddress.getLoopbackAddress(), existing.port)) {
+            throw new MmtcException("Another MMTC daemon appears to be running, as advertised by " + endpointFile.toAbsolutePath() + ". Please shut it down first.");
+        } catch (IOException e) {
+            logger.info("Replacing stale MMTC daemon endpoint file " + endpointFile.toAbsolutePath());
+        }
+    }
+
+    private void closeServerSocket() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close MMTC daemon server socket", e);
+        }
+    }
+
+    /**
+     * Stops accepting connections, waits for any running commands to finish, and releases the daemon's resources.
+     */
+    @Override
+    public void close() {
+        if (! closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        closeServerSocket();
+
+        connectionExecutor.shutdown();
+        try {
+            if (! connectionExecutor.awaitTermination(1, TimeUnit.HOURS)) {
+                logger.warn("Timed out waiting for running MMTC daemon commands to complete.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (telemetrySourceConnected) {
+            try {
+                config.getTelemetrySource().disconnect();
+            } catch (Exception e) {
+                logger.warn("Failed to disconnect from telemetry source", e);
+            }
+        }
+
+        residentSpiceKernels.unloadAll();
+
+        try {
+            Files.deleteIfExists(endpointFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete MMTC daemon endpoint file " + endpointFile.toAbsolutePath(), e);
+        }
+    }
+}
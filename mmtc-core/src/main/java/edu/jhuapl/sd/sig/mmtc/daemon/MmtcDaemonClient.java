@@ -0,0 +1,86 @@
+package edu.jhuapl.sd.sig.mmtc.daemon;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A thin client that sends a single command to a running {@link MmtcDaemon}, prints the command's console output as it
+ * arrives, and returns the command's exit status.
+ */
+public class MmtcDaemonClient {
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+
+    private static final String USAGE =
+            "usage: mmtc client <command> [options] <additional arguments>\n" +
+            "\n" +
+            "Sends a command to a running MMTC daemon (see: mmtc daemon --help), where <command> is one of:\n" +
+            "- correlation [options] <start-time> <stop-time>: run a new correlation, taking\n" +
+            "the same options and arguments as 'mmtc correlation'\n" +
+            "- rollback <run-id>: roll back to the given run ID (non-interactively)\n" +
+            "- precache <start-time> <stop-time>: precache telemetry, taking the same\n" +
+            "arguments as 'mmtc precache'\n" +
+            "- status: print the daemon's status\n" +
+            "- shutdown: stop the daemon once any running commands complete";
+
+    private MmtcDaemonClient() { }
+
+    /**
+     * Sends the command given by the arguments to the MMTC daemon described by the configured endpoint file.
+     *
+     * @param args the command name followed by its arguments
+     * @return the command's exit status
+     * @throws Exception if the configuration could not be loaded
+     */
+    public static int run(String... args) throws Exception {
+        if (args.length == 0 || Arrays.asList("-h", "--help").contains(args[0])) {
+            System.out.println(USAGE);
+            return args.length == 0 ? MmtcDaemonProtocol.EXIT_FAILURE : MmtcDaemonProtocol.EXIT_SUCCESS;
+        }
+
+        return run(new MmtcConfig().getDaemonEndpointFileLocation(), System.out, args);
+    }
+
+    static int run(Path endpointFile, PrintStream console, String... args) throws MmtcException {
+        final byte command = MmtcDaemonProtocol.parseCommand(args[0]);
+        final String[] commandArgs = Arrays.copyOfRange(args, 1, args.length);
+
+        if (command == MmtcDaemonProtocol.CMD_ROLLBACK && commandArgs.length != 1) {
+            throw new MmtcException("Rollback through the MMTC daemon requires exactly one argument: the run ID to roll back to.");
+        }
+
+        final MmtcDaemonProtocol.Endpoint endpoint = MmtcDaemonProtocol.readEndpointFile(endpointFile);
+        return send(endpoint, new MmtcDaemonProtocol.Request(endpoint.token, command, commandArgs), console);
+    }
+
+    static int send(MmtcDaemonProtocol.Endpoint endpoint, MmtcDaemonProtocol.Request request, PrintStream console) throws MmtcException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), endpoint.port), CONNECT_TIMEOUT_MS);
+
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            MmtcDaemonProtocol.writeRequest(out, request);
+            out.flush();
+
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (true) {
+                final byte messageType = in.readByte();
+                if (messageType == MmtcDaemonProtocol.MSG_OUTPUT) {
+                    console.print(MmtcDaemonProtocol.readString(in));
+                    console.flush();
+                } else if (messageType == MmtcDaemonProtocol.MSG_EXIT) {
+                    return in.readInt();
+                } else {
+                    throw new MmtcException("Unexpected message type from MMTC daemon: " + messageType);
+                }
+            }
+        } catch (IOException e) {
+            throw new MmtcException("Lost connection to the MMTC daemon on port " + endpoint.port + ". Is the MMTC daemon running?", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package edu.jhuapl.sd.sig.mmtc.daemon;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
+import org.apache.commons.cli.*;
+
+/**
+ * The configuration loaded once by the MMTC daemon at startup, including its telemetry source, atop which each command
+ * the daemon runs builds its own per-run configuration.
+ */
+public class MmtcDaemonConfig extends MmtcConfigWithTlmSource {
+    public MmtcDaemonConfig(String... args) throws Exception {
+        super();
+
+        final Options opts = new Options();
+        opts.addOption("h", "help", false, "Print this message.");
+
+        final CommandLineParser parser = new DefaultParser();
+        final CommandLine cmdLine = parser.parse(opts, args);
+
+        if (cmdLine.hasOption("h") || cmdLine.hasOption("help")) {
+            final HelpFormatter help = new HelpFormatter();
+            final String helpFooter = "\nStarts a long-running MMTC process that keeps its configuration, plugins, SPICE kernels, and telemetry source connection loaded, " +
+                    "and runs correlation, rollback, and precache commands sent to it with 'mmtc client'.  Takes no CLI arguments.";
+            help.printHelp("mmtc daemon", "", opts, helpFooter);
+            System.exit(0);
+        }
+
+        if (cmdLine.getArgList().size() != 0) {
+            throw new MmtcException("Error parsing command line arguments.");
+        }
+
+        this.telemetrySource.applyConfiguration(this);
+    }
+}
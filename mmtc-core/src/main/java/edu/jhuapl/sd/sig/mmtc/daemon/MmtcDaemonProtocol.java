@@ -0,0 +1,190 @@
+package edu.jhuapl.sd.sig.mmtc.daemon;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The protocol spoken between {@link MmtcDaemon} and {@link MmtcDaemonClient} over a loopback TCP connection, and the
+ * endpoint file through which the daemon advertises itself.  Each connection carries a single request: the daemon's
+ * access token, a one-byte command code, and the command's arguments.  The daemon responds with any number of output
+ * messages (those MMTC would print to the console while running the command), followed by the command's exit status.
+ */
+class MmtcDaemonProtocol {
+    static final byte CMD_CORRELATION = 1;
+    static final byte CMD_ROLLBACK = 2;
+    static final byte CMD_PRECACHE = 3;
+    static final byte CMD_STATUS = 4;
+    static final byte CMD_SHUTDOWN = 5;
+
+    static final byte MSG_OUTPUT = 0;
+    static final byte MSG_EXIT = 1;
+
+    static final int EXIT_SUCCESS = 0;
+    static final int EXIT_FAILURE = 1;
+
+    // bounds the memory a malformed or malicious request can make the daemon allocate
+    private static final int MAX_STRING_BYTES = 1 << 20;
+    private static final int MAX_ARGS = 1024;
+
+    private static final String ENDPOINT_PORT = "port";
+    private static final String ENDPOINT_TOKEN = "token";
+
+    private MmtcDaemonProtocol() { }
+
+    static class Request {
+        final String token;
+        final byte command;
+        final String[] args;
+
+        Request(String token, byte command, String[] args) {
+            this.token = token;
+            this.command = command;
+            this.args = args;
+        }
+    }
+
+    static class Endpoint {
+        final int port;
+        final String token;
+
+        Endpoint(int port, String token) {
+            this.port = port;
+            this.token = token;
+        }
+    }
+
+    static void writeRequest(DataOutputStream out, Request request) throws IOException {
+        writeString(out, request.token);
+        out.writeByte(request.command);
+        out.writeInt(request.args.length);
+        for (String arg : request.args) {
+            writeString(out, arg);
+        }
+    }
+
+    static Request readRequest(DataInputStream in) throws IOException {
+        final String token = readString(in);
+        final byte command = in.readByte();
+        final int numArgs = in.readInt();
+        if (numArgs < 0 || numArgs > MAX_ARGS) {
+            throw new IOException("Invalid number of arguments: " + numArgs);
+        }
+
+        final String[] args = new String[numArgs];
+        for (int i = 0; i < numArgs; i++) {
+            args[i] = readString(in);
+        }
+        return new Request(token, command, args);
+    }
+
+    static void writeOutput(DataOutputStream out, String message) throws IOException {
+        out.writeByte(MSG_OUTPUT);
+        writeString(out, message);
+        out.flush();
+    }
+
+    static void writeExit(DataOutputStream out, int status) throws IOException {
+        out.writeByte(MSG_EXIT);
+        out.writeInt(status);
+        out.flush();
+    }
+
+    static boolean tokensMatch(String expected, String actual) {
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the endpoint file readable only by its owner (where the filesystem supports POSIX permissions), as its
+     * token grants the ability to run MMTC commands.  The file is written to a temporary file first and then moved into
+     * place, so that clients never read a partially-written file.
+     */
+    static void writeEndpointFile(Path endpointFile, Endpoint endpoint) throws MmtcException {
+        final Properties props = new Properties();
+        props.setProperty(ENDPOINT_PORT, Integer.toString(endpoint.port));
+        props.setProperty(ENDPOINT_TOKEN, endpoint.token);
+
+        final Path absEndpointFile = endpointFile.toAbsolutePath();
+        final Path tmpFile = absEndpointFile.resolveSibling(absEndpointFile.getFileName() + ".tmp");
+
+        try {
+            Files.deleteIfExists(tmpFile);
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                final Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rw-------");
+                Files.createFile(tmpFile, PosixFilePermissions.asFileAttribute(ownerOnly));
+            } else {
+                Files.createFile(tmpFile);
+            }
+
+            try (OutputStream out = Files.newOutputStream(tmpFile, StandardOpenOption.TRUNCATE_EXISTING)) {
+                props.store(out, "MMTC daemon endpoint");
+            }
+
+            Files.move(tmpFile, absEndpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new MmtcException("Unable to write MMTC daemon endpoint file " + absEndpointFile, e);
+        }
+    }
+
+    static Endpoint readEndpointFile(Path endpointFile) throws MmtcException {
+        if (! Files.exists(endpointFile)) {
+            throw new MmtcException("No MMTC daemon endpoint file found at " + endpointFile.toAbsolutePath() + ". Is the MMTC daemon running?");
+        }
+
+        final Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(endpointFile)) {
+            props.load(in);
+        } catch (IOException e) {
+            throw new MmtcException("Unable to read MMTC daemon endpoint file " + endpointFile.toAbsolutePath(), e);
+        }
+
+        if (props.getProperty(ENDPOINT_TOKEN) == null) {
+            throw new MmtcException("Invalid MMTC daemon endpoint file " + endpointFile.toAbsolutePath());
+        }
+
+        try {
+            return new Endpoint(Integer.parseInt(props.getProperty(ENDPOINT_PORT)), props.getProperty(ENDPOINT_TOKEN));
+        } catch (NumberFormatException e) {
+            throw new MmtcException("Invalid MMTC daemon endpoint file " + endpointFile.toAbsolutePath(), e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("Invalid string length: " + length);
+        }
+
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static byte parseCommand(String name) throws MmtcException {
+        switch (name.toLowerCase()) {
+            case "correlation": return CMD_CORRELATION;
+            case "rollback":    return CMD_ROLLBACK;
+            case "precache":    return CMD_PRECACHE;
+            case "status":      return CMD_STATUS;
+            case "shutdown":    return CMD_SHUTDOWN;
+            default: throw new MmtcException("Unrecognized MMTC daemon command: " + name);
+        }
+    }
+}
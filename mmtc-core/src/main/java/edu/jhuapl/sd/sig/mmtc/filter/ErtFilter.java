@@ -56,10 +56,12 @@ public class ErtFilter implements TimeCorrelationFilter {
             double deltaSeconds = Math.abs(sample.getErt().getDeltaSeconds(lastErt));
 
             try {
-                logger.debug(String.format("ERT Filter: Current ERT: %s; Previous ERT: %s; Delta seconds: %f",
-                        sample.getErtStr(),
-                        TimeConvert.cdsToIsoUtc(lastErt),
-                        deltaSeconds));
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("ERT Filter: Current ERT: %s; Previous ERT: %s; Delta seconds: %f",
+                            sample.getErtStr(),
+                            TimeConvert.cdsToIsoUtc(lastErt),
+                            deltaSeconds));
+                }
 
                 if (Math.abs(firstFrameDeltaSec - deltaSeconds) > maxDeltaVarianceSec) {
                     logger.warn(String.format("ERT Filter failed: Current ERT: %s; Previous ERT: %s. Delta seconds of %f" +
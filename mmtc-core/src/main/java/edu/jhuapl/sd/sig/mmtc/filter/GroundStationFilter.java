@@ -6,7 +6,6 @@ import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -32,19 +31,10 @@ public class GroundStationFilter implements TimeCorrelationFilter {
             return false;
         }
 
-        List<Integer> pathIds;
-        String[] strs = config.getGroundStationFilterPathIds();
-        Integer[] ints = new Integer[strs.length];
         final int firstPathId = samples.get(0).getPathId();
 
-        for (int i = 0; i < ints.length; i++) {
-            ints[i] = Integer.parseInt(strs[i]);
-        }
-
-        pathIds = Arrays.asList(ints);
-
         // Check if the first path ID is valid
-        if (!pathIds.contains(firstPathId)) {
+        if (!config.isGroundStationFilterPathId(firstPathId)) {
             logger.warn(String.format(
                     "Ground Station Filter Failed: first sample (ERT %s) has path ID %d, which is not a valid path ID.",
                     samples.get(0).getErtStr(),
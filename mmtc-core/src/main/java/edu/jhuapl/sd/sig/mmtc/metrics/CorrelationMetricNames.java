@@ -0,0 +1,56 @@
+package edu.jhuapl.sd.sig.mmtc.metrics;
+
+/**
+ * The names of the stages, counters, and histograms that MMTC itself records for each correlation run.
+ */
+public final class CorrelationMetricNames {
+    private CorrelationMetricNames() { }
+
+    // stages
+    public static final String STAGE_RUN = "run";
+    public static final String STAGE_INIT = "init";
+    public static final String STAGE_SPICE_LOAD = "init.spice_load";
+    public static final String STAGE_SELECT_TARGET = "select_target";
+    public static final String STAGE_TELEMETRY_FETCH = "telemetry.fetch";
+    public static final String STAGE_ENRICH_AND_VALIDATE = "telemetry.enrich_and_validate";
+    public static final String STAGE_FILTERS = "filters";
+    public static final String STAGE_CLOCK_CHANGE_RATE = "clock_change_rate";
+    public static final String STAGE_ANCILLARY_OPERATIONS = "ancillary_operations";
+    public static final String STAGE_WRITE_RUN_HISTORY = "write.run_history";
+
+    // counters
+    public static final String COUNT_TELEMETRY_QUERIES = "telemetry.queries";
+    public static final String COUNT_FRAMES_FETCHED = "telemetry.frames_fetched";
+    public static final String COUNT_TELEMETRY_CACHE_HITS = "telemetry.cache.hits";
+    public static final String COUNT_TELEMETRY_CACHE_MISSES = "telemetry.cache.misses";
+    public static final String COUNT_SAMPLE_SETS_EVALUATED = "sample_sets.evaluated";
+    public static final String COUNT_SAMPLE_SETS_REJECTED = "sample_sets.rejected";
+    public static final String COUNT_SPICE_CALLS = "spice.calls";
+
+    // histograms
+    public static final String HISTOGRAM_FRAMES_PER_QUERY = "telemetry.frames_per_query";
+
+    /**
+     * @param filterName the name of a filter
+     * @return the name of the stage timing each evaluation of a sample set by the filter
+     */
+    public static String filterStage(String filterName) {
+        return "filter." + filterName;
+    }
+
+    /**
+     * @param filterName the name of a filter
+     * @return the name of the counter of sample sets rejected by the filter
+     */
+    public static String filterRejectionCount(String filterName) {
+        return "filter." + filterName + ".rejected";
+    }
+
+    /**
+     * @param productName the name of an output product
+     * @return the name of the stage timing the writing (or in-memory generation) of the output product
+     */
+    public static String writeProductStage(String productName) {
+        return "write." + productName;
+    }
+}
@@ -0,0 +1,78 @@
+package edu.jhuapl.sd.sig.mmtc.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A lightweight histogram of non-negative values: the count, sum, minimum and maximum of the recorded values, and the
+ * number of values falling in each power-of-two bucket.  Recording a value takes constant time and space.  Safe for
+ * use by multiple threads.
+ */
+public class Histogram {
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    // bucket i counts the values v with 2^(i-1) <= v < 2^i; bucket 0 counts zeroes
+    private final long[] buckets = new long[Long.SIZE];
+
+    /**
+     * Records a value.  Negative values are recorded as zero.
+     *
+     * @param value the value to record
+     */
+    public synchronized void record(long value) {
+        final long v = Math.max(0, value);
+        count++;
+        sum += v;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(v)]++;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the smallest recorded value, or 0 if no values have been recorded
+     */
+    public synchronized long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return the largest recorded value, or 0 if no values have been recorded
+     */
+    public synchronized long getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * @return the mean of the recorded values, or 0 if no values have been recorded
+     */
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @return the number of recorded values below each power of two, for each bucket that holds any values, keyed by
+     *         that (exclusive) upper bound
+     */
+    public synchronized Map<Long, Long> getBucketCounts() {
+        final Map<Long, Long> bucketCounts = new TreeMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                // the last bucket's upper bound, 2^63, is not representable; it is clamped to Long.MAX_VALUE
+                bucketCounts.put(i == buckets.length - 1 ? Long.MAX_VALUE : 1L << i, buckets[i]);
+            }
+        }
+        return Collections.unmodifiableMap(bucketCounts);
+    }
+}
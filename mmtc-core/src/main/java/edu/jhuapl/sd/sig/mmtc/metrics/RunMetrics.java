@@ -0,0 +1,204 @@
+package edu.jhuapl.sd.sig.mmtc.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the timings, counters, and histograms of a single correlation run, so that the time a run spends in each of
+ * its stages, and the amount of work it does in each, can be reported once it completes.  Safe for use by multiple
+ * threads.
+ * <p>
+ * Stage timers record elapsed nanoseconds; each stage may be timed any number of times in a run, and its timings are
+ * accumulated into a {@link Histogram}.  Counters accumulate counts of events, and histograms accumulate arbitrary
+ * non-negative values.  Metric names are free-form, but by convention are lowercase and dot-separated, with the names
+ * used by MMTC itself listed in {@link CorrelationMetricNames}.
+ * <p>
+ * While a run is executing, its metrics are bound to the thread executing it (and to any threads it hands work to via
+ * {@link #bound(Callable)}), and are available to any code on those threads via {@link #current()}.  This is how
+ * code that is not handed the run's context, including telemetry source plugins, can contribute its own metrics to a
+ * run; output product plugins may equally use the metrics in the context they are given.  Outside of a run,
+ * {@link #current()} returns a shared instance that discards everything recorded to it.
+ */
+public class RunMetrics {
+    private static final RunMetrics DISCARDING = new RunMetrics(false);
+    private static final ThreadLocal<RunMetrics> boundMetrics = new ThreadLocal<>();
+
+    private final boolean recording;
+    private final ConcurrentMap<String, Histogram> stageTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public RunMetrics() {
+        this(true);
+    }
+
+    private RunMetrics(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * @return the metrics of the run executing on the calling thread, or, if none, metrics that discard everything
+     *         recorded to them
+     */
+    public static RunMetrics current() {
+        final RunMetrics metrics = boundMetrics.get();
+        return metrics != null ? metrics : DISCARDING;
+    }
+
+    /**
+     * Binds these metrics to the calling thread, so that they are returned by {@link #current()} on this thread until
+     * the returned binding is closed, at which point the thread's prior binding (if any) is restored.
+     *
+     * @return the binding, to be closed when the thread is done contributing to these metrics
+     */
+    public Binding bindToCurrentThread() {
+        final RunMetrics priorMetrics = boundMetrics.get();
+        boundMetrics.set(this);
+        return new Binding(priorMetrics);
+    }
+
+    /**
+     * Wraps a task so that these metrics are bound to whichever thread executes it, for its duration.
+     *
+     * @param task the task to wrap
+     * @param <T> the type of the task's result
+     * @return the wrapped task
+     */
+    public <T> Callable<T> bound(Callable<T> task) {
+        return () -> {
+            try (Binding binding = bindToCurrentThread()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Starts timing a stage.  The elapsed time is recorded when the returned timer is closed, which is best done with
+     * try-with-resources, so that the stage is timed even if it fails.
+     *
+     * @param stage the name of the stage
+     * @return the started timer
+     */
+    public StageTimer time(String stage) {
+        return new StageTimer(this, stage);
+    }
+
+    /**
+     * Records a single timing of a stage.
+     *
+     * @param stage the name of the stage
+     * @param elapsedNanos the time spent in the stage, in nanoseconds
+     */
+    public void recordStageNanos(String stage, long elapsedNanos) {
+        if (recording) {
+            stageTimers.computeIfAbsent(stage, s -> new Histogram()).record(elapsedNanos);
+        }
+    }
+
+    /**
+     * Increments a counter by one.
+     *
+     * @param counter the name of the counter
+     */
+    public void increment(String counter) {
+        add(counter, 1);
+    }
+
+    /**
+     * Increments a counter by the given amount.
+     *
+     * @param counter the name of the counter
+     * @param amount the amount to add to the counter
+     */
+    public void add(String counter, long amount) {
+        if (recording) {
+            counters.computeIfAbsent(counter, c -> new LongAdder()).add(amount);
+        }
+    }
+
+    /**
+     * Records a value into a histogram.
+     *
+     * @param histogram the name of the histogram
+     * @param value the (non-negative) value to record
+     */
+    public void record(String histogram, long value) {
+        if (recording) {
+            histograms.computeIfAbsent(histogram, h -> new Histogram()).record(value);
+        }
+    }
+
+    /**
+     * @param stage the name of a stage
+     * @return the timings of the stage in this run, in nanoseconds, if it has been timed
+     */
+    public Optional<Histogram> getStageTimer(String stage) {
+        return Optional.ofNullable(stageTimers.get(stage));
+    }
+
+    /**
+     * @param counter the name of a counter
+     * @return the counter's value, which is 0 if it has not been incremented
+     */
+    public long getCount(String counter) {
+        final LongAdder adder = counters.get(counter);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * @param histogram the name of a histogram
+     * @return the histogram, if any values have been recorded to it
+     */
+    public Optional<Histogram> getHistogram(String histogram) {
+        return Optional.ofNullable(histograms.get(histogram));
+    }
+
+    /**
+     * @return the timings of every stage timed in this run, in nanoseconds, ordered by stage name
+     */
+    public Map<String, Histogram> getStageTimers() {
+        return Collections.unmodifiableMap(new TreeMap<>(stageTimers));
+    }
+
+    /**
+     * @return the value of every counter incremented in this run, ordered by counter name
+     */
+    public Map<String, Long> getCounts() {
+        final Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((name, adder) -> counts.put(name, adder.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * @return every histogram recorded to in this run, ordered by name
+     */
+    public Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    /**
+     * A binding of run metrics to a thread, which restores the thread's prior binding when closed.
+     */
+    public static class Binding implements AutoCloseable {
+        private final RunMetrics priorMetrics;
+
+        private Binding(RunMetrics priorMetrics) {
+            this.priorMetrics = priorMetrics;
+        }
+
+        @Override
+        public void close() {
+            if (priorMetrics != null) {
+                boundMetrics.set(priorMetrics);
+            } else {
+                boundMetrics.remove();
+            }
+        }
+    }
+}
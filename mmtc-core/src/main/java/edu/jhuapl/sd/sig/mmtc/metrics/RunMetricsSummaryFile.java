@@ -0,0 +1,94 @@
+package edu.jhuapl.sd.sig.mmtc.metrics;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the metrics of a correlation run to a CSV file, one row per stage timer, counter, or histogram.
+ * <p>
+ * Each row gives the metric's type ('stage', 'counter', or 'histogram'), name, and unit.  For a counter, the Count
+ * column holds its value; for a stage timer or histogram, the Count, Sum, Min, Max, and Mean columns summarize the
+ * recorded values, and the Buckets column lists, as semicolon-separated 'upperBound:count' pairs, the number of values
+ * below each (exclusive) power-of-two upper bound.  Stage timings are in nanoseconds.
+ */
+public class RunMetricsSummaryFile {
+    public static final String TYPE = "Type";
+    public static final String NAME = "Name";
+    public static final String UNIT = "Unit";
+    public static final String COUNT = "Count";
+    public static final String SUM = "Sum";
+    public static final String MIN = "Min";
+    public static final String MAX = "Max";
+    public static final String MEAN = "Mean";
+    public static final String BUCKETS = "Buckets";
+
+    private static final List<String> HEADERS = Arrays.asList(TYPE, NAME, UNIT, COUNT, SUM, MIN, MAX, MEAN, BUCKETS);
+
+    private RunMetricsSummaryFile() { }
+
+    /**
+     * Writes the given metrics to a new summary file, replacing any existing file at the path.
+     *
+     * @param metrics the metrics of a run
+     * @param path the path of the summary file, whose parent directories are created if necessary
+     * @throws IOException if the file could not be written
+     */
+    public static void write(RunMetrics metrics, Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+
+        try (CSVPrinter printer = new CSVPrinter(new FileWriter(path.toFile(), false), CSVFormat.DEFAULT)) {
+            printer.printRecord(HEADERS);
+
+            for (Map.Entry<String, Histogram> stage : metrics.getStageTimers().entrySet()) {
+                printHistogram(printer, "stage", stage.getKey(), "ns", stage.getValue());
+            }
+
+            for (Map.Entry<String, Long> counter : metrics.getCounts().entrySet()) {
+                printer.printRecord("counter", counter.getKey(), "", counter.getValue(), "", "", "", "", "");
+            }
+
+            for (Map.Entry<String, Histogram> histogram : metrics.getHistograms().entrySet()) {
+                printHistogram(printer, "histogram", histogram.getKey(), "", histogram.getValue());
+            }
+        }
+    }
+
+    private static void printHistogram(CSVPrinter printer, String type, String name, String unit, Histogram histogram) throws IOException {
+        final String buckets = histogram.getBucketCounts().entrySet().stream()
+                .map(bucket -> bucket.getKey() + ":" + bucket.getValue())
+                .collect(Collectors.joining(";"));
+
+        printer.printRecord(
+                type,
+                name,
+                unit,
+                histogram.getCount(),
+                histogram.getSum(),
+                histogram.getMin(),
+                histogram.getMax(),
+                String.format("%.1f", histogram.getMean()),
+                buckets
+        );
+    }
+
+    /**
+     * Summarizes the total time spent in each stage of a run, in milliseconds, on a single line.
+     *
+     * @param metrics the metrics of a run
+     * @return the summary
+     */
+    public static String summarizeStageTimings(RunMetrics metrics) {
+        return metrics.getStageTimers().entrySet().stream()
+                .map(stage -> String.format("%s=%.1fms", stage.getKey(), stage.getValue().getSum() / 1e6))
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,28 @@
+package edu.jhuapl.sd.sig.mmtc.metrics;
+
+/**
+ * Times a single execution of a stage of a run, from its creation until it is closed.
+ */
+public class StageTimer implements AutoCloseable {
+    private final RunMetrics metrics;
+    private final String stage;
+    private final long startNanos;
+    private boolean closed;
+
+    StageTimer(RunMetrics metrics, String stage) {
+        this.metrics = metrics;
+        this.stage = stage;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since this timer was started.  Only the first call has any effect.
+     */
+    @Override
+    public void close() {
+        if (! closed) {
+            closed = true;
+            metrics.recordStageNanos(stage, System.nanoTime() - startNanos);
+        }
+    }
+}
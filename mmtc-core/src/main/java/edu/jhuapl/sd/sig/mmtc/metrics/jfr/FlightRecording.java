@@ -0,0 +1,86 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * A Java Flight Recording of a single correlation run, which records every MMTC event alongside the JDK's events in
+ * its 'default' settings (including method samples, garbage collections, and file and socket I/O over their usual
+ * thresholds).  Events are recorded from every thread in the process, so a recording of one run may include events
+ * from other runs executing concurrently with it.
+ * <p>
+ * Recordings can only be taken on JVMs that provide the jdk.jfr module; see {@link #isAvailable()}.
+ * </p>
+ */
+public class FlightRecording implements AutoCloseable {
+    private final Recording recording;
+
+    private FlightRecording(Recording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * @return true if the running JVM provides Java Flight Recorder (Java 11 and later, or Java 8 from 8u262 on
+     * OpenJDK builds), false otherwise
+     */
+    public static boolean isAvailable() {
+        return MmtcEvent.JFR_AVAILABLE;
+    }
+
+    /**
+     * Starts a new recording.
+     *
+     * @param name the name of the recording, as shown in JDK Mission Control
+     * @return the running recording
+     * @throws IOException if Java Flight Recorder is not available, or the JDK's default recording settings could not
+     * be read
+     */
+    public static FlightRecording start(String name) throws IOException {
+        if (! isAvailable()) {
+            throw new IOException("Java Flight Recorder is not available in this JVM; flight recordings require Java 11 or later, or an OpenJDK build of Java 8u262 or later");
+        }
+
+        final Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (ParseException e) {
+            throw new IOException("Could not parse the default flight recording settings", e);
+        }
+
+        recording.setName(name);
+        recording.setToDisk(true);
+        for (Class<? extends Event> eventType : JfrEvents.EVENT_TYPES) {
+            recording.enable(eventType).withThreshold(Duration.ZERO);
+        }
+
+        recording.start();
+        return new FlightRecording(recording);
+    }
+
+    /**
+     * Stops the recording, if still running, and writes it to a file.
+     *
+     * @param path the path of the recording file, whose parent directories are created if necessary
+     * @throws IOException if the file could not be written
+     */
+    public void dump(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        recording.stop();
+        recording.dump(path);
+    }
+
+    /**
+     * Stops and discards the recording, if still running.
+     */
+    @Override
+    public void close() {
+        recording.close();
+    }
+}
@@ -0,0 +1,153 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The Java Flight Recorder events underlying MMTC's {@link MmtcEvent}s.  Along with {@link FlightRecording}, these are
+ * the only classes that link against jdk.jfr, and are only loaded once {@link MmtcEvent} has found it to be available.
+ */
+final class JfrEvents {
+    static final List<Class<? extends Event>> EVENT_TYPES = Arrays.asList(
+            SpiceCall.class,
+            TelemetryFetch.class,
+            TelemetryCacheLookup.class,
+            Subprocess.class,
+            OutputProductWrite.class
+    );
+
+    private JfrEvents() { }
+
+    @Category("MMTC")
+    @StackTrace(false)
+    abstract static class Base extends Event {
+        void endAndCommit() {
+            end();
+            if (shouldCommit()) {
+                commit();
+            }
+        }
+    }
+
+    @Name("edu.jhuapl.sd.sig.mmtc.SpiceCall")
+    @Label("SPICE Call")
+    @Description("A call to a TimeConvert SPICE wrapper")
+    static final class SpiceCall extends Base {
+        @Label("Operation")
+        @Description("The name of the TimeConvert method")
+        String operation;
+
+        static SpiceCall begin(String operation) {
+            final SpiceCall event = new SpiceCall();
+            event.operation = operation;
+            event.begin();
+            return event;
+        }
+    }
+
+    @Name("edu.jhuapl.sd.sig.mmtc.TelemetryFetch")
+    @Label("Telemetry Fetch")
+    @Description("A query of a telemetry source for the samples in an ERT range")
+    static final class TelemetryFetch extends Base {
+        @Label("Source")
+        String source;
+
+        @Label("Start ERT")
+        String startErt;
+
+        @Label("Stop ERT")
+        String stopErt;
+
+        @Label("Sample Count")
+        @Description("The number of samples returned, or -1 if the query failed or its samples are read incrementally")
+        int sampleCount = -1;
+
+        static TelemetryFetch begin(String source, String startErt, String stopErt) {
+            final TelemetryFetch event = new TelemetryFetch();
+            event.source = source;
+            event.startErt = startErt;
+            event.stopErt = stopErt;
+            event.begin();
+            return event;
+        }
+    }
+
+    @Name("edu.jhuapl.sd.sig.mmtc.TelemetryCacheLookup")
+    @Label("Telemetry Cache Lookup")
+    @Description("A lookup of the samples in an ERT range in the telemetry cache")
+    static final class TelemetryCacheLookup extends Base {
+        @Label("Start ERT")
+        String startErt;
+
+        @Label("Stop ERT")
+        String stopErt;
+
+        @Label("Hit")
+        @Description("Whether the cache already held the entire range")
+        boolean hit;
+
+        @Label("Missing Ranges")
+        @Description("The number of parts of the range queried from the underlying telemetry source")
+        int missingRanges;
+
+        static TelemetryCacheLookup begin(String startErt, String stopErt, int missingRanges) {
+            final TelemetryCacheLookup event = new TelemetryCacheLookup();
+            event.startErt = startErt;
+            event.stopErt = stopErt;
+            event.hit = missingRanges == 0;
+            event.missingRanges = missingRanges;
+            event.begin();
+            return event;
+        }
+    }
+
+    @Name("edu.jhuapl.sd.sig.mmtc.Subprocess")
+    @Label("Subprocess")
+    @Description("The execution of a subprocess by a telemetry source")
+    static final class Subprocess extends Base {
+        @Label("Command")
+        String command;
+
+        @Label("Exit Code")
+        @Description("The exit code of the subprocess, or -1 if it did not exit normally")
+        int exitCode = -1;
+
+        @Label("Stdout Bytes")
+        @DataAmount
+        long stdoutBytes;
+
+        static Subprocess begin(String command) {
+            final Subprocess event = new Subprocess();
+            event.command = command;
+            event.begin();
+            return event;
+        }
+    }
+
+    @Name("edu.jhuapl.sd.sig.mmtc.OutputProductWrite")
+    @Label("Output Product Write")
+    @Description("The writing of an output product by a correlation run")
+    static final class OutputProductWrite extends Base {
+        @Label("Product")
+        String product;
+
+        @Label("Dry Run Mode")
+        String dryRunMode;
+
+        static OutputProductWrite begin(String product, String dryRunMode) {
+            final OutputProductWrite event = new OutputProductWrite();
+            event.product = product;
+            event.dryRunMode = dryRunMode;
+            event.begin();
+            return event;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+/**
+ * The base of MMTC's Java Flight Recorder events, each of which times an operation from its creation until it is
+ * closed, and is committed to any recording in which it is enabled.  When no such recording is running, creating and
+ * closing an event costs little more than an allocation, which the JIT usually eliminates.
+ * <p>
+ * Each event is a facade over one of the JFR events in {@link JfrEvents}, which are only loaded if the running JVM
+ * provides the jdk.jfr module (Java 11 and later, or Java 8 from 8u262 on OpenJDK builds).  Otherwise, every event is
+ * a shared instance that does nothing, so that MMTC runs as before on JVMs without JFR.
+ * </p>
+ * <p>
+ * Subclasses begin timing in their static factory methods.  Fields describing the outcome of the operation may be set
+ * at any point before the event is closed.
+ * </p>
+ */
+public abstract class MmtcEvent implements AutoCloseable {
+    static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    // held as an Object so that this class and its subclasses can be loaded where jdk.jfr is absent
+    final Object jfrEvent;
+
+    MmtcEvent(Object jfrEvent) {
+        this.jfrEvent = jfrEvent;
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, MmtcEvent.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if this event is enabled in a running recording, false otherwise
+     */
+    public boolean isEnabled() {
+        return jfrEvent != null && ((JfrEvents.Base) jfrEvent).isEnabled();
+    }
+
+    /**
+     * Ends the timed operation and commits this event, if enabled.
+     */
+    @Override
+    public void close() {
+        if (jfrEvent != null) {
+            ((JfrEvents.Base) jfrEvent).endAndCommit();
+        }
+    }
+}
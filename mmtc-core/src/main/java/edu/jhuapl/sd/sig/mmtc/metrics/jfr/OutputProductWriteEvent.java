@@ -0,0 +1,24 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+/**
+ * Times the writing (or, in a dry run, the printing or in-memory generation) of an output product by a correlation run.
+ */
+public class OutputProductWriteEvent extends MmtcEvent {
+    private static final OutputProductWriteEvent DISABLED = new OutputProductWriteEvent(null);
+
+    private OutputProductWriteEvent(Object jfrEvent) {
+        super(jfrEvent);
+    }
+
+    /**
+     * @param product the name of the output product
+     * @param dryRunMode the dry run mode of the correlation run
+     * @return a new event, timing the write from now until it is closed
+     */
+    public static OutputProductWriteEvent begin(String product, String dryRunMode) {
+        if (! JFR_AVAILABLE) {
+            return DISABLED;
+        }
+        return new OutputProductWriteEvent(JfrEvents.OutputProductWrite.begin(product, dryRunMode));
+    }
+}
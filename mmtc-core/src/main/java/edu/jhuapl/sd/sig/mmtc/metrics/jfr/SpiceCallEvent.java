@@ -0,0 +1,24 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+/**
+ * Times a call to a SPICE wrapper in {@link edu.jhuapl.sd.sig.mmtc.util.TimeConvert}, which may make one or more
+ * calls to CSPICE, and which may itself call other wrappers.
+ */
+public class SpiceCallEvent extends MmtcEvent {
+    private static final SpiceCallEvent DISABLED = new SpiceCallEvent(null);
+
+    private SpiceCallEvent(Object jfrEvent) {
+        super(jfrEvent);
+    }
+
+    /**
+     * @param operation the name of the wrapper method
+     * @return a new event, timing the call from now until it is closed
+     */
+    public static SpiceCallEvent begin(String operation) {
+        if (! JFR_AVAILABLE) {
+            return DISABLED;
+        }
+        return new SpiceCallEvent(JfrEvents.SpiceCall.begin(operation));
+    }
+}
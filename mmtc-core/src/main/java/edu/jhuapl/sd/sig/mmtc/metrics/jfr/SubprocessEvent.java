@@ -0,0 +1,41 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+/**
+ * Times the execution of a subprocess, such as an AMPCS command line tool, by a telemetry source.
+ */
+public class SubprocessEvent extends MmtcEvent {
+    private static final SubprocessEvent DISABLED = new SubprocessEvent(null);
+
+    private SubprocessEvent(Object jfrEvent) {
+        super(jfrEvent);
+    }
+
+    /**
+     * @param command the command line of the subprocess
+     * @return a new event, timing the subprocess from now until it is closed
+     */
+    public static SubprocessEvent begin(String command) {
+        if (! JFR_AVAILABLE) {
+            return DISABLED;
+        }
+        return new SubprocessEvent(JfrEvents.Subprocess.begin(command));
+    }
+
+    /**
+     * @param exitCode the exit code of the subprocess
+     */
+    public void setExitCode(int exitCode) {
+        if (jfrEvent != null) {
+            ((JfrEvents.Subprocess) jfrEvent).exitCode = exitCode;
+        }
+    }
+
+    /**
+     * @param stdoutBytes the number of bytes the subprocess wrote to stdout
+     */
+    public void setStdoutBytes(long stdoutBytes) {
+        if (jfrEvent != null) {
+            ((JfrEvents.Subprocess) jfrEvent).stdoutBytes = stdoutBytes;
+        }
+    }
+}
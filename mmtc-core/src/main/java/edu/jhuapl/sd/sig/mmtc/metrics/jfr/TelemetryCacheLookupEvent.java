@@ -0,0 +1,28 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Times a lookup of the samples in an ERT range in the telemetry cache, including the queries of the underlying
+ * telemetry source for any parts of the range the cache did not yet hold.
+ */
+public class TelemetryCacheLookupEvent extends MmtcEvent {
+    private static final TelemetryCacheLookupEvent DISABLED = new TelemetryCacheLookupEvent(null);
+
+    private TelemetryCacheLookupEvent(Object jfrEvent) {
+        super(jfrEvent);
+    }
+
+    /**
+     * @param startErt the start of the range, inclusive
+     * @param stopErt the end of the range, exclusive
+     * @param missingRanges the number of parts of the range that the cache did not yet hold
+     * @return a new event, timing the lookup from now until it is closed
+     */
+    public static TelemetryCacheLookupEvent begin(OffsetDateTime startErt, OffsetDateTime stopErt, int missingRanges) {
+        if (! JFR_AVAILABLE) {
+            return DISABLED;
+        }
+        return new TelemetryCacheLookupEvent(JfrEvents.TelemetryCacheLookup.begin(String.valueOf(startErt), String.valueOf(stopErt), missingRanges));
+    }
+}
@@ -0,0 +1,37 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Times a query of a telemetry source for the samples in an ERT range, as by
+ * {@link edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource#getSamplesInRange}.
+ */
+public class TelemetryFetchEvent extends MmtcEvent {
+    private static final TelemetryFetchEvent DISABLED = new TelemetryFetchEvent(null);
+
+    private TelemetryFetchEvent(Object jfrEvent) {
+        super(jfrEvent);
+    }
+
+    /**
+     * @param source the name of the telemetry source
+     * @param startErt the start of the queried range, inclusive
+     * @param stopErt the end of the queried range, exclusive
+     * @return a new event, timing the query from now until it is closed
+     */
+    public static TelemetryFetchEvent begin(String source, OffsetDateTime startErt, OffsetDateTime stopErt) {
+        if (! JFR_AVAILABLE) {
+            return DISABLED;
+        }
+        return new TelemetryFetchEvent(JfrEvents.TelemetryFetch.begin(source, String.valueOf(startErt), String.valueOf(stopErt)));
+    }
+
+    /**
+     * @param sampleCount the number of samples returned by the query
+     */
+    public void setSampleCount(int sampleCount) {
+        if (jfrEvent != null) {
+            ((JfrEvents.TelemetryFetch) jfrEvent).sampleCount = sampleCount;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package edu.jhuapl.sd.sig.mmtc.multimission;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
+import edu.jhuapl.sd.sig.mmtc.cfg.MultiMissionConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationCliInputConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.util.ResidentSpiceKernels;
+import edu.jhuapl.sd.sig.mmtc.util.SpiceKernelPoolLock;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+
+/**
+ * Correlates several missions in a single process, producing the same output products and Run History File entries
+ * for each mission as running its correlations with separate invocations of 'mmtc correlation' against its own
+ * configuration.
+ * <p>
+ * Each mission's correlations run in order on a thread of their own, building on one another as in a replay, while the
+ * correlations of different missions run concurrently.  As the SPICE kernel pool is shared across the process, SPICE
+ * use is serialized through a {@link SpiceKernelPoolLock}: each correlation holds the pool while it runs, except while
+ * it waits on telemetry, so that one mission's telemetry queries overlap with other missions' computations.  The
+ * kernels common to every mission (such as the LSK, planetary ephemerides, and station frames) are loaded once and
+ * stay loaded throughout; only each mission's own kernels (such as its SCLK kernel) are swapped in and out of the pool
+ * as it passes between missions.
+ * <p>
+ * Each mission's telemetry source is configured and connected once, before its first correlation, and is shared by
+ * all of its correlations, as in a replay.
+ * <p>
+ * Each mission must have its own output products, Run History File, and lock file, all of which are held for the
+ * duration of the run.  A mission whose correlation fails runs no further correlations, but other missions continue.
+ */
+public class MultiMissionCorrelation {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final MultiMissionConfig config;
+    private final SpiceKernelPoolLock spiceKernelPool = new SpiceKernelPoolLock();
+
+    public MultiMissionCorrelation(MultiMissionConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * The outcome of correlating one mission.
+     */
+    private static class MissionResult {
+        final List<TimeCorrelationContext> completedCorrelations;
+        final Optional<Exception> failure;
+
+        MissionResult(List<TimeCorrelationContext> completedCorrelations, Optional<Exception> failure) {
+            this.completedCorrelations = completedCorrelations;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Runs every mission's correlations.
+     *
+     * @return the contexts of the correlations that completed successfully, in order, by mission name
+     * @throws MmtcException if any mission's configuration could not be loaded, if missions share output locations,
+     *                       or if any correlation failed
+     */
+    public Map<String, List<TimeCorrelationContext>> run() throws MmtcException {
+        final List<MultiMissionConfig.Mission> missions = config.getMissions();
+
+        final Map<String, MmtcConfig> missionConfigs = new LinkedHashMap<>();
+        for (MultiMissionConfig.Mission mission : missions) {
+            try {
+                missionConfigs.put(mission.name, new MmtcConfig(mission.configDirectory));
+            } catch (Exception e) {
+                throw new MmtcException(String.format("Unable to load the configuration of mission %s from %s", mission.name, mission.configDirectory), e);
+            }
+        }
+
+        ensureMissionsAreIsolated(missionConfigs);
+
+        final List<MmtcConfig> lockedConfigs = new ArrayList<>();
+        final Map<String, MissionResult> results = new LinkedHashMap<>();
+
+        try {
+            for (MmtcConfig missionConfig : missionConfigs.values()) {
+                missionConfig.acquireLockFile();
+                lockedConfigs.add(missionConfig);
+            }
+
+            TimeConvert.loadSpiceLib();
+            loadSharedKernels(missionConfigs);
+
+            final ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.min(config.getMaxConcurrentMissions(), missions.size()),
+                    MultiMissionCorrelation::newMissionThread
+            );
+
+            try {
+                final Map<String, Future<MissionResult>> missionRuns = new LinkedHashMap<>();
+                for (MultiMissionConfig.Mission mission : missions) {
+                    final MmtcConfig missionConfig = missionConfigs.get(mission.name);
+                    missionRuns.put(mission.name, executor.submit(() -> correlateMission(mission, missionConfig)));
+                }
+
+                for (Map.Entry<String, Future<MissionResult>> missionRun : missionRuns.entrySet()) {
+                    results.put(missionRun.getKey(), awaitMission(missionRun.getValue()));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            spiceKernelPool.getResidentSpiceKernels().unloadAll();
+
+            for (MmtcConfig lockedConfig : lockedConfigs) {
+                try {
+                    lockedConfig.releaseLockFile();
+                } catch (MmtcException e) {
+                    logger.error("Unable to release lock file " + lockedConfig.getLockFileLocation(), e);
+                }
+            }
+        }
+
+        final Map<String, List<TimeCorrelationContext>> completedCorrelations = new LinkedHashMap<>();
+        final List<String> failedMissions = new ArrayList<>();
+        for (MultiMissionConfig.Mission mission : missions) {
+            final MissionResult result = results.get(mission.name);
+            completedCorrelations.put(mission.name, Collections.unmodifiableList(result.completedCorrelations));
+
+            if (result.failure.isPresent()) {
+                failedMissions.add(mission.name);
+            }
+
+            logger.info(USER_NOTICE, String.format("Mission %s: %d of %d correlation(s) completed%s", mission.name, result.completedCorrelations.size(), mission.getCorrelationArgs().size(), result.failure.map(e -> "; failed: " + e.getMessage()).orElse(".")));
+        }
+
+        if (! failedMissions.isEmpty()) {
+            throw new MmtcException(String.format("Multi-mission correlation completed, but %d of %d missions failed (%s); see the log for details.", failedMissions.size(), missions.size(), String.join(", ", failedMissions)));
+        }
+
+        return Collections.unmodifiableMap(completedCorrelations);
+    }
+
+    /**
+     * Ensures that no two missions would write to the same Run History File or hold the same lock file, as their
+     * correlations would otherwise interfere with one another.
+     */
+    private static void ensureMissionsAreIsolated(Map<String, MmtcConfig> missionConfigs) throws MmtcException {
+        final Map<Path, String> runHistoryFileOwners = new HashMap<>();
+        final Map<Path, String> lockFileOwners = new HashMap<>();
+
+        for (Map.Entry<String, MmtcConfig> missionConfig : missionConfigs.entrySet()) {
+            final String name = missionConfig.getKey();
+
+            final String runHistoryFileOwner = runHistoryFileOwners.putIfAbsent(missionConfig.getValue().getRunHistoryFilePath().toAbsolutePath().normalize(), name);
+            if (runHistoryFileOwner != null) {
+                throw new MmtcException(String.format("Missions %s and %s are configured with the same Run History File; each mission must have its own output products.", runHistoryFileOwner, name));
+            }
+
+            final String lockFileOwner = lockFileOwners.putIfAbsent(missionConfig.getValue().getLockFileLocation().toAbsolutePath().normalize(), name);
+            if (lockFileOwner != null) {
+                throw new MmtcException(String.format("Missions %s and %s are configured with the same lock file; each mission must have its own lock file.", lockFileOwner, name));
+            }
+        }
+    }
+
+    /**
+     * Loads the kernels that every mission loads, in the same order relative to other kernels of the same type, such
+     * that they remain loaded as the kernel pool passes between missions.
+     */
+    private void loadSharedKernels(Map<String, MmtcConfig> missionConfigs) throws MmtcException {
+        final List<Map<String, String>> missionKernels = new ArrayList<>();
+        for (MmtcConfig missionConfig : missionConfigs.values()) {
+            missionKernels.add(missionConfig.getKernelsToLoad());
+        }
+
+        final Map<String, String> sharedKernels = findSharedKernels(missionKernels);
+        logger.info(USER_NOTICE, String.format("Loading %d SPICE kernel(s) shared by all missions: %s", sharedKernels.size(), sharedKernels.keySet()));
+
+        try {
+            spiceKernelPool.getResidentSpiceKernels().load(sharedKernels);
+        } catch (Exception e) {
+            throw new MmtcException("Unable to load the SPICE kernels shared by all missions", e);
+        }
+    }
+
+    /**
+     * Finds the kernels of each type that begin every mission's kernels of that type, as these are the kernels that
+     * {@link ResidentSpiceKernels} keeps loaded when switching between the missions' kernels.
+     *
+     * @param missionKernels each mission's kernels, as maps of kernel paths to kernel types in the order they are loaded
+     * @return the shared kernels, in the order the first mission loads them
+     */
+    static Map<String, String> findSharedKernels(List<Map<String, String>> missionKernels) {
+        final Map<String, List<String>> sharedByType = new LinkedHashMap<>();
+
+        for (int m = 0; m < missionKernels.size(); m++) {
+            final Map<String, List<String>> kernelsByType = groupByType(missionKernels.get(m));
+
+            if (m == 0) {
+                sharedByType.putAll(kernelsByType);
+                continue;
+            }
+
+            for (Map.Entry<String, List<String>> shared : sharedByType.entrySet()) {
+                final List<String> kernelsOfType = kernelsByType.getOrDefault(shared.getKey(), Collections.emptyList());
+                int commonPrefixLength = 0;
+                while (commonPrefixLength < Math.min(shared.getValue().size(), kernelsOfType.size()) && shared.getValue().get(commonPrefixLength).equals(kernelsOfType.get(commonPrefixLength))) {
+                    commonPrefixLength++;
+                }
+                shared.setValue(new ArrayList<>(shared.getValue().subList(0, commonPrefixLength)));
+            }
+        }
+
+        final Map<String, String> sharedKernels = new LinkedHashMap<>();
+        if (missionKernels.isEmpty()) {
+            return sharedKernels;
+        }
+
+        for (Map.Entry<String, String> kernel : missionKernels.get(0).entrySet()) {
+            if (sharedByType.getOrDefault(kernel.getValue(), Collections.emptyList()).contains(kernel.getKey())) {
+                sharedKernels.put(kernel.getKey(), kernel.getValue());
+            }
+        }
+        return sharedKernels;
+    }
+
+    private static Map<String, List<String>> groupByType(Map<String, String> kernels) {
+        final Map<String, List<String>> kernelsByType = new LinkedHashMap<>();
+        for (Map.Entry<String, String> kernel : kernels.entrySet()) {
+            kernelsByType.computeIfAbsent(kernel.getValue(), type -> new ArrayList<>()).add(kernel.getKey());
+        }
+        return kernelsByType;
+    }
+
+    /**
+     * Runs one mission's correlations in order, stopping at the first that fails.
+     */
+    private MissionResult correlateMission(MultiMissionConfig.Mission mission, MmtcConfig missionConfig) {
+        final SpiceKernelPoolLock.Session session = spiceKernelPool.openSession(mission.name);
+        final List<String[]> correlationArgs = mission.getCorrelationArgs();
+        final List<TimeCorrelationContext> completedCorrelations = new ArrayList<>();
+
+        TelemetrySource telemetrySource = null;
+        TimeCorrelationApp priorRun = null;
+
+        try {
+            final MissionConfig missionTlmConfig = new MissionConfig(missionConfig);
+            missionTlmConfig.getTelemetrySource().connect();
+            telemetrySource = missionTlmConfig.getTelemetrySource();
+
+            for (int i = 0; i < correlationArgs.size(); i++) {
+                final String[] args = correlationArgs.get(i);
+                logger.info(USER_NOTICE, String.format("Running correlation %d of %d for mission %s: %s", i + 1, correlationArgs.size(), mission.name, String.join(" ", args)));
+
+                session.acquire();
+                try {
+                    final TimeCorrelationRunConfig runConfig = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig(args), missionTlmConfig);
+
+                    final TimeCorrelationApp run;
+                    if (priorRun == null) {
+                        run = new TimeCorrelationApp(runConfig, Optional.of(spiceKernelPool.getResidentSpiceKernels()));
+                    } else {
+                        run = new TimeCorrelationApp(runConfig, spiceKernelPool.getResidentSpiceKernels(), priorRun);
+                    }
+
+                    completedCorrelations.add(run.run());
+                    priorRun = run;
+                } finally {
+                    if (session.isHeldByCurrentThread()) {
+                        session.release();
+                    }
+                }
+            }
+
+            return new MissionResult(completedCorrelations, Optional.empty());
+        } catch (Exception e) {
+            logger.error(String.format("Correlation %d of %d for mission %s failed; no further correlations will be run for this mission.", completedCorrelations.size() + 1, correlationArgs.size(), mission.name), e);
+            return new MissionResult(completedCorrelations, Optional.of(e));
+        } finally {
+            if (telemetrySource != null) {
+                try {
+                    telemetrySource.disconnect();
+                } catch (MmtcException e) {
+                    logger.warn("Unable to disconnect from the telemetry source of mission " + mission.name, e);
+                }
+            }
+        }
+    }
+
+    private static MissionResult awaitMission(Future<MissionResult> missionRun) throws MmtcException {
+        try {
+            return missionRun.get();
+        } catch (ExecutionException e) {
+            throw new MmtcException("Mission could not be correlated", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MmtcException("Interrupted while waiting for a mission to be correlated", e);
+        }
+    }
+
+    // a mission's configuration, paired with the telemetry source shared by all of the mission's correlations
+    private static class MissionConfig extends MmtcConfigWithTlmSource {
+        MissionConfig(MmtcConfig config) throws Exception {
+            super(config);
+            this.telemetrySource.applyConfiguration(this);
+        }
+    }
+
+    private static Thread newMissionThread(Runnable r) {
+        final Thread thread = new Thread(r, "mmtc-mission-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -20,6 +20,9 @@ import java.util.*;
 
 /**
  * Defines common fields and methods common across all OutputProductDefinition implementations.
+ * <p>
+ * MMTC times the writing of each output product; implementations may record their own timings and counters into the
+ * run's metrics, via the context's {@link edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext#metrics}.
  *
  * @param <T> the type of ResolvedProductLocation that applies to the output product definition
  */
@@ -89,4 +89,8 @@ public class SclkKernelProductDefinition extends EntireFileOutputProductDefiniti
     public ProductWriteResult writeToAlternatePath(TimeCorrelationContext ctx, Path sclkKernelOutputPath) throws MmtcException {
         return SclkKernel.writeNewProduct(ctx, sclkKernelOutputPath);
     }
+
+    public void generateInMemory(TimeCorrelationContext ctx) throws MmtcException {
+        SclkKernel.generateNewProductInMemory(ctx);
+    }
 }
@@ -469,6 +469,27 @@ public class SclkKernel extends TextProduct {
     @Override
     public void readSourceProduct() throws IOException, TextProductException {
         super.readSourceProduct();
+        findEndDataRec();
+    }
+
+    /**
+     * Creates an SCLK kernel whose source product is the new SCLK kernel written by a prior correlation run in this
+     * process, taking its contents from memory instead of re-reading the file that run wrote.
+     *
+     * @param writtenSclkKernel the new SCLK kernel written by the prior run
+     * @return an SCLK kernel at the written kernel's path, with the written kernel's contents as its source product
+     * @throws TextProductException if the written kernel contains no time correlation records
+     */
+    public static SclkKernel fromWrittenKernel(SclkKernel writtenSclkKernel) throws TextProductException {
+        final SclkKernel sclkKernel = new SclkKernel(writtenSclkKernel.getPath());
+        sclkKernel.sourceProductLines.addAll(writtenSclkKernel.newProductLines);
+        sclkKernel.sourceProductReadIn = true;
+        sclkKernel.spItr = sclkKernel.sourceProductLines.listIterator();
+        sclkKernel.findEndDataRec();
+        return sclkKernel;
+    }
+
+    private void findEndDataRec() throws TextProductException {
         this.endDataNum = lastDataRecNum(sourceProductLines);
         if (this.endDataNum < 1) {
             throw new TextProductException("Invalid input SCLK Kernel. No time correlation records found.");
@@ -573,6 +594,23 @@ public class SclkKernel extends TextProduct {
         }
     }
 
+    /**
+     * Generates the full contents of a new SCLK Kernel without writing it to a file.  The contents are then available
+     * from ctx.newSclkKernel via {@link TextProduct#getNewProductLines()}, e.g. for loading into SPICE with
+     * {@link TimeConvert#loadSpiceKernelText(List)}.
+     *
+     * @param ctx the current time correlation context from which to pull information for the output product
+     * @throws MmtcException if the SCLK Kernel cannot be generated
+     */
+    public static void generateNewProductInMemory(TimeCorrelationContext ctx) throws MmtcException {
+        try {
+            calculateNewProduct(ctx);
+            ctx.newSclkKernel.get().updateFile(ctx);
+        } catch (TextProductException | TimeConvertException | IOException ex) {
+            throw new MmtcException("Unable to generate SCLK kernel", ex);
+        }
+    }
+
     private void setSmoothingTriplet(CorrelationTriplet smoothingTriplet) {
         this.smoothingTriplet = Optional.of(smoothingTriplet);
     }
@@ -322,15 +322,12 @@ public class SclkScetFile extends TextProduct {
      */
     private List<SclkScet> convertSclkKernelDataToScetData() throws TimeConvertException {
 
-        List<SclkScet> scetData = new ArrayList<>();
-
-        Double sclkTicks;
-        OffsetDateTime scetUtc;
-        Double dutval;
-        Double sclkrate;
+        List<Double> encSclks = new ArrayList<>();
+        List<String> tdtStrs = new ArrayList<>();
+        List<Double> sclkrates = new ArrayList<>();
 
         /* Extract the individual encSclk, TDT str, and change rate fields from the
-         * SCLK kernel triplet. Convert to the corresponding SCET file fields.
+         * SCLK kernel triplet.
          */
         for (int i = 0; i< sourceProductLines.size(); i++) {
             String sclkKernelRecord = sourceProductLines.get(i).trim();
@@ -339,36 +336,53 @@ public class SclkScetFile extends TextProduct {
             if (isDataRecord(sclkKernelRecord)) {
                 String[] fields = sclkKernelRecord.split("\\s+");
 
-                /* Convert the encoded SCLK back to regular SCLK ticks. */
                 Double encSclk = Double.parseDouble(fields[0]);
-                sclkTicks = TimeConvert.encSclkToSclk(naifScId, clockTickRate, encSclk);
+                encSclks.add(encSclk);
                 logger.trace("SclkScetFile.List(): str encSclk = " + fields[0] + ", Double encSclk = " + encSclk);
 
-                /* Convert the TDT string to a UTC string. Remove the leading "@"
-                 * character if it is there.
-                 */
-                String tdtStr;
+                /* Remove the leading "@" character from the TDT string if it is there. */
                 if (fields[1].startsWith("@")) {
-                    tdtStr = fields[1].substring(1, fields[1].length());
+                    tdtStrs.add(fields[1].substring(1, fields[1].length()));
                 }
                 else {
-                    tdtStr = fields[1];
+                    tdtStrs.add(fields[1]);
                 }
-                scetUtc = TimeConvert.parseIsoDoyUtcStr(TimeConvert.tdtCalStrToUtc(tdtStr, SclkScet.getScetStrSecondsPrecision()));
-                logger.trace("SclkScetFile.List(): tdtStr = " + tdtStr + ", scetUtc = " + scetUtc);
-
-                /* Compute the Delta Universal TIme (DUT) offset of UTC from TDT. */
-                dutval = getDutBefore(scetUtc);
 
                 /* The SCLK change rate is the same as the SCLK kernel clock change rate. */
-                sclkrate = Double.parseDouble(fields[2]);
+                sclkrates.add(Double.parseDouble(fields[2]));
+            }
+        }
 
+        if (encSclks.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-                logger.trace("SclkScetFile.List(): sclkTicks = " + sclkTicks + ", scetUtc = " + scetUtc +
-                        ", dutval = " + dutval + ", sclkrate = " + sclkrate);
-                SclkScet scetRec = new SclkScet(sclkToSclkStr(sclkTicks), scetUtc, dutval, sclkrate);
-                scetData.add(scetRec);
-            }
+        /* Convert the fields of all records to the corresponding SCET file fields at once, so that
+         * the kernel data needed for each conversion is only looked up once.
+         */
+        double[] sclkTicks = TimeConvert.encSclkToSclk(naifScId, clockTickRate, encSclks.stream().mapToDouble(Double::doubleValue).toArray());
+
+        /* Convert the TDT strings to UTC. */
+        String[] scetUtcStrs = TimeConvert.tdtCalStrToUtc(tdtStrs.toArray(new String[0]), SclkScet.getScetStrSecondsPrecision());
+        OffsetDateTime[] scetUtcs = new OffsetDateTime[scetUtcStrs.length];
+        for (int i = 0; i < scetUtcStrs.length; i++) {
+            scetUtcs[i] = TimeConvert.parseIsoDoyUtcStr(scetUtcStrs[i]);
+        }
+
+        /* Compute the Delta Universal TIme (DUT) offset of UTC from TDT. */
+        double utcTdtOffset = TimeConvert.utcTdtOffset();
+        int[] deltaEts = TimeConvert.getDeltaEtBefore(scetUtcs);
+
+        List<SclkScet> scetData = new ArrayList<>(sclkTicks.length);
+        for (int i = 0; i < sclkTicks.length; i++) {
+            Double dutval = utcTdtOffset + deltaEts[i];
+            Double sclkrate = sclkrates.get(i);
+
+            logger.trace("SclkScetFile.List(): tdtStr = " + tdtStrs.get(i) + ", scetUtc = " + scetUtcs[i]);
+            logger.trace("SclkScetFile.List(): sclkTicks = " + sclkTicks[i] + ", scetUtc = " + scetUtcs[i] +
+                    ", dutval = " + dutval + ", sclkrate = " + sclkrate);
+            SclkScet scetRec = new SclkScet(sclkToSclkStr(sclkTicks[i]), scetUtcs[i], dutval, sclkrate);
+            scetData.add(scetRec);
         }
 
         return scetData;
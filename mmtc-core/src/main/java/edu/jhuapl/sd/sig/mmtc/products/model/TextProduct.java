@@ -11,6 +11,7 @@ import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 import java.nio.file.*;
@@ -254,6 +255,16 @@ abstract class TextProduct {
     }
 
 
+    /**
+     * Returns the contents of the new product, as generated by the most recent call to createFile() or updateFile().
+     *
+     * @return the lines of the new product
+     */
+    public List<String> getNewProductLines() {
+        return Collections.unmodifiableList(newProductLines);
+    }
+
+
     /**
      * Returns the record in the soureceProduct at the specified index.
      * @param recNum IN the 0-based index of the record to return
@@ -0,0 +1,99 @@
+package edu.jhuapl.sd.sig.mmtc.replay;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.cfg.ReplayConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationCliInputConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.util.ResidentSpiceKernels;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+
+/**
+ * Replays a sequence of correlations in order, in a single process, producing the same output products and Run History
+ * File entries as running each correlation with its own invocation of 'mmtc correlation'.
+ * <p>
+ * Configuration, plugins, and the telemetry source connection are set up once for the whole sequence, and SPICE
+ * kernels are kept loaded between correlations.  Each correlation takes the SCLK kernel written by the correlation
+ * before it, and that correlation's Run History File, from memory rather than re-reading them from disk.  Each
+ * correlation still writes its output products as it completes, so that every correlation in the sequence can be
+ * individually rolled back, and a replay that stops partway can be resumed from the correlation that failed.
+ */
+public class TimeCorrelationReplay {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final ReplayConfig config;
+
+    public TimeCorrelationReplay(ReplayConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Runs each of the configured correlations in order.  Unless the replay is configured to keep going, the replay
+     * stops at the first correlation that fails; the correlations before it remain in place.
+     *
+     * @return the contexts of the correlations that completed successfully, in order
+     * @throws MmtcException if any correlation failed
+     */
+    public List<TimeCorrelationContext> replay() throws MmtcException {
+        final List<String[]> correlationArgs = config.getCorrelationArgs();
+        final List<TimeCorrelationContext> completedCorrelations = new ArrayList<>();
+        final ResidentSpiceKernels residentSpiceKernels = new ResidentSpiceKernels();
+        int numFailed = 0;
+
+        config.getTelemetrySource().connect();
+
+        try {
+            TimeCorrelationApp priorRun = null;
+
+            for (int i = 0; i < correlationArgs.size(); i++) {
+                final String[] args = correlationArgs.get(i);
+                logger.info(USER_NOTICE, String.format("Replaying correlation %d of %d: %s", i + 1, correlationArgs.size(), String.join(" ", args)));
+
+                try {
+                    final TimeCorrelationRunConfig runConfig = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig(args), config);
+                    if (runConfig.isDryRun()) {
+                        throw new MmtcException("Dry runs cannot be replayed, as each correlation in a replay builds on the output products of the last.  To replay correlations without affecting this installation's output products, replay them in an MMTC sandbox.");
+                    }
+
+                    final TimeCorrelationApp run;
+                    if (priorRun == null) {
+                        run = new TimeCorrelationApp(runConfig, Optional.of(residentSpiceKernels));
+                    } else {
+                        run = new TimeCorrelationApp(runConfig, residentSpiceKernels, priorRun);
+                    }
+
+                    completedCorrelations.add(run.run());
+                    priorRun = run;
+                } catch (Exception e) {
+                    if (! config.isKeepGoing()) {
+                        throw new MmtcException(String.format("Replay stopped at correlation %d of %d (%s), which failed; the %d correlation(s) before it were completed.", i + 1, correlationArgs.size(), String.join(" ", args), completedCorrelations.size()), e);
+                    }
+
+                    logger.error(String.format("Replayed correlation %d of %d (%s) failed; continuing with the next correlation.", i + 1, correlationArgs.size(), String.join(" ", args)), e);
+                    numFailed++;
+
+                    // the next correlation reads its inputs from disk, rather than relying on those of the last successful correlation
+                    priorRun = null;
+                }
+            }
+        } finally {
+            config.getTelemetrySource().disconnect();
+            residentSpiceKernels.unloadAll();
+        }
+
+        if (numFailed > 0) {
+            throw new MmtcException(String.format("Replay completed, but %d of %d correlations failed; see the log for details.", numFailed, correlationArgs.size()));
+        }
+
+        logger.info(USER_NOTICE, String.format("Replayed %d correlations successfully.", correlationArgs.size()));
+        return completedCorrelations;
+    }
+}
@@ -43,7 +43,11 @@ public class TimeCorrelationRollback {
     private RollbackOperations rollbackOps;
 
     public TimeCorrelationRollback(String... args) throws Exception {
-        this.config = new RollbackConfig(args);
+        this(new RollbackConfig(args));
+    }
+
+    public TimeCorrelationRollback(RollbackConfig config) throws Exception {
+        this.config = config;
         this.runHistoryFile = new RunHistoryFile(config.getRunHistoryFilePath(), config.getAllOutputProductDefs());
 
         if (! runHistoryFile.exists()) {
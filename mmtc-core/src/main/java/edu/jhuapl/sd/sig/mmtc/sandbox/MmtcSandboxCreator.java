@@ -51,7 +51,11 @@ public class MmtcSandboxCreator {
     private Document sandboxedTkConfig;
 
     public MmtcSandboxCreator(String... args) throws Exception {
-        this.config = new MmtcSandboxCreatorConfig(args);
+        this(new MmtcSandboxCreatorConfig(args));
+    }
+
+    public MmtcSandboxCreator(MmtcSandboxCreatorConfig config) {
+        this.config = config;
 
         // the only argument to this command should be the path
         // check that it exists and is writable
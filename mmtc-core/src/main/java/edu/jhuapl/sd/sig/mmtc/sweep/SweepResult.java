@@ -0,0 +1,69 @@
+package edu.jhuapl.sd.sig.mmtc.sweep;
+
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.products.model.SclkKernel;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The result of evaluating a correlation under one variation of a sweep: the new correlation triplet and related values
+ * if the evaluation succeeded, or the reason it failed.  In either case, the number of candidate sample sets rejected by
+ * filters is included if sample set selection was reached.
+ */
+public class SweepResult {
+    public final int variationNum;
+    public final Map<String, String> variation;
+    public final Optional<String> failureReason;
+    public final Optional<Integer> rejectedSampleSetCount;
+    public final Optional<String> targetErt;
+    public final Optional<SclkKernel.CorrelationTriplet> newPredictedTriplet;
+    public final Optional<Double> interpolatedClockChangeRate;
+    public final Optional<Double> tdtPredictionErrorMs;
+    public final Optional<Double> sclkDriftMsPerDay;
+
+    private SweepResult(int variationNum, Map<String, String> variation, Optional<TimeCorrelationContext> ctx, Optional<String> failureReason) {
+        this.variationNum = variationNum;
+        this.variation = variation;
+        this.failureReason = failureReason;
+
+        this.rejectedSampleSetCount = ctx.filter(c -> c.correlation.rejected_sample_set_count.isSet()).map(c -> c.correlation.rejected_sample_set_count.get());
+        this.targetErt = ctx.filter(c -> c.correlation.target.isSet()).map(c -> c.correlation.target.get().getTargetSample().getErtStr());
+
+        if (failureReason.isPresent()) {
+            this.newPredictedTriplet = Optional.empty();
+            this.interpolatedClockChangeRate = Optional.empty();
+            this.tdtPredictionErrorMs = Optional.empty();
+            this.sclkDriftMsPerDay = Optional.empty();
+        } else {
+            final TimeCorrelationContext c = ctx.get();
+            this.newPredictedTriplet = Optional.of(c.correlation.newPredictedTriplet.get());
+            this.interpolatedClockChangeRate = c.correlation.interpolated_clock_change_rate.isSet() ? Optional.of(c.correlation.interpolated_clock_change_rate.get()) : Optional.empty();
+            this.tdtPredictionErrorMs = c.correlation.metrics.ep_ms.isSet() ? Optional.of(c.correlation.metrics.ep_ms.get()) : Optional.empty();
+            this.sclkDriftMsPerDay = c.correlation.sclk_drift_ms_per_day.isSet() ? Optional.of(c.correlation.sclk_drift_ms_per_day.get()) : Optional.empty();
+        }
+    }
+
+    static SweepResult succeeded(int variationNum, Map<String, String> variation, TimeCorrelationContext ctx) {
+        return new SweepResult(variationNum, variation, Optional.of(ctx), Optional.empty());
+    }
+
+    static SweepResult failed(int variationNum, Map<String, String> variation, Optional<TimeCorrelationContext> ctx, Exception e) {
+        return new SweepResult(variationNum, variation, ctx, Optional.of(describe(e)));
+    }
+
+    public boolean isSuccessful() {
+        return ! failureReason.isPresent();
+    }
+
+    /**
+     * Describes the innermost cause of a failure, which is more specific than the wrapping exceptions' messages.
+     */
+    private static String describe(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,222 @@
+package edu.jhuapl.sd.sig.mmtc.sweep;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.cfg.SweepConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.util.SpiceKernelPoolLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+
+/**
+ * Evaluates a single correlation under each variation of a grid of configuration values, and reports a table comparing
+ * the resulting correlation triplets, TDT prediction errors, and the number of candidate sample sets rejected by
+ * filters.  No output products are written, and the Run History File is not modified.
+ * <p>
+ * The telemetry source is connected once for the whole sweep, and each distinct telemetry query is made only once, with
+ * its results shared by every variation (see {@link edu.jhuapl.sd.sig.mmtc.tlm.MemoizingTelemetrySource}).  SPICE
+ * kernels are loaded once and kept loaded for every variation.  Variations are evaluated on a bounded set of threads.
+ * As CSPICE is not thread-safe, each variation holds a {@link SpiceKernelPoolLock} session while its correlation runs,
+ * except while it waits on telemetry, so that one variation's telemetry queries overlap with another's SPICE use.
+ */
+public class TimeCorrelationSweep {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final SweepConfig config;
+    private final SpiceKernelPoolLock spiceKernelPool;
+
+    public TimeCorrelationSweep(SweepConfig config) {
+        this.config = config;
+        this.spiceKernelPool = new SpiceKernelPoolLock();
+    }
+
+    /**
+     * Evaluates the correlation under every variation, and logs a table comparing the results.  A variation that
+     * fails does not stop the sweep; its failure is reported in its result.
+     *
+     * @return the result of each variation, in the order of the configured variations
+     * @throws MmtcException if the sweep itself could not be run
+     */
+    public List<SweepResult> sweep() throws MmtcException {
+        final List<Map<String, String>> variations = config.getVariations();
+        logger.info(USER_NOTICE, String.format("Sweeping %d variation(s) of the correlation...", variations.size()));
+
+        // run configurations are created up front, on this thread, as each applies the correlation's telemetry source options to the shared telemetry source
+        final List<Optional<TimeCorrelationRunConfig>> runConfigs = new ArrayList<>();
+        final List<Optional<Exception>> runConfigFailures = new ArrayList<>();
+        for (Map<String, String> variation : variations) {
+            try {
+                runConfigs.add(Optional.of(config.createRunConfig(variation)));
+                runConfigFailures.add(Optional.empty());
+            } catch (Exception e) {
+                runConfigs.add(Optional.empty());
+                runConfigFailures.add(Optional.of(e));
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(config.getNumThreads(), variations.size()),
+                TimeCorrelationSweep::newSweepThread
+        );
+        final List<Future<SweepResult>> evaluations = new ArrayList<>();
+        final List<SweepResult> results = new ArrayList<>();
+
+        config.getMemoizingTelemetrySource().connect();
+
+        try {
+            for (int i = 0; i < variations.size(); i++) {
+                final int variationNum = i + 1;
+                final Map<String, String> variation = variations.get(i);
+
+                if (runConfigs.get(i).isPresent()) {
+                    final TimeCorrelationRunConfig runConfig = runConfigs.get(i).get();
+                    evaluations.add(executor.submit(() -> evaluate(variationNum, variation, runConfig)));
+                } else {
+                    logger.warn(String.format("Variation %d (%s) could not be configured.", variationNum, variation), runConfigFailures.get(i).get());
+                    results.add(SweepResult.failed(variationNum, variation, Optional.empty(), runConfigFailures.get(i).get()));
+                }
+            }
+
+            for (Future<SweepResult> evaluation : evaluations) {
+                results.add(awaitEvaluation(evaluation));
+            }
+        } finally {
+            executor.shutdownNow();
+            config.getMemoizingTelemetrySource().disconnect();
+            spiceKernelPool.getResidentSpiceKernels().unloadAll();
+        }
+
+        results.sort((a, b) -> Integer.compare(a.variationNum, b.variationNum));
+
+        logger.info(USER_NOTICE, String.format("Sweep results (%d distinct telemetry queries were made):%n%s", config.getMemoizingTelemetrySource().getNumRetrievedRanges(), formatTable(results)));
+        return Collections.unmodifiableList(results);
+    }
+
+    private SweepResult evaluate(int variationNum, Map<String, String> variation, TimeCorrelationRunConfig runConfig) {
+        final SpiceKernelPoolLock.Session session = spiceKernelPool.openSession("variation " + variationNum);
+        TimeCorrelationApp app = null;
+
+        try {
+            logger.info(USER_NOTICE, String.format("Evaluating variation %d: %s", variationNum, variation));
+
+            final TimeCorrelationContext ctx;
+            session.acquire();
+            try {
+                app = new TimeCorrelationApp(runConfig, Optional.of(spiceKernelPool.getResidentSpiceKernels()));
+                ctx = app.run();
+            } finally {
+                if (session.isHeldByCurrentThread()) {
+                    session.release();
+                }
+            }
+            return SweepResult.succeeded(variationNum, variation, ctx);
+        } catch (Exception e) {
+            logger.warn(String.format("Variation %d (%s) failed.", variationNum, variation), e);
+            return SweepResult.failed(variationNum, variation, app == null ? Optional.empty() : Optional.of(app.getContext()), e);
+        }
+    }
+
+    private static SweepResult awaitEvaluation(Future<SweepResult> evaluation) throws MmtcException {
+        try {
+            return evaluation.get();
+        } catch (ExecutionException e) {
+            throw new MmtcException("Sweep variation could not be evaluated", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MmtcException("Interrupted while waiting for a sweep variation to be evaluated", e);
+        }
+    }
+
+    private static Thread newSweepThread(Runnable r) {
+        final Thread thread = new Thread(r, "mmtc-sweep-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Formats the results as a fixed-width table, with a column for each varied configuration key, followed by the
+     * reasons for any failures.
+     *
+     * @param results the results to format, in order
+     * @return the formatted table
+     */
+    static String formatTable(List<SweepResult> results) {
+        final List<String> headers = new ArrayList<>();
+        final List<Function<SweepResult, String>> columns = new ArrayList<>();
+
+        headers.add("#");
+        columns.add(r -> String.valueOf(r.variationNum));
+
+        for (String variedKey : results.get(0).variation.keySet()) {
+            headers.add(variedKey);
+            columns.add(r -> r.variation.get(variedKey));
+        }
+
+        headers.add("Result");
+        columns.add(r -> r.isSuccessful() ? "OK" : "FAILED");
+        headers.add("Rejected Sets");
+        columns.add(r -> r.rejectedSampleSetCount.map(String::valueOf).orElse("-"));
+        headers.add("Target ERT");
+        columns.add(r -> r.targetErt.orElse("-"));
+        headers.add("Encoded SCLK");
+        columns.add(r -> r.newPredictedTriplet.map(t -> String.format("%.6f", t.encSclk)).orElse("-"));
+        headers.add("TDT(G)");
+        columns.add(r -> r.newPredictedTriplet.map(t -> t.tdtStr).orElse("-"));
+        headers.add("Predicted CLKRATE");
+        columns.add(r -> r.newPredictedTriplet.map(t -> String.format("%.11f", t.clkChgRate)).orElse("-"));
+        headers.add("Interpolated CLKRATE");
+        columns.add(r -> r.interpolatedClockChangeRate.map(rate -> String.format("%.11f", rate)).orElse("-"));
+        headers.add("TDT Error (ms)");
+        columns.add(r -> r.tdtPredictionErrorMs.map(ep -> String.format("%.3f", ep)).orElse("-"));
+        headers.add("Drift (ms/day)");
+        columns.add(r -> r.sclkDriftMsPerDay.map(drift -> String.format("%.6f", drift)).orElse("-"));
+
+        final List<List<String>> rows = new ArrayList<>();
+        rows.add(headers);
+        for (SweepResult result : results) {
+            final List<String> row = new ArrayList<>();
+            for (Function<SweepResult, String> column : columns) {
+                row.add(column.apply(result));
+            }
+            rows.add(row);
+        }
+
+        final int[] widths = new int[headers.size()];
+        for (List<String> row : rows) {
+            for (int i = 0; i < row.size(); i++) {
+                widths[i] = Math.max(widths[i], row.get(i).length());
+            }
+        }
+
+        final StringBuilder table = new StringBuilder();
+        for (List<String> row : rows) {
+            for (int i = 0; i < row.size(); i++) {
+                table.append(String.format("%-" + widths[i] + "s", row.get(i)));
+                table.append(i < row.size() - 1 ? "  " : String.format("%n"));
+            }
+        }
+
+        for (SweepResult result : results) {
+            result.failureReason.ifPresent(reason -> table.append(String.format("Variation %d failed: %s%n", result.variationNum, reason)));
+        }
+
+        return table.toString();
+    }
+}
@@ -41,6 +41,16 @@ public class CachingTelemetrySource implements TelemetrySource {
         underlyingTelemetrySource.applyOption(name, value);
     }
 
+    @Override
+    public void resetOptions() throws MmtcException {
+        underlyingTelemetrySource.resetOptions();
+    }
+
+    @Override
+    public boolean supportsConcurrentQueries() {
+        return underlyingTelemetrySource.supportsConcurrentQueries();
+    }
+
     @Override
     public void checkCorrelationConfiguration(TimeCorrelationRunConfig config) throws MmtcException {
 
@@ -71,6 +81,16 @@ public class CachingTelemetrySource implements TelemetrySource {
         return telemetryCache.getSamplesInRange(startErt, stopErt);
     }
 
+    @Override
+    public FrameSampleBatch getSampleBatchInRange(OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
+        return telemetryCache.getSampleBatchInRange(startErt, stopErt);
+    }
+
+    @Override
+    public FrameSampleIterator iterateSamplesInRange(OffsetDateTime startErt, OffsetDateTime stopErt, FrameSampleIterator.ErtOrder order) throws MmtcException {
+        return FrameSampleIterator.of(telemetryCache.getSampleBatchInRange(startErt, stopErt), order);
+    }
+
     @Override
     public String getActiveOscillatorId(FrameSample targetSample) {
         return underlyingTelemetrySource.getActiveOscillatorId(targetSample);
@@ -0,0 +1,754 @@
+package edu.jhuapl.sd.sig.mmtc.tlm;
+
+import edu.jhuapl.sd.sig.mmtc.util.CdsTimeCode;
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, columnar representation of a sequence of {@link FrameSample}s, in which each field is held in a
+ * primitive array rather than in an object per sample.  A week of frames held this way costs a few tens of bytes per
+ * sample rather than several hundred, and the telemetry sources and caches that read it produce no per-sample garbage.
+ * <p>
+ * ERTs are held as nanoseconds since the Java epoch, along with the form in which they were set (a CDS time code, or
+ * an ISO DOY UTC string of some precision), so that every FrameSample converted to and from a batch is unchanged.
+ * The few values that cannot be reproduced from a primitive (e.g. a CDS time code within a leap second, or a string
+ * in an unusual format) are kept as they were given, alongside the columns.
+ * <p>
+ * Rows are read through {@link Row} views, and batches are sliced with {@link #slice}, neither of which copies any
+ * data.  A batch is built with a {@link Builder}, or converted from a list of FrameSamples with {@link #of}.
+ * <p>
+ * Batches are the form in which telemetry is retrieved, memoized and cached; the sample selection strategies and
+ * filters still operate on FrameSamples, and so are given {@link #toFrameSamples()} of the (typically small) range
+ * they select from, or read the batch one sample at a time through a {@link FrameSampleIterator}.
+ */
+public final class FrameSampleBatch implements Iterable<FrameSampleBatch.Row> {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The value of {@link Row#getErtEpochNanos()} and {@link Row#getSuppErtEpochNanos()} for rows whose ERT is unset or
+     * cannot be represented in epoch nanoseconds
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final FrameSampleBatch EMPTY = new Builder().build();
+
+    // the forms in which an ERT may have been set; values from 1 to 9 are ISO DOY UTC strings with that many fractional digits
+    private static final byte FORM_UNSET = -1;
+    private static final byte FORM_CDS = 0;
+    private static final byte FORM_IRREGULAR = 10;
+
+    // the scale of a data rate that is held alongside the columns
+    private static final byte IRREGULAR_SCALE = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * An ERT as it was set on a FrameSample, where it cannot be reproduced from its column values; either or both
+     * fields may be set.
+     */
+    private static final class IrregularErt {
+        private CdsTimeCode cds;
+        private String str;
+    }
+
+    /**
+     * The columns of a batch and all of its slices.  These are only written by a {@link Builder}.
+     */
+    private static final class Columns {
+        private int[] sclkCoarse;
+        private int[] sclkFine;
+        private long[] ertEpochNanos;
+        private byte[] ertForm;
+        private String[] scet;
+        private int[] pathId;
+        private int[] vcid;
+        private int[] vcfc;
+        private int[] mcfc;
+        private int[] tkSclkCoarse;
+        private int[] tkSclkFine;
+        private int[] tkVcid;
+        private int[] tkVcfc;
+        private double[] tkDataRateBps;
+        private byte[] tkDataRateScale;
+        private String[] tkRfEncoding;
+        private byte[] tkValid;
+        private int[] suppVcid;
+        private int[] suppVcfc;
+        private int[] suppMcfc;
+        private long[] suppErtEpochNanos;
+        private byte[] suppErtForm;
+        private double[] derivedTdBe;
+        private int[] frameSizeBits;
+
+        private final Map<Integer, IrregularErt> irregularErts = new HashMap<>();
+        private final Map<Integer, IrregularErt> irregularSuppErts = new HashMap<>();
+        private final Map<Integer, BigDecimal> irregularDataRates = new HashMap<>();
+
+        private Columns(int capacity) {
+            resize(capacity);
+        }
+
+        private int capacity() {
+            return sclkCoarse.length;
+        }
+
+        private void resize(int capacity) {
+            sclkCoarse = sclkCoarse == null ? new int[capacity] : Arrays.copyOf(sclkCoarse, capacity);
+            sclkFine = sclkFine == null ? new int[capacity] : Arrays.copyOf(sclkFine, capacity);
+            ertEpochNanos = ertEpochNanos == null ? new long[capacity] : Arrays.copyOf(ertEpochNanos, capacity);
+            ertForm = ertForm == null ? new byte[capacity] : Arrays.copyOf(ertForm, capacity);
+            scet = scet == null ? new String[capacity] : Arrays.copyOf(scet, capacity);
+            pathId = pathId == null ? new int[capacity] : Arrays.copyOf(pathId, capacity);
+            vcid = vcid == null ? new int[capacity] : Arrays.copyOf(vcid, capacity);
+            vcfc = vcfc == null ? new int[capacity] : Arrays.copyOf(vcfc, capacity);
+            mcfc = mcfc == null ? new int[capacity] : Arrays.copyOf(mcfc, capacity);
+            tkSclkCoarse = tkSclkCoarse == null ? new int[capacity] : Arrays.copyOf(tkSclkCoarse, capacity);
+            tkSclkFine = tkSclkFine == null ? new int[capacity] : Arrays.copyOf(tkSclkFine, capacity);
+            tkVcid = tkVcid == null ? new int[capacity] : Arrays.copyOf(tkVcid, capacity);
+            tkVcfc = tkVcfc == null ? new int[capacity] : Arrays.copyOf(tkVcfc, capacity);
+            tkDataRateBps = tkDataRateBps == null ? new double[capacity] : Arrays.copyOf(tkDataRateBps, capacity);
+            tkDataRateScale = tkDataRateScale == null ? new byte[capacity] : Arrays.copyOf(tkDataRateScale, capacity);
+            tkRfEncoding = tkRfEncoding == null ? new String[capacity] : Arrays.copyOf(tkRfEncoding, capacity);
+            tkValid = tkValid == null ? new byte[capacity] : Arrays.copyOf(tkValid, capacity);
+            suppVcid = suppVcid == null ? new int[capacity] : Arrays.copyOf(suppVcid, capacity);
+            suppVcfc = suppVcfc == null ? new int[capacity] : Arrays.copyOf(suppVcfc, capacity);
+            suppMcfc = suppMcfc == null ? new int[capacity] : Arrays.copyOf(suppMcfc, capacity);
+            suppErtEpochNanos = suppErtEpochNanos == null ? new long[capacity] : Arrays.copyOf(suppErtEpochNanos, capacity);
+            suppErtForm = suppErtForm == null ? new byte[capacity] : Arrays.copyOf(suppErtForm, capacity);
+            derivedTdBe = derivedTdBe == null ? new double[capacity] : Arrays.copyOf(derivedTdBe, capacity);
+            frameSizeBits = frameSizeBits == null ? new int[capacity] : Arrays.copyOf(frameSizeBits, capacity);
+        }
+
+        /**
+         * Sets the given row to the values of a newly-constructed FrameSample.
+         */
+        private void clear(int i) {
+            sclkCoarse[i] = -1;
+            sclkFine[i] = -1;
+            ertEpochNanos[i] = NO_TIME;
+            ertForm[i] = FORM_UNSET;
+            scet[i] = "-";
+            pathId[i] = -1;
+            vcid[i] = -1;
+            vcfc[i] = -1;
+            mcfc[i] = -1;
+            tkSclkCoarse[i] = -1;
+            tkSclkFine[i] = -1;
+            tkVcid[i] = -1;
+            tkVcfc[i] = -1;
+            tkDataRateBps[i] = -1.0;
+            tkDataRateScale[i] = 1;
+            tkRfEncoding[i] = "-";
+            tkValid[i] = (byte) FrameSample.ValidState.UNSET.ordinal();
+            suppVcid[i] = -1;
+            suppVcfc[i] = -1;
+            suppMcfc[i] = -1;
+            suppErtEpochNanos[i] = NO_TIME;
+            suppErtForm[i] = FORM_UNSET;
+            derivedTdBe[i] = Double.NaN;
+            frameSizeBits[i] = -1;
+        }
+    }
+
+    private final Columns columns;
+    private final int offset;
+    private final int size;
+
+    private FrameSampleBatch(Columns columns, int offset, int size) {
+        this.columns = columns;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * @return a batch with no rows
+     */
+    public static FrameSampleBatch empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Converts a list of FrameSamples to a batch.  This is the adapter for telemetry sources and other components that
+     * produce lists of FrameSamples.
+     *
+     * @param samples the samples, none of which are modified
+     * @return a batch holding the values of the given samples, in the same order
+     */
+    public static FrameSampleBatch of(List<FrameSample> samples) {
+        final Builder builder = new Builder(samples.size());
+        for (FrameSample sample : samples) {
+            builder.add(sample);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return new FrameSamples, equal to those from which this batch was built, in order
+     */
+    public List<FrameSample> toFrameSamples() {
+        final List<FrameSample> samples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            samples.add(row(i).toFrameSample());
+        }
+        return samples;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index of a row within this batch
+     * @return a view of the row
+     * @throws IndexOutOfBoundsException if the index is not within this batch
+     */
+    public Row row(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for batch of size " + size);
+        }
+        return new Row(columns, offset + index);
+    }
+
+    /**
+     * Returns a view of a range of this batch's rows, without copying them.
+     *
+     * @param fromIndex the index of the first row to include
+     * @param toIndex the index after the last row to include
+     * @return the view
+     * @throws IndexOutOfBoundsException if the range is not within this batch
+     */
+    public FrameSampleBatch slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") is out of bounds for batch of size " + size);
+        }
+        return new FrameSampleBatch(columns, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new Iterator<Row>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new Row(columns, offset + next++);
+            }
+        };
+    }
+
+    /**
+     * A read-only view of one row of a batch, whose getters have the same semantics as those of {@link FrameSample}.
+     */
+    public static final class Row {
+        private final Columns c;
+        private final int i;
+
+        private Row(Columns columns, int index) {
+            this.c = columns;
+            this.i = index;
+        }
+
+        public int getSclkCoarse() { return c.sclkCoarse[i]; }
+        public int getSclkFine() { return c.sclkFine[i]; }
+
+        /**
+         * @return the ERT as nanoseconds since the Java epoch, or {@link #NO_TIME} if it is unset or cannot be
+         *         represented as such
+         */
+        public long getErtEpochNanos() { return c.ertEpochNanos[i]; }
+
+        public CdsTimeCode getErt() {
+            return toCds(c.ertForm[i], c.ertEpochNanos[i], c.irregularErts.get(i), "ert");
+        }
+
+        public String getErtStr() {
+            final String str = toStr(c.ertForm[i], c.ertEpochNanos[i], c.irregularErts.get(i));
+            if (str != null) {
+                return str;
+            }
+
+            final CdsTimeCode ert = getErt();
+            try {
+                return TimeConvert.cdsToIsoUtc(ert);
+            } catch (TimeConvertException e) {
+                throw new RuntimeException("ertStr was not explicitly set, and failed to derive it from raw ert value " + ert.toString(), e);
+            }
+        }
+
+        public boolean isErtExplicitlySet() { return isCdsSet(c.ertForm[i], c.irregularErts.get(i)); }
+        public boolean isErtStrExplicitlySet() { return isStrSet(c.ertForm[i], c.irregularErts.get(i)); }
+
+        public String getScet() { return c.scet[i]; }
+        public int getPathId() { return c.pathId[i]; }
+        public int getVcid() { return c.vcid[i]; }
+        public int getVcfc() { return c.vcfc[i]; }
+        public int getMcfc() { return c.mcfc[i]; }
+        public int getTkSclkCoarse() { return c.tkSclkCoarse[i]; }
+        public int getTkSclkFine() { return c.tkSclkFine[i]; }
+        public double getTkSclkComposite(int sclkModulus) { return (c.tkSclkCoarse[i] + ((double) c.tkSclkFine[i] / sclkModulus)); }
+        public int getTkVcid() { return c.tkVcid[i]; }
+        public boolean isTkVcidSet() { return c.tkVcid[i] != -1; }
+        public int getTkVcfc() { return c.tkVcfc[i]; }
+
+        /**
+         * @return the data rate, as by FrameSample.getTkDataRateBps().doubleValue()
+         */
+        public double getTkDataRateBps() { return c.tkDataRateBps[i]; }
+
+        public BigDecimal getTkDataRateBpsDecimal() {
+            if (c.tkDataRateScale[i] == IRREGULAR_SCALE) {
+                return c.irregularDataRates.get(i);
+            }
+            return BigDecimal.valueOf(c.tkDataRateBps[i]).setScale(c.tkDataRateScale[i], RoundingMode.UNNECESSARY);
+        }
+
+        public boolean isTkDataRateSet() { return c.tkDataRateBps[i] != -1.0; }
+        public String getTkRfEncoding() { return c.tkRfEncoding[i]; }
+        public FrameSample.ValidState getTkValid() { return FrameSample.ValidState.values()[c.tkValid[i]]; }
+        public int getSuppVcid() { return c.suppVcid[i]; }
+        public int getSuppVcfc() { return c.suppVcfc[i]; }
+        public int getSuppMcfc() { return c.suppMcfc[i]; }
+
+        /**
+         * @return the supplemental ERT as nanoseconds since the Java epoch, or {@link #NO_TIME} if it is unset or cannot
+         *         be represented as such
+         */
+        public long getSuppErtEpochNanos() { return c.suppErtEpochNanos[i]; }
+
+        public CdsTimeCode getSuppErt() {
+            return toCds(c.suppErtForm[i], c.suppErtEpochNanos[i], c.irregularSuppErts.get(i), "suppErt");
+        }
+
+        public String getSuppErtStr() {
+            final String str = toStr(c.suppErtForm[i], c.suppErtEpochNanos[i], c.irregularSuppErts.get(i));
+            if (str != null) {
+                return str;
+            }
+
+            final CdsTimeCode suppErt = getSuppErt();
+            try {
+                return TimeConvert.cdsToIsoUtc(suppErt);
+            } catch (TimeConvertException e) {
+                logger.error("suppErtStr was not explicitly set, and failed to derive it from raw suppErt value " + suppErt.toString(), e);
+                return "";
+            }
+        }
+
+        public boolean isSuppErtExplicitlySet() { return isCdsSet(c.suppErtForm[i], c.irregularSuppErts.get(i)); }
+        public boolean isSuppErtStrExplicitlySet() { return isStrSet(c.suppErtForm[i], c.irregularSuppErts.get(i)); }
+
+        public double getDerivedTdBe() { return c.derivedTdBe[i]; }
+        public int getFrameSizeBits() { return c.frameSizeBits[i]; }
+        public boolean isFrameSizeBitsSet() { return c.frameSizeBits[i] != -1; }
+
+        /**
+         * @return a new FrameSample equal to the one from which this row was built
+         */
+        public FrameSample toFrameSample() {
+            final FrameSample fs = new FrameSample();
+            fs.setSclkCoarse(getSclkCoarse());
+            fs.setSclkFine(getSclkFine());
+            if (isErtExplicitlySet()) {
+                fs.setErt(getErt());
+            }
+            if (isErtStrExplicitlySet()) {
+                fs.setErtStr(getErtStr());
+            }
+            fs.setScet(getScet());
+            fs.setPathId(getPathId());
+            fs.setVcid(getVcid());
+            fs.setVcfc(getVcfc());
+            fs.setMcfc(getMcfc());
+            fs.setTkSclkCoarse(getTkSclkCoarse());
+            fs.setTkSclkFine(getTkSclkFine());
+            fs.setTkVcid(getTkVcid());
+            fs.setTkVcfc(getTkVcfc());
+            fs.setTkDataRateBps(getTkDataRateBpsDecimal());
+            fs.setTkRfEncoding(getTkRfEncoding());
+            if (getTkValid() != FrameSample.ValidState.UNSET) {
+                fs.setTkValid(getTkValid() == FrameSample.ValidState.VALID);
+            }
+            fs.setSuppVcid(getSuppVcid());
+            fs.setSuppVcfc(getSuppVcfc());
+            fs.setSuppMcfc(getSuppMcfc());
+            if (isSuppErtExplicitlySet()) {
+                fs.setSuppErt(getSuppErt());
+            }
+            if (isSuppErtStrExplicitlySet()) {
+                fs.setSuppErtStr(getSuppErtStr());
+            }
+            fs.setDerivedTdBe(getDerivedTdBe());
+            fs.setFrameSizeBits(getFrameSizeBits());
+            return fs;
+        }
+
+        private static boolean isCdsSet(byte form, IrregularErt irregular) {
+            return form == FORM_CDS || (form == FORM_IRREGULAR && irregular.cds != null);
+        }
+
+        private static boolean isStrSet(byte form, IrregularErt irregular) {
+            return (form > FORM_CDS && form < FORM_IRREGULAR) || (form == FORM_IRREGULAR && irregular.str != null);
+        }
+
+        /**
+         * Returns the CDS form of an ERT, deriving it from its string form if it was only set as a string, as by
+         * FrameSample.getErt().
+         */
+        private static CdsTimeCode toCds(byte form, long epochNanos, IrregularErt irregular, String name) {
+            if (form == FORM_UNSET) {
+                return new CdsTimeCode();
+            }
+            if (form == FORM_CDS) {
+                return CdsTimeCode.fromEpochNanos(epochNanos);
+            }
+            if (form == FORM_IRREGULAR && irregular.cds != null) {
+                return irregular.cds;
+            }
+
+            final String str = toStr(form, epochNanos, irregular);
+            try {
+                return TimeConvert.isoUtcToCds(str);
+            } catch (TimeConvertException e) {
+                logger.error(name + " was not explicitly set, and failed to derive it from UTC " + name + "Str value " + str, e);
+                return new CdsTimeCode();
+            }
+        }
+
+        /**
+         * @return the string form of an ERT, "" if it is unset, or null if it must be derived from its CDS form
+         */
+        private static String toStr(byte form, long epochNanos, IrregularErt irregular) {
+            if (form == FORM_UNSET) {
+                return "";
+            }
+            if (form == FORM_CDS) {
+                return null;
+            }
+            if (form == FORM_IRREGULAR) {
+                return irregular.str;
+            }
+            return IsoDoyUtc.formatEpochNanos(epochNanos, form);
+        }
+    }
+
+    /**
+     * Builds a batch, one row at a time.  A row is begun with {@link #addRow()}, after which its fields are set with
+     * setters named as those of {@link FrameSample}; fields that are not set have the values of a new FrameSample.
+     * A builder cannot be used after {@link #build()} is called.
+     */
+    public static final class Builder {
+        private Columns columns;
+        private int size = 0;
+
+        // the ERTs and data rate of the current row, which are encoded when the row is complete
+        private CdsTimeCode ert;
+        private String ertStr;
+        private CdsTimeCode suppErt;
+        private String suppErtStr;
+        private BigDecimal tkDataRateBps;
+
+        public Builder() {
+            this(INITIAL_CAPACITY);
+        }
+
+        /**
+         * @param expectedSize the number of rows expected to be added
+         */
+        public Builder(int expectedSize) {
+            this.columns = new Columns(Math.max(expectedSize, 1));
+        }
+
+        /**
+         * Begins a new row, completing the current one.
+         *
+         * @return this builder
+         */
+        public Builder addRow() {
+            checkNotBuilt();
+            completeRow();
+
+            if (size == columns.capacity()) {
+                columns.resize(Math.max(2 * size, size + 1));
+            }
+            columns.clear(size);
+            size++;
+            return this;
+        }
+
+        /**
+         * Adds a row holding the values of the given sample.
+         *
+         * @param fs the sample, which is not modified
+         * @return this builder
+         */
+        public Builder add(FrameSample fs) {
+            addRow();
+            setSclkCoarse(fs.getSclkCoarse());
+            setSclkFine(fs.getSclkFine());
+            if (fs.isErtExplicitlySet()) {
+                setErt(fs.getErt());
+            }
+            if (fs.isErtStrExplicitlySet()) {
+                setErtStr(fs.getErtStr());
+            }
+            setScet(fs.getScet());
+            setPathId(fs.getPathId());
+            setVcid(fs.getVcid());
+            setVcfc(fs.getVcfc());
+            setMcfc(fs.getMcfc());
+            setTkSclkCoarse(fs.getTkSclkCoarse());
+            setTkSclkFine(fs.getTkSclkFine());
+            setTkVcid(fs.getTkVcid());
+            setTkVcfc(fs.getTkVcfc());
+            setTkDataRateBps(fs.getTkDataRateBps());
+            setTkRfEncoding(fs.getTkRfEncoding());
+            setTkValid(fs.getTkValid());
+            setSuppVcid(fs.getSuppVcid());
+            setSuppVcfc(fs.getSuppVcfc());
+            setSuppMcfc(fs.getSuppMcfc());
+            if (fs.isSuppErtExplicitlySet()) {
+                setSuppErt(fs.getSuppErt());
+            }
+            if (fs.isSuppErtStrExplicitlySet()) {
+                setSuppErtStr(fs.getSuppErtStr());
+            }
+            setDerivedTdBe(fs.getDerivedTdBe());
+            setFrameSizeBits(fs.getFrameSizeBits());
+            return this;
+        }
+
+        /**
+         * Adds a copy of the given row, which may be from any batch.
+         *
+         * @param row the row
+         * @return this builder
+         */
+        public Builder add(Row row) {
+            addRow();
+            final Columns from = row.c;
+            final int i = row.i;
+            final int j = size - 1;
+
+            columns.sclkCoarse[j] = from.sclkCoarse[i];
+            columns.sclkFine[j] = from.sclkFine[i];
+            columns.scet[j] = from.scet[i];
+            columns.pathId[j] = from.pathId[i];
+            columns.vcid[j] = from.vcid[i];
+            columns.vcfc[j] = from.vcfc[i];
+            columns.mcfc[j] = from.mcfc[i];
+            columns.tkSclkCoarse[j] = from.tkSclkCoarse[i];
+            columns.tkSclkFine[j] = from.tkSclkFine[i];
+            columns.tkVcid[j] = from.tkVcid[i];
+            columns.tkVcfc[j] = from.tkVcfc[i];
+            columns.tkRfEncoding[j] = from.tkRfEncoding[i];
+            columns.tkValid[j] = from.tkValid[i];
+            columns.suppVcid[j] = from.suppVcid[i];
+            columns.suppVcfc[j] = from.suppVcfc[i];
+            columns.suppMcfc[j] = from.suppMcfc[i];
+            columns.derivedTdBe[j] = from.derivedTdBe[i];
+            columns.frameSizeBits[j] = from.frameSizeBits[i];
+
+            // the encoded values are copied as they are, along with any values held alongside them
+            columns.ertEpochNanos[j] = from.ertEpochNanos[i];
+            columns.ertForm[j] = from.ertForm[i];
+            columns.suppErtEpochNanos[j] = from.suppErtEpochNanos[i];
+            columns.suppErtForm[j] = from.suppErtForm[i];
+            columns.tkDataRateBps[j] = from.tkDataRateBps[i];
+            columns.tkDataRateScale[j] = from.tkDataRateScale[i];
+            if (from.ertForm[i] == FORM_IRREGULAR) {
+                columns.irregularErts.put(j, from.irregularErts.get(i));
+            }
+            if (from.suppErtForm[i] == FORM_IRREGULAR) {
+                columns.irregularSuppErts.put(j, from.irregularSuppErts.get(i));
+            }
+            if (from.tkDataRateScale[i] == IRREGULAR_SCALE) {
+                columns.irregularDataRates.put(j, from.irregularDataRates.get(i));
+            }
+            return this;
+        }
+
+        public Builder setSclkCoarse(int sclkCoarse) { columns.sclkCoarse[current()] = sclkCoarse; return this; }
+        public Builder setSclkFine(int sclkFine) { columns.sclkFine[current()] = sclkFine; return this; }
+        public Builder setErt(CdsTimeCode ert) { current(); this.ert = ert; return this; }
+        public Builder setErtStr(String ertStr) { current(); this.ertStr = ertStr; return this; }
+        public Builder setScet(String scet) { columns.scet[current()] = scet; return this; }
+        public Builder setPathId(int pathId) { columns.pathId[current()] = pathId; return this; }
+        public Builder setVcid(int vcid) { columns.vcid[current()] = vcid; return this; }
+        public Builder setVcfc(int vcfc) { columns.vcfc[current()] = vcfc; return this; }
+        public Builder setMcfc(int mcfc) { columns.mcfc[current()] = mcfc; return this; }
+        public Builder setTkSclkCoarse(int tkSclkCoarse) { columns.tkSclkCoarse[current()] = tkSclkCoarse; return this; }
+        public Builder setTkSclkFine(int tkSclkFine) { columns.tkSclkFine[current()] = tkSclkFine; return this; }
+        public Builder setTkVcid(int tkVcid) { columns.tkVcid[current()] = tkVcid; return this; }
+        public Builder setTkVcfc(int tkVcfc) { columns.tkVcfc[current()] = tkVcfc; return this; }
+        public Builder setTkDataRateBps(BigDecimal tkDataRateBps) { current(); this.tkDataRateBps = tkDataRateBps; return this; }
+
+        public Builder setTkDataRateBps(String dataRateBps) {
+            if (! dataRateBps.equals("-")) {
+                setTkDataRateBps(new BigDecimal(dataRateBps));
+            }
+            return this;
+        }
+
+        public Builder setTkRfEncoding(String tkRfEncoding) { columns.tkRfEncoding[current()] = tkRfEncoding; return this; }
+        public Builder setTkValid(boolean tkIsValid) { return setTkValid(tkIsValid ? FrameSample.ValidState.VALID : FrameSample.ValidState.INVALID); }
+        public Builder setSuppVcid(int suppVcid) { columns.suppVcid[current()] = suppVcid; return this; }
+        public Builder setSuppVcfc(int suppVcfc) { columns.suppVcfc[current()] = suppVcfc; return this; }
+        public Builder setSuppMcfc(int suppMcfc) { columns.suppMcfc[current()] = suppMcfc; return this; }
+        public Builder setSuppErt(CdsTimeCode suppErt) { current(); this.suppErt = suppErt; return this; }
+        public Builder setSuppErtStr(String suppErtStr) { current(); this.suppErtStr = suppErtStr; return this; }
+        public Builder setDerivedTdBe(double derivedTdBe) { columns.derivedTdBe[current()] = derivedTdBe; return this; }
+        public Builder setFrameSizeBits(int frameSizeBits) { columns.frameSizeBits[current()] = frameSizeBits; return this; }
+
+        public Builder setFrameSizeBits(String frameSizeBits) {
+            if (! frameSizeBits.equals("-")) {
+                setFrameSizeBits(Integer.parseInt(frameSizeBits));
+            }
+            return this;
+        }
+
+        private Builder setTkValid(FrameSample.ValidState tkValid) {
+            columns.tkValid[current()] = (byte) tkValid.ordinal();
+            return this;
+        }
+
+        /**
+         * @return the batch holding the rows added to this builder
+         */
+        public FrameSampleBatch build() {
+            checkNotBuilt();
+            completeRow();
+
+            final FrameSampleBatch batch = new FrameSampleBatch(columns, 0, size);
+            columns = null;
+            return batch;
+        }
+
+        private int current() {
+            checkNotBuilt();
+            if (size == 0) {
+                throw new IllegalStateException("No row has been added");
+            }
+            return size - 1;
+        }
+
+        private void checkNotBuilt() {
+            if (columns == null) {
+                throw new IllegalStateException("This batch has already been built");
+            }
+        }
+
+        private void completeRow() {
+            if (size == 0) {
+                return;
+            }
+
+            final int i = size - 1;
+            encodeErt(ert, ertStr, i, columns.ertEpochNanos, columns.ertForm, columns.irregularErts);
+            encodeErt(suppErt, suppErtStr, i, columns.suppErtEpochNanos, columns.suppErtForm, columns.irregularSuppErts);
+            encodeDataRate(tkDataRateBps, i);
+
+            ert = null;
+            ertStr = null;
+            suppErt = null;
+            suppErtStr = null;
+            tkDataRateBps = null;
+        }
+
+        private static void encodeErt(CdsTimeCode cds, String str, int i, long[] epochNanos, byte[] forms, Map<Integer, IrregularErt> irregularErts) {
+            if (cds == null && str == null) {
+                return;
+            }
+
+            if (cds != null && str == null) {
+                try {
+                    final long nanos = cds.toEpochNanos();
+                    epochNanos[i] = nanos;
+                    if (nanos % 100 == 0 && CdsTimeCode.fromEpochNanos(nanos).equals(cds)) {
+                        forms[i] = FORM_CDS;
+                        return;
+                    }
+                } catch (ArithmeticException | IllegalArgumentException e) {
+                    epochNanos[i] = NO_TIME;
+                }
+            } else if (cds == null) {
+                final int precision = fractionalDigits(str);
+                try {
+                    final long nanos = IsoDoyUtc.parseToEpochNanos(str);
+                    epochNanos[i] = nanos;
+                    if (precision >= 1 && precision <= 9 && IsoDoyUtc.formatEpochNanos(nanos, precision).equals(str)) {
+                        forms[i] = (byte) precision;
+                        return;
+                    }
+                } catch (DateTimeParseException | ArithmeticException | IllegalArgumentException e) {
+                    epochNanos[i] = NO_TIME;
+                }
+            } else {
+                // as FrameSample does, take the CDS form as the ERT when both are set
+                try {
+                    epochNanos[i] = cds.toEpochNanos();
+                } catch (ArithmeticException e) {
+                    epochNanos[i] = NO_TIME;
+                }
+            }
+
+            final IrregularErt irregular = new IrregularErt();
+            irregular.cds = cds;
+            irregular.str = str;
+            forms[i] = FORM_IRREGULAR;
+            irregularErts.put(i, irregular);
+        }
+
+        private void encodeDataRate(BigDecimal dataRate, int i) {
+            if (dataRate == null) {
+                return;
+            }
+
+            columns.tkDataRateBps[i] = dataRate.doubleValue();
+            final int scale = dataRate.scale();
+            if (scale >= 0 && scale <= Byte.MAX_VALUE) {
+                try {
+                    if (BigDecimal.valueOf(dataRate.doubleValue()).setScale(scale, RoundingMode.UNNECESSARY).equals(dataRate)) {
+                        columns.tkDataRateScale[i] = (byte) scale;
+                        return;
+                    }
+                } catch (ArithmeticException | NumberFormatException e) {
+                    // held alongside the columns
+                }
+            }
+
+            columns.tkDataRateScale[i] = IRREGULAR_SCALE;
+            columns.irregularDataRates.put(i, dataRate);
+        }
+
+        private static int fractionalDigits(String str) {
+            final int decimalPoint = str.lastIndexOf('.');
+            return decimalPoint < 0 ? 0 : str.length() - decimalPoint - 1;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package edu.jhuapl.sd.sig.mmtc.tlm;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.CdsTimeCode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A pull-based, closeable iteration over the {@link FrameSample}s within a range of ERTs, as returned by
+ * {@link TelemetrySource#iterateSamplesInRange}.  Consumers should close the iterator once they have read as many
+ * samples as they need (typically with try-with-resources), which allows a TelemetrySource to stop reading from
+ * its underlying telemetry before reaching the end of the range.
+ * <p>
+ * Unlike {@link java.util.Iterator}, advancing the iteration may throw an MmtcException, as reading telemetry may
+ * fail partway through a range.
+ */
+public interface FrameSampleIterator extends AutoCloseable {
+
+    /**
+     * The order in which a FrameSampleIterator returns samples, by ERT.
+     */
+    enum ErtOrder {
+        OLDEST_FIRST,
+        NEWEST_FIRST
+    }
+
+    /**
+     * @return true if there is at least one more sample to be read
+     * @throws MmtcException if the underlying telemetry cannot be read
+     */
+    boolean hasNext() throws MmtcException;
+
+    /**
+     * @return the next sample
+     * @throws MmtcException if the underlying telemetry cannot be read
+     * @throws NoSuchElementException if there are no more samples
+     */
+    FrameSample next() throws MmtcException;
+
+    /**
+     * Releases any resources held by the iteration.  It is safe to call this method before all samples have been
+     * read, and more than once.
+     *
+     * @throws MmtcException if the resources cannot be cleanly released
+     */
+    @Override
+    void close() throws MmtcException;
+
+    /**
+     * Iterates over an already-retrieved list of samples in the given ERT order.  Samples with equal ERTs are
+     * returned in the order they appear in the list (or its reverse, for {@link ErtOrder#NEWEST_FIRST}).
+     *
+     * @param samples the samples, in any order; the list itself is not modified
+     * @param order the order in which to return the samples
+     * @return an iterator over the given samples
+     */
+    static FrameSampleIterator of(List<FrameSample> samples, ErtOrder order) {
+        final List<FrameSample> sorted = new ArrayList<>(samples);
+        sorted.sort(Comparator.comparing(FrameSample::getErt, CdsTimeCode.CHRONOLOGICAL_ORDER));
+
+        return new IndexedFrameSampleIterator(sorted.size(), order) {
+            @Override
+            FrameSample get(int index) {
+                return sorted.get(index);
+            }
+        };
+    }
+
+    /**
+     * Iterates over the rows of a batch in the given ERT order, converting each row to a FrameSample only as it is
+     * read.  Rows with equal ERTs are returned in the order they appear in the batch (or its reverse, for
+     * {@link ErtOrder#NEWEST_FIRST}).
+     *
+     * @param batch the batch, whose rows may be in any order
+     * @param order the order in which to return the samples
+     * @return an iterator over the batch's rows
+     */
+    static FrameSampleIterator of(FrameSampleBatch batch, ErtOrder order) {
+        final int size = batch.size();
+        final CdsTimeCode[] erts = new CdsTimeCode[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            erts[i] = batch.row(i).getErt();
+            if (i > 0 && CdsTimeCode.CHRONOLOGICAL_ORDER.compare(erts[i - 1], erts[i]) > 0) {
+                sorted = false;
+            }
+        }
+
+        if (sorted) {
+            return new IndexedFrameSampleIterator(size, order) {
+                @Override
+                FrameSample get(int index) {
+                    return batch.row(index).toFrameSample();
+                }
+            };
+        }
+
+        final List<Integer> rowIndices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rowIndices.add(i);
+        }
+        rowIndices.sort(Comparator.comparing(i -> erts[i], CdsTimeCode.CHRONOLOGICAL_ORDER));
+
+        return new IndexedFrameSampleIterator(size, order) {
+            @Override
+            FrameSample get(int index) {
+                return batch.row(rowIndices.get(index)).toFrameSample();
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package edu.jhuapl.sd.sig.mmtc.tlm;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over positions 0 to size-1 of some sequence of samples that is already in ascending ERT order, forwards
+ * or backwards.
+ */
+abstract class IndexedFrameSampleIterator implements FrameSampleIterator {
+    private final int size;
+    private final ErtOrder order;
+    private int numRead = 0;
+    private boolean closed = false;
+
+    IndexedFrameSampleIterator(int size, ErtOrder order) {
+        this.size = size;
+        this.order = order;
+    }
+
+    abstract FrameSample get(int index);
+
+    @Override
+    public boolean hasNext() {
+        return !closed && numRead < size;
+    }
+
+    @Override
+    public FrameSample next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final int index = order == ErtOrder.OLDEST_FIRST ? numRead : size - 1 - numRead;
+        numRead++;
+        return get(index);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,177 @@
+package edu.jhuapl.sd.sig.mmtc.tlm;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache.OffsetDateTimeRange;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A TelemetrySource that retrieves the FrameSamples in each distinct ERT range from an underlying 'actual'
+ * TelemetrySource only once, and answers every later query for the same range from the retained, immutable batch.
+ * This lets many evaluations of the same correlation (e.g. in a parameter sweep) share a single retrieval of their
+ * telemetry, including evaluations running concurrently: a query for a range that is already being retrieved waits for
+ * that retrieval rather than starting another.
+ * <p>
+ * Each query is passed to the underlying source with its exact bounds, so that it returns the same samples it would
+ * from the underlying source.  Retained batches are only released when this source is discarded.  If the underlying
+ * source does not support concurrent queries, the queries passed to it (including ancillary telemetry queries) are
+ * made one at a time, whichever threads they are made from.
+ */
+public class MemoizingTelemetrySource implements TelemetrySource {
+    private final TelemetrySource underlyingTelemetrySource;
+    private final ConcurrentMap<OffsetDateTimeRange, CompletableFuture<FrameSampleBatch>> retrievals = new ConcurrentHashMap<>();
+
+    // held while querying an underlying source that does not support concurrent queries
+    private final Object underlyingQueryLock = new Object();
+
+    public MemoizingTelemetrySource(TelemetrySource underlyingTelemetrySource) {
+        this.underlyingTelemetrySource = underlyingTelemetrySource;
+    }
+
+    @Override
+    public String getName() {
+        return underlyingTelemetrySource.getName();
+    }
+
+    @Override
+    public List<AdditionalOption> getAdditionalOptions() {
+        return underlyingTelemetrySource.getAdditionalOptions();
+    }
+
+    @Override
+    public void applyOption(String name, String value) throws MmtcException {
+        underlyingTelemetrySource.applyOption(name, value);
+    }
+
+    @Override
+    public void resetOptions() throws MmtcException {
+        underlyingTelemetrySource.resetOptions();
+    }
+
+    @Override
+    public boolean supportsConcurrentQueries() {
+        return underlyingTelemetrySource.supportsConcurrentQueries();
+    }
+
+    @Override
+    public void checkCorrelationConfiguration(TimeCorrelationRunConfig config) throws MmtcException {
+        underlyingTelemetrySource.checkCorrelationConfiguration(config);
+    }
+
+    @Override
+    public void applyConfiguration(MmtcConfigWithTlmSource config) throws MmtcException {
+        underlyingTelemetrySource.applyConfiguration(config);
+    }
+
+    @Override
+    public void connect() throws MmtcException {
+        underlyingTelemetrySource.connect();
+    }
+
+    @Override
+    public void disconnect() throws MmtcException {
+        underlyingTelemetrySource.disconnect();
+    }
+
+    @Override
+    public Map<String, String> sandboxTelemetrySourceConfiguration(MmtcConfig mmtcConfig, Path sandboxRoot, Path sandboxConfigRoot) throws IOException {
+        return underlyingTelemetrySource.sandboxTelemetrySourceConfiguration(mmtcConfig, sandboxRoot, sandboxConfigRoot);
+    }
+
+    @Override
+    public List<FrameSample> getSamplesInRange(OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
+        return getSampleBatchInRange(startErt, stopErt).toFrameSamples();
+    }
+
+    @Override
+    public FrameSampleBatch getSampleBatchInRange(OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
+        final OffsetDateTimeRange range = new OffsetDateTimeRange(startErt, stopErt);
+        final CompletableFuture<FrameSampleBatch> newRetrieval = new CompletableFuture<>();
+        final CompletableFuture<FrameSampleBatch> existingRetrieval = retrievals.putIfAbsent(range, newRetrieval);
+
+        if (existingRetrieval == null) {
+            try {
+                final FrameSampleBatch batch = queryUnderlyingSource(() -> underlyingTelemetrySource.getSampleBatchInRange(startErt, stopErt));
+                newRetrieval.complete(batch);
+                return batch;
+            } catch (Throwable e) {
+                // a failed retrieval is not retained, so that a later query for the same range can try again
+                retrievals.remove(range, newRetrieval);
+                newRetrieval.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return existingRetrieval.get();
+        } catch (ExecutionException e) {
+            // another query's retrieval of this range failed (e.g. it was cancelled), and was not retained; try again
+            return getSampleBatchInRange(startErt, stopErt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MmtcException("Interrupted while waiting for telemetry between " + startErt + " and " + stopErt, e);
+        }
+    }
+
+    @Override
+    public FrameSampleIterator iterateSamplesInRange(OffsetDateTime startErt, OffsetDateTime stopErt, FrameSampleIterator.ErtOrder order) throws MmtcException {
+        return FrameSampleIterator.of(getSampleBatchInRange(startErt, stopErt), order);
+    }
+
+    @Override
+    public String getActiveOscillatorId(FrameSample targetSample) {
+        return queryUnderlyingSource(() -> underlyingTelemetrySource.getActiveOscillatorId(targetSample));
+    }
+
+    @Override
+    public double getOscillatorTemperature(OffsetDateTime scet, String oscillatorId) throws MmtcException {
+        return queryUnderlyingSource(() -> underlyingTelemetrySource.getOscillatorTemperature(scet, oscillatorId));
+    }
+
+    @Override
+    public String getActiveRadioId(FrameSample targetSample) {
+        return queryUnderlyingSource(() -> underlyingTelemetrySource.getActiveRadioId(targetSample));
+    }
+
+    @Override
+    public GncParms getGncTkParms(OffsetDateTime noEarlierThanScet, Double noEarlierThanTdtS) {
+        return queryUnderlyingSource(() -> underlyingTelemetrySource.getGncTkParms(noEarlierThanScet, noEarlierThanTdtS));
+    }
+
+    @FunctionalInterface
+    private interface UnderlyingQuery<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Runs a query of the underlying telemetry source, one at a time with any other such queries if the underlying
+     * source does not support concurrent queries.
+     */
+    private <T, E extends Exception> T queryUnderlyingSource(UnderlyingQuery<T, E> query) throws E {
+        if (underlyingTelemetrySource.supportsConcurrentQueries()) {
+            return query.run();
+        }
+
+        synchronized (underlyingQueryLock) {
+            return query.run();
+        }
+    }
+
+    /**
+     * @return the number of distinct ERT ranges retrieved from the underlying telemetry source so far
+     */
+    public int getNumRetrievedRanges() {
+        return (int) retrievals.values().stream().filter(r -> r.isDone() && ! r.isCompletedExceptionally()).count();
+    }
+}
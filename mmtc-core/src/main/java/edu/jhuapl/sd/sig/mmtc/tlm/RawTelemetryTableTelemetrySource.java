@@ -59,6 +59,12 @@ public class RawTelemetryTableTelemetrySource implements TelemetrySource {
         // no-op
     }
 
+    @Override
+    public boolean supportsConcurrentQueries() {
+        // reads of the table are serialized, and the ancillary lookups are the defaults
+        return true;
+    }
+
     @Override
     public Map<String, String> sandboxTelemetrySourceConfiguration(MmtcConfig mmtcConfig, Path sandboxRoot, Path sandboxConfigRoot) throws IOException {
         final Path originalTablePath = Paths.get(mmtcConfig.getString(RAW_TLM_TABLE_PATH_CONFIG_KEY));
@@ -110,57 +116,78 @@ public class RawTelemetryTableTelemetrySource implements TelemetrySource {
      */
     @Override
     public List<FrameSample> getSamplesInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
+        return getSampleBatchInRange(start, stop).toFrameSamples();
+    }
+
+    /**
+     * Read each record from the table as by {@link #getSampleBatchInRange}, converting each row to a FrameSample only
+     * as it is iterated over.
+     *
+     * @param start the beginning of the ERT time range to query for timekeeping telemetry
+     * @param stop the end of the ERT time range to query for timekeeping telemetry
+     * @param order the ERT order in which to return the frame samples
+     * @return an iterator over the frame samples within the time range
+     * @throws MmtcException when unable to parse fields from the table
+     */
+    @Override
+    public FrameSampleIterator iterateSamplesInRange(OffsetDateTime start, OffsetDateTime stop, FrameSampleIterator.ErtOrder order) throws MmtcException {
+        return FrameSampleIterator.of(getSampleBatchInRange(start, stop), order);
+    }
+
+    /**
+     * Read each record from the table as by {@link #getSamplesInRange}, directly into a batch.  Concurrent reads are
+     * made one at a time, as they share the table's parser.
+     *
+     * @param start the beginning of the ERT time range to query for timekeeping telemetry
+     * @param stop the end of the ERT time range to query for timekeeping telemetry
+     * @return the batch of frame samples within the time range
+     * @throws MmtcException when unable to parse fields from the table
+     */
+    @Override
+    public synchronized FrameSampleBatch getSampleBatchInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
         rawTlmTable.resetParser();
 
-        final String dateTimePattern = config.getRawTlmTableDateTimePattern();
+        final DateTimeFormatter ertFormatter = DateTimeFormatter.ofPattern(config.getRawTlmTableDateTimePattern()).withZone(ZONE_OFFSET);
 
-        final List<FrameSample> samples = new ArrayList<>();
+        final FrameSampleBatch.Builder samples = new FrameSampleBatch.Builder();
 
         logger.debug("Reading RawTelemetryTable for interval " + start.toString() + " - " + stop.toString() + ".");
-        int sampleCounter = 0;
 
         for (CSVRecord record : rawTlmTable.parser) {
             // Get the target frame UTC string to compare with the start and stop times
             String targetErtUtcStr = record.get(RawTelemetryTable.TARGET_FRAME_UTC);
 
             // Parse ERT as a local time but with a specified zone
-            LocalDateTime localErt = LocalDateTime.parse(
-                    targetErtUtcStr,
-                    DateTimeFormatter.ofPattern(dateTimePattern).withZone(ZONE_OFFSET)
-            );
+            LocalDateTime localErt = LocalDateTime.parse(targetErtUtcStr, ertFormatter);
 
             // Convert the "local" ERT to an offset date/time with the specified zone
             OffsetDateTime offsetErt = localErt.atOffset(ZONE_OFFSET);
 
             if (offsetErt.isAfter(start) && offsetErt.isBefore(stop)) {
-                FrameSample sample = new FrameSample();
-                sample.setSclkCoarse(Integer.parseInt(record.get(RawTelemetryTable.TARGET_FRAME_SCLK_COARSE)));
-                sample.setSclkFine(Integer.parseInt(record.get(RawTelemetryTable.TARGET_FRAME_SCLK_FINE)));
-                sample.setErt(new CdsTimeCode(record.get(RawTelemetryTable.TARGET_FRAME_ERT)));
-                sample.setPathId(Integer.parseInt(record.get(RawTelemetryTable.PATH_ID)));
-                sample.setVcid(Integer.parseInt(record.get(RawTelemetryTable.VCID)));
-                sample.setVcfc(Integer.parseInt(record.get(RawTelemetryTable.VCFC)));
-                sample.setMcfc(Integer.parseInt(record.get(RawTelemetryTable.MCFC)));
-                sample.setTkSclkCoarse(Integer.parseInt(record.get(RawTelemetryTable.SUPPL_FRAME_SCLK_COARSE)));
-                sample.setTkSclkFine(Integer.parseInt(record.get(RawTelemetryTable.SUPPL_FRAME_SCLK_FINE)));
-                sample.setSuppErt(new CdsTimeCode(record.get(RawTelemetryTable.SUPPL_FRAME_ERT)));
-                sample.setTkVcid(Integer.parseInt(record.get(RawTelemetryTable.VCID)));
-                sample.setTkVcfc(Integer.parseInt(record.get(RawTelemetryTable.VCFC)));
+                samples.addRow();
+                samples.setSclkCoarse(Integer.parseInt(record.get(RawTelemetryTable.TARGET_FRAME_SCLK_COARSE)));
+                samples.setSclkFine(Integer.parseInt(record.get(RawTelemetryTable.TARGET_FRAME_SCLK_FINE)));
+                samples.setErt(new CdsTimeCode(record.get(RawTelemetryTable.TARGET_FRAME_ERT)));
+                samples.setPathId(Integer.parseInt(record.get(RawTelemetryTable.PATH_ID)));
+                samples.setVcid(Integer.parseInt(record.get(RawTelemetryTable.VCID)));
+                samples.setVcfc(Integer.parseInt(record.get(RawTelemetryTable.VCFC)));
+                samples.setMcfc(Integer.parseInt(record.get(RawTelemetryTable.MCFC)));
+                samples.setTkSclkCoarse(Integer.parseInt(record.get(RawTelemetryTable.SUPPL_FRAME_SCLK_COARSE)));
+                samples.setTkSclkFine(Integer.parseInt(record.get(RawTelemetryTable.SUPPL_FRAME_SCLK_FINE)));
+                samples.setSuppErt(new CdsTimeCode(record.get(RawTelemetryTable.SUPPL_FRAME_ERT)));
+                samples.setTkVcid(Integer.parseInt(record.get(RawTelemetryTable.VCID)));
+                samples.setTkVcfc(Integer.parseInt(record.get(RawTelemetryTable.VCFC)));
 
                 if (config.getRawTlmTableReadDownlinkDataRate()) {
-                    sample.setTkDataRateBps(record.get(RawTelemetryTable.DATA_RATE_BPS));
+                    samples.setTkDataRateBps(record.get(RawTelemetryTable.DATA_RATE_BPS));
                 }
 
-                sample.setFrameSizeBits(record.get(RawTelemetryTable.FRAME_SIZE_BITS));
-                sample.setTkRfEncoding(record.get(RawTelemetryTable.RF_ENCODING));
-                sample.setTkValid(true);
-
-                samples.add(sample);
-
-                sampleCounter++;
+                samples.setFrameSizeBits(record.get(RawTelemetryTable.FRAME_SIZE_BITS));
+                samples.setTkRfEncoding(record.get(RawTelemetryTable.RF_ENCODING));
+                samples.setTkValid(true);
             }
         }
 
-        return samples;
+        return samples.build();
     }
 }
@@ -23,6 +23,9 @@ import java.util.stream.Stream;
  * to fulfill its range of operation.  This interface abstracts the source of input telemetry data
  * and is intended to eliminate the need for the rest of MMTC to know anything about the source of
  * its input telemetry.
+ * <p>
+ * Implementations may record their own timings and counters into the metrics of the correlation run they are serving,
+ * which are available from {@link edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics#current()} during each call.
  */
 public interface TelemetrySource {
 
@@ -47,6 +50,18 @@ public interface TelemetrySource {
 
     void applyOption(String name, String value) throws MmtcException;
 
+    /**
+     * Clears any values set by applyOption(), returning each option to its value before any options were applied (or,
+     * for options with configured defaults, to the value set by applyConfiguration()).  Processes that run several
+     * commands with one telemetry source, such as the MMTC daemon, call this before applying each command's options, so
+     * that an option given to one command is not carried over to later commands that do not give it.
+     * <p>
+     * The default implementation does nothing, which is only correct for implementations without additional options.
+     *
+     * @throws MmtcException if the options could not be reset
+     */
+    default void resetOptions() throws MmtcException { }
+
     void checkCorrelationConfiguration(TimeCorrelationRunConfig config) throws MmtcException;
 
     /**
@@ -114,10 +129,60 @@ public interface TelemetrySource {
      */
     List<FrameSample> getSamplesInRange(OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException;
 
+    /**
+     * Query the underlying source of telemetry as by {@link #getSamplesInRange}, returning the samples in columnar form.
+     * The default implementation converts the list returned by getSamplesInRange; implementations that can read their
+     * telemetry directly into a {@link FrameSampleBatch} should override this method, and may implement getSamplesInRange
+     * with {@link FrameSampleBatch#toFrameSamples()}.
+     *
+     * @param startErt the start time of the query range
+     * @param stopErt the stop time of the query range
+     * @return a batch containing all telemetry received between the given ERT bounds, possibly empty
+     * @throws MmtcException if the underlying query source cannot be successfully queried
+     */
+    default FrameSampleBatch getSampleBatchInRange(OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
+        return FrameSampleBatch.of(getSamplesInRange(startErt, stopErt));
+    }
+
+    /**
+     * Query the underlying source of telemetry as by {@link #getSamplesInRange}, returning the samples one at a time
+     * in the given ERT order.  Callers close the returned iterator when they have read as many samples as they need,
+     * which may be well before the end of the range.
+     * <p>
+     * The default implementation sorts the list returned by getSamplesInRange.  Implementations that can read their
+     * telemetry incrementally (e.g. page by page, or newest-first) should override this method so that MMTC can
+     * stop reading once it has found the samples it needs, without holding the whole range in memory.
+     *
+     * @param startErt the start time of the query range
+     * @param stopErt the stop time of the query range
+     * @param order whether to return the samples oldest-first or newest-first, by ERT
+     * @return an iterator over all telemetry received between the given ERT bounds, possibly empty
+     * @throws MmtcException if the underlying query source cannot be successfully queried
+     */
+    default FrameSampleIterator iterateSamplesInRange(OffsetDateTime startErt, OffsetDateTime stopErt, FrameSampleIterator.ErtOrder order) throws MmtcException {
+        return FrameSampleIterator.of(getSamplesInRange(startErt, stopErt), order);
+    }
+
+    /**
+     * Returns whether this source's telemetry queries (the methods that retrieve frame samples and ancillary telemetry)
+     * may be called concurrently from separate threads, and while MMTC performs SPICE computations.  Implementations
+     * that return true must be safe to call concurrently and must not use SPICE in those methods.  MMTC only makes
+     * concurrent queries of sources that return true, and then only as enabled by configuration.
+     * <p>
+     * The default implementation returns false.
+     *
+     * @return true if this source's telemetry queries may be made concurrently, false otherwise
+     */
+    default boolean supportsConcurrentQueries() { return false; }
+
     /**
      * Returns a string that uniquely identifies the oscillator whose SCLK value provided the `tkSclk` values in the
      * given the FrameSample. If this cannot be done or is otherwise unknown, the string "-" should be returned.
      *
+     * If this source {@link #supportsConcurrentQueries supports concurrent queries}, this method,
+     * {@link #getOscillatorTemperature}, {@link #getActiveRadioId}, and {@link #getGncTkParms} may be called
+     * concurrently from separate threads.
+     *
      * @param targetSample the target sample used for correlation
      * @return the radio ID, or the string "-" if unavailable
      */
@@ -1,7 +1,11 @@
 package edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics;
+import edu.jhuapl.sd.sig.mmtc.metrics.jfr.TelemetryCacheLookupEvent;
+import edu.jhuapl.sd.sig.mmtc.metrics.jfr.TelemetryFetchEvent;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleBatch;
 import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
 import org.jdbi.v3.core.Handle;
 
@@ -10,6 +14,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import static edu.jhuapl.sd.sig.mmtc.metrics.CorrelationMetricNames.COUNT_TELEMETRY_CACHE_HITS;
+import static edu.jhuapl.sd.sig.mmtc.metrics.CorrelationMetricNames.COUNT_TELEMETRY_CACHE_MISSES;
+
 /**
  * Manages the portion of the cache related to FrameSamples.  The only expected user of this class is {@link TelemetryCache},
  * which instantiates a single instance of a FrameSampleCache.
@@ -29,19 +36,30 @@ class FrameSampleCache {
     }
 
     public synchronized List<FrameSample> getSamplesInRange(Handle handle, OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
+        return getSampleBatchInRange(handle, startErt, stopErt).toFrameSamples();
+    }
+
+    public synchronized FrameSampleBatch getSampleBatchInRange(Handle handle, OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
         // if part of the range hasn't been queried and stored in the cache previously, do so now
         final List<OffsetDateTimeRange> missingRanges = queriedRangeTracker.getUncoveredRangesWithin(new OffsetDateTimeRange(startErt, stopErt));
+        RunMetrics.current().increment(missingRanges.isEmpty() ? COUNT_TELEMETRY_CACHE_HITS : COUNT_TELEMETRY_CACHE_MISSES);
 
-        for (OffsetDateTimeRange missingRange : missingRanges) {
-            final List<FrameSample> samples = tlmSource.getSamplesInRange(missingRange.getStart(), missingRange.getStop());
-            TelemetrySqliteCacheDatabaseOperations.writeFrameSamples(handle, samples);
-            queriedRangeTracker.add(missingRange);
-        }
+        try (TelemetryCacheLookupEvent lookupEvent = TelemetryCacheLookupEvent.begin(startErt, stopErt, missingRanges.size())) {
+            for (OffsetDateTimeRange missingRange : missingRanges) {
+                final List<FrameSample> samples;
+                try (TelemetryFetchEvent fetchEvent = TelemetryFetchEvent.begin(tlmSource.getName(), missingRange.getStart(), missingRange.getStop())) {
+                    samples = tlmSource.getSamplesInRange(missingRange.getStart(), missingRange.getStop());
+                    fetchEvent.setSampleCount(samples.size());
+                }
+                TelemetrySqliteCacheDatabaseOperations.writeFrameSamples(handle, samples);
+                queriedRangeTracker.add(missingRange);
+            }
 
-        TelemetrySqliteCacheDatabaseOperations.writeAllFrameSampleCoveredQueryRanges(handle, queriedRangeTracker.getAllCoveredRanges());
+            TelemetrySqliteCacheDatabaseOperations.writeAllFrameSampleCoveredQueryRanges(handle, queriedRangeTracker.getAllCoveredRanges());
 
-        // retrieve and return telemetry, covering the entire original query period, from the cache
-        return TelemetrySqliteCacheDatabaseOperations.readFrameSamples(handle, new OffsetDateTimeRange(startErt, stopErt));
+            // retrieve and return telemetry, covering the entire original query period, from the cache
+            return TelemetrySqliteCacheDatabaseOperations.readFrameSampleBatch(handle, new OffsetDateTimeRange(startErt, stopErt));
+        }
     }
 
     public synchronized Map<String, String> getCacheStatistics(Handle handle) {
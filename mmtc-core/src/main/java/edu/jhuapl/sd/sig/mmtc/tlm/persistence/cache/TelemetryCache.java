@@ -2,6 +2,7 @@ package edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleBatch;
 import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
 import edu.jhuapl.sd.sig.mmtc.util.FileUtils;
 import org.jdbi.v3.core.Jdbi;
@@ -59,6 +60,10 @@ public class TelemetryCache {
         return jdbi.withHandle(handle -> frameSampleCache.getSamplesInRange(handle, startErt, stopErt));
     }
 
+    public synchronized FrameSampleBatch getSampleBatchInRange(OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
+        return jdbi.withHandle(handle -> frameSampleCache.getSampleBatchInRange(handle, startErt, stopErt));
+    }
+
     public synchronized Map<String, String> getCacheStatistics() throws IOException {
         Map<String, String> stats = new TreeMap<>();
         stats.putAll(jdbi.withHandle(frameSampleCache::getCacheStatistics));
@@ -8,7 +8,18 @@ public class TelemetryCacheOperationsConfig extends MmtcConfig {
     private final TelemetrySource telemetrySource;
 
     public TelemetryCacheOperationsConfig(String... args) throws Exception {
-        super();
+        this(new MmtcConfig(), args);
+    }
+
+    /**
+     * Creates a cache operations configuration atop an already-loaded configuration snapshot.
+     *
+     * @param config the already-loaded configuration
+     * @param args the cache-stats command's CLI arguments
+     * @throws Exception if the telemetry source can not be initialized
+     */
+    public TelemetryCacheOperationsConfig(MmtcConfig config, String... args) throws Exception {
+        super(config);
         this.telemetrySource = this.initTlmSource();
 
         final Options opts = new Options();
@@ -1,6 +1,8 @@
 package edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationCliInputConfig;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
 import edu.jhuapl.sd.sig.mmtc.tlm.CachingTelemetrySource;
@@ -29,6 +31,18 @@ public class TelemetryCacheUserOperations {
      * @throws Exception if the operation was not completed successfully
      */
     public static void precache(String... args) throws Exception {
+        precache(new MmtcConfig(), args);
+    }
+
+    /**
+     * Proactively retrieves telemetry over any uncovered ranges within the input range, atop an already-loaded
+     * configuration snapshot.  Does not perform a correlation.
+     *
+     * @param loadedConfig the already-loaded configuration
+     * @param args two positional argments (start time, stop time) and any optional telemetry source options
+     * @throws Exception if the operation was not completed successfully
+     */
+    public static void precache(MmtcConfig loadedConfig, String... args) throws Exception {
         // this is set up inline and incongruously to other entry points due to its direct reliance on TimeCorrelationRunConfig,
         // and need to override the help option.
         // todo this should eventually be changed to be separate, but that requires separating CLI args out of configuration classes and
@@ -46,20 +60,37 @@ public class TelemetryCacheUserOperations {
             System.exit(0);
         }
 
-        final TimeCorrelationRunConfig config = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig(args));
-        final OffsetDateTime startTime = config.getResolvedTargetSampleRange().get().getStart();
-        final OffsetDateTime stopTime = config.getResolvedTargetSampleRange().get().getStop();
+        final TimeCorrelationRunConfig config = TimeCorrelationRunConfig.withSnapshotTlmSource(new TimeCorrelationCliInputConfig(args), loadedConfig);
 
-        logger.info(String.format("Querying and caching telemetry from %s to %s...", startTime, stopTime));
         try {
             config.getTelemetrySource().connect();
-            List<FrameSample> samplesInRange = config.getTelemetrySource().getSamplesInRange(startTime, stopTime);
-            logger.info(String.format("Caching complete.  %d samples in the given time range are cached.", samplesInRange.size()));
+            precacheRange(config);
         } finally {
             config.getTelemetrySource().disconnect();
         }
     }
 
+    /**
+     * Proactively retrieves telemetry over any uncovered ranges within the input range, using already-loaded
+     * configuration and a telemetry source whose connection is managed by the caller.  Does not perform a correlation.
+     *
+     * @param loadedConfig the loaded configuration, whose telemetry source is already connected
+     * @param args two positional argments (start time, stop time) and any optional telemetry source options
+     * @throws Exception if the operation was not completed successfully
+     */
+    public static void precacheWithConnectedSource(MmtcConfigWithTlmSource loadedConfig, String... args) throws Exception {
+        precacheRange(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig(args), loadedConfig));
+    }
+
+    private static void precacheRange(TimeCorrelationRunConfig config) throws MmtcException {
+        final OffsetDateTime startTime = config.getResolvedTargetSampleRange().get().getStart();
+        final OffsetDateTime stopTime = config.getResolvedTargetSampleRange().get().getStop();
+
+        logger.info(String.format("Querying and caching telemetry from %s to %s...", startTime, stopTime));
+        List<FrameSample> samplesInRange = config.getTelemetrySource().getSamplesInRange(startTime, stopTime);
+        logger.info(String.format("Caching complete.  %d samples in the given time range are cached.", samplesInRange.size()));
+    }
+
     /**
      * Logs statistics about the cache to the log appenders (files, stdout).
      *
@@ -67,7 +98,19 @@ public class TelemetryCacheUserOperations {
      * @throws Exception if the operation was not completed successfully
      */
     public static void logCacheStatistics(String... args) throws Exception {
-        final TelemetryCacheOperationsConfig config = new TelemetryCacheOperationsConfig(args);
+        logCacheStatistics(new MmtcConfig(), args);
+    }
+
+    /**
+     * Logs statistics about the cache to the log appenders (files, stdout), atop an already-loaded configuration
+     * snapshot.
+     *
+     * @param loadedConfig the already-loaded configuration
+     * @param args no args are expected or required
+     * @throws Exception if the operation was not completed successfully
+     */
+    public static void logCacheStatistics(MmtcConfig loadedConfig, String... args) throws Exception {
+        final TelemetryCacheOperationsConfig config = new TelemetryCacheOperationsConfig(loadedConfig, args);
 
         // we can safely cast the tlmSource to CachingTelemetrySource because TelemetryPrecacherConfig ensures that caching is enabled before allowing operations on the telemetry cache
         final TelemetrySource tlmSource = config.getTelemetrySource();
@@ -2,9 +2,10 @@ package edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache;
 
 import edu.jhuapl.sd.sig.mmtc.app.BuildInfo;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleBatch;
 import edu.jhuapl.sd.sig.mmtc.tlm.persistence.model.FrameSampleEntity;
 import edu.jhuapl.sd.sig.mmtc.tlm.persistence.model.OffsetDateTimeRangeEntity;
-import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
 import org.jdbi.v3.core.Handle;
 
 import java.util.HashMap;
@@ -42,20 +43,40 @@ class TelemetrySqliteCacheDatabaseOperations {
     }
 
     public static synchronized List<FrameSample> readFrameSamples(Handle handle, OffsetDateTimeRange queryRange) {
+        return readFrameSampleBatch(handle, queryRange).toFrameSamples();
+    }
+
+    public static synchronized FrameSampleBatch readFrameSampleBatch(Handle handle, OffsetDateTimeRange queryRange) {
         // many of MMTC's integrated telemetry archives support ERT queries with precision higher than millisecond, so add an extra ms to the end of the query range and filter the results post-pass for accurate results
         // in other words: a FrameSample's ertStr field may contain values with a higher precision than millisecond, so perform second-level filtering on that field after retrieval from the cache
+        final long stopEpochNanos = IsoDoyUtc.toEpochNanosSaturated(queryRange.getStop());
 
-        return handle.createQuery(String.format(
+        final FrameSampleBatch.Builder builder = new FrameSampleBatch.Builder();
+        handle.createQuery(String.format(
                         "SELECT * FROM \"" + FRAME_SAMPLE_TABLENAME + "\" WHERE \"ertEpochMs\" BETWEEN %d and %d ORDER BY \"ertEpochMs\" ASC",
                         queryRange.getStart().toInstant().toEpochMilli(),
                         queryRange.getStop().toInstant().toEpochMilli() + 1
                 ))
                 .mapToBean(FrameSampleEntity.class)
-                .list()
-                .stream()
-                .map(FrameSampleEntity::toFrameSample)
-                .filter(fs -> ! (TimeConvert.parseIsoDoyUtcStr(fs.getErtStr()).isAfter(queryRange.getStop())))
-                .collect(Collectors.toList());
+                .forEach(fse -> fse.addTo(builder));
+        final FrameSampleBatch batch = builder.build();
+
+        // only rows within the extra ms can fall after the end of the range, so rebuild the batch only if there are any
+        boolean allWithinRange = true;
+        for (FrameSampleBatch.Row row : batch) {
+            allWithinRange &= IsoDoyUtc.parseToEpochNanos(row.getErtStr()) <= stopEpochNanos;
+        }
+        if (allWithinRange) {
+            return batch;
+        }
+
+        final FrameSampleBatch.Builder withinRange = new FrameSampleBatch.Builder(batch.size());
+        for (FrameSampleBatch.Row row : batch) {
+            if (IsoDoyUtc.parseToEpochNanos(row.getErtStr()) <= stopEpochNanos) {
+                withinRange.add(row);
+            }
+        }
+        return withinRange.build();
     }
 
     public static synchronized Long readNumFrameSamples(Handle handle) {
@@ -1,8 +1,9 @@
 package edu.jhuapl.sd.sig.mmtc.tlm.persistence.model;
 
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleBatch;
 import edu.jhuapl.sd.sig.mmtc.util.CdsTimeCode;
-import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
 
 import java.math.BigDecimal;
@@ -128,11 +129,11 @@ public class FrameSampleEntity {
             if (fs.isErtExplicitlySet()) {
                 fse.setErt(fs.getErt().toString());
                 fse.setErtExplicitlySet(true);
-                fse.setErtEpochMs(TimeConvert.parseIsoDoyUtcStr(TimeConvert.cdsToIsoUtc(fs.getErt())).toInstant().toEpochMilli());
+                fse.setErtEpochMs(fs.getErt().toTime().toInstant().toEpochMilli());
             } else if (fs.isErtStrExplicitlySet()) {
                 fse.setErtStr(fs.getErtStr());
                 fse.setErtStrExplicitlySet(true);
-                fse.setErtEpochMs(TimeConvert.parseIsoDoyUtcStr(fs.getErtStr()).toInstant().toEpochMilli());
+                fse.setErtEpochMs(toEpochMs(fs.getErtStr()));
             }
         } catch (TimeConvertException e) {
             throw new RuntimeException(e);
@@ -171,6 +172,10 @@ public class FrameSampleEntity {
         return fse;
     }
 
+    private static long toEpochMs(String isoDoyUtc) {
+        return Math.floorDiv(IsoDoyUtc.parseToEpochNanos(isoDoyUtc), 1_000_000L);
+    }
+
     public FrameSample toFrameSample() {
         final FrameSample fs = new FrameSample();
 
@@ -214,6 +219,53 @@ public class FrameSampleEntity {
         return fs;
     }
 
+    /**
+     * Adds a row to the given batch with the values of the FrameSample this entity was created from, as by
+     * {@link #toFrameSample()}.
+     *
+     * @param builder the builder of the batch
+     */
+    public void addTo(FrameSampleBatch.Builder builder) {
+        builder.addRow();
+
+        builder.setSclkCoarse(this.sclkCoarse);
+        builder.setSclkFine(this.sclkFine);
+
+        if (this.ertExplicitlySet) {
+            builder.setErt(new CdsTimeCode(this.ert));
+        } else if (this.ertStrExplicitlySet) {
+            builder.setErtStr(this.ertStr);
+        }
+
+        builder.setScet(this.scet);
+        builder.setPathId(this.pathId);
+        builder.setVcid(this.vcid);
+        builder.setVcfc(this.vcfc);
+        builder.setMcfc(this.mcfc);
+        builder.setTkSclkCoarse(this.tkSclkCoarse);
+        builder.setTkSclkFine(this.tkSclkFine);
+        builder.setTkVcid(this.tkVcid);
+        builder.setTkVcfc(this.tkVcfc);
+        builder.setTkDataRateBps(this.tkDataRateBps);
+        builder.setTkRfEncoding(this.tkRfEncoding);
+
+        if (! this.tkIsValid.equals(FrameSample.ValidState.UNSET)) {
+            builder.setTkValid(this.tkIsValid.equals(FrameSample.ValidState.VALID));
+        }
+
+        builder.setSuppVcid(this.suppVcid);
+        builder.setSuppVcfc(this.suppVcfc);
+        builder.setSuppMcfc(this.suppMcfc);
+
+        if (this.suppErtExplicitlySet) {
+            builder.setSuppErt(new CdsTimeCode(this.suppErt));
+        } else if (this.suppErtStrExplicitlySet) {
+            builder.setSuppErtStr(this.suppErtStr);
+        }
+
+        builder.setFrameSizeBits(this.frameSizeBits);
+    }
+
     public long getErtEpochMs() {
         return ertEpochMs;
     }
@@ -3,8 +3,10 @@ package edu.jhuapl.sd.sig.mmtc.tlm.selection;
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationTarget;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
 import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.util.SpiceKernelPoolLock;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,6 +14,11 @@ import org.apache.logging.log4j.Logger;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
 
@@ -19,8 +26,13 @@ public class SamplingTelemetrySelectionStrategy extends TelemetrySelectionStrate
 
     private static final Logger logger = LogManager.getLogger();
 
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final boolean tlmSourceSupportsConcurrentQueries;
+
     public SamplingTelemetrySelectionStrategy(TimeCorrelationRunConfig config, TelemetrySource tlmSource, int tk_sclk_fine_tick_modulus) {
         super(config, tlmSource, tk_sclk_fine_tick_modulus);
+        this.tlmSourceSupportsConcurrentQueries = tlmSource.supportsConcurrentQueries();
 
         if (! config.getTargetSampleInputErtMode().equals(TimeCorrelationRunConfig.TargetSampleInputErtMode.RANGE)) {
             throw new IllegalStateException("This telemetry selection strategy only supports querying over an ERT range for a target sample");
@@ -36,29 +48,132 @@ public class SamplingTelemetrySelectionStrategy extends TelemetrySelectionStrate
             throw new MmtcException("Could not generate any valid telemetry query periods within the input time range.  Please either widen the input query time range or decrease the sampling query width.");
         }
 
+        final int numPrefetchedQueries = config.getSamplingSampleSetBuildingStrategyPrefetchedQueries();
+        if (numPrefetchedQueries > 0) {
+            if (tlmSourceSupportsConcurrentQueries) {
+                return getWithPrefetchedQueries(filterFunction, queryRanges, numPrefetchedQueries);
+            }
+            logger.warn("Prefetched queries are configured, but the telemetry source does not support concurrent queries; querying one range at a time.");
+        }
+
         for (Pair<OffsetDateTime, OffsetDateTime> queryRange : queryRanges) {
             final List<FrameSample> samplesInQueryRange = getSamplesInRange(queryRange.getLeft(), queryRange.getRight());
 
-            if (samplesInQueryRange.size() < config.getSamplesPerSet()) {
-                logger.info(USER_NOTICE, String.format("Only %d samples found in range compared to the necessary %d; continuing...", samplesInQueryRange.size(), config.getSamplesPerSet()));
-                continue;
+            final TimeCorrelationTarget tcTarget = evaluateCandidate(samplesInQueryRange, filterFunction);
+            if (tcTarget != null) {
+                return tcTarget;
             }
+        }
 
-            final List<FrameSample> sampleSet = new ArrayList<>(samplesInQueryRange.subList(samplesInQueryRange.size() - config.getSamplesPerSet(), samplesInQueryRange.size()));
-
-            final TimeCorrelationTarget tcTarget = new TimeCorrelationTarget(sampleSet, config, tk_sclk_fine_tick_modulus);
+        throw new MmtcException("Unable to find valid sample set");
+    }
 
-            if (filterFunction.apply(tcTarget)) {
-                logger.info(USER_NOTICE, "The candidate sample set passed all filters and is valid. MMTC will use it as the sample set for time correlation.");
-                return tcTarget;
-            } else {
-                logger.warn("Discarding the candidate sample set because it didn't pass all filters");
+    /**
+     * Finds a valid sample set as by {@link #get}, but queries the telemetry source for up to the given number of
+     * query ranges beyond the one being evaluated, concurrently, on a bounded set of background threads.  Only the
+     * queries themselves run in the background; query ranges are still enriched, validated, and put through the filters
+     * one at a time on the calling thread, newest first, so the chosen sample set (and any error raised) is the same as
+     * if the queries were made one after another.  Any queries not yet started are cancelled once a valid sample set is
+     * found; queries already in progress are left to finish in the background rather than being interrupted, as
+     * telemetry sources may not tolerate being interrupted mid-query.
+     *
+     * @param filterFunction the filters to apply to each candidate sample set
+     * @param queryRanges the query ranges, newest first
+     * @param numPrefetchedQueries the number of queries to make ahead of the query range being evaluated
+     * @return the first valid sample set found
+     * @throws MmtcException when the sample set is unable to be built
+     */
+    private TimeCorrelationTarget getWithPrefetchedQueries(FilterFunction filterFunction, List<Pair<OffsetDateTime, OffsetDateTime>> queryRanges, int numPrefetchedQueries) throws MmtcException {
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(numPrefetchedQueries, queryRanges.size()),
+                SamplingTelemetrySelectionStrategy::newQueryThread
+        );
+        final List<Future<List<FrameSample>>> queries = new ArrayList<>(queryRanges.size());
+
+        // queries made on the executor's threads contribute to the metrics of the run that made them
+        final RunMetrics metrics = RunMetrics.current();
+
+        try {
+            for (int i = 0; i < queryRanges.size(); i++) {
+                // keep the queries for this range and up to numPrefetchedQueries older ranges in flight
+                while (queries.size() < queryRanges.size() && queries.size() <= i + numPrefetchedQueries) {
+                    final Pair<OffsetDateTime, OffsetDateTime> queryRange = queryRanges.get(queries.size());
+                    queries.add(executor.submit(metrics.bound(() -> querySamplesInRange(queryRange.getLeft(), queryRange.getRight()))));
+                }
+
+                final List<FrameSample> samplesInQueryRange = enrichAndValidateSamplesInRange(awaitQuery(queries.get(i)));
+
+                // release the samples of ranges that have already been evaluated
+                queries.set(i, null);
+
+                final TimeCorrelationTarget tcTarget = evaluateCandidate(samplesInQueryRange, filterFunction);
+                if (tcTarget != null) {
+                    return tcTarget;
+                }
+            }
+        } finally {
+            for (Future<List<FrameSample>> query : queries) {
+                if (query != null) {
+                    query.cancel(false);
+                }
             }
+            executor.shutdown();
         }
 
         throw new MmtcException("Unable to find valid sample set");
     }
 
+    private static List<FrameSample> awaitQuery(Future<List<FrameSample>> query) throws MmtcException {
+        // other missions correlated in this process may use SPICE while this query completes
+        try (SpiceKernelPoolLock.Released released = SpiceKernelPoolLock.releaseHeldSession()) {
+            return query.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MmtcException) {
+                throw (MmtcException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MmtcException("Unable to retrieve samples in desired time range", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MmtcException("Interrupted while waiting for a telemetry query to complete", e);
+        }
+    }
+
+    private static Thread newQueryThread(Runnable r) {
+        final Thread thread = new Thread(r, "mmtc-sampling-query-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Builds a candidate sample set from the latest samples in a query range and puts it through the filters.
+     *
+     * @param samplesInQueryRange the enriched and validated samples in the query range, in ascending ERT order
+     * @param filterFunction the filters to apply to the candidate sample set
+     * @return the candidate sample set, if it passed all filters; otherwise null
+     * @throws MmtcException if the candidate sample set cannot be built or filtered
+     */
+    private TimeCorrelationTarget evaluateCandidate(List<FrameSample> samplesInQueryRange, FilterFunction filterFunction) throws MmtcException {
+        if (samplesInQueryRange.size() < config.getSamplesPerSet()) {
+            logger.info(USER_NOTICE, String.format("Only %d samples found in range compared to the necessary %d; continuing...", samplesInQueryRange.size(), config.getSamplesPerSet()));
+            return null;
+        }
+
+        final List<FrameSample> sampleSet = new ArrayList<>(samplesInQueryRange.subList(samplesInQueryRange.size() - config.getSamplesPerSet(), samplesInQueryRange.size()));
+
+        final TimeCorrelationTarget tcTarget = new TimeCorrelationTarget(sampleSet, config, tk_sclk_fine_tick_modulus);
+
+        if (filterFunction.apply(tcTarget)) {
+            logger.info(USER_NOTICE, "The candidate sample set passed all filters and is valid. MMTC will use it as the sample set for time correlation.");
+            return tcTarget;
+        } else {
+            logger.warn("Discarding the candidate sample set because it didn't pass all filters");
+            return null;
+        }
+    }
+
     private List<Pair<OffsetDateTime, OffsetDateTime>> generateQueryRanges() throws MmtcException {
         if (! (config.getSamplingSampleSetBuildingStrategyQueryWidthMinutes() <= config.getSamplingSampleSetBuildingStrategySamplingRateMinutes())) {
             throw new MmtcException(String.format(
@@ -3,18 +3,30 @@ package edu.jhuapl.sd.sig.mmtc.tlm.selection;
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationTarget;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics;
+import edu.jhuapl.sd.sig.mmtc.metrics.StageTimer;
+import edu.jhuapl.sd.sig.mmtc.metrics.jfr.TelemetryFetchEvent;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleIterator;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleValidator;
 import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
-import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+import edu.jhuapl.sd.sig.mmtc.util.CdsTimeCode;
+import edu.jhuapl.sd.sig.mmtc.util.SpiceKernelPoolLock;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.NoSuchElementException;
+
+import static edu.jhuapl.sd.sig.mmtc.metrics.CorrelationMetricNames.*;
 
 public abstract class TelemetrySelectionStrategy {
     public enum SampleSetBuildingStrategy {
@@ -49,16 +61,55 @@ public abstract class TelemetrySelectionStrategy {
      * @throws MmtcException when a failure occurs in the retrieval
      */
     protected List<FrameSample> getSamplesInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
-        final List<FrameSample> samples;
+        return enrichAndValidateSamplesInRange(querySamplesInRange(start, stop));
+    }
 
-        try {
+    /**
+     * Query the telemetry source for all samples in the desired time range, without enriching or validating them.
+     * This method only reads from the telemetry source, and so may be called from any thread.
+     *
+     * @param start the start time, inclusive, for which to query telemetry
+     * @param stop the stop time, exclusive, for which to query telemetry
+     *
+     * @return the samples as returned by the telemetry source
+     * @throws MmtcException when a failure occurs in the retrieval
+     */
+    protected List<FrameSample> querySamplesInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
+        final RunMetrics metrics = RunMetrics.current();
+        try (StageTimer fetchTimer = metrics.time(STAGE_TELEMETRY_FETCH);
+             TelemetryFetchEvent fetchEvent = TelemetryFetchEvent.begin(tlmSource.getName(), start, stop)) {
             logger.info(String.format("Querying telemetry source from %s to %s", start, stop));
-            samples = tlmSource.getSamplesInRange(start, stop);
+            final List<FrameSample> samples;
+            try (SpiceKernelPoolLock.Released released = SpiceKernelPoolLock.releaseHeldSession()) {
+                samples = tlmSource.getSamplesInRange(start, stop);
+            }
+            fetchEvent.setSampleCount(samples.size());
+            metrics.increment(COUNT_TELEMETRY_QUERIES);
+            metrics.add(COUNT_FRAMES_FETCHED, samples.size());
+            metrics.record(HISTOGRAM_FRAMES_PER_QUERY, samples.size());
+            return samples;
+        } catch (MmtcException ex) {
+            logger.error("Unable to retrieve samples in desired time range.");
+            throw ex;
+        }
+    }
 
+    /**
+     * Enrich and validate the samples returned by {@link #querySamplesInRange}, as by {@link #getSamplesInRange}.
+     *
+     * @param samples the samples returned from a query of the telemetry source, which are sorted in place
+     *
+     * @return the given samples, sorted by ERT, enriched and validated
+     * @throws MmtcException when the samples are not valid for time correlation
+     */
+    protected List<FrameSample> enrichAndValidateSamplesInRange(List<FrameSample> samples) throws MmtcException {
+        try {
             logLatestNFrames( Level.DEBUG, "A portion of the latest frames returned from query range, before enrichment and validation", samples, 10);
             logLatestNFrames( Level.TRACE, "All frames returned from query range, before enrichment and validation", samples, samples.size());
 
-            enrichAndValidateFrameSamples(samples);
+            try (StageTimer enrichTimer = RunMetrics.current().time(STAGE_ENRICH_AND_VALIDATE)) {
+                enrichAndValidateFrameSamples(samples);
+            }
 
             logLatestNFrames( Level.DEBUG, "A portion of the latest frames returned from query range, after enrichment and validation", samples, 10);
             logLatestNFrames( Level.TRACE, "All frames returned from query range, after enrichment and validation", samples, samples.size());
@@ -70,6 +121,47 @@ public abstract class TelemetrySelectionStrategy {
         return samples;
     }
 
+    /**
+     * Retrieve the samples in the desired time range one at a time, newest-first, enriching and validating each as it
+     * is read.  Unlike {@link #getSamplesInRange}, the downlink data rate of each sample is checked (or estimated)
+     * and samples are checked for repeated ERTs only against the samples read before it, so that callers may stop
+     * reading at any point.  Callers must close the returned iterator.
+     *
+     * @param start the start time, inclusive, for which to query telemetry
+     * @param stop the stop time, exclusive, for which to query telemetry
+     *
+     * @return an iterator over the enriched and validated samples, newest-first
+     * @throws MmtcException when a failure occurs in the retrieval
+     */
+    protected FrameSampleIterator iterateSamplesInRangeNewestFirst(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
+        try (StageTimer fetchTimer = RunMetrics.current().time(STAGE_TELEMETRY_FETCH);
+             TelemetryFetchEvent fetchEvent = TelemetryFetchEvent.begin(tlmSource.getName(), start, stop)) {
+            logger.info(String.format("Querying telemetry source from %s to %s, reading frames newest-first", start, stop));
+            final FrameSampleIterator samples = tlmSource.iterateSamplesInRange(start, stop, FrameSampleIterator.ErtOrder.NEWEST_FIRST);
+            RunMetrics.current().increment(COUNT_TELEMETRY_QUERIES);
+            return new EnrichingFrameSampleIterator(samples);
+        } catch (MmtcException ex) {
+            logger.error("Unable to retrieve samples in desired time range.");
+            throw ex;
+        }
+    }
+
+    /**
+     * Retrieve the samples in the desired time range newest-first, by querying the telemetry source for progressively
+     * older, consecutive chunks of the range, each twice as long as the last, starting with the chunk of the given
+     * duration that ends at the stop time.  Each chunk is enriched and validated as by {@link #getSamplesInRange}, and
+     * is only queried once all samples from newer chunks have been read.  Callers must close the returned iterator.
+     *
+     * @param start the start time, inclusive, for which to query telemetry
+     * @param stop the stop time, exclusive, for which to query telemetry
+     * @param initialChunkDuration the duration of the first, most recent chunk to query
+     *
+     * @return an iterator over the enriched and validated samples, newest-first
+     */
+    protected FrameSampleIterator iterateSamplesInRangeInGrowingChunks(OffsetDateTime start, OffsetDateTime stop, Duration initialChunkDuration) {
+        return new GrowingChunkFrameSampleIterator(start, stop, initialChunkDuration);
+    }
+
     private void logLatestNFrames(Level level, String description, List<FrameSample> samples, int samplesToLog) {
         if (samples.isEmpty()) {
             return;
@@ -87,13 +179,7 @@ public abstract class TelemetrySelectionStrategy {
         }
 
         // sort by ERT
-        samples.sort((one, other) -> {
-            try {
-                return one.getErt().toTime().compareTo(other.getErt().toTime());
-            } catch (TimeConvertException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        samples.sort(Comparator.comparing(FrameSample::getErt, CdsTimeCode.CHRONOLOGICAL_ORDER));
 
         // ensure downlink data rate is present or calculate it if possible, otherwise fail
         ensureSamplesHaveDownlinkDataRate(samples);
@@ -107,6 +193,162 @@ public abstract class TelemetrySelectionStrategy {
         FrameSampleValidator.validate(samples, tk_sclk_fine_tick_modulus);
     }
 
+    /**
+     * Enriches and validates each sample read from an ERT-ordered iterator as by {@link #enrichAndValidateFrameSamples},
+     * deciding from the first sample whether downlink data rates are taken from telemetry or estimated from frame sizes.
+     */
+    private class EnrichingFrameSampleIterator implements FrameSampleIterator {
+        private final FrameSampleIterator samples;
+        private FrameSample previousSample;
+        private Boolean estimatingDataRate;
+        private int firstFrameSizeBits;
+
+        EnrichingFrameSampleIterator(FrameSampleIterator samples) {
+            this.samples = samples;
+        }
+
+        @Override
+        public boolean hasNext() throws MmtcException {
+            return samples.hasNext();
+        }
+
+        @Override
+        public FrameSample next() throws MmtcException {
+            final RunMetrics metrics = RunMetrics.current();
+
+            final FrameSample sample;
+            try (StageTimer fetchTimer = metrics.time(STAGE_TELEMETRY_FETCH)) {
+                sample = samples.next();
+            }
+            metrics.increment(COUNT_FRAMES_FETCHED);
+
+            try (StageTimer enrichTimer = metrics.time(STAGE_ENRICH_AND_VALIDATE)) {
+                ensureSampleHasDownlinkDataRate(sample);
+                sample.computeAndSetTdBe(config.getFrameErtBitOffsetError());
+
+                if (previousSample == null) {
+                    FrameSampleValidator.validate(Collections.singletonList(sample), tk_sclk_fine_tick_modulus);
+                } else {
+                    // samples are read in ERT order, so any repeated ERT is that of the previous sample
+                    FrameSampleValidator.validate(Arrays.asList(previousSample, sample), tk_sclk_fine_tick_modulus);
+                }
+            }
+
+            logger.trace(sample);
+            previousSample = sample;
+            return sample;
+        }
+
+        @Override
+        public void close() throws MmtcException {
+            samples.close();
+        }
+
+        private void ensureSampleHasDownlinkDataRate(FrameSample sample) throws MmtcException {
+            if (estimatingDataRate == null) {
+                if (sample.isTkDataRateSet()) {
+                    logger.info("Samples have downlink data rate specified from the telemetry source; no need to estimate.");
+                    estimatingDataRate = false;
+                } else if (sample.isFrameSizeBitsSet()) {
+                    logger.info("Samples do not have downlink data rate specified from the telemetry source; estimating downlink data rate from ERTs & frame sizes");
+                    estimatingDataRate = true;
+                    firstFrameSizeBits = sample.getFrameSizeBits();
+                } else {
+                    throw new MmtcException("Telemetry does not have downlink data rate information and samples do not all have a frame size set; cannot estimate downlink data rate.");
+                }
+            }
+
+            if (!estimatingDataRate) {
+                if (!sample.isTkDataRateSet()) {
+                    throw new MmtcException("Telemetry does not have downlink data rate information for all samples; cannot read telemetry newest-first.  Disable telemetry.sampleSetBuildingStrategy.windowing.streaming.enabled to estimate downlink data rates from frame sizes instead.");
+                }
+            } else if (!sample.isFrameSizeBitsSet()) {
+                throw new MmtcException("Telemetry does not have downlink data rate information and samples do not all have a frame size set; cannot estimate downlink data rate.");
+            } else if (sample.getFrameSizeBits() != firstFrameSizeBits) {
+                throw new MmtcException("Telemetry does not have downlink data rate information and samples do not have a consistent frame size; cannot reliably estimate downlink data rate.");
+            } else {
+                computeDownlinkDataRate(sample);
+            }
+        }
+    }
+
+    /**
+     * Reads consecutive, exponentially growing chunks of a time range, newest chunk first, returning each chunk's
+     * samples newest-first.  Chunk queries are inclusive of both bounds, so a sample at the boundary between two chunks
+     * is returned by both queries; it is only read from the newer chunk.
+     */
+    private class GrowingChunkFrameSampleIterator implements FrameSampleIterator {
+        private final OffsetDateTime rangeStart;
+        private Duration nextChunkDuration;
+        private OffsetDateTime nextChunkStop;
+        private Long newerChunkStartEpochNanos;
+        private FrameSample lastReadSample;
+
+        private List<FrameSample> chunkSamples = Collections.emptyList();
+        private int nextIndexInChunk = -1;
+        private boolean closed = false;
+
+        GrowingChunkFrameSampleIterator(OffsetDateTime rangeStart, OffsetDateTime rangeStop, Duration initialChunkDuration) {
+            this.rangeStart = rangeStart;
+            this.nextChunkDuration = initialChunkDuration;
+            this.nextChunkStop = rangeStop;
+        }
+
+        @Override
+        public boolean hasNext() throws MmtcException {
+            while (!closed && nextIndexInChunk < 0) {
+                if (nextChunkStop == null) {
+                    return false;
+                }
+
+                readNextChunk();
+            }
+
+            return !closed;
+        }
+
+        @Override
+        public FrameSample next() throws MmtcException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            lastReadSample = chunkSamples.get(nextIndexInChunk--);
+            return lastReadSample;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            chunkSamples = Collections.emptyList();
+        }
+
+        private void readNextChunk() throws MmtcException {
+            final OffsetDateTime chunkStop = nextChunkStop;
+            final OffsetDateTime chunkStart = chunkStop.minus(nextChunkDuration).isAfter(rangeStart) ? chunkStop.minus(nextChunkDuration) : rangeStart;
+
+            chunkSamples = getSamplesInRange(chunkStart, chunkStop);
+            nextIndexInChunk = chunkSamples.size() - 1;
+
+            // skip any samples already read from the newer chunk, including any that the telemetry source placed
+            // within both chunks by comparing their ERTs at a coarser precision than the boundary's
+            if (newerChunkStartEpochNanos != null) {
+                while (nextIndexInChunk >= 0 && wasReadFromNewerChunk(chunkSamples.get(nextIndexInChunk))) {
+                    nextIndexInChunk--;
+                }
+            }
+
+            newerChunkStartEpochNanos = chunkStart.toEpochSecond() * 1_000_000_000L + chunkStart.getNano();
+            nextChunkStop = chunkStart.isAfter(rangeStart) ? chunkStart : null;
+            nextChunkDuration = nextChunkDuration.multipliedBy(2);
+        }
+
+        private boolean wasReadFromNewerChunk(FrameSample sample) {
+            return sample.getErt().toEpochNanos() >= newerChunkStartEpochNanos
+                    || (lastReadSample != null && CdsTimeCode.CHRONOLOGICAL_ORDER.compare(sample.getErt(), lastReadSample.getErt()) >= 0);
+        }
+    }
+
     /**
      * Ensures that all samples have their tkDownlinkDataRate field set.  If they do not, it is computed and assigned
      * if possible.  If not possible, an MmtcException is thrown.
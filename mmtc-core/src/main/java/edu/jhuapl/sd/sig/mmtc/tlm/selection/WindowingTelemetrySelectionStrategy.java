@@ -4,14 +4,19 @@ import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationTarget;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleIterator;
 import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 
 import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
@@ -63,8 +68,8 @@ public class WindowingTelemetrySelectionStrategy extends TelemetrySelectionStrat
         // 2c) If any filter fails, reject all samples in the candidate sample set.
         // 3) Repeat step 2 until a candidate sample set passes all filters or no samples are left.
         //
-        // Samples in range can be large, so this might not be an efficient approach, but we won't preemptively try
-        // to optimize this without performance data.
+        // Samples in range can be large, so step 1 can instead read the range progressively in growing chunks, or
+        // stream it, newest-first; either way, reading stops as soon as step 3 finds a valid sample set.
 
         final OffsetDateTime queryStartTime;
         final OffsetDateTime queryStopTime;
@@ -79,6 +84,15 @@ public class WindowingTelemetrySelectionStrategy extends TelemetrySelectionStrat
             throw new IllegalStateException();
         }
 
+        if (config.isProgressiveWindowingSampleSetBuildingStrategyEnabled()) {
+            final Duration initialChunkDuration = Duration.ofMinutes(config.getProgressiveWindowingSampleSetBuildingStrategyInitialChunkMinutes());
+            return getFromNewestFirstSamples(filterFunction, iterateSamplesInRangeInGrowingChunks(queryStartTime, queryStopTime, initialChunkDuration));
+        }
+
+        if (config.isStreamingWindowingSampleSetBuildingStrategyEnabled()) {
+            return getFromNewestFirstSamples(filterFunction, iterateSamplesInRangeNewestFirst(queryStartTime, queryStopTime));
+        }
+
         final List<FrameSample> samplesInRange = getSamplesInRange(queryStartTime, queryStopTime);
         final int numSamplesInRange = samplesInRange.size();
 
@@ -123,25 +137,105 @@ public class WindowingTelemetrySelectionStrategy extends TelemetrySelectionStrat
 
             tcTarget = new TimeCorrelationTarget(sampleSet, config, tk_sclk_fine_tick_modulus);
 
-            if (config.getTargetSampleInputErtMode().equals(TimeCorrelationRunConfig.TargetSampleInputErtMode.EXACT)) {
-                final OffsetDateTime desiredTargetFrameErt = config.getResolvedTargetSampleExactErt().get();
+            if (isValidCandidate(tcTarget, filterFunction)) {
+                break;
+            }
+        }
+
+        return tcTarget;
+    }
 
-                if (TimeConvert.parseIsoDoyUtcStr(tcTarget.getTargetSample().getErtStr()).equals(desiredTargetFrameErt)) {
-                    logger.info("The candidate sample matches the desired ERT");
-                } else {
-                    logger.info("Discarding the candidate sample set because it does not match the desired ERT");
+    /**
+     * Find a valid sample set as by {@link #get}, but reading the samples in the query interval newest-first, and only
+     * as many as are needed to build each candidate sample set in turn.  As candidate sample sets are counted back from
+     * the newest sample, they are the same as those built from the full list of samples.  Reading stops, and the given
+     * iterator is closed, as soon as a candidate sample set passes all filters.
+     */
+    private TimeCorrelationTarget getFromNewestFirstSamples(FilterFunction filterFunction, FrameSampleIterator newestFirstSamples) throws MmtcException {
+        final int samplesPerSet = config.getSamplesPerSet();
+
+        // the most recently read (i.e. oldest so far) samples, newest-first, of which the next candidate sample set is built
+        final Deque<FrameSample> window = new ArrayDeque<>(samplesPerSet + 1);
+        int numSamplesRead = 0;
+        int numSamplesReadForNextSet = samplesPerSet;
+
+        logger.info("Attempting to find a valid sample set within the query interval, reading the most recent frames first...");
+
+        try (FrameSampleIterator samples = newestFirstSamples) {
+            while (samples.hasNext()) {
+                window.addLast(samples.next());
+                numSamplesRead++;
+
+                if (window.size() > samplesPerSet) {
+                    window.removeFirst();
+                }
+
+                if (numSamplesRead < numSamplesReadForNextSet) {
                     continue;
                 }
+
+                if (samplesPerSet == 1) {
+                    logger.info(String.format("Creating new candidate sample set using frame %d, counting back from the most recent frame in the query interval", numSamplesRead));
+                } else {
+                    logger.info(String.format("Creating new candidate sample set using frames %d to %d, counting back from the most recent frame in the query interval", numSamplesRead - samplesPerSet + 1, numSamplesRead));
+                }
+
+                final List<FrameSample> sampleSet = new ArrayList<>(window);
+                Collections.reverse(sampleSet);
+                numSamplesReadForNextSet += windowSlidingIncrement;
+
+                final TimeCorrelationTarget tcTarget = new TimeCorrelationTarget(sampleSet, config, tk_sclk_fine_tick_modulus);
+
+                if (isValidCandidate(tcTarget, filterFunction)) {
+                    logger.info(String.format("Read %d frames from the query interval to find a valid sample set", numSamplesRead));
+                    return tcTarget;
+                }
             }
+        }
 
-            if (filterFunction.apply(tcTarget)) {
-                logger.info(USER_NOTICE, "The candidate sample set passed all filters and is valid. MMTC will use it as the sample set for time correlation.");
-                break;
+        if (numSamplesRead < samplesPerSet) {
+            logger.error(String.format("Not enough frames found within the query interval to build a sample set. A sample set requires %d frames; %d were found.", samplesPerSet, numSamplesRead));
+            throw new MmtcException("Unable to find valid sample set");
+        }
+
+        final int numSamplesLeft = numSamplesRead - (numSamplesReadForNextSet - samplesPerSet);
+        String notEnoughFramesLeftError = "All candidate sample sets failed filters. ";
+
+        if (numSamplesLeft == 0) {
+            notEnoughFramesLeftError += "No frames from the query interval are left, so MMTC can't build another candidate sample set.";
+        } else {
+            notEnoughFramesLeftError += String.format("Only %d %s from the query interval %s left, which is not enough to build another candidate sample set. A sample set requires %d frames.",
+                    numSamplesLeft,
+                    numSamplesLeft == 1 ? "frame" : "frames",
+                    numSamplesLeft == 1 ? "is" : "are",
+                    samplesPerSet);
+        }
+
+        logger.error(notEnoughFramesLeftError);
+        throw new MmtcException("Unable to find valid sample set");
+    }
+
+    /**
+     * @return true if the candidate sample set matches the desired target ERT (if one is given) and passes all filters
+     */
+    private boolean isValidCandidate(TimeCorrelationTarget tcTarget, FilterFunction filterFunction) throws MmtcException {
+        if (config.getTargetSampleInputErtMode().equals(TimeCorrelationRunConfig.TargetSampleInputErtMode.EXACT)) {
+            final OffsetDateTime desiredTargetFrameErt = config.getResolvedTargetSampleExactErt().get();
+
+            if (TimeConvert.parseIsoDoyUtcStr(tcTarget.getTargetSample().getErtStr()).equals(desiredTargetFrameErt)) {
+                logger.info("The candidate sample matches the desired ERT");
             } else {
-                logger.warn("Discarding the candidate sample set because it didn't pass all filters");
+                logger.info("Discarding the candidate sample set because it does not match the desired ERT");
+                return false;
             }
         }
 
-        return tcTarget;
+        if (filterFunction.apply(tcTarget)) {
+            logger.info(USER_NOTICE, "The candidate sample set passed all filters and is valid. MMTC will use it as the sample set for time correlation.");
+            return true;
+        } else {
+            logger.warn("Discarding the candidate sample set because it didn't pass all filters");
+            return false;
+        }
     }
 }
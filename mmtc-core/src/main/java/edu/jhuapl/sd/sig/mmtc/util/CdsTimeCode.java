@@ -2,7 +2,10 @@ package edu.jhuapl.sd.sig.mmtc.util;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
 import java.util.Objects;
 
 /**
@@ -18,6 +21,31 @@ public class CdsTimeCode {
     private static final double MILLISEC_PER_SEC = 1000.0;
     private static final double MICROSEC_PER_SEC = 1000000.0;
 
+    private static final long MS_PER_DAY = 86_400_000L;
+    private static final long NANOS_PER_MS = 1_000_000L;
+    private static final long NANOS_PER_DAY = MS_PER_DAY * NANOS_PER_MS;
+
+    // the number of days from the CDS epoch (1958-01-01) to the Java epoch (1970-01-01)
+    private static final long CDS_EPOCH_DAY_OF_JAVA_EPOCH = 4383;
+
+    // the last CDS day whose times can all be represented in epoch nanoseconds (in the year 2262)
+    private static final long MAX_EPOCH_NANOS_CDS_DAY = CDS_EPOCH_DAY_OF_JAVA_EPOCH + (Long.MAX_VALUE / NANOS_PER_DAY) - 1;
+
+    /**
+     * Orders time codes chronologically by comparing their segments directly, without converting them to any other
+     * representation.  Time codes with different sub-millisecond resolutions are compared by the time they represent.
+     */
+    public static final Comparator<CdsTimeCode> CHRONOLOGICAL_ORDER = (one, other) -> {
+        int result = Integer.compare(one.day, other.day);
+        if (result == 0) {
+            result = Integer.compare(one.msOfDay, other.msOfDay);
+        }
+        if (result == 0) {
+            result = Long.compare(one.subMsNanos(), other.subMsNanos());
+        }
+        return result;
+    };
+
     /**
      * Used to identify the length of the sub-millisecond segment.
      */
@@ -189,16 +217,85 @@ public class CdsTimeCode {
     }
 
     /**
-     * Converts a CdsTimeCode object to a Java OffsetDateTime object.
+     * Converts a CdsTimeCode object to a Java OffsetDateTime object, rounded to the nearest microsecond (as by
+     * {@link TimeConvert#cdsToIsoUtc(CdsTimeCode)}).
      *
      * @return the CDS time as an OffsetDateTime object
      * @throws TimeConvertException if the time format could not be converted
      */
     public OffsetDateTime toTime() throws TimeConvertException {
+        if (isWithinEpochNanosRange()) {
+            final long epochMicros = toEpochMicrosRounded();
+            return OffsetDateTime.ofInstant(
+                    Instant.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L), Math.floorMod(epochMicros, 1_000_000L) * 1000L),
+                    ZoneOffset.UTC
+            );
+        }
+
         String utcStr = TimeConvert.cdsToIsoUtc(this.day, this.msOfDay, this.subMs);
         return TimeConvert.parseIsoDoyUtcStr(utcStr);
     }
 
+    /**
+     * Converts this time code to the exact number of nanoseconds since the Java epoch (1970-01-01T00:00:00Z), with no
+     * rounding and no intermediate representation.  Leap seconds are not counted, so a millisecond of day in a leap
+     * second (86,400,000 or greater) yields the same values as the first second of the following day.
+     *
+     * @return the number of nanoseconds since the Java epoch
+     * @throws ArithmeticException if the time is too far from the epoch to be represented in nanoseconds
+     */
+    public long toEpochNanos() {
+        final long epochDay = this.day - CDS_EPOCH_DAY_OF_JAVA_EPOCH;
+        return Math.addExact(Math.multiplyExact(epochDay, NANOS_PER_DAY), this.msOfDay * NANOS_PER_MS + subMsNanos());
+    }
+
+    /**
+     * Creates the time code, with a resolution of 1/10 microsecond, for an exact number of nanoseconds since the Java
+     * epoch; the inverse of {@link #toEpochNanos()} for well-formed time codes.
+     *
+     * @param epochNanos the number of nanoseconds since the Java epoch (1970-01-01T00:00:00Z)
+     * @return the equivalent CDS time code
+     * @throws IllegalArgumentException if the time is not a whole number of tenths of a microsecond, or precedes the
+     *                                  CDS epoch
+     */
+    public static CdsTimeCode fromEpochNanos(long epochNanos) {
+        if (epochNanos % 100 != 0) {
+            throw new IllegalArgumentException("Time is not a whole number of tenths of a microsecond: " + epochNanos);
+        }
+
+        final long day = Math.floorDiv(epochNanos, NANOS_PER_DAY) + CDS_EPOCH_DAY_OF_JAVA_EPOCH;
+        if (day < 0) {
+            throw new IllegalArgumentException("Time precedes the CDS epoch: " + epochNanos);
+        }
+
+        final long nanosOfDay = Math.floorMod(epochNanos, NANOS_PER_DAY);
+        return new CdsTimeCode((int) day, (int) (nanosOfDay / NANOS_PER_MS), (int) ((nanosOfDay % NANOS_PER_MS) / 100));
+    }
+
+    /**
+     * @return whether this time code is a well-formed time, with a resolution of 1/10 microsecond, that can be converted
+     *         to epoch nanoseconds and whose date need not be found by counting days from the CDS epoch
+     */
+    boolean isWithinEpochNanosRange() {
+        return this.resolution == Resolution.TENTH_MICROSECOND
+                && this.day >= 0 && this.day <= MAX_EPOCH_NANOS_CDS_DAY
+                && this.msOfDay >= 0 && this.msOfDay < MS_PER_DAY
+                && this.subMs >= 0 && this.subMs < 10_000;
+    }
+
+    /**
+     * @return the number of microseconds since the Java epoch, with the tenths of a microsecond rounded half up; only
+     *         valid for time codes that are {@link #isWithinEpochNanosRange()}
+     */
+    long toEpochMicrosRounded() {
+        final long epochDay = this.day - CDS_EPOCH_DAY_OF_JAVA_EPOCH;
+        return epochDay * (MS_PER_DAY * 1000L) + this.msOfDay * 1000L + (this.subMs + 5) / 10;
+    }
+
+    private long subMsNanos() {
+        return this.resolution == Resolution.MICROSECOND ? this.subMs * 1000L : this.subMs * 100L;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -0,0 +1,80 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import spice.basic.CSPICE;
+import spice.basic.KernelVarNotFoundException;
+import spice.basic.SpiceErrorException;
+
+/**
+ * The DELTET terms of the loaded leap seconds kernel, with which ephemeris time (TDB) is converted to and from
+ * Terrestrial Dynamical Time (TDT) in Java, giving the same results as SPICE unitim without a JNI call per value.
+ *
+ * The terms are read from the kernel pool when an instance is created; an instance must not be used after a different
+ * leap seconds kernel is loaded.
+ */
+final class DeltetTerms {
+    // unitim refines its estimate of TDT, from which the periodic term is computed, until it no longer changes
+    private static final int ET_TO_TDT_ITERATIONS = 3;
+
+    private final double k;
+    private final double eb;
+    private final double m0;
+    private final double m1;
+
+    private DeltetTerms(double k, double eb, double m0, double m1) {
+        this.k = k;
+        this.eb = eb;
+        this.m0 = m0;
+        this.m1 = m1;
+    }
+
+    /**
+     * @return the DELTET terms of the currently-loaded leap seconds kernel
+     * @throws TimeConvertException if the leap seconds kernel is not loaded
+     */
+    static DeltetTerms fromKernelPool() throws TimeConvertException {
+        try {
+            TimeConvert.countSpiceCalls(1);
+            final double[] m = CSPICE.gdpool("DELTET/M", 0, 2);
+            if (m.length != 2) {
+                throw new TimeConvertException("Error reading DELTET terms. DELTET/M must contain two values.");
+            }
+
+            TimeConvert.countSpiceCalls(2);
+            return new DeltetTerms(
+                    CSPICE.gdpool("DELTET/K", 0, 1)[0],
+                    CSPICE.gdpool("DELTET/EB", 0, 1)[0],
+                    m[0],
+                    m[1]
+            );
+        } catch (KernelVarNotFoundException e) {
+            throw new TimeConvertException("Error reading DELTET terms. Leap Seconds Kernel data not loaded:  " + e.getMessage(), e);
+        } catch (SpiceErrorException e) {
+            throw new TimeConvertException("Error reading DELTET terms from Leap Seconds Kernel data:  " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param et an ephemeris time, in seconds past J2000
+     * @return the equivalent TDT, as by CSPICE.unitim(et, "ET", "TDT")
+     */
+    double etToTdt(double et) {
+        double tdt = et;
+        for (int i = 0; i < ET_TO_TDT_ITERATIONS; i++) {
+            tdt = et - periodicTerm(tdt);
+        }
+        return tdt;
+    }
+
+    /**
+     * @param tdt a TDT, in seconds past J2000
+     * @return the equivalent ephemeris time, as by CSPICE.unitim(tdt, "TDT", "ET")
+     */
+    double tdtToEt(double tdt) {
+        return tdt + periodicTerm(tdt);
+    }
+
+    private double periodicTerm(double tdt) {
+        final double meanAnomaly = m0 + m1 * tdt;
+        return k * StrictMath.sin(meanAnomaly + eb * StrictMath.sin(meanAnomaly));
+    }
+}
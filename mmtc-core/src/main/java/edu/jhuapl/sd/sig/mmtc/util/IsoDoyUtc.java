@@ -0,0 +1,320 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses and formats MMTC's ISO-8601 day-of-year UTC time strings (yyyy-DDDThh:mm:ss.fffffffff) directly to and from
+ * epoch seconds and nanoseconds, without normalizing the string or building intermediate date/time objects.
+ *
+ * Only the canonical forms of these strings are handled directly: a four-digit year from 0001 through 9999, a
+ * three-digit day of year valid for that year, two-digit hours (00-23), minutes, and seconds, and an optional fraction
+ * of up to nine digits.  Any other input (e.g. a trailing zone designator, or an hour of 24) is handed to the same
+ * java.time formatter MMTC has always used, so that the results and exceptions for such inputs are unchanged.
+ */
+public class IsoDoyUtc {
+    // the shortest canonical form, with no fraction (yyyy-DDDThh:mm:ss)
+    private static final int NO_FRACTION_LEN = 17;
+
+    // the longest canonical form, with a nine-digit fraction (yyyy-DDDThh:mm:ss.fffffffff)
+    private static final int MAX_LEN = TimeConvert.ISO_UTC_DOY_FORMAT_LEN;
+
+    private static final long NOT_CANONICAL = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = TimeConvert.SECONDS_PER_DAY;
+    private static final long NANOS_PER_SECOND = TimeConvert.NS_PER_SECOND;
+
+    // the range of epoch seconds whose UTC year has four digits, and which can therefore be formatted directly
+    private static final long MIN_DIRECT_EPOCH_SECOND = epochDayOfJan1(1) * SECONDS_PER_DAY;
+    private static final long MAX_DIRECT_EPOCH_SECOND = epochDayOfJan1(10000) * SECONDS_PER_DAY - 1;
+
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000};
+
+    // formatters for the subsecond precisions that java.time supports, indexed by precision
+    private static final DateTimeFormatter[] FORMATTERS = new DateTimeFormatter[10];
+
+    static {
+        for (int precision = 1; precision <= 9; precision++) {
+            FORMATTERS[precision] = newFormatter(precision);
+        }
+    }
+
+    private IsoDoyUtc() { }
+
+    /**
+     * Converts an ISO DOY format calendar string (yyyy-doyThh:mm:ss.sssssssss) to a Java OffsetDateTime object.
+     *
+     * @param utc the UTC time in yyyy-doyThh:mm:ss.sssssssss format, with zero to nine fractional second digits
+     * @return the time as an OffsetDateTime object in UTC
+     * @throws IllegalArgumentException if the string has more than nine fractional second digits
+     * @throws java.time.format.DateTimeParseException if the string cannot otherwise be parsed
+     */
+    public static OffsetDateTime parse(String utc) {
+        final long epochSecond = parseCanonicalEpochSecond(utc);
+        if (epochSecond == NOT_CANONICAL) {
+            return parseWithFormatter(utc);
+        }
+
+        return LocalDateTime.ofEpochSecond(epochSecond, parseCanonicalNanos(utc), ZoneOffset.UTC).atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts an ISO DOY format calendar string (yyyy-doyThh:mm:ss.sssssssss) to nanoseconds since the Java epoch
+     * (1970-01-01T00:00:00Z).  Canonical strings are converted without allocating.
+     *
+     * @param utc the UTC time in yyyy-doyThh:mm:ss.sssssssss format, with zero to nine fractional second digits
+     * @return the number of nanoseconds since the Java epoch
+     * @throws IllegalArgumentException if the string has more than nine fractional second digits
+     * @throws java.time.format.DateTimeParseException if the string cannot otherwise be parsed
+     * @throws ArithmeticException if the time is too far from the epoch to be represented in nanoseconds
+     */
+    public static long parseToEpochNanos(CharSequence utc) {
+        final long epochSecond = parseCanonicalEpochSecond(utc);
+        if (epochSecond == NOT_CANONICAL) {
+            return toEpochNanos(parseWithFormatter(utc.toString()));
+        }
+
+        return Math.addExact(Math.multiplyExact(epochSecond, NANOS_PER_SECOND), parseCanonicalNanos(utc));
+    }
+
+    /**
+     * @param t a time
+     * @return the number of nanoseconds between the Java epoch (1970-01-01T00:00:00Z) and the given time
+     * @throws ArithmeticException if the time is too far from the epoch to be represented in nanoseconds
+     */
+    public static long toEpochNanos(OffsetDateTime t) {
+        return Math.addExact(Math.multiplyExact(t.toEpochSecond(), NANOS_PER_SECOND), t.getNano());
+    }
+
+    /**
+     * @param t a time
+     * @return the number of nanoseconds between the Java epoch (1970-01-01T00:00:00Z) and the given time, or
+     *         Long.MIN_VALUE or Long.MAX_VALUE if the time is too far before or after the epoch to be represented, such
+     *         that the result can always be used as a bound when comparing other epoch nanosecond values
+     */
+    public static long toEpochNanosSaturated(OffsetDateTime t) {
+        try {
+            return toEpochNanos(t);
+        } catch (ArithmeticException e) {
+            return t.toEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Converts a time to an ISO UTC DOY calendar string, truncating its fractional seconds to the given precision.
+     *
+     * @param t the time, in any offset
+     * @param subsecondPrecision the number of fractional second digits to include, which must be at least 1
+     * @return the ISO UTC DOY calendar string
+     * @throws IllegalArgumentException if the precision is less than 1 or greater than 9
+     */
+    public static String format(OffsetDateTime t, int subsecondPrecision) {
+        if (! (subsecondPrecision >= 1)) {
+            throw new IllegalArgumentException("Subsecond precision must be 1 or greater");
+        }
+
+        final long epochSecond = t.toEpochSecond();
+        if (! canFormatDirectly(epochSecond, subsecondPrecision)) {
+            return t.format(getFormatter(subsecondPrecision));
+        }
+
+        return appendDirectly(new StringBuilder(MAX_LEN), epochSecond, t.getNano(), subsecondPrecision).toString();
+    }
+
+    /**
+     * Converts a number of nanoseconds since the Java epoch to an ISO UTC DOY calendar string, truncating its
+     * fractional seconds to the given precision.
+     *
+     * @param epochNanos the number of nanoseconds since the Java epoch (1970-01-01T00:00:00Z)
+     * @param subsecondPrecision the number of fractional second digits to include, from 1 to 9
+     * @return the ISO UTC DOY calendar string
+     * @throws IllegalArgumentException if the precision is less than 1 or greater than 9
+     */
+    public static String formatEpochNanos(long epochNanos, int subsecondPrecision) {
+        return appendEpochNanos(new StringBuilder(MAX_LEN), epochNanos, subsecondPrecision).toString();
+    }
+
+    /**
+     * Appends the ISO UTC DOY calendar string for a number of nanoseconds since the Java epoch to the given buffer,
+     * truncating its fractional seconds to the given precision.  Nothing is allocated beyond any growth of the buffer.
+     *
+     * @param sb the buffer to which to append
+     * @param epochNanos the number of nanoseconds since the Java epoch (1970-01-01T00:00:00Z)
+     * @param subsecondPrecision the number of fractional second digits to include, from 1 to 9
+     * @return the given buffer
+     * @throws IllegalArgumentException if the precision is less than 1 or greater than 9
+     */
+    public static StringBuilder appendEpochNanos(StringBuilder sb, long epochNanos, int subsecondPrecision) {
+        if (subsecondPrecision < 1 || subsecondPrecision > 9) {
+            throw new IllegalArgumentException("Subsecond precision must be between 1 and 9: " + subsecondPrecision);
+        }
+
+        // every time representable in epoch nanoseconds has a four-digit year
+        return appendDirectly(sb, Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), subsecondPrecision);
+    }
+
+    /**
+     * @param subsecondPrecision the number of fractional second digits, which must be at least 1
+     * @return a formatter for ISO UTC DOY calendar strings with the given subsecond precision, which for precisions of
+     *         1 through 9 is created once and shared
+     * @throws IllegalArgumentException if the precision is greater than 9
+     */
+    public static DateTimeFormatter getFormatter(int subsecondPrecision) {
+        if (subsecondPrecision >= 1 && subsecondPrecision < FORMATTERS.length) {
+            return FORMATTERS[subsecondPrecision];
+        }
+
+        return newFormatter(subsecondPrecision);
+    }
+
+    private static DateTimeFormatter newFormatter(int subsecondPrecision) {
+        final StringBuilder subsecondFormat = new StringBuilder();
+        for (int i = 0; i < subsecondPrecision; i++) { subsecondFormat.append('S'); }
+
+        return DateTimeFormatter.ofPattern(TimeConvert.ISO_UTC_DOY_FORMAT_NO_SUBSECONDS + subsecondFormat).withZone(ZoneOffset.UTC);
+    }
+
+    private static OffsetDateTime parseWithFormatter(String utc) {
+        // Make sure that the input UTC string contains fractions of second to nine decimal places.
+        // If it does not, pad with trailing zeroes.
+        final String utcStr;
+        if (! utc.contains(".")) {
+            utcStr = utc + ".000000000";
+        } else if (utc.length() < MAX_LEN) {
+            final StringBuilder padded = new StringBuilder(MAX_LEN).append(utc);
+            while (padded.length() < MAX_LEN) {
+                padded.append('0');
+            }
+            utcStr = padded.toString();
+        } else if (utc.length() > MAX_LEN) {
+            throw new IllegalArgumentException("Cannot convert times with higher-than-nanosecond-precision: " + utc);
+        } else {
+            utcStr = utc;
+        }
+
+        return LocalDateTime.parse(utcStr, TimeConvert.ISO_UTC_DOY_FORMAT).atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the epoch second of a canonical ISO DOY string, or NOT_CANONICAL if the string is not in canonical form
+     *         or is not a valid time
+     */
+    private static long parseCanonicalEpochSecond(CharSequence s) {
+        final int len = s.length();
+        if (len < NO_FRACTION_LEN || len > MAX_LEN) {
+            return NOT_CANONICAL;
+        }
+
+        if (s.charAt(4) != '-' || s.charAt(8) != 'T' || s.charAt(11) != ':' || s.charAt(14) != ':') {
+            return NOT_CANONICAL;
+        }
+
+        if (len > NO_FRACTION_LEN) {
+            if (s.charAt(NO_FRACTION_LEN) != '.') {
+                return NOT_CANONICAL;
+            }
+            for (int i = NO_FRACTION_LEN + 1; i < len; i++) {
+                if (digit(s, i) < 0) {
+                    return NOT_CANONICAL;
+                }
+            }
+        }
+
+        final int year = digits(s, 0, 4);
+        final int dayOfYear = digits(s, 5, 3);
+        final int hour = digits(s, 9, 2);
+        final int minute = digits(s, 12, 2);
+        final int second = digits(s, 15, 2);
+
+        if (year < 1 || dayOfYear < 1 || dayOfYear > (isLeapYear(year) ? 366 : 365) || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NOT_CANONICAL;
+        }
+
+        final long epochDay = epochDayOfJan1(year) + dayOfYear - 1;
+        return epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    }
+
+    /**
+     * @return the nanosecond of second of a string already known to be in canonical form
+     */
+    private static int parseCanonicalNanos(CharSequence s) {
+        final int numFractionDigits = Math.max(0, s.length() - (NO_FRACTION_LEN + 1));
+        if (numFractionDigits == 0) {
+            return 0;
+        }
+
+        return digits(s, NO_FRACTION_LEN + 1, numFractionDigits) * POWERS_OF_TEN[9 - numFractionDigits];
+    }
+
+    private static boolean canFormatDirectly(long epochSecond, int subsecondPrecision) {
+        return subsecondPrecision <= 9 && epochSecond >= MIN_DIRECT_EPOCH_SECOND && epochSecond <= MAX_DIRECT_EPOCH_SECOND;
+    }
+
+    private static StringBuilder appendDirectly(StringBuilder sb, long epochSecond, int nanoOfSecond, int subsecondPrecision) {
+        final long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        final int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        final int year = yearOfEpochDay(epochDay);
+        final int dayOfYear = (int) (epochDay - epochDayOfJan1(year)) + 1;
+
+        appendDigits(sb, year, 4).append('-');
+        appendDigits(sb, dayOfYear, 3).append('T');
+        appendDigits(sb, secondOfDay / 3600, 2).append(':');
+        appendDigits(sb, (secondOfDay / 60) % 60, 2).append(':');
+        appendDigits(sb, secondOfDay % 60, 2).append('.');
+        return appendDigits(sb, nanoOfSecond / POWERS_OF_TEN[9 - subsecondPrecision], subsecondPrecision);
+    }
+
+    private static StringBuilder appendDigits(StringBuilder sb, int value, int width) {
+        for (int divisor = POWERS_OF_TEN[width - 1]; divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + (value / divisor) % 10));
+        }
+        return sb;
+    }
+
+    private static int digit(CharSequence s, int index) {
+        final int d = s.charAt(index) - '0';
+        return (d >= 0 && d <= 9) ? d : -1;
+    }
+
+    /**
+     * @return the value of the given run of ASCII digits, or a negative number if any character is not a digit
+     */
+    private static int digits(CharSequence s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            final int d = digit(s, i);
+            if (d < 0) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(long year) {
+        return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * @return the number of days between the Java epoch (1970-01-01) and January 1 of the given (positive) year
+     */
+    private static long epochDayOfJan1(long year) {
+        final long priorYears = year - 1;
+        return 365 * (year - 1970) + priorYears / 4 - priorYears / 100 + priorYears / 400 - 477;
+    }
+
+    private static int yearOfEpochDay(long epochDay) {
+        // estimate from the mean Gregorian year length, then correct for the estimate being off by up to a year
+        int year = (int) (1970 + Math.floorDiv(epochDay * 400, 146097));
+        while (epochDayOfJan1(year) > epochDay) {
+            year--;
+        }
+        while (epochDayOfJan1(year + 1) <= epochDay) {
+            year++;
+        }
+        return year;
+    }
+}
@@ -1,7 +1,9 @@
 package edu.jhuapl.sd.sig.mmtc.util;
 
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
@@ -45,6 +47,17 @@ public class IsolatingUrlClassLoader extends URLClassLoader {
         super(urls);
     }
 
+    /**
+     * Creates a classloader for a single plugin jar.  MMTC creates each of its plugin classloaders through this method.
+     *
+     * @param pluginJarPath the path to the plugin jar
+     * @return a new classloader for the plugin jar
+     * @throws MalformedURLException if the path cannot be converted to a URL
+     */
+    public static IsolatingUrlClassLoader forPluginJar(Path pluginJarPath) throws MalformedURLException {
+        return new IsolatingUrlClassLoader(new URL[] { pluginJarPath.toAbsolutePath().toUri().toURL() });
+    }
+
     @Override
     public Class<?> loadClass(String name) throws ClassNotFoundException {
         log(name, "start");
@@ -58,6 +58,7 @@ public class Owlt {
         double[] elapsed = new double[1];
 
         try {
+            TimeConvert.countSpiceCalls(1);
             CSPICE.ltime(et, groundStation, "<-", naifScId, ettarg, elapsed);
 
         } catch (SpiceErrorException e) {
@@ -86,6 +87,7 @@ public class Owlt {
         double et;
 
         try {
+            TimeConvert.countSpiceCalls(1);
             et = CSPICE.str2et(groundTimeUtc);
         } catch (SpiceErrorException e) {
             throw new TimeConvertException("Error computing UTC to ET for one-way light travel time for string time type: " + e.getMessage(), e);
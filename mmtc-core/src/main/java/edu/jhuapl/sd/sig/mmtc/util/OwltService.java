@@ -0,0 +1,214 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Computes downlink one-way light travel times (OWLTs) for many frames received over the same station passes, as when
+ * metrics are computed for each frame of a telemetry query range.
+ *
+ * Rather than calling SPICE ltime for every frame, the light time from each spacecraft to each station is evaluated on
+ * a fixed grid of ground times, along with its rate of change, and frames between two grid nodes are given the value
+ * of the cubic Hermite interpolant through them.  The first time an interval between two nodes is used, its
+ * interpolant is checked against ltime at the interval's midpoint, where the interpolation error of a smooth light
+ * time curve peaks; if the error there exceeds the tolerance, or if either node could not be computed (e.g. at the edge
+ * of an ephemeris segment), every time within that interval is computed exactly as by {@link Owlt#getDownlinkOwlt}.
+ * Ground stations are given by NAIF ID, as resolved from their path IDs by the configuration's Ground Station Map.
+ *
+ * The required SPICE kernels must be loaded for as long as an instance is in use, and the loaded ephemeris and frame
+ * kernels must not change during that time.
+ */
+public class OwltService {
+    public static final double DEFAULT_GRID_STEP_SEC = 600.0;
+    public static final double DEFAULT_TOLERANCE_SEC = 1.0e-7;
+
+    // the offset from each grid node at which light time is evaluated to estimate its rate of change by central difference
+    private static final double DERIVATIVE_STEP_SEC = 1.0;
+
+    // the number of intervals kept per station and spacecraft before the grid is discarded and rebuilt as needed
+    private static final int MAX_INTERVALS_PER_GRID = 100_000;
+
+    /**
+     * Computes a downlink light time, as by {@link Owlt#getDownlinkOwlt(int, int, Double)}.
+     */
+    @FunctionalInterface
+    public interface LightTimeFunction {
+        double computeDownlinkOwlt(int groundStation, int naifScId, double groundTimeEt) throws TimeConvertException;
+    }
+
+    private static final class Node {
+        private final double owlt;
+        private final double owltRate;
+
+        private Node(double owlt, double owltRate) {
+            this.owlt = owlt;
+            this.owltRate = owltRate;
+        }
+    }
+
+    private static final class Interval {
+        private final Node start;
+        private final Node end;
+        private final boolean interpolable;
+
+        private Interval(Node start, Node end, boolean interpolable) {
+            this.start = start;
+            this.end = end;
+            this.interpolable = interpolable;
+        }
+    }
+
+    private final class Grid {
+        private final int groundStation;
+        private final int naifScId;
+        private final Map<Long, Node> nodes = new HashMap<>();
+        private final Map<Long, Interval> intervals = new HashMap<>();
+
+        private Grid(int groundStation, int naifScId) {
+            this.groundStation = groundStation;
+            this.naifScId = naifScId;
+        }
+
+        private Interval getInterval(long index) {
+            Interval interval = intervals.get(index);
+            if (interval == null) {
+                if (intervals.size() >= MAX_INTERVALS_PER_GRID) {
+                    intervals.clear();
+                    nodes.clear();
+                }
+                interval = buildInterval(index);
+                intervals.put(index, interval);
+            }
+            return interval;
+        }
+
+        private Interval buildInterval(long index) {
+            try {
+                final Node start = getNode(index);
+                final Node end = getNode(index + 1);
+                final Interval candidate = new Interval(start, end, true);
+
+                final double midpointEt = (index + 0.5) * gridStepSec;
+                final double exact = computeExact(groundStation, naifScId, midpointEt);
+                final double error = Math.abs(interpolate(candidate, 0.5) - exact);
+
+                return error <= toleranceSec ? candidate : new Interval(null, null, false);
+            } catch (TimeConvertException e) {
+                // times within this interval are computed exactly, and any error is reported for the time itself
+                return new Interval(null, null, false);
+            }
+        }
+
+        private Node getNode(long index) throws TimeConvertException {
+            Node node = nodes.get(index);
+            if (node == null) {
+                final double et = index * gridStepSec;
+                final double owlt = computeExact(groundStation, naifScId, et);
+                final double before = computeExact(groundStation, naifScId, et - DERIVATIVE_STEP_SEC);
+                final double after = computeExact(groundStation, naifScId, et + DERIVATIVE_STEP_SEC);
+
+                node = new Node(owlt, (after - before) / (2 * DERIVATIVE_STEP_SEC));
+                nodes.put(index, node);
+            }
+            return node;
+        }
+    }
+
+    private final double gridStepSec;
+    private final double toleranceSec;
+    private final LightTimeFunction lightTimeFunction;
+
+    private final Map<Long, Grid> grids = new HashMap<>();
+    private int lightTimeComputationCount = 0;
+
+    public OwltService() {
+        this(DEFAULT_GRID_STEP_SEC, DEFAULT_TOLERANCE_SEC);
+    }
+
+    public OwltService(double gridStepSec, double toleranceSec) {
+        this(gridStepSec, toleranceSec, Owlt::getDownlinkOwlt);
+    }
+
+    /**
+     * @param gridStepSec the spacing of the interpolation grid, in ET seconds
+     * @param toleranceSec the largest interpolation error, in seconds, accepted at the midpoint of a grid interval
+     * @param lightTimeFunction the function used to compute exact light times
+     */
+    public OwltService(double gridStepSec, double toleranceSec, LightTimeFunction lightTimeFunction) {
+        if (! (gridStepSec > 2 * DERIVATIVE_STEP_SEC)) {
+            throw new IllegalArgumentException("OWLT grid step must be greater than " + 2 * DERIVATIVE_STEP_SEC + " seconds: " + gridStepSec);
+        }
+        if (! (toleranceSec >= 0)) {
+            throw new IllegalArgumentException("OWLT interpolation tolerance must not be negative: " + toleranceSec);
+        }
+
+        this.gridStepSec = gridStepSec;
+        this.toleranceSec = toleranceSec;
+        this.lightTimeFunction = lightTimeFunction;
+    }
+
+    /**
+     * Computes the downlink OWLT between a spacecraft and an Earth ground station, interpolating between grid nodes
+     * where the interpolation is within tolerance and computing it exactly otherwise.
+     *
+     * @param groundStation the NAIF ground station ID
+     * @param naifScId the NAIF spacecraft ID
+     * @param groundTimeEt the ground time for which OWLT is to be computed, in ET
+     * @return the OWLT in seconds
+     * @throws TimeConvertException if a SPICE error occurs
+     */
+    public synchronized double getDownlinkOwlt(int groundStation, int naifScId, double groundTimeEt) throws TimeConvertException {
+        final double gridPosition = groundTimeEt / gridStepSec;
+        final double index = Math.floor(gridPosition);
+        if (Double.isNaN(index) || Double.isInfinite(index) || Math.abs(index) >= 1L << 52) {
+            return computeExact(groundStation, naifScId, groundTimeEt);
+        }
+
+        final long gridKey = ((long) groundStation << 32) | (naifScId & 0xFFFFFFFFL);
+        Grid grid = grids.get(gridKey);
+        if (grid == null) {
+            grid = new Grid(groundStation, naifScId);
+            grids.put(gridKey, grid);
+        }
+
+        final Interval interval = grid.getInterval((long) index);
+        if (! interval.interpolable) {
+            return computeExact(groundStation, naifScId, groundTimeEt);
+        }
+
+        return interpolate(interval, gridPosition - index);
+    }
+
+    /**
+     * @return the number of light times that have been computed exactly by this instance, including those used to
+     *         build and check its interpolation grids
+     */
+    public synchronized int getLightTimeComputationCount() {
+        return lightTimeComputationCount;
+    }
+
+    private double computeExact(int groundStation, int naifScId, double groundTimeEt) throws TimeConvertException {
+        lightTimeComputationCount++;
+        return lightTimeFunction.computeDownlinkOwlt(groundStation, naifScId, groundTimeEt);
+    }
+
+    /**
+     * Evaluates the cubic Hermite interpolant over an interval, relative to its starting value to preserve precision.
+     *
+     * @param interval the interval
+     * @param s the fraction of the interval from its start, in [0, 1]
+     * @return the interpolated OWLT in seconds
+     */
+    private double interpolate(Interval interval, double s) {
+        final double s2 = s * s;
+        final double s3 = s2 * s;
+
+        final double h01 = -2 * s3 + 3 * s2;
+        final double h10 = s3 - 2 * s2 + s;
+        final double h11 = s3 - s2;
+
+        return interval.start.owlt
+                + h01 * (interval.end.owlt - interval.start.owlt)
+                + gridStepSec * (h10 * interval.start.owltRate + h11 * interval.end.owltRate);
+    }
+}
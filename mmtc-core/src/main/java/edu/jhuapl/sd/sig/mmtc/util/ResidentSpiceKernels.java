@@ -0,0 +1,138 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Keeps SPICE kernels loaded between a series of operations run in the same process (such as successive correlations
+ * run by the MMTC daemon), so that each operation only loads the kernels that differ from those already loaded.
+ * <p>
+ * Kernels of the same type take precedence over one another according to the order in which they were loaded, so
+ * for each kernel type, only the longest run of already-loaded kernels that matches the start of the requested
+ * kernels of that type is kept; the rest are unloaded and (re)loaded in the requested order.  A kernel whose file has
+ * been modified since it was loaded is reloaded.  Kernels loaded through a metakernel are only reloaded along with the
+ * metakernel itself.
+ * <p>
+ * As the SPICE kernel pool is shared across the process, this class assumes that it is the only means by which
+ * kernels are kept loaded between operations; kernels that are found to have been unloaded by other means are
+ * reloaded.
+ */
+public class ResidentSpiceKernels {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static class LoadedKernel {
+        final String path;
+        final String type;
+        final long lastModified;
+
+        LoadedKernel(String path, String type) {
+            this.path = path;
+            this.type = type;
+            this.lastModified = new File(path).lastModified();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || getClass() != o.getClass()) return false;
+            LoadedKernel that = (LoadedKernel) o;
+            return lastModified == that.lastModified && path.equals(that.path) && type.equals(that.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, type, lastModified);
+        }
+    }
+
+    // in the order they were loaded
+    private final List<LoadedKernel> loadedKernels = new ArrayList<>();
+
+    /**
+     * Ensures that exactly the given kernels are loaded, loading and unloading only those necessary to do so.
+     *
+     * @param kernelsToLoad a map of kernel paths to kernel types, in the order they should be loaded
+     * @throws TimeConvertException if a kernel could not be loaded or unloaded
+     */
+    public synchronized void load(Map<String, String> kernelsToLoad) throws TimeConvertException {
+        final List<LoadedKernel> requestedKernels = new ArrayList<>();
+        for (Map.Entry<String, String> kernel : kernelsToLoad.entrySet()) {
+            requestedKernels.add(new LoadedKernel(kernel.getKey(), kernel.getValue()));
+        }
+
+        if (! loadedKernels.isEmpty()) {
+            final Set<String> actuallyLoadedFiles = TimeConvert.getLoadedKernelFiles();
+            loadedKernels.removeIf(kernel -> ! actuallyLoadedFiles.contains(kernel.path));
+        }
+
+        final Map<String, List<LoadedKernel>> loadedKernelsByType = groupByType(loadedKernels);
+        final Set<LoadedKernel> retainedKernels = new HashSet<>();
+        for (Map.Entry<String, List<LoadedKernel>> requestedKernelsOfType : groupByType(requestedKernels).entrySet()) {
+            final List<LoadedKernel> requested = requestedKernelsOfType.getValue();
+            final List<LoadedKernel> loaded = loadedKernelsByType.getOrDefault(requestedKernelsOfType.getKey(), Collections.emptyList());
+
+            for (int i = 0; i < Math.min(requested.size(), loaded.size()) && requested.get(i).equals(loaded.get(i)); i++) {
+                retainedKernels.add(loaded.get(i));
+            }
+        }
+
+        final Iterator<LoadedKernel> loadedKernelIter = loadedKernels.iterator();
+        while (loadedKernelIter.hasNext()) {
+            final LoadedKernel kernel = loadedKernelIter.next();
+            if (! retainedKernels.contains(kernel)) {
+                TimeConvert.unloadSpiceKernels(Collections.singletonMap(kernel.path, kernel.type));
+                loadedKernelIter.remove();
+            }
+        }
+
+        final Map<String, String> kernelsToNewlyLoad = new LinkedHashMap<>();
+        for (LoadedKernel kernel : requestedKernels) {
+            if (! retainedKernels.contains(kernel)) {
+                kernelsToNewlyLoad.put(kernel.path, kernel.type);
+            }
+        }
+
+        logger.debug(String.format("Retaining %d loaded SPICE kernels and loading %d: %s", retainedKernels.size(), kernelsToNewlyLoad.size(), kernelsToNewlyLoad.keySet()));
+
+        try {
+            TimeConvert.loadSpiceKernels(kernelsToNewlyLoad);
+        } finally {
+            // record whichever kernels were loaded, even if a later kernel failed to load
+            final Set<String> actuallyLoadedFiles = TimeConvert.getLoadedKernelFiles();
+            for (LoadedKernel kernel : requestedKernels) {
+                if (kernelsToNewlyLoad.containsKey(kernel.path) && actuallyLoadedFiles.contains(kernel.path)) {
+                    loadedKernels.add(kernel);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a map of the paths of the kernels kept loaded to their types, in the order they were loaded
+     */
+    public synchronized Map<String, String> getLoadedKernels() {
+        final Map<String, String> kernels = new LinkedHashMap<>();
+        for (LoadedKernel kernel : loadedKernels) {
+            kernels.put(kernel.path, kernel.type);
+        }
+        return kernels;
+    }
+
+    /**
+     * Unloads all SPICE kernels.
+     */
+    public synchronized void unloadAll() {
+        TimeConvert.unloadSpiceKernels();
+        loadedKernels.clear();
+    }
+
+    private static Map<String, List<LoadedKernel>> groupByType(List<LoadedKernel> kernels) {
+        final Map<String, List<LoadedKernel>> kernelsByType = new LinkedHashMap<>();
+        for (LoadedKernel kernel : kernels) {
+            kernelsByType.computeIfAbsent(kernel.type, type -> new ArrayList<>()).add(kernel);
+        }
+        return kernelsByType;
+    }
+}
@@ -0,0 +1,179 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import spice.basic.CSPICE;
+import spice.basic.KernelVarNotFoundException;
+import spice.basic.SpiceErrorException;
+
+/**
+ * The parameters of a loaded two-stage, type 1 SCLK kernel, with which raw SCLK values are encoded and encoded SCLK
+ * values are converted to ephemeris time in Java, giving the same results as SPICE scencd, scs2e, and sct2e without a
+ * JNI call per value.
+ *
+ * Only the common case is handled here: a type 1 clock with two fields and no field offsets, whose parallel time system
+ * is TDB or TDT.  For any other clock {@link #fromKernelPool} returns null, and for any value that SPICE would reject,
+ * or that lies on the boundary of its valid range, the conversion methods return NaN; callers convert those with SPICE
+ * instead, so that they fail exactly as they otherwise would.
+ *
+ * The parameters are read from the kernel pool when an instance is created; an instance must not be used after a
+ * different SCLK kernel is loaded.
+ */
+final class Sclk01Kernel {
+    private static final int PARALLEL_TIME_SYSTEM_TDB = 1;
+    private static final int PARALLEL_TIME_SYSTEM_TDT = 2;
+
+    private final boolean parallelTimeIsTdt;
+    private final double fineModulus;
+    private final double[] partitionStarts;
+    private final double[] partitionEnds;
+    private final double[] partitionEncodedStarts;
+    private final double maxEncodedSclk;
+
+    // the columns of the SCLK coefficient triplets
+    private final double[] coefficientEncSclks;
+    private final double[] coefficientParallelTimes;
+    private final double[] coefficientRates;
+
+    private final DeltetTerms deltet;
+
+    private Sclk01Kernel(int parallelTimeSystem, double fineModulus, double[] partitionStarts, double[] partitionEnds, double[] coefficients, DeltetTerms deltet) {
+        this.parallelTimeIsTdt = parallelTimeSystem == PARALLEL_TIME_SYSTEM_TDT;
+        this.fineModulus = fineModulus;
+        this.partitionStarts = partitionStarts;
+        this.partitionEnds = partitionEnds;
+        this.deltet = deltet;
+
+        this.partitionEncodedStarts = new double[partitionStarts.length];
+        double encodedStart = 0;
+        for (int i = 0; i < partitionStarts.length; i++) {
+            partitionEncodedStarts[i] = encodedStart;
+            encodedStart += partitionEnds[i] - partitionStarts[i];
+        }
+        this.maxEncodedSclk = encodedStart;
+
+        final int numCoefficients = coefficients.length / 3;
+        this.coefficientEncSclks = new double[numCoefficients];
+        this.coefficientParallelTimes = new double[numCoefficients];
+        this.coefficientRates = new double[numCoefficients];
+        for (int i = 0; i < numCoefficients; i++) {
+            coefficientEncSclks[i] = coefficients[3 * i];
+            coefficientParallelTimes[i] = coefficients[3 * i + 1];
+            coefficientRates[i] = coefficients[3 * i + 2];
+        }
+    }
+
+    /**
+     * @param scid the NAIF spacecraft ID
+     * @param deltet the DELTET terms of the loaded leap seconds kernel
+     * @return the parameters of the spacecraft's loaded SCLK kernel, or null if its clock is not one handled here
+     * @throws TimeConvertException if the kernel pool could not be read
+     */
+    static Sclk01Kernel fromKernelPool(int scid, DeltetTerms deltet) throws TimeConvertException {
+        final String suffix = "_" + Math.abs(scid);
+
+        try {
+            final double[] dataType = readOptional("SCLK_DATA_TYPE" + suffix);
+            final double[] timeSystem = readOptional("SCLK01_TIME_SYSTEM" + suffix);
+            final double[] numFields = readOptional("SCLK01_N_FIELDS" + suffix);
+            final double[] moduli = readOptional("SCLK01_MODULI" + suffix);
+            final double[] offsets = readOptional("SCLK01_OFFSETS" + suffix);
+            final double[] partitionStarts = readOptional("SCLK_PARTITION_START" + suffix);
+            final double[] partitionEnds = readOptional("SCLK_PARTITION_END" + suffix);
+            final double[] coefficients = readOptional("SCLK01_COEFFICIENTS" + suffix);
+
+            if (dataType == null || dataType[0] != 1
+                    || numFields == null || numFields[0] != 2
+                    || moduli == null || moduli.length != 2
+                    || offsets == null || offsets.length != 2 || offsets[0] != 0 || offsets[1] != 0
+                    || partitionStarts == null || partitionEnds == null || partitionStarts.length == 0 || partitionStarts.length != partitionEnds.length
+                    || coefficients == null || coefficients.length == 0 || coefficients.length % 3 != 0) {
+                return null;
+            }
+
+            // the parallel time system is TDB unless specified
+            final int parallelTimeSystem = timeSystem == null ? PARALLEL_TIME_SYSTEM_TDB : (int) timeSystem[0];
+            if (parallelTimeSystem != PARALLEL_TIME_SYSTEM_TDB && parallelTimeSystem != PARALLEL_TIME_SYSTEM_TDT) {
+                return null;
+            }
+
+            return new Sclk01Kernel(parallelTimeSystem, moduli[1], partitionStarts, partitionEnds, coefficients, deltet);
+        } catch (SpiceErrorException | KernelVarNotFoundException e) {
+            throw new TimeConvertException("Error reading SCLK Kernel data for spacecraft " + scid + ":  " + e.getMessage(), e);
+        }
+    }
+
+    private static double[] readOptional(String varname) throws SpiceErrorException, KernelVarNotFoundException {
+        final boolean[] found = new boolean[1];
+        final int[] size = new int[1];
+        final String[] type = new String[1];
+
+        TimeConvert.countSpiceCalls(1);
+        CSPICE.dtpool(varname, found, size, type);
+        if (! found[0] || ! "N".equals(type[0]) || size[0] < 1) {
+            return null;
+        }
+
+        TimeConvert.countSpiceCalls(1);
+        return CSPICE.gdpool(varname, 0, size[0]);
+    }
+
+    /**
+     * Encodes a raw SCLK, as by CSPICE.scencd.
+     *
+     * @param partition the clock partition
+     * @param coarse the coarse (seconds) field
+     * @param fine the fine (ticks) field
+     * @return the encoded SCLK, or NaN if SPICE would reject the value
+     */
+    double encode(int partition, int coarse, int fine) {
+        if (partition < 1 || partition > partitionStarts.length || coarse < 0 || fine < 0) {
+            return Double.NaN;
+        }
+
+        final int partitionIndex = partition - 1;
+        final double ticks = coarse * fineModulus + fine;
+        if (ticks < partitionStarts[partitionIndex] || ticks > partitionEnds[partitionIndex]) {
+            return Double.NaN;
+        }
+
+        return partitionEncodedStarts[partitionIndex] + (ticks - partitionStarts[partitionIndex]);
+    }
+
+    /**
+     * Converts an encoded SCLK to ephemeris time, as by CSPICE.sct2e.
+     *
+     * @param encSclk the encoded SCLK
+     * @return the ephemeris time, or NaN if SPICE would reject the value
+     */
+    double toEt(double encSclk) {
+        // the last encoded SCLK is left to SPICE, along with any invalid value (including NaN)
+        if (! (encSclk >= 0 && encSclk < maxEncodedSclk)) {
+            return Double.NaN;
+        }
+
+        final int i = lastCoefficientAtOrBefore(encSclk);
+        if (i < 0) {
+            return Double.NaN;
+        }
+
+        final double parallelTime = coefficientParallelTimes[i] + (coefficientRates[i] / fineModulus) * (encSclk - coefficientEncSclks[i]);
+        return parallelTimeIsTdt ? deltet.tdtToEt(parallelTime) : parallelTime;
+    }
+
+    private int lastCoefficientAtOrBefore(double encSclk) {
+        int low = 0;
+        int high = coefficientEncSclks.length - 1;
+        int result = -1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (coefficientEncSclks[mid] <= encSclk) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return result;
+    }
+}
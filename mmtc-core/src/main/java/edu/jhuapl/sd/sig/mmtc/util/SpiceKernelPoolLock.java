@@ -0,0 +1,163 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the use of the process-wide SPICE library and kernel pool between correlations that run concurrently in
+ * the same process, such as those of several missions, each of which requires its own set of kernels (e.g. its own
+ * SCLK kernel), or the variations of a sweep.
+ * <p>
+ * Each mission (or sweep variation) opens a {@link Session}, and holds it while it runs anything that uses SPICE.  A session is released
+ * while its holder waits on telemetry (see {@link #releaseHeldSession()}), so that one mission's telemetry queries overlap
+ * with another mission's SPICE computations.  All kernels are loaded through a single {@link ResidentSpiceKernels},
+ * so that when the pool passes from one mission's session to another's, only the kernels that differ between the two
+ * missions (typically their SCLK and spacecraft kernels) are unloaded and reloaded; kernels common to both (e.g. the
+ * LSK, planetary ephemerides, and station frames) stay loaded.  Upon reacquiring the pool, a session restores the
+ * kernels it had loaded when it released it.
+ * <p>
+ * As there is only one SPICE kernel pool per process, at most one instance of this class should be in use at a time.
+ * Code that does not run within a session (e.g. a single-mission correlation) is unaffected by this class.
+ */
+public class SpiceKernelPoolLock {
+    private static final Logger logger = LogManager.getLogger();
+
+    // the session held by the current thread, if any
+    private static final ThreadLocal<Session> heldSession = new ThreadLocal<>();
+
+    // fair, so that a session waiting to reacquire the pool after waiting on telemetry is not starved by others
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final ResidentSpiceKernels residentSpiceKernels = new ResidentSpiceKernels();
+
+    // the session that last held the pool; guarded by lock
+    private Session lastHolder = null;
+
+    /**
+     * @return the kernels kept loaded in the pool, through which sessions must load all kernels
+     */
+    public ResidentSpiceKernels getResidentSpiceKernels() {
+        return residentSpiceKernels;
+    }
+
+    /**
+     * @param name a name for the session, e.g. the name of the mission it is held by, for logging
+     * @return a new session, not yet held
+     */
+    public Session openSession(String name) {
+        return new Session(name);
+    }
+
+    /**
+     * A mission's use of the SPICE kernel pool, which may be acquired and released repeatedly by the threads running
+     * that mission's correlations, one at a time.
+     */
+    public class Session {
+        private final String name;
+
+        // the kernels loaded when this session last released the pool, or null if it has never held it
+        private Map<String, String> kernels = null;
+
+        private Session(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Waits for the pool to be free, and acquires it for the current thread, reloading this session's kernels if
+         * another session has changed them since this session last released the pool.
+         *
+         * @throws TimeConvertException if this session's kernels could not be restored, in which case the pool is not
+         *                              held
+         */
+        public void acquire() throws TimeConvertException {
+            if (heldSession.get() != null) {
+                throw new IllegalStateException("The current thread already holds the SPICE kernel pool for " + heldSession.get().name);
+            }
+
+            lock.lock();
+            try {
+                if (lastHolder != this && kernels != null) {
+                    logger.debug(String.format("Restoring the SPICE kernels of %s", name));
+                    residentSpiceKernels.load(kernels);
+                }
+                lastHolder = this;
+                heldSession.set(this);
+            } catch (TimeConvertException | RuntimeException e) {
+                lock.unlock();
+                throw e;
+            }
+        }
+
+        /**
+         * @return true if the current thread holds the pool through this session, false otherwise
+         */
+        public boolean isHeldByCurrentThread() {
+            return heldSession.get() == this;
+        }
+
+        /**
+         * Releases the pool, which must be held by the current thread through this session, recording the kernels it
+         * has loaded so that they may be restored when it is next acquired.
+         */
+        public void release() {
+            if (! isHeldByCurrentThread()) {
+                throw new IllegalStateException("The current thread does not hold the SPICE kernel pool for " + name);
+            }
+
+            kernels = residentSpiceKernels.getLoadedKernels();
+            heldSession.remove();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the SPICE kernel pool for the duration of a blocking call that doesn't use SPICE, such as a telemetry
+     * query, if it is held by the current thread; the pool is reacquired when the returned handle is closed.  If the
+     * current thread doesn't hold the pool, closing the handle does nothing.  Use as:
+     * <pre>
+     * try (SpiceKernelPoolLock.Released released = SpiceKernelPoolLock.releaseHeldSession()) {
+     *     return telemetrySource.getSamplesInRange(start, stop);
+     * }
+     * </pre>
+     *
+     * @return a handle that reacquires the pool when closed
+     */
+    public static Released releaseHeldSession() {
+        final Session session = heldSession.get();
+        if (session != null) {
+            session.release();
+        }
+        return new Released(session);
+    }
+
+    /**
+     * A release of the SPICE kernel pool by the current thread, which is reacquired when closed.
+     */
+    public static class Released implements AutoCloseable {
+        private final Session session;
+
+        private Released(Session session) {
+            this.session = session;
+        }
+
+        /**
+         * Reacquires the pool, if it was released.
+         *
+         * @throws IllegalStateException if the session's kernels could not be restored
+         */
+        @Override
+        public void close() {
+            if (session == null) {
+                return;
+            }
+
+            try {
+                session.acquire();
+            } catch (TimeConvertException e) {
+                throw new IllegalStateException("Unable to restore the SPICE kernels of " + session.name, e);
+            }
+        }
+    }
+}
@@ -4,12 +4,12 @@ import java.lang.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.time.Year;
@@ -17,8 +17,10 @@ import java.time.Year;
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationTarget;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationMetricsConfig;
+import edu.jhuapl.sd.sig.mmtc.metrics.CorrelationMetricNames;
+import edu.jhuapl.sd.sig.mmtc.metrics.RunMetrics;
+import edu.jhuapl.sd.sig.mmtc.metrics.jfr.SpiceCallEvent;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
-import org.apache.commons.lang3.StringUtils;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -89,6 +91,9 @@ public class TimeConvert {
     /* Indicates if the SPICE library has been loaded. */
     private static boolean spiceLibIsLoaded = false;
 
+    /* Incremented whenever kernels are loaded into or unloaded from the kernel pool. */
+    private static final AtomicLong kernelPoolGeneration = new AtomicLong();
+
      /**
      * Converts an ISO DOY format calendar string (yyyy-doyThh:mm:ss.ssssss) to a Java OffsetDateTime object.
      *
@@ -96,23 +101,7 @@ public class TimeConvert {
      * @return the time as an OffsetDateTime object
      */
     public static OffsetDateTime parseIsoDoyUtcStr(String utc) {
-        final int ISOUTCDOYLEN = "yyyy-doyThh:mm:ss.SSSSSSSSS".length();
-
-        // Make sure that the input UTC string contains fractions of second to nine decimal places.
-        // If it does not, pad with trailing zeroes.
-        String utcStr;
-        if (! utc.contains(".")) {
-            utcStr = utc + ".000000000";
-        } else if (utc.length() < ISOUTCDOYLEN) {
-            utcStr = StringUtils.rightPad(utc, ISOUTCDOYLEN, "0");
-        } else if (utc.length() > ISOUTCDOYLEN) {
-            throw new IllegalArgumentException("Cannot convert times with higher-than-nanosecond-precision: " + utc);
-        } else {
-            utcStr = utc;
-        }
-
-        LocalDateTime local = LocalDateTime.parse(utcStr, ISO_UTC_DOY_FORMAT);
-        return local.atOffset(ZoneOffset.UTC);
+        return IsoDoyUtc.parse(utc);
     }
 
 
@@ -126,14 +115,7 @@ public class TimeConvert {
     }
 
     public static String timeToIsoUtcString(OffsetDateTime t, int subsecondPrecision) {
-        if (! (subsecondPrecision >= 1)) {
-            throw new IllegalArgumentException("Subsecond precision must be 1 or greater");
-        }
-
-        String subsecondFormat = "";
-        for (int i = 0; i < subsecondPrecision; i++) { subsecondFormat += "S"; }
-
-        return t.format(DateTimeFormatter.ofPattern(ISO_UTC_DOY_FORMAT_NO_SUBSECONDS + subsecondFormat).withZone(ZoneOffset.UTC));
+        return IsoDoyUtc.format(t, subsecondPrecision);
     }
 
     /**
@@ -160,6 +142,27 @@ public class TimeConvert {
         return spiceLibIsLoaded;
     }
 
+    /**
+     * Counts calls about to be made to CSPICE toward the metrics of the correlation run executing on this thread, if
+     * any.
+     *
+     * @param numCalls the number of calls
+     */
+    public static void countSpiceCalls(int numCalls) {
+        RunMetrics.current().add(CorrelationMetricNames.COUNT_SPICE_CALLS, numCalls);
+    }
+
+
+    /**
+     * Gets a count of the changes made to the kernel pool through this class, so that values derived from the pool's
+     * contents can be cached until the pool next changes.
+     *
+     * @return a number that differs from any it was before the kernel pool last changed
+     */
+    public static long getKernelPoolGeneration() {
+        return kernelPoolGeneration.get();
+    }
+
 
     /**
      * Load the indicated SPICE kernels.
@@ -168,7 +171,7 @@ public class TimeConvert {
      * @throws TimeConvertException when KernelDatabase.load() fails
      */
     public static void loadSpiceKernels(Map<String, String> kernelsToLoad) throws TimeConvertException {
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("loadSpiceKernels")) {
             for (Map.Entry<String, String> entry : kernelsToLoad.entrySet()) {
                 if (entry.getKey().length() > MAX_SPICE_FILENAME_LEN) {
                     String kernelFilespecMsg = "Kernel file specification '" + entry.getKey() +
@@ -181,6 +184,8 @@ public class TimeConvert {
             }
         } catch (SpiceErrorException e) {
             throw new TimeConvertException("Unable to load SPICE kernels " + e.getMessage(), e);
+        } finally {
+            kernelPoolGeneration.incrementAndGet();
         }
     }
 
@@ -192,10 +197,51 @@ public class TimeConvert {
      * @throws TimeConvertException if the kernel could not be loaded
      */
     public static void loadSpiceKernel(String path) throws TimeConvertException {
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("loadSpiceKernel")) {
             KernelDatabase.load(path);
         } catch (SpiceErrorException e) {
             throw new TimeConvertException("Unable to load SPICE kernel: " + path + " : " + e.getMessage(), e);
+        } finally {
+            kernelPoolGeneration.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Loads the contents of a SPICE text kernel (e.g. an SCLK kernel) directly into the kernel pool from memory,
+     * without requiring it to exist as a file.  Only the kernel's data sections (those between \begindata and
+     * \begintext markers) are loaded.  Variables loaded this way are removed by unloadSpiceKernels().
+     *
+     * @param kernelLines the lines of the text kernel
+     * @throws TimeConvertException if the kernel pool could not be updated
+     */
+    public static void loadSpiceKernelText(List<String> kernelLines) throws TimeConvertException {
+        final List<String> dataLines = new ArrayList<>();
+        boolean inData = false;
+
+        for (String line : kernelLines) {
+            final String trimmed = line.trim();
+            if (trimmed.equals("\\begindata")) {
+                inData = true;
+            } else if (trimmed.equals("\\begintext")) {
+                inData = false;
+            } else if (inData && ! trimmed.isEmpty()) {
+                // JNISpice cannot pass empty strings to lmpool
+                dataLines.add(line);
+            }
+        }
+
+        if (dataLines.isEmpty()) {
+            throw new TimeConvertException("No data found in SPICE text kernel contents");
+        }
+
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("loadSpiceKernelText")) {
+            countSpiceCalls(1);
+            CSPICE.lmpool(dataLines.toArray(new String[0]));
+        } catch (SpiceErrorException e) {
+            throw new TimeConvertException("Unable to load SPICE text kernel contents: " + e.getMessage(), e);
+        } finally {
+            kernelPoolGeneration.incrementAndGet();
         }
     }
 
@@ -207,12 +253,14 @@ public class TimeConvert {
      * @throws TimeConvertException if a kernel or kernels could not be removed from the SPICE kernel pool
      */
     public static void unloadSpiceKernels(Map<String, String> kernelsToUnload) throws TimeConvertException {
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("unloadSpiceKernels")) {
             for (Map.Entry<String, String> entry : kernelsToUnload.entrySet()) {
                 KernelDatabase.unload(entry.getKey());
             }
         } catch (SpiceErrorException e) {
             throw new TimeConvertException("Unable to unload SPICE kernels: " + e.getMessage(), e);
+        } finally {
+            kernelPoolGeneration.incrementAndGet();
         }
     }
 
@@ -220,7 +268,11 @@ public class TimeConvert {
      * Unload all SPICE kernels.
      */
     public static void unloadSpiceKernels() {
-        KernelDatabase.clear();
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("unloadSpiceKernels")) {
+            KernelDatabase.clear();
+        } finally {
+            kernelPoolGeneration.incrementAndGet();
+        }
     }
 
     /**
@@ -243,6 +295,12 @@ public class TimeConvert {
      * @throws TimeConvertException when any error occurs
      */
     public static String cdsToIsoUtc(Integer cdsDay, Integer cdsMsOfDay, Integer cdsSubMs) throws TimeConvertException {
+        final CdsTimeCode cds = new CdsTimeCode(cdsDay, cdsMsOfDay, cdsSubMs);
+        if (cds.isWithinEpochNanosRange()) {
+            return IsoDoyUtc.formatEpochNanos(cds.toEpochMicrosRounded() * 1000L, 6);
+        }
+
+        // times that fall within a leap second, or that are otherwise out of range, are converted by counting days
         long   utcYear     = CDS_EPOCH_YEAR;
         int    utcDoY      = cdsDay;
         int    numLeapDays = Year.isLeap(CDS_EPOCH_YEAR) ? 1:0;
@@ -473,10 +531,11 @@ public class TimeConvert {
     public static Double cdsToEt(Integer cdsDay, Integer cdsMsOfDay, Integer cdsSubMs)
             throws TimeConvertException {
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("cdsToEt")) {
             /* Convert the CDS time to a UTC calendar string. */
             String utc = cdsToIsoUtc(cdsDay, cdsMsOfDay, cdsSubMs);
 
+            countSpiceCalls(1);
             double et = CSPICE.str2et(utc);
             return et;
 
@@ -509,8 +568,9 @@ public class TimeConvert {
 
         double tdt;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("cdsToTdt")) {
             double et = cdsToEt(cdsDay, cdsMsOfDay, cdsSubMs);
+            countSpiceCalls(1);
             tdt = CSPICE.unitim(et, "ET", "TDT");
 
         } catch (SpiceErrorException e) {
@@ -551,14 +611,16 @@ public class TimeConvert {
 
         String tdtStr;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("cdsToTdtStr")) {
             /* Convert the CDS time to a UTC calendar string. */
             String utc = cdsToIsoUtc(cdsDay, cdsMsOfDay, cdsSubMs);
 
             /* Convert UTC to ET. */
+            countSpiceCalls(1);
             double et = CSPICE.str2et(utc);
 
             /* Convert ET to TDT in calendar string form. */
+            countSpiceCalls(1);
             tdtStr = CSPICE.timout(et, "DD-MON-YYYY-HR:MN:SC.######  ::TDT ::RND");
 
         } catch (SpiceErrorException e) {
@@ -584,7 +646,8 @@ public class TimeConvert {
 
         Double tdt;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("tdtCalStrToTdt")) {
+            countSpiceCalls(1);
             double et = CSPICE.str2et(tdtCalStr + " TDT");
             tdt = etToTdt(et);
 
@@ -619,10 +682,12 @@ public class TimeConvert {
             return "";
         }
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("tdtToTdtCalStr")) {
 
+            countSpiceCalls(1);
             double et = CSPICE.unitim(tdt, "TDT", "ET");
             String subsecStr = String.join("", Collections.nCopies(subsecPrecision, "#"));
+            countSpiceCalls(1);
             tdtStr = CSPICE.timout(et, String.format("DD-MON-YYYY-HR:MN:SC.%s  ::TDT ::RND", subsecStr));
 
         } catch (SpiceErrorException e) {
@@ -645,8 +710,9 @@ public class TimeConvert {
 
         String utc;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("tdtCalStrToUtc")) {
 
+            countSpiceCalls(2);
             double et  = CSPICE.str2et(tdtCalStr + " TDT");
             utc        = CSPICE.et2utc(et, "ISOD", precision);
 
@@ -671,7 +737,8 @@ public class TimeConvert {
 
         double tdt;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("etToTdt")) {
+                countSpiceCalls(1);
                 tdt = CSPICE.unitim(et, "ET", "TDT");
 
             } catch (SpiceErrorException e) {
@@ -694,7 +761,8 @@ public class TimeConvert {
     public static Double utcToEt(String utc) throws TimeConvertException {
 
         double et;
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("utcToEt")) {
+            countSpiceCalls(1);
             et = CSPICE.str2et(utc);
 
         } catch (SpiceErrorException e) {
@@ -721,7 +789,7 @@ public class TimeConvert {
 
         List<LeapSecond> allLeapSeconds = new ArrayList<>();
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("parseLeapSeconds")) {
             /* Get the leap seconds array from SPICE. The gdpool() function returns an array of
              * doubles with the leap second count followed by the date when it took effect given
              * in plain seconds since the J2000 epoch, not including leap seconds. Values prior to
@@ -729,6 +797,7 @@ public class TimeConvert {
              * by using this numeric seconds count as a close-enough approximation of ET. All leap
              * second start dates begin at midnight, so assume times of 00h:00mm.
              */
+            countSpiceCalls(1);
             leapSecData = CSPICE.gdpool(
                     "DELTET/DELTA_AT",  // variable name
                     0,                    // index of component to start retrieval at for variable
@@ -740,6 +809,7 @@ public class TimeConvert {
                 leapSecDeltaEt           = (int) leapSecData[rowDeltaEtIndex];
                 dateval                  = leapSecData[rowDeltaAtUtcIndex] + 1.;
 
+                countSpiceCalls(1);
                 String date = CSPICE.timout(dateval, "YYYY-DOY::TDB");
                 LeapSecond leapSec = new LeapSecond(TimeConvert.parseIsoDoyUtcStr(date + "T00:00:00"), leapSecDeltaEt);
                 allLeapSeconds.add(leapSec);
@@ -810,7 +880,8 @@ public class TimeConvert {
 
         double[] offset;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("utcTdtOffset")) {
+            countSpiceCalls(1);
             offset = CSPICE.gdpool("DELTET/DELTA_T_A", 0, 1);
 
         } catch (KernelVarNotFoundException e) {
@@ -836,7 +907,8 @@ public class TimeConvert {
         String keyword = "SCLK01_MODULI_" + Math.abs(scid);
         Integer tickRate;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("getSclkKernelTickRate")) {
+            countSpiceCalls(1);
             int[] sclkModuli = CSPICE.gipool(keyword, 1, 1);
             tickRate = sclkModuli[0];
 
@@ -864,7 +936,8 @@ public class TimeConvert {
         String keyword = "SCLK01_N_FIELDS_" + Math.abs(scid);
         Integer numStages;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("getNumSclkStages")) {
+            countSpiceCalls(1);
             int[] fields = CSPICE.gipool(keyword, 0, 1);
             numStages = fields[0];
 
@@ -912,7 +985,8 @@ public class TimeConvert {
 
         double et;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("sclkToEt")) {
+            countSpiceCalls(1);
             et = CSPICE.scs2e(scid, sclk);
         } catch (SpiceErrorException e) {
             throw new TimeConvertException("Error converting SCLK to ET:  " + e.getMessage(), e);
@@ -957,7 +1031,8 @@ public class TimeConvert {
     public static Double sclkToEncSclk(Integer scid, Integer partition, Integer coarse, Integer fine) throws TimeConvertException {
         final String sclk = sclkToSclkStr(scid, partition, coarse, fine);
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("sclkToEncSclk")) {
+            countSpiceCalls(1);
             return CSPICE.scencd(scid, sclk);
         } catch (SpiceErrorException e) {
             throw new TimeConvertException(String.format("Error converting raw SCLK (%s) to encoded SCLK:  " + e.getMessage(), sclk), e);
@@ -979,7 +1054,8 @@ public class TimeConvert {
         Double sclk;
         String sclkStr;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("encSclkToSclk")) {
+            countSpiceCalls(2);
             double et = CSPICE.sct2e(scid, encSclk);
             sclkStr = CSPICE.sce2s(scid, et);
 
@@ -1007,7 +1083,8 @@ public class TimeConvert {
         Double sclk;
         String sclkStr;
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("utcToSclk")) {
+            countSpiceCalls(2);
             double et    = CSPICE.str2et(utc);
             sclkStr = CSPICE.sce2s(scid, et);
 
@@ -1048,7 +1125,8 @@ public class TimeConvert {
         // supported here.
         String varname = "SCLK01_OUTPUT_DELIM_" + Math.abs(scid);
         double[] delim_id ;
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("sclkStrToSclk")) {
+            countSpiceCalls(1);
             delim_id = CSPICE.gdpool(varname, 0, 1);
         }catch (SpiceErrorException e) {
             throw new TimeConvertException("Error reading SCLK Kernel variable " + varname + ": " + e.getMessage(), e);
@@ -1148,7 +1226,8 @@ public class TimeConvert {
     public static Integer nameToNaifId(String name) throws TimeConvertException {
 
         int naifId;
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("nameToNaifId")) {
+            countSpiceCalls(1);
             naifId = CSPICE.bodn2c(name);
 
         } catch (SpiceErrorException e) {
@@ -1171,7 +1250,8 @@ public class TimeConvert {
 
         List<String> klist = new ArrayList<>();
 
-        try {
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("getLoadedKernelNames")) {
+            countSpiceCalls(1);
             int numKernelsLoaded = CSPICE.ktotal("ALL");
             for (int i = 0; i < numKernelsLoaded; i++) {
                 String kname = KernelDatabase.getFileName(i, "all");
@@ -1187,6 +1267,31 @@ public class TimeConvert {
         return klist;
     }
 
+    /**
+     * Returns the files of the SPICE kernels currently loaded into SPICE, as they were given when loaded, including
+     * any kernels loaded through metakernels.
+     *
+     * @return the set of loaded kernel files
+     * @throws TimeConvertException if the set could not be obtained
+     */
+    public static Set<String> getLoadedKernelFiles() throws TimeConvertException {
+        final Set<String> files = new HashSet<>();
+
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("getLoadedKernelFiles")) {
+            countSpiceCalls(1);
+            int numKernelsLoaded = CSPICE.ktotal("ALL");
+            for (int i = 0; i < numKernelsLoaded; i++) {
+                files.add(KernelDatabase.getFileName(i, "all"));
+            }
+        } catch (SpiceErrorException e) {
+            throw new TimeConvertException("Unable to list the loaded kernels: " + e.getMessage(), e);
+        } catch (SpiceKernelNotLoadedException e) {
+            throw new TimeConvertException("No SPICE kernels are currently loaded: " + e.getMessage(), e);
+        }
+
+        return files;
+    }
+
 
     /**
      * Determines if a string is a text representation of a numeric value.
@@ -1257,15 +1362,36 @@ public class TimeConvert {
      * @throws MmtcException
      */
     public static FrameSampleMetrics calculateFrameSampleMetrics(TimeCorrelationMetricsConfig config, FrameSample fs) throws TimeConvertException, MmtcException, SpiceErrorException {
+        return calculateFrameSampleMetrics(config, fs, null);
+    }
+
+    /**
+     * Computes the SCET error for a given FrameSample as above, computing its OWLT with the given service so that
+     * station IDs and light times can be shared across the frames of a batch.
+     *
+     * @param config the metrics configuration
+     * @param fs the frame sample
+     * @param owltService the service used to compute OWLT, or null to compute it exactly
+     * @return the frame's metrics
+     * @throws TimeConvertException if a time conversion fails
+     * @throws MmtcException if the frame's correlation values could not be computed
+     * @throws SpiceErrorException if a SPICE error occurs
+     */
+    public static FrameSampleMetrics calculateFrameSampleMetrics(TimeCorrelationMetricsConfig config, FrameSample fs, OwltService owltService) throws TimeConvertException, MmtcException, SpiceErrorException {
         final TimeCorrelationTarget tcTarget = new TimeCorrelationTarget(
                 Arrays.asList(fs),
                 config,
-                config.getTkSclkFineTickModulus()
+                config.getTkSclkFineTickModulus(),
+                owltService
         );
 
         // expected SCET is the value TDT(G) value as converted using the SCLK kernel
-        double estimatedEtUsingSclkKernel  = CSPICE.sct2e(config.getNaifSpacecraftId(), tcTarget.getTargetSampleEncSclk());
-        double estimatedTdtUsingSclkkernel = CSPICE.unitim(estimatedEtUsingSclkKernel, "ET", "TDT");
+        final double estimatedTdtUsingSclkkernel;
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("calculateFrameSampleMetrics")) {
+            countSpiceCalls(2);
+            double estimatedEtUsingSclkKernel  = CSPICE.sct2e(config.getNaifSpacecraftId(), tcTarget.getTargetSampleEncSclk());
+            estimatedTdtUsingSclkkernel = CSPICE.unitim(estimatedEtUsingSclkKernel, "ET", "TDT");
+        }
         final OffsetDateTime estimatedScet = tdtToUtc(estimatedTdtUsingSclkkernel, 9);
 
         // actual SCET is the actual TDT_G, in SCET terms, that was read on the ground
@@ -1285,5 +1411,404 @@ public class TimeConvert {
         final String utcStr = TimeConvert.tdtCalStrToUtc(tdtGStr, subsecPrecision);
         return TimeConvert.parseIsoDoyUtcStr(utcStr);
     }
+
+
+    /*
+     * Batch conversions.
+     *
+     * Each of the following converts an array of values with the same result, element for element, as its scalar
+     * counterpart above, but reads the kernel pool constants it needs only once per call.  Conversions that SPICE
+     * performs with plain arithmetic on those constants (between ET and TDT, and from SCLK to ET for two-stage type 1
+     * clocks) are done in Java; the rest still make a JNI call per element.  Conversion stops at the first element that
+     * fails, with the same exception that the scalar conversion would have thrown for it.
+     */
+
+    /**
+     * Computes the SCET errors for a batch of frames, as {@link #calculateFrameSampleMetrics(TimeCorrelationMetricsConfig, FrameSample)}
+     * does for each frame's TimeCorrelationTarget.
+     *
+     * @param naifScId the NAIF spacecraft ID
+     * @param tcTargets a TimeCorrelationTarget for each frame, with the frame as its only sample
+     * @return the metrics for each frame, in the same order
+     * @throws TimeConvertException if a time conversion fails
+     */
+    public static List<FrameSampleMetrics> calculateFrameSampleMetrics(int naifScId, List<TimeCorrelationTarget> tcTargets) throws TimeConvertException {
+        final int numFrames = tcTargets.size();
+        final double[] encSclks = new double[numFrames];
+        final double[] actualTdts = new double[numFrames];
+        for (int i = 0; i < numFrames; i++) {
+            encSclks[i] = tcTargets.get(i).getTargetSampleEncSclk();
+            actualTdts[i] = tcTargets.get(i).getTargetSampleTdtG();
+        }
+
+        final OffsetDateTime[] estimatedScets = tdtToUtc(etToTdt(encSclkToEt(naifScId, encSclks)), 9);
+        final OffsetDateTime[] actualScets = tdtToUtc(actualTdts, 9);
+
+        final List<FrameSampleMetrics> metrics = new ArrayList<>(numFrames);
+        for (int i = 0; i < numFrames; i++) {
+            metrics.add(new FrameSampleMetrics(
+                    actualTdts[i],
+                    actualScets[i],
+                    -1 * ChronoUnit.NANOS.between(estimatedScets[i], actualScets[i]),
+                    tcTargets.get(i).getTargetSampleOwlt()
+            ));
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Converts ephemeris times to TDT, as {@link #etToTdt(Double)} does.
+     *
+     * @param et the ephemeris times
+     * @return the TDTs, in seconds of the J2000 epoch
+     * @throws TimeConvertException if the leap seconds kernel is not loaded
+     */
+    public static double[] etToTdt(double[] et) throws TimeConvertException {
+        final DeltetTerms deltet = DeltetTerms.fromKernelPool();
+
+        final double[] tdt = new double[et.length];
+        for (int i = 0; i < et.length; i++) {
+            tdt[i] = deltet.etToTdt(et[i]);
+        }
+        return tdt;
+    }
+
+    /**
+     * Converts TDTs to ephemeris times, as CSPICE.unitim(tdt, "TDT", "ET") does.
+     *
+     * @param tdt the TDTs, in seconds of the J2000 epoch
+     * @return the ephemeris times
+     * @throws TimeConvertException if the leap seconds kernel is not loaded
+     */
+    public static double[] tdtToEt(double[] tdt) throws TimeConvertException {
+        final DeltetTerms deltet = DeltetTerms.fromKernelPool();
+
+        final double[] et = new double[tdt.length];
+        for (int i = 0; i < tdt.length; i++) {
+            et[i] = deltet.tdtToEt(tdt[i]);
+        }
+        return et;
+    }
+
+    /**
+     * Converts UTC times, given as nanoseconds since the Unix epoch, to ephemeris times, as {@link #utcToEt(String)}
+     * does for the times' ISO DOY strings.  SPICE parses each time, but the strings are formatted without java.time.
+     *
+     * @param epochNanos the UTC times, as nanoseconds since 1970-01-01T00:00:00Z
+     * @return the ephemeris times
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static double[] utcToEt(long[] epochNanos) throws TimeConvertException {
+        final double[] et = new double[epochNanos.length];
+        final StringBuilder utc = new StringBuilder(ISO_UTC_DOY_FORMAT_LEN);
+
+        for (int i = 0; i < epochNanos.length; i++) {
+            utc.setLength(0);
+            IsoDoyUtc.appendEpochNanos(utc, epochNanos[i], 9);
+
+            try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("utcToEt")) {
+                countSpiceCalls(1);
+                et[i] = CSPICE.str2et(utc.toString());
+            } catch (SpiceErrorException e) {
+                throw new TimeConvertException("Error converting UTC value " + utc + " to ET:  " + e.getMessage(), e);
+            }
+        }
+
+        return et;
+    }
+
+    /**
+     * Converts ephemeris times to UTC ISO day of year calendar strings, as CSPICE.et2utc(et, "ISOD", precision) does.
+     *
+     * @param et the ephemeris times
+     * @param precision the number of digits of fractional seconds
+     * @return the UTC strings
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static String[] etToUtc(double[] et, int precision) throws TimeConvertException {
+        final String[] utc = new String[et.length];
+
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("etToUtc")) {
+            for (int i = 0; i < et.length; i++) {
+                countSpiceCalls(1);
+                utc[i] = CSPICE.et2utc(et[i], "ISOD", precision);
+            }
+        } catch (SpiceErrorException e) {
+            throw new TimeConvertException("Error converting ET to UTC:  " + e.getMessage(), e);
+        }
+
+        return utc;
+    }
+
+    /**
+     * Converts TDT calendar strings to ephemeris times, as the first step of {@link #tdtCalStrToTdt(String)} and
+     * {@link #tdtCalStrToUtc(String, Integer)} does.  The results can be converted to both TDT and UTC without
+     * parsing the strings again.
+     *
+     * @param tdtCalStrs the TDTs in calendar string form
+     * @return the ephemeris times
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static double[] tdtCalStrToEt(String[] tdtCalStrs) throws TimeConvertException {
+        final double[] et = new double[tdtCalStrs.length];
+
+        try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("tdtCalStrToEt")) {
+            for (int i = 0; i < tdtCalStrs.length; i++) {
+                countSpiceCalls(1);
+                et[i] = CSPICE.str2et(tdtCalStrs[i] + " TDT");
+            }
+        } catch (SpiceErrorException e) {
+            throw new TimeConvertException("Error converting a TDT String to ET:  " + e.getMessage(), e);
+        }
+
+        return et;
+    }
+
+    /**
+     * Converts TDT calendar strings to numeric TDT, as {@link #tdtCalStrToTdt(String)} does.
+     *
+     * @param tdtCalStrs the TDTs in calendar string form
+     * @return the TDTs in numeric seconds of J2000 epoch form
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static double[] tdtCalStrToTdt(String[] tdtCalStrs) throws TimeConvertException {
+        return etToTdt(tdtCalStrToEt(tdtCalStrs));
+    }
+
+    /**
+     * Converts TDT calendar strings to UTC ISO day of year calendar strings, as {@link #tdtCalStrToUtc(String, Integer)}
+     * does.
+     *
+     * @param tdtCalStrs the TDTs in calendar string form
+     * @param precision the number of digits of fractional seconds
+     * @return the UTC strings
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static String[] tdtCalStrToUtc(String[] tdtCalStrs, int precision) throws TimeConvertException {
+        return etToUtc(tdtCalStrToEt(tdtCalStrs), precision);
+    }
+
+    /**
+     * Converts numeric TDTs to UTC, as {@link #tdtToUtc(Double, int)} does: each TDT is rounded to a TDT calendar
+     * string of the given precision, which is then converted to UTC at the same precision.
+     *
+     * @param tdt the TDTs, in seconds of the J2000 epoch
+     * @param subsecPrecision the number of digits of fractional seconds
+     * @return the UTC times
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static OffsetDateTime[] tdtToUtc(double[] tdt, int subsecPrecision) throws TimeConvertException {
+        final DeltetTerms deltet = DeltetTerms.fromKernelPool();
+        final String tdtCalStrFormat = String.format("DD-MON-YYYY-HR:MN:SC.%s  ::TDT ::RND", String.join("", Collections.nCopies(subsecPrecision, "#")));
+
+        final OffsetDateTime[] utc = new OffsetDateTime[tdt.length];
+        for (int i = 0; i < tdt.length; i++) {
+            if (Double.isNaN(tdt[i])) {
+                // fails as the scalar conversion does
+                utc[i] = tdtToUtc(tdt[i], subsecPrecision);
+                continue;
+            }
+
+            final String tdtCalStr;
+            try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("tdtToUtc")) {
+                countSpiceCalls(1);
+                tdtCalStr = CSPICE.timout(deltet.tdtToEt(tdt[i]), tdtCalStrFormat);
+            } catch (SpiceErrorException e) {
+                throw new TimeConvertException("Error converting a TDT to a TDT string:  " + e.getMessage(), e);
+            }
+
+            try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("tdtToUtc")) {
+                countSpiceCalls(2);
+                utc[i] = IsoDoyUtc.parse(CSPICE.et2utc(CSPICE.str2et(tdtCalStr + " TDT"), "ISOD", subsecPrecision));
+            } catch (SpiceErrorException e) {
+                throw new TimeConvertException("Error converting a TDT String to UTC:  " + e.getMessage(), e);
+            }
+        }
+
+        return utc;
+    }
+
+    /**
+     * Converts the components of raw SCLKs to encoded SCLKs, as
+     * {@link #sclkToEncSclk(Integer, Integer, Integer, Integer)} does.
+     *
+     * @param scid the NAIF-designated spacecraft ID code
+     * @param partitions the relevant spacecraft clock partition of each SCLK
+     * @param coarse the number of coarse ticks of each SCLK
+     * @param fine the number of fine ticks of each SCLK
+     * @return the encoded SCLKs
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static double[] sclkToEncSclk(int scid, int[] partitions, int[] coarse, int[] fine) throws TimeConvertException {
+        checkSameLength(partitions.length, coarse.length, fine.length);
+
+        final String delimiter = getSclkStrDelimiterFromSclkKernel(scid);
+        final Sclk01Kernel sclkKernel = Sclk01Kernel.fromKernelPool(scid, DeltetTerms.fromKernelPool());
+
+        final double[] encSclk = new double[coarse.length];
+        for (int i = 0; i < coarse.length; i++) {
+            encSclk[i] = sclkKernel == null ? Double.NaN : sclkKernel.encode(partitions[i], coarse[i], fine[i]);
+
+            if (Double.isNaN(encSclk[i])) {
+                final String sclk = partitions[i] + "/" + coarse[i] + delimiter + fine[i];
+                try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("sclkToEncSclk")) {
+                    countSpiceCalls(1);
+                    encSclk[i] = CSPICE.scencd(scid, sclk);
+                } catch (SpiceErrorException e) {
+                    throw new TimeConvertException(String.format("Error converting raw SCLK (%s) to encoded SCLK:  " + e.getMessage(), sclk), e);
+                }
+            }
+        }
+
+        return encSclk;
+    }
+
+    /**
+     * Converts the components of raw SCLKs to ephemeris times, as
+     * {@link #sclkToEt(Integer, Integer, Integer, Integer)} does.
+     *
+     * @param scid the NAIF-designated spacecraft ID code
+     * @param partitions the relevant spacecraft clock partition of each SCLK
+     * @param coarse the number of coarse ticks of each SCLK
+     * @param fine the number of fine ticks of each SCLK
+     * @return the ephemeris times
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static double[] sclkToEt(int scid, int[] partitions, int[] coarse, int[] fine) throws TimeConvertException {
+        checkSameLength(partitions.length, coarse.length, fine.length);
+
+        final String delimiter = getSclkStrDelimiterFromSclkKernel(scid);
+        final Sclk01Kernel sclkKernel = Sclk01Kernel.fromKernelPool(scid, DeltetTerms.fromKernelPool());
+
+        final double[] et = new double[coarse.length];
+        for (int i = 0; i < coarse.length; i++) {
+            et[i] = Double.NaN;
+            if (sclkKernel != null) {
+                final double encSclk = sclkKernel.encode(partitions[i], coarse[i], fine[i]);
+                if (! Double.isNaN(encSclk)) {
+                    et[i] = sclkKernel.toEt(encSclk);
+                }
+            }
+
+            if (Double.isNaN(et[i])) {
+                try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("sclkToEt")) {
+                    countSpiceCalls(1);
+                    et[i] = CSPICE.scs2e(scid, partitions[i] + "/" + coarse[i] + delimiter + fine[i]);
+                } catch (SpiceErrorException e) {
+                    throw new TimeConvertException("Error converting SCLK to ET:  " + e.getMessage(), e);
+                }
+            }
+        }
+
+        return et;
+    }
+
+    /**
+     * Converts encoded SCLKs to ephemeris times, as CSPICE.sct2e does.
+     *
+     * @param scid the NAIF-designated spacecraft ID code
+     * @param encSclk the encoded SCLKs
+     * @return the ephemeris times
+     * @throws TimeConvertException when a SPICE error occurs
+     */
+    public static double[] encSclkToEt(int scid, double[] encSclk) throws TimeConvertException {
+        final Sclk01Kernel sclkKernel = Sclk01Kernel.fromKernelPool(scid, DeltetTerms.fromKernelPool());
+
+        final double[] et = new double[encSclk.length];
+        for (int i = 0; i < encSclk.length; i++) {
+            et[i] = sclkKernel == null ? Double.NaN : sclkKernel.toEt(encSclk[i]);
+
+            if (Double.isNaN(et[i])) {
+                try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("encSclkToEt")) {
+                    countSpiceCalls(1);
+                    et[i] = CSPICE.sct2e(scid, encSclk[i]);
+                } catch (SpiceErrorException e) {
+                    throw new TimeConvertException("Error converting encoded SCLK to ET:  " + e.getMessage(), e);
+                }
+            }
+        }
+
+        return et;
+    }
+
+    /**
+     * Converts encoded SCLK values to raw SCLK ticks, as {@link #encSclkToSclk(Integer, Integer, Double)} does.
+     *
+     * @param scid the NAIF-designated spacecraft ID code
+     * @param tickRate the number of ticks per second of the fine time
+     * @param encSclk the encoded SCLK values
+     * @return the numbers of SCLK ticks
+     * @throws TimeConvertException if an encoded SCLK could not be converted to ticks
+     */
+    public static double[] encSclkToSclk(int scid, int tickRate, double[] encSclk) throws TimeConvertException {
+        String delimiter = null;
+        final Sclk01Kernel sclkKernel = Sclk01Kernel.fromKernelPool(scid, DeltetTerms.fromKernelPool());
+
+        final double[] sclk = new double[encSclk.length];
+        for (int i = 0; i < encSclk.length; i++) {
+            final String sclkStr;
+            try (SpiceCallEvent spiceCall = SpiceCallEvent.begin("encSclkToSclk")) {
+                double et = sclkKernel == null ? Double.NaN : sclkKernel.toEt(encSclk[i]);
+                if (Double.isNaN(et)) {
+                    countSpiceCalls(1);
+                    et = CSPICE.sct2e(scid, encSclk[i]);
+                }
+                countSpiceCalls(1);
+                sclkStr = CSPICE.sce2s(scid, et);
+            } catch (SpiceErrorException e) {
+                throw new TimeConvertException("Error converting encoded SCLK to SCLK ticks:  " + e.getMessage(), e);
+            }
+
+            if (delimiter == null) {
+                delimiter = getSclkStrDelimiterFromSclkKernel(scid);
+            }
+            sclk[i] = sclkStrToSclk(sclkStr, tickRate, delimiter);
+        }
+
+        return sclk;
+    }
+
+    /**
+     * Returns the number of leap seconds that have occurred before each of a set of times, as
+     * {@link #getDeltaEtBefore(OffsetDateTime)} does, reading the leap seconds from the kernel pool only once.
+     *
+     * @param times the times for which the number of leap seconds are sought
+     * @return the number of leap seconds before each time
+     * @throws TimeConvertException when the leap seconds could not be determined
+     */
+    public static int[] getDeltaEtBefore(OffsetDateTime[] times) throws TimeConvertException {
+        final List<LeapSecond> leapSeconds = TimeConvert.parseLeapSeconds();
+
+        if (leapSeconds.size() < 2) {
+            throw new TimeConvertException("Cannot get number of leap seconds. Invalid LSK data.");
+        }
+
+        final int[] deltaEts = new int[times.length];
+        for (int i = 0; i < times.length; i++) {
+            // the last leap second that is before the given time
+            LeapSecond lastBefore = null;
+            for (LeapSecond leapSecond : leapSeconds) {
+                if (leapSecond.leapSecOccurrence.isBefore(times[i])) {
+                    lastBefore = leapSecond;
+                }
+            }
+
+            if (lastBefore == null) {
+                throw new TimeConvertException("No leap seconds detected before " + times[i] + "; this is probably an error with the input leap second data.");
+            }
+            deltaEts[i] = lastBefore.leapSecDeltaEt;
+        }
+
+        return deltaEts;
+    }
+
+    private static void checkSameLength(int... lengths) {
+        for (int length : lengths) {
+            if (length != lengths[0]) {
+                throw new IllegalArgumentException("All input arrays must have the same length");
+            }
+        }
+    }
 }
 
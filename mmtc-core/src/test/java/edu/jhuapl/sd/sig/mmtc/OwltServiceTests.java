@@ -0,0 +1,184 @@
+package edu.jhuapl.sd.sig.mmtc;
+
+import edu.jhuapl.sd.sig.mmtc.util.Owlt;
+import edu.jhuapl.sd.sig.mmtc.util.OwltService;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import spice.basic.CSPICE;
+import spice.basic.SpiceErrorException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the OWLTs interpolated by OwltService against those computed directly by SPICE ltime, using the New Horizons
+ * ephemeris and the generic Earth station kernels.
+ */
+public class OwltServiceTests {
+    private static final int SPICE_EARTH_CENTER_OF_MASS_ID = 399;
+    private static final int SPICE_NH_SC_ID = -98;
+    private static final int DSS_14 = 399014;
+    private static final int DSS_63 = 399063;
+
+    @BeforeAll
+    static void setup() throws TimeConvertException {
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        Map<String, String> kernelsToLoad = new HashMap<>();
+        kernelsToLoad.put("src/test/resources/nh_kernels/lsk/naif0012.tls", "lsk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/pck/pck00010.tpc", "pck");
+        kernelsToLoad.put("src/test/resources/nh_kernels/pck/earth_000101_190820_190529.bpc", "pck");
+        kernelsToLoad.put("src/test/resources/nh_kernels/fk/earth_fixed.tf", "fk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/fk/earth_topo_050714.tf", "fk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/spk/earthstns_fx_050714.bsp", "spk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/spk/NavPE_de433_od123.bsp", "spk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/spk/nh_pred_alleph_od124.bsp", "spk");
+        TimeConvert.loadSpiceKernels(kernelsToLoad);
+    }
+
+    @AfterAll
+    static void teardown() {
+        TimeConvert.unloadSpiceKernels();
+    }
+
+    /**
+     * Computes the largest difference between interpolated and direct OWLTs over a day of frames received every few
+     * seconds, as over a set of station passes.
+     */
+    private static double maxInterpolationError(OwltService service, int station, String startUtc) throws SpiceErrorException, TimeConvertException {
+        final double startEt = CSPICE.str2et(startUtc);
+        double maxError = 0;
+
+        for (double et = startEt; et < startEt + 86400; et += 7.3) {
+            final double expected = Owlt.getDownlinkOwlt(station, SPICE_NH_SC_ID, et);
+            final double actual = service.getDownlinkOwlt(station, SPICE_NH_SC_ID, et);
+            maxError = Math.max(maxError, Math.abs(actual - expected));
+        }
+
+        return maxError;
+    }
+
+    @Test
+    void interpolatedOwltsMatchLtime() throws SpiceErrorException, TimeConvertException {
+        final String[] startUtcs = {"2015-250T00:00:00", "2016-029T12:34:56.789", "2016-200T01:02:03.456"};
+        final int[] stations = {DSS_14, DSS_63, SPICE_EARTH_CENTER_OF_MASS_ID};
+
+        for (String startUtc : startUtcs) {
+            for (int station : stations) {
+                final OwltService service = new OwltService();
+                final double maxError = maxInterpolationError(service, station, startUtc);
+
+                assertTrue(maxError <= OwltService.DEFAULT_TOLERANCE_SEC, startUtc + ", " + station + ": " + maxError);
+
+                // 11836 frames, over 144 grid intervals
+                assertTrue(service.getLightTimeComputationCount() < 1000, Integer.toString(service.getLightTimeComputationCount()));
+            }
+        }
+    }
+
+    @Test
+    void coarserGridsStayWithinTolerance() throws SpiceErrorException, TimeConvertException {
+        // intervals whose interpolation is out of tolerance are computed exactly, so the bound holds for any grid
+        for (double gridStepSec : new double[]{3600, 6 * 3600, 86400}) {
+            final OwltService service = new OwltService(gridStepSec, 1.0e-9);
+            assertTrue(maxInterpolationError(service, DSS_63, "2016-029T12:34:56.789") <= 1.0e-9, Double.toString(gridStepSec));
+        }
+    }
+
+    @Test
+    void zeroToleranceComputesExactly() throws SpiceErrorException, TimeConvertException {
+        final OwltService service = new OwltService(OwltService.DEFAULT_GRID_STEP_SEC, 0);
+        final double startEt = CSPICE.str2et("2016-029T01:02:03.456");
+
+        for (double et = startEt; et < startEt + 3600; et += 11.1) {
+            assertEquals((double) Owlt.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, et), service.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, et));
+        }
+    }
+
+    @Test
+    void knownOwltIsReproduced() throws SpiceErrorException, TimeConvertException {
+        final OwltService service = new OwltService();
+        final double et = CSPICE.str2et("2016-029T01:02:03.456");
+
+        assertEquals(17691.616, service.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, et), 0.1);
+    }
+
+    @Test
+    void timesNearTheEdgeOfEphemerisCoverageAreComputedExactly() throws SpiceErrorException, TimeConvertException {
+        // the spacecraft ephemeris begins at 2015-212T23:58:52 UTC; find the first ground time, to within a second, that
+        // can receive a signal sent after that
+        double unavailableEt = CSPICE.str2et("2015-212T23:58:52");
+        double availableEt = unavailableEt + 86400;
+        while (availableEt - unavailableEt > 1) {
+            final double et = (availableEt + unavailableEt) / 2;
+            try {
+                Owlt.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, et);
+                availableEt = et;
+            } catch (TimeConvertException e) {
+                unavailableEt = et;
+            }
+        }
+
+        // so the grid interval containing that time is missing its start node
+        final OwltService service = new OwltService();
+        for (double et = availableEt; et < availableEt + 3600; et += 13.7) {
+            assertEquals((double) Owlt.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, et), service.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, et), OwltService.DEFAULT_TOLERANCE_SEC);
+        }
+
+        final double beforeCoverageEt = unavailableEt;
+        assertThrows(TimeConvertException.class, () -> service.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, beforeCoverageEt));
+    }
+
+    @Test
+    void gridNodesAreShared() throws TimeConvertException {
+        final int[] count = {0};
+        final OwltService service = new OwltService(100, 1.0e-7, (station, sc, et) -> {
+            count[0]++;
+            return 1000 + 1.0e-3 * et;
+        });
+
+        // a linear light time is interpolated exactly: three evaluations for each of two nodes, plus the midpoint check
+        assertEquals(1000.05, service.getDownlinkOwlt(DSS_14, SPICE_NH_SC_ID, 50), 1.0e-12);
+        assertEquals(7, count[0]);
+
+        // the same interval
+        assertEquals(1000.099, service.getDownlinkOwlt(DSS_14, SPICE_NH_SC_ID, 99), 1.0e-12);
+        assertEquals(7, count[0]);
+
+        // the next interval shares a node
+        assertEquals(1000.15, service.getDownlinkOwlt(DSS_14, SPICE_NH_SC_ID, 150), 1.0e-12);
+        assertEquals(11, count[0]);
+
+        // another station has its own grid
+        assertEquals(1000.05, service.getDownlinkOwlt(DSS_63, SPICE_NH_SC_ID, 50), 1.0e-12);
+        assertEquals(18, count[0]);
+        assertEquals(18, service.getLightTimeComputationCount());
+    }
+
+    @Test
+    void failuresAtGridNodesFallBackToExact() throws TimeConvertException {
+        // light time is only available before ET 150, as at the end of an ephemeris segment
+        final OwltService service = new OwltService(100, 1.0e-7, (station, sc, et) -> {
+            if (et >= 150) {
+                throw new TimeConvertException("No ephemeris data");
+            }
+            return 1000 + 1.0e-3 * et;
+        });
+
+        assertEquals(1000.05, service.getDownlinkOwlt(DSS_14, SPICE_NH_SC_ID, 50), 1.0e-12);
+        assertEquals(1000.149, service.getDownlinkOwlt(DSS_14, SPICE_NH_SC_ID, 149), 0);
+        assertThrows(TimeConvertException.class, () -> service.getDownlinkOwlt(DSS_14, SPICE_NH_SC_ID, 151));
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OwltService(0, 1.0e-7));
+        assertThrows(IllegalArgumentException.class, () -> new OwltService(Double.NaN, 1.0e-7));
+        assertThrows(IllegalArgumentException.class, () -> new OwltService(600, -1));
+    }
+}
@@ -1,8 +1,26 @@
 package edu.jhuapl.sd.sig.mmtc;
 
+import edu.jhuapl.sd.sig.mmtc.products.util.GenericCsv;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class TestHelper {
     public static void ensureSpiceIsLoadedAndUnloadAllKernels() throws TimeConvertException {
         if (!TimeConvert.spiceLibLoaded()) {
@@ -10,4 +28,121 @@ public class TestHelper {
         }
         TimeConvert.unloadSpiceKernels();
     }
+
+    /**
+     * Creates a copy of the test configuration whose output products (including the Run History File, and so the lock
+     * file) are all written beneath the given directory's 'output' subdirectory, starting from the demo's seed SCLK
+     * kernel.
+     *
+     * @param installationDir the directory to create the installation in, to be used as TK_CONFIG_PATH
+     * @return the installation directory
+     * @throws IOException if the installation could not be written
+     */
+    public static Path createInstallation(Path installationDir) throws IOException {
+        return createInstallation(installationDir, Collections.emptyMap());
+    }
+
+    /**
+     * As {@link #createInstallation(Path)}, with the given configuration properties added to the test configuration.
+     *
+     * @param installationDir the directory to create the installation in, to be used as TK_CONFIG_PATH
+     * @param additionalProperties the configuration keys and values to add
+     * @return the installation directory
+     * @throws IOException if the installation could not be written
+     */
+    public static Path createInstallation(Path installationDir, Map<String, String> additionalProperties) throws IOException {
+        final Path outputDir = installationDir.resolve("output");
+        Files.createDirectories(outputDir.resolve("sclk"));
+        Files.copy(Paths.get("src/test/resources/nh_kernels/sclk/new-horizons_1000.tsc"), outputDir.resolve("sclk").resolve("new-horizons_1000.tsc"));
+
+        final StringBuilder additionalEntries = new StringBuilder();
+        for (Map.Entry<String, String> property : additionalProperties.entrySet()) {
+            additionalEntries.append(String.format("  <entry key=\"%s\">%s</entry>%n", property.getKey(), property.getValue()));
+        }
+
+        final String testConfig = new String(Files.readAllBytes(Paths.get("src/test/resources/TimeCorrelationConfigProperties.xml")), StandardCharsets.UTF_8)
+                .replace("/absolute/path/to/RawTelemetryTable_NH_reformatted.csv", Paths.get("src/test/resources/tables/RawTelemetryTable_NH_reformatted.csv").toAbsolutePath().toString())
+                .replace("<entry key=\"telemetry.source.plugin.rawTlmTable.readDownlinkDataRate\">false</entry>", "<entry key=\"telemetry.source.plugin.rawTlmTable.readDownlinkDataRate\">true</entry>")
+                .replace("earth_070425_370426_predict.bpc", "earth_000101_190820_190529.bpc")
+                .replace("/opt/local/mmtc/output", outputDir.toString())
+                .replace(">./output", ">" + outputDir)
+                .replace("</properties>", additionalEntries + "</properties>");
+        Files.write(installationDir.resolve("TimeCorrelationConfigProperties.xml"), testConfig.getBytes(StandardCharsets.UTF_8));
+
+        return installationDir;
+    }
+
+    /**
+     * Configures an installation created by {@link #createInstallation(Path)} to use the given telemetry source in place
+     * of the Raw Telemetry Table source, provided by a plugin jar.  The jar only holds the service registration for the
+     * source's class; the class itself is loaded through the plugin classloader's delegation of MMTC packages to the
+     * test classpath.
+     *
+     * @param installationDir the installation to configure
+     * @param sourceName the name the telemetry source reports from {@link TelemetrySource#getName()}
+     * @param sourceClass the telemetry source's class
+     * @param pluginJarPrefix the file name prefix of the plugin jar
+     * @return the installation directory
+     * @throws IOException if the plugin jar or configuration could not be written
+     */
+    public static Path useTelemetrySourcePlugin(Path installationDir, String sourceName, Class<? extends TelemetrySource> sourceClass, String pluginJarPrefix) throws IOException {
+        final Path pluginDir = installationDir.resolve("plugins");
+        Files.createDirectories(pluginDir);
+
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(pluginDir.resolve(pluginJarPrefix + "-1.0.0.jar")))) {
+            jar.putNextEntry(new JarEntry("META-INF/services/" + TelemetrySource.class.getName()));
+            jar.write((sourceClass.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            jar.closeEntry();
+        }
+
+        final Path configPath = installationDir.resolve("TimeCorrelationConfigProperties.xml");
+        final String config = new String(Files.readAllBytes(configPath), StandardCharsets.UTF_8)
+                .replace("<entry key=\"telemetry.source.name\">rawTlmTable</entry>", "<entry key=\"telemetry.source.name\">" + sourceName + "</entry>")
+                .replace("<entry key=\"telemetry.source.pluginDirectory\"></entry>", "<entry key=\"telemetry.source.pluginDirectory\">" + pluginDir + "</entry>")
+                .replace("<entry key=\"telemetry.source.pluginJarPrefix\"></entry>", "<entry key=\"telemetry.source.pluginJarPrefix\">" + pluginJarPrefix + "</entry>");
+        Files.write(configPath, config.getBytes(StandardCharsets.UTF_8));
+
+        return installationDir;
+    }
+
+    /**
+     * @return the paths of all regular files beneath the given directory, relative to it, in sorted order
+     */
+    public static List<Path> listRelativeFiles(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile).map(dir::relativize).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Asserts that the two directories hold the same output products, disregarding the times at which they were written.
+     */
+    public static void assertSameOutputProducts(Path expectedDir, Path actualDir) throws Exception {
+        final List<Path> expectedProducts = listRelativeFiles(expectedDir);
+        assertEquals(expectedProducts, listRelativeFiles(actualDir));
+
+        for (Path product : expectedProducts) {
+            if (product.toString().endsWith(".csv")) {
+                assertEquals(rowsWithoutRunTime(expectedDir.resolve(product)), rowsWithoutRunTime(actualDir.resolve(product)), product.toString());
+            } else {
+                assertEquals(linesWithoutCreationTime(expectedDir.resolve(product)), linesWithoutCreationTime(actualDir.resolve(product)), product.toString());
+            }
+        }
+    }
+
+    private static List<Map<String, String>> rowsWithoutRunTime(Path csv) throws Exception {
+        return new GenericCsv(csv).getRows().stream()
+                .map(row -> {
+                    final Map<String, String> rowWithoutRunTime = new HashMap<>(row);
+                    rowWithoutRunTime.remove("Run Time");
+                    return rowWithoutRunTime;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> linesWithoutCreationTime(Path textProduct) throws IOException {
+        return Files.readAllLines(textProduct, StandardCharsets.UTF_8).stream()
+                .filter(line -> ! (line.contains("CREATION_DATE") || line.contains("PRODUCT_CREATION_TIME")))
+                .collect(Collectors.toList());
+    }
 }
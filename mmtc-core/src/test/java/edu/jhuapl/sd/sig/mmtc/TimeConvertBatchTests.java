@@ -0,0 +1,237 @@
+package edu.jhuapl.sd.sig.mmtc;
+
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import spice.basic.CSPICE;
+import spice.basic.KernelVarNotFoundException;
+import spice.basic.SpiceErrorException;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that each batch conversion in TimeConvert gives exactly the same results as the corresponding scalar
+ * conversion or SPICE call, both for values converted in Java and for those left to SPICE.
+ */
+public class TimeConvertBatchTests {
+    private static final int SPICE_NH_SC_ID = -98;
+    private static final int NH_TICK_RATE = 50000;
+    private static final int NUM_VALUES = 20_000;
+
+    // a TDT range spanning the New Horizons mission
+    private static final double MIN_TDT = 1.4e8;
+    private static final double MAX_TDT = 7.3e8;
+
+    private final Random random = new Random(36);
+
+    @BeforeAll
+    static void setup() throws TimeConvertException {
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+    }
+
+    @BeforeEach
+    void loadKernels() throws TimeConvertException {
+        TimeConvert.unloadSpiceKernels();
+
+        Map<String, String> kernelsToLoad = new HashMap<>();
+        kernelsToLoad.put("src/test/resources/nh_kernels/lsk/naif0012.tls", "lsk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/sclk/new-horizons_1454.tsc", "sclk");
+        TimeConvert.loadSpiceKernels(kernelsToLoad);
+    }
+
+    @AfterAll
+    static void teardown() {
+        TimeConvert.unloadSpiceKernels();
+    }
+
+    private double[] randomValues(double min, double max) {
+        final double[] values = new double[NUM_VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = min + random.nextDouble() * (max - min);
+        }
+        return values;
+    }
+
+    private double maxEncSclk() throws SpiceErrorException, KernelVarNotFoundException {
+        final double[] starts = CSPICE.gdpool("SCLK_PARTITION_START_98", 0, 100);
+        final double[] ends = CSPICE.gdpool("SCLK_PARTITION_END_98", 0, 100);
+
+        double max = 0;
+        for (int i = 0; i < starts.length; i++) {
+            max += ends[i] - starts[i];
+        }
+        return max;
+    }
+
+    @Test
+    void etAndTdtConversionsMatchUnitim() throws SpiceErrorException, TimeConvertException {
+        final double[] tdts = randomValues(-3.2e9, 3.2e9);
+        final double[] ets = TimeConvert.tdtToEt(tdts);
+        for (int i = 0; i < tdts.length; i++) {
+            assertEquals(CSPICE.unitim(tdts[i], "TDT", "ET"), ets[i], "TDT " + tdts[i]);
+        }
+
+        final double[] tdtsFromEt = TimeConvert.etToTdt(ets);
+        for (int i = 0; i < ets.length; i++) {
+            assertEquals(TimeConvert.etToTdt(ets[i]), tdtsFromEt[i], "ET " + ets[i]);
+        }
+    }
+
+    @Test
+    void encSclkConversionsMatchScalarConversions() throws SpiceErrorException, KernelVarNotFoundException, TimeConvertException {
+        final double maxEncSclk = maxEncSclk();
+        final double[] encSclks = randomValues(0, maxEncSclk);
+
+        // partition boundaries and the ends of the clock's range
+        encSclks[0] = 0;
+        encSclks[1] = maxEncSclk;
+        encSclks[2] = Math.nextDown(maxEncSclk);
+        encSclks[3] = CSPICE.gdpool("SCLK_PARTITION_END_98", 0, 1)[0] - CSPICE.gdpool("SCLK_PARTITION_START_98", 0, 1)[0];
+
+        final double[] ets = TimeConvert.encSclkToEt(SPICE_NH_SC_ID, encSclks);
+        final double[] sclks = TimeConvert.encSclkToSclk(SPICE_NH_SC_ID, NH_TICK_RATE, encSclks);
+        for (int i = 0; i < encSclks.length; i++) {
+            assertEquals(CSPICE.sct2e(SPICE_NH_SC_ID, encSclks[i]), ets[i], "encoded SCLK " + encSclks[i]);
+            assertEquals(TimeConvert.encSclkToSclk(SPICE_NH_SC_ID, NH_TICK_RATE, encSclks[i]), sclks[i], "encoded SCLK " + encSclks[i]);
+        }
+    }
+
+    @Test
+    void sclkConversionsMatchScalarConversions() throws SpiceErrorException, KernelVarNotFoundException, TimeConvertException {
+        final int numPartitions = CSPICE.gdpool("SCLK_PARTITION_START_98", 0, 100).length;
+        final int[] partitions = new int[NUM_VALUES];
+        final int[] coarse = new int[NUM_VALUES];
+        final int[] fine = new int[NUM_VALUES];
+
+        for (int i = 0; i < NUM_VALUES; i++) {
+            partitions[i] = 1 + random.nextInt(numPartitions);
+            final double start = CSPICE.gdpool("SCLK_PARTITION_START_98", partitions[i] - 1, 1)[0];
+            final double end = CSPICE.gdpool("SCLK_PARTITION_END_98", partitions[i] - 1, 1)[0];
+            final double ticks = Math.floor(start + random.nextDouble() * (end - start));
+            coarse[i] = (int) (ticks / NH_TICK_RATE);
+            fine[i] = (int) (ticks % NH_TICK_RATE);
+        }
+
+        // fine values of a full modulus or more are accepted by SPICE
+        coarse[0] -= 1;
+        fine[0] += NH_TICK_RATE;
+
+        final double[] encSclks = TimeConvert.sclkToEncSclk(SPICE_NH_SC_ID, partitions, coarse, fine);
+        final double[] ets = TimeConvert.sclkToEt(SPICE_NH_SC_ID, partitions, coarse, fine);
+        for (int i = 0; i < NUM_VALUES; i++) {
+            final String sclk = partitions[i] + "/" + coarse[i] + ":" + fine[i];
+            assertEquals(TimeConvert.sclkToEncSclk(SPICE_NH_SC_ID, partitions[i], coarse[i], fine[i]), encSclks[i], sclk);
+            assertEquals(TimeConvert.sclkToEt(SPICE_NH_SC_ID, partitions[i], coarse[i], fine[i]), ets[i], sclk);
+        }
+    }
+
+    @Test
+    void invalidSclksFailAsScalarConversionsDo() throws SpiceErrorException, KernelVarNotFoundException, TimeConvertException {
+        final double maxEncSclk = maxEncSclk();
+
+        for (double encSclk : new double[]{-1, Math.nextUp(maxEncSclk), maxEncSclk + 1e6}) {
+            final TimeConvertException e = assertThrows(TimeConvertException.class, () -> TimeConvert.encSclkToEt(SPICE_NH_SC_ID, new double[]{1e10, encSclk}));
+            assertTrue(e.getMessage().startsWith("Error converting encoded SCLK to ET:  "), e.getMessage());
+
+            final TimeConvertException sclkE = assertThrows(TimeConvertException.class, () -> TimeConvert.encSclkToSclk(SPICE_NH_SC_ID, NH_TICK_RATE, new double[]{encSclk}));
+            final TimeConvertException scalarE = assertThrows(TimeConvertException.class, () -> TimeConvert.encSclkToSclk(SPICE_NH_SC_ID, NH_TICK_RATE, encSclk));
+            assertEquals(scalarE.getMessage(), sclkE.getMessage());
+        }
+
+        // SPICE passes NaN through
+        assertEquals(Double.NaN, TimeConvert.encSclkToEt(SPICE_NH_SC_ID, new double[]{Double.NaN})[0]);
+
+        // a partition that does not exist, and a count beyond the end of the first partition
+        final int firstPartitionEndCoarse = (int) (CSPICE.gdpool("SCLK_PARTITION_END_98", 0, 1)[0] / NH_TICK_RATE);
+        final int[][] invalidSclks = {{0, 1000, 0}, {99, 1000, 0}, {1, firstPartitionEndCoarse + 1, 0}, {1, -1, 0}};
+        for (int[] sclk : invalidSclks) {
+            final TimeConvertException e = assertThrows(TimeConvertException.class, () -> TimeConvert.sclkToEncSclk(SPICE_NH_SC_ID, new int[]{sclk[0]}, new int[]{sclk[1]}, new int[]{sclk[2]}));
+            final TimeConvertException scalarE = assertThrows(TimeConvertException.class, () -> TimeConvert.sclkToEncSclk(SPICE_NH_SC_ID, sclk[0], sclk[1], sclk[2]));
+            assertEquals(scalarE.getMessage(), e.getMessage());
+
+            final TimeConvertException etE = assertThrows(TimeConvertException.class, () -> TimeConvert.sclkToEt(SPICE_NH_SC_ID, new int[]{sclk[0]}, new int[]{sclk[1]}, new int[]{sclk[2]}));
+            final TimeConvertException scalarEtE = assertThrows(TimeConvertException.class, () -> TimeConvert.sclkToEt(SPICE_NH_SC_ID, sclk[0], sclk[1], sclk[2]));
+            assertEquals(scalarEtE.getMessage(), etE.getMessage());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> TimeConvert.sclkToEt(SPICE_NH_SC_ID, new int[1], new int[2], new int[1]));
+    }
+
+    @Test
+    void unhandledClocksAreConvertedBySpice() throws SpiceErrorException, KernelVarNotFoundException, TimeConvertException {
+        // a field offset takes the clock outside of what is converted in Java
+        CSPICE.pdpool("SCLK01_OFFSETS_98", new double[]{0, 7});
+
+        final double[] encSclks = randomValues(0, maxEncSclk());
+        final double[] ets = TimeConvert.encSclkToEt(SPICE_NH_SC_ID, encSclks);
+        for (int i = 0; i < encSclks.length; i++) {
+            assertEquals(CSPICE.sct2e(SPICE_NH_SC_ID, encSclks[i]), ets[i]);
+        }
+
+        final double[] encSclksFromSclk = TimeConvert.sclkToEncSclk(SPICE_NH_SC_ID, new int[]{1}, new int[]{1000}, new int[]{25});
+        assertEquals((double) TimeConvert.sclkToEncSclk(SPICE_NH_SC_ID, 1, 1000, 25), encSclksFromSclk[0]);
+    }
+
+    @Test
+    void calendarStringConversionsMatchScalarConversions() throws SpiceErrorException, TimeConvertException {
+        final double[] tdts = randomValues(MIN_TDT, MAX_TDT);
+        final String[] tdtCalStrs = new String[tdts.length];
+        for (int i = 0; i < tdts.length; i++) {
+            tdtCalStrs[i] = TimeConvert.tdtToTdtCalStr(tdts[i], 6);
+        }
+
+        final double[] tdtsFromStrs = TimeConvert.tdtCalStrToTdt(tdtCalStrs);
+        final String[] utcs = TimeConvert.tdtCalStrToUtc(tdtCalStrs, 6);
+        final OffsetDateTime[] utcsFromTdt = TimeConvert.tdtToUtc(tdts, 9);
+        for (int i = 0; i < tdts.length; i++) {
+            assertEquals(TimeConvert.tdtCalStrToTdt(tdtCalStrs[i]), tdtsFromStrs[i], tdtCalStrs[i]);
+            assertEquals(TimeConvert.tdtCalStrToUtc(tdtCalStrs[i], 6), utcs[i], tdtCalStrs[i]);
+            assertEquals(TimeConvert.tdtToUtc(tdts[i], 9), utcsFromTdt[i], Double.toString(tdts[i]));
+        }
+
+        final double[] ets = TimeConvert.tdtToEt(tdts);
+        final String[] utcsFromEt = TimeConvert.etToUtc(ets, 3);
+        for (int i = 0; i < ets.length; i++) {
+            assertEquals(CSPICE.et2utc(ets[i], "ISOD", 3), utcsFromEt[i]);
+        }
+
+        assertThrows(TimeConvertException.class, () -> TimeConvert.tdtCalStrToTdt(new String[]{"01-JAN-2016-00:00:00.0", "not a time"}));
+        assertThrows(TimeConvertException.class, () -> TimeConvert.tdtToUtc(new double[]{MIN_TDT, Double.NaN}, 9));
+    }
+
+    @Test
+    void utcConversionsMatchScalarConversions() throws TimeConvertException {
+        final long[] epochNanos = new long[NUM_VALUES];
+        final OffsetDateTime[] times = new OffsetDateTime[NUM_VALUES];
+        for (int i = 0; i < NUM_VALUES; i++) {
+            // 1972 through 2037
+            epochNanos[i] = (long) ((6.3e7 + random.nextDouble() * 2.07e9) * 1e9);
+            times[i] = TimeConvert.parseIsoDoyUtcStr(IsoDoyUtc.formatEpochNanos(epochNanos[i], 9));
+        }
+
+        final double[] ets = TimeConvert.utcToEt(epochNanos);
+        final int[] deltaEts = TimeConvert.getDeltaEtBefore(times);
+        for (int i = 0; i < NUM_VALUES; i++) {
+            assertEquals((double) TimeConvert.utcToEt(IsoDoyUtc.formatEpochNanos(epochNanos[i], 9)), ets[i]);
+            assertEquals((int) TimeConvert.getDeltaEtBefore(times[i]), deltaEts[i]);
+        }
+    }
+
+    @Test
+    void missingKernelsFailAsScalarConversionsDo() {
+        TimeConvert.unloadSpiceKernels();
+
+        assertThrows(TimeConvertException.class, () -> TimeConvert.etToTdt(new double[]{0}));
+        assertThrows(TimeConvertException.class, () -> TimeConvert.encSclkToEt(SPICE_NH_SC_ID, new double[]{0}));
+        assertThrows(TimeConvertException.class, () -> TimeConvert.sclkToEncSclk(SPICE_NH_SC_ID, new int[]{1}, new int[]{1000}, new int[]{0}));
+    }
+}
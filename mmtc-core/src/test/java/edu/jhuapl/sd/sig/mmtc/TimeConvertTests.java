@@ -10,6 +10,8 @@ import spice.basic.*;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
@@ -976,6 +978,35 @@ public class TimeConvertTests {
         TimeConvert.loadSpiceKernels(kernelsToLoad);
     }
 
+    @Test
+    public void testLoadSpiceKernelTextMatchesKernelFile() throws Exception {
+        final String sclkKernelPath = "src/test/resources/nh_kernels/sclk/new-horizons_1454.tsc";
+        final String[] sclkStrs = {"1/0000000000:00000", "1/0055325000:00000", "3/0533743743:00000", "3/0533888888:12345"};
+
+        loadBasicNhKernels();
+        final double[] expectedEts = new double[sclkStrs.length];
+        for (int i = 0; i < sclkStrs.length; i++) {
+            expectedEts[i] = CSPICE.sct2e(-98, CSPICE.scencd(-98, sclkStrs[i]));
+        }
+
+        TimeConvert.unloadSpiceKernels();
+        TimeConvert.loadSpiceKernel("src/test/resources/nh_kernels/lsk/naif0012.tls");
+        TimeConvert.loadSpiceKernelText(Files.readAllLines(Paths.get(sclkKernelPath)));
+
+        for (int i = 0; i < sclkStrs.length; i++) {
+            assertEquals(expectedEts[i], CSPICE.sct2e(-98, CSPICE.scencd(-98, sclkStrs[i])), 0.0, sclkStrs[i]);
+        }
+
+        // variables loaded from memory are cleared along with all loaded kernels
+        TimeConvert.unloadSpiceKernels();
+        assertThrows(SpiceErrorException.class, () -> CSPICE.scencd(-98, sclkStrs[0]));
+    }
+
+    @Test
+    public void testLoadSpiceKernelTextRejectsContentWithoutData() {
+        assertThrows(TimeConvertException.class, () -> TimeConvert.loadSpiceKernelText(Arrays.asList("KPL/SCLK", "", "\\begintext", "no data here")));
+    }
+
     @Test
     public void testNanosBetween() {
         final OffsetDateTime now = OffsetDateTime.now();
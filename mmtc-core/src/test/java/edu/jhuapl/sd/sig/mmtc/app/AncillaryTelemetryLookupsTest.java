@@ -0,0 +1,250 @@
+package edu.jhuapl.sd.sig.mmtc.app;
+
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AncillaryTelemetryLookupsTest {
+    private static final OffsetDateTime SCET = OffsetDateTime.of(2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    private static final double TDT_G = 7.63e8;
+
+    /**
+     * A telemetry source whose ancillary lookups each take a fixed amount of time, as each would when served by a
+     * separate query to a ground data system.
+     */
+    private static class SlowTelemetrySource implements TelemetrySource {
+        final long oscillatorIdLatencyMs;
+        final long oscillatorTempLatencyMs;
+        final long radioIdLatencyMs;
+        final long gncLatencyMs;
+
+        final Set<String> lookupThreadNames = ConcurrentHashMap.newKeySet();
+        volatile RuntimeException radioIdFailure = null;
+        volatile MmtcException oscillatorTempFailure = null;
+
+        // if set, each lookup waits until all three lookups are in progress at once
+        volatile CountDownLatch allInFlight = null;
+
+        final CountDownLatch gncLookupFinished = new CountDownLatch(1);
+        volatile boolean interrupted = false;
+
+        SlowTelemetrySource(long oscillatorIdLatencyMs, long oscillatorTempLatencyMs, long radioIdLatencyMs, long gncLatencyMs) {
+            this.oscillatorIdLatencyMs = oscillatorIdLatencyMs;
+            this.oscillatorTempLatencyMs = oscillatorTempLatencyMs;
+            this.radioIdLatencyMs = radioIdLatencyMs;
+            this.gncLatencyMs = gncLatencyMs;
+        }
+
+        private void simulateQuery(long latencyMs) {
+            lookupThreadNames.add(Thread.currentThread().getName());
+            try {
+                if (allInFlight != null) {
+                    allInFlight.countDown();
+                    if (! allInFlight.await(10, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("Lookups were not issued concurrently");
+                    }
+                }
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                throw new IllegalStateException("Interrupted", e);
+            }
+        }
+
+        @Override
+        public String getActiveOscillatorId(FrameSample targetSample) {
+            simulateQuery(oscillatorIdLatencyMs);
+            return "osc-2";
+        }
+
+        @Override
+        public double getOscillatorTemperature(OffsetDateTime scet, String oscillatorId) throws MmtcException {
+            lookupThreadNames.add(Thread.currentThread().getName());
+            try {
+                Thread.sleep(oscillatorTempLatencyMs);
+            } catch (InterruptedException e) {
+                throw new MmtcException("Interrupted", e);
+            }
+            if (oscillatorTempFailure != null) {
+                throw oscillatorTempFailure;
+            }
+            return 21.5;
+        }
+
+        @Override
+        public String getActiveRadioId(FrameSample targetSample) {
+            simulateQuery(radioIdLatencyMs);
+            if (radioIdFailure != null) {
+                throw radioIdFailure;
+            }
+            return "radio-B";
+        }
+
+        @Override
+        public GncParms getGncTkParms(OffsetDateTime noEarlierThanScet, Double noEarlierThanTdtS) {
+            try {
+                simulateQuery(gncLatencyMs);
+                final GncParms parms = new GncParms();
+                parms.setTdt_s(noEarlierThanTdtS + 1.0);
+                return parms;
+            } finally {
+                gncLookupFinished.countDown();
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "slow";
+        }
+
+        @Override
+        public List<AdditionalOption> getAdditionalOptions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void applyOption(String name, String value) { }
+
+        @Override
+        public void checkCorrelationConfiguration(TimeCorrelationRunConfig config) { }
+
+        @Override
+        public void applyConfiguration(MmtcConfigWithTlmSource config) { }
+
+        @Override
+        public void connect() { }
+
+        @Override
+        public void disconnect() { }
+
+        @Override
+        public Map<String, String> sandboxTelemetrySourceConfiguration(MmtcConfig mmtcConfig, Path sandboxRoot, Path sandboxConfigRoot) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public List<FrameSample> getSamplesInRange(OffsetDateTime startErt, OffsetDateTime stopErt) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Test
+    public void lookupsAreIssuedConcurrently() throws Exception {
+        final SlowTelemetrySource tlmSource = new SlowTelemetrySource(0, 0, 0, 0);
+        tlmSource.allInFlight = new CountDownLatch(3);
+
+        try (AncillaryTelemetryLookups lookups = new AncillaryTelemetryLookups(tlmSource, new FrameSample(), SCET, TDT_G, true, 30)) {
+            final AncillaryTelemetryLookups.Results results = lookups.await();
+
+            assertEquals("osc-2", results.oscillatorId);
+            assertEquals(21.5, results.oscillatorTemperature);
+            assertEquals("radio-B", results.activeRadioId);
+            assertEquals(TDT_G + 1.0, results.gncParms.getTdt_s());
+        }
+
+        assertFalse(tlmSource.lookupThreadNames.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void latencyOverlapsWithCallersWork() throws Exception {
+        final SlowTelemetrySource tlmSource = new SlowTelemetrySource(200, 200, 400, 400);
+
+        final long start = System.nanoTime();
+        try (AncillaryTelemetryLookups lookups = new AncillaryTelemetryLookups(tlmSource, new FrameSample(), SCET, TDT_G, true, 30)) {
+            // stands in for the SPICE-bound geometry and error metric computations
+            Thread.sleep(400);
+            lookups.await();
+        }
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // run one after another, the lookups and the caller's work would take 1600 ms
+        assertTrue(elapsedMs < 1200, "Elapsed: " + elapsedMs + " ms");
+    }
+
+    @Test
+    public void sequentialLookupsRunOnCallingThread() throws Exception {
+        final SlowTelemetrySource tlmSource = new SlowTelemetrySource(0, 0, 0, 0);
+
+        try (AncillaryTelemetryLookups lookups = new AncillaryTelemetryLookups(tlmSource, new FrameSample(), SCET, TDT_G, false, 30)) {
+            final AncillaryTelemetryLookups.Results results = lookups.await();
+            assertEquals("osc-2", results.oscillatorId);
+            assertEquals("radio-B", results.activeRadioId);
+        }
+
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), tlmSource.lookupThreadNames);
+    }
+
+    @Test
+    public void slowLookupTimesOut() {
+        final SlowTelemetrySource tlmSource = new SlowTelemetrySource(0, 0, 0, 10_000);
+
+        final long start = System.nanoTime();
+        final MmtcException ex = assertThrows(MmtcException.class, () -> {
+            try (AncillaryTelemetryLookups lookups = new AncillaryTelemetryLookups(tlmSource, new FrameSample(), SCET, TDT_G, true, 1)) {
+                lookups.await();
+            }
+        });
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(ex.getMessage().contains("(GNC parameters)"), ex.getMessage());
+        assertTrue(ex.getCause() instanceof TimeoutException);
+        assertTrue(elapsedMs < 5000, "Elapsed: " + elapsedMs + " ms");
+    }
+
+    @Test
+    public void timedOutLookupIsNotInterrupted() throws Exception {
+        final SlowTelemetrySource tlmSource = new SlowTelemetrySource(0, 0, 0, 2000);
+
+        assertThrows(MmtcException.class, () -> {
+            try (AncillaryTelemetryLookups lookups = new AncillaryTelemetryLookups(tlmSource, new FrameSample(), SCET, TDT_G, true, 1)) {
+                lookups.await();
+            }
+        });
+
+        // the abandoned lookup is left to finish its query, rather than being interrupted mid-query
+        assertTrue(tlmSource.gncLookupFinished.await(10, TimeUnit.SECONDS));
+        assertFalse(tlmSource.interrupted);
+    }
+
+    @Test
+    public void failuresAreReportedInFixedOrder() {
+        final SlowTelemetrySource tlmSource = new SlowTelemetrySource(0, 300, 0, 0);
+
+        // the radio lookup fails first, but the oscillator lookup is always reported first
+        final MmtcException oscillatorFailure = new MmtcException("no temperature channel");
+        final IllegalStateException radioFailure = new IllegalStateException("no radio channel");
+        tlmSource.oscillatorTempFailure = oscillatorFailure;
+        tlmSource.radioIdFailure = radioFailure;
+
+        final MmtcException ex = assertThrows(MmtcException.class, () -> {
+            try (AncillaryTelemetryLookups lookups = new AncillaryTelemetryLookups(tlmSource, new FrameSample(), SCET, TDT_G, true, 30)) {
+                lookups.await();
+            }
+        });
+
+        assertEquals(
+                "Unable to retrieve ancillary telemetry (active oscillator ID and temperature, active radio ID): no temperature channel",
+                ex.getMessage()
+        );
+        assertSame(oscillatorFailure, ex.getCause());
+        assertEquals(1, ex.getSuppressed().length);
+        assertSame(radioFailure, ex.getSuppressed()[0]);
+    }
+}
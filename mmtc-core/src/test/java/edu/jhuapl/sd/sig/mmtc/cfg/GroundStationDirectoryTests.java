@@ -0,0 +1,137 @@
+package edu.jhuapl.sd.sig.mmtc.cfg;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroundStationDirectoryTests {
+    private GroundStationMap stationMap;
+
+    @BeforeEach
+    void loadTable() throws Exception {
+        // Load the config to get the path to the ground stations map
+        TimeCorrelationRunConfig config = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("2006-01-20T01:00:00.000Z", "2006-01-20T10:00:00.000Z"));
+
+        stationMap = new GroundStationMap(config.getGroundStationMapPath());
+
+        if (!stationMap.load()) {
+            fail("Unable to load Ground Station Map");
+        }
+    }
+
+    @AfterEach
+    void unloadKernels() throws Exception {
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+    }
+
+    private static GroundStationMap loadMap(String... rows) throws Exception {
+        final Path csvPath = Files.createTempFile("GroundStationMap", ".csv");
+        try {
+            Files.write(csvPath, ("Path ID, Station ID, Station Name\n" + String.join("\n", rows) + "\n").getBytes(StandardCharsets.UTF_8));
+            final GroundStationMap map = new GroundStationMap(csvPath);
+            assertTrue(map.load());
+            return map;
+        } finally {
+            Files.delete(csvPath);
+        }
+    }
+
+    @Test
+    void testStationsMatchGroundStationMap() throws MmtcException {
+        final GroundStationDirectory directory = new GroundStationDirectory(stationMap, new String[0]);
+
+        for (int pathId : stationMap.getPathIds()) {
+            final GroundStationDirectory.Station station = directory.getStation(pathId);
+            assertEquals(pathId, station.getPathId());
+            assertEquals(stationMap.getStationId(pathId), station.getStationId());
+            assertEquals(stationMap.getStationName(pathId), station.getStationName());
+        }
+
+        assertEquals("gs", directory.getStation(0).getStationId());
+        assertEquals("GroundStation", directory.getStation(0).getStationName());
+    }
+
+    @Test
+    void testUnknownPathIds() {
+        // path IDs known only to the filter have a slot, but no station
+        final GroundStationDirectory directory = new GroundStationDirectory(stationMap, new String[]{"5", "1000"});
+
+        for (int pathId : Arrays.asList(-1, 8, 1000, 1001, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+            final MmtcException e = assertThrows(MmtcException.class, () -> directory.getStation(pathId));
+            assertEquals("Ground station Path ID " + pathId + " not found in ground stations map file.", e.getMessage());
+        }
+    }
+
+    @Test
+    void testGroundStationFilterPathIds() {
+        final GroundStationDirectory directory = new GroundStationDirectory(stationMap, new String[]{"5", "7", "1000"});
+
+        assertTrue(directory.isAcceptedByGroundStationFilter(5));
+        assertTrue(directory.isAcceptedByGroundStationFilter(7));
+        assertTrue(directory.isAcceptedByGroundStationFilter(1000));
+
+        assertFalse(directory.isAcceptedByGroundStationFilter(0));
+        assertFalse(directory.isAcceptedByGroundStationFilter(6));
+        assertFalse(directory.isAcceptedByGroundStationFilter(999));
+        assertFalse(directory.isAcceptedByGroundStationFilter(-5));
+        assertFalse(directory.isAcceptedByGroundStationFilter(Integer.MAX_VALUE));
+
+        assertFalse(new GroundStationDirectory(stationMap, new String[0]).isAcceptedByGroundStationFilter(5));
+    }
+
+    @Test
+    void testInvalidGroundStationFilterPathIdsOnlyFailWhenFiltering() throws MmtcException {
+        final GroundStationDirectory directory = new GroundStationDirectory(stationMap, new String[]{"5", "five"});
+
+        assertEquals("gs", directory.getStation(0).getStationId());
+        assertThrows(NumberFormatException.class, () -> directory.isAcceptedByGroundStationFilter(5));
+    }
+
+    @Test
+    void testWidelySpacedPathIds() throws Exception {
+        final GroundStationDirectory directory = new GroundStationDirectory(
+                loadMap("-2000000000,low,Low", "0,zero,Zero", "2000000000,high,High"),
+                new String[]{"0", "1500000000"}
+        );
+
+        assertEquals("low", directory.getStation(-2000000000).getStationId());
+        assertEquals("zero", directory.getStation(0).getStationId());
+        assertEquals("high", directory.getStation(2000000000).getStationId());
+        assertThrows(MmtcException.class, () -> directory.getStation(1));
+        assertThrows(MmtcException.class, () -> directory.getStation(1500000000));
+
+        assertTrue(directory.isAcceptedByGroundStationFilter(0));
+        assertTrue(directory.isAcceptedByGroundStationFilter(1500000000));
+        assertFalse(directory.isAcceptedByGroundStationFilter(2000000000));
+        assertFalse(directory.isAcceptedByGroundStationFilter(1));
+    }
+
+    @Test
+    void testNaifIdIsResolvedAgainAfterKernelsChange() throws Exception {
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+        final GroundStationDirectory.Station station = new GroundStationDirectory(stationMap, new String[0]).getStation(0);
+
+        TimeConvert.loadSpiceKernelText(Arrays.asList("\\begindata", "NAIF_BODY_NAME += 'gs'", "NAIF_BODY_CODE += 399901", "\\begintext"));
+        assertEquals(399901, station.getNaifId());
+        assertEquals(399901, station.getNaifId());
+
+        // the station is redefined by a different kernel
+        TimeConvert.unloadSpiceKernels();
+        TimeConvert.loadSpiceKernelText(Arrays.asList("\\begindata", "NAIF_BODY_NAME += 'gs'", "NAIF_BODY_CODE += 399902", "\\begintext"));
+        assertEquals(399902, station.getNaifId());
+
+        // and then not defined at all
+        TimeConvert.unloadSpiceKernels();
+        assertThrows(Exception.class, station::getNaifId);
+    }
+}
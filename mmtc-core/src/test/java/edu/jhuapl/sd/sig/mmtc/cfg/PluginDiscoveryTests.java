@@ -0,0 +1,147 @@
+package edu.jhuapl.sd.sig.mmtc.cfg;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache.TelemetryCacheOperationsConfig;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import edu.jhuapl.sd.sig.mmtc.util.IsolatingUrlClassLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+
+/**
+ * Checks that a configuration snapshot, and every command configuration created from it, discover the configured
+ * telemetry source plugin only once, by counting the plugin classloaders created.
+ */
+public class PluginDiscoveryTests {
+    private static final String PLUGIN_JAR_PREFIX = "mmtc-plugin-discovery-test";
+
+    private Path testDir;
+    private MockedStatic<Environment> mockedEnvironment;
+    private MockedStatic<IsolatingUrlClassLoader> mockedClassLoader;
+
+    /**
+     * A telemetry source provided by a plugin jar (see {@link TestHelper#useTelemetrySourcePlugin}).
+     */
+    public static class PluginTelemetrySource implements TelemetrySource {
+        @Override
+        public String getName() {
+            return "pluginDiscoveryTest";
+        }
+
+        @Override
+        public List<AdditionalOption> getAdditionalOptions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void applyOption(String name, String value) { }
+
+        @Override
+        public void checkCorrelationConfiguration(TimeCorrelationRunConfig config) { }
+
+        @Override
+        public void applyConfiguration(MmtcConfigWithTlmSource config) { }
+
+        @Override
+        public void connect() { }
+
+        @Override
+        public void disconnect() { }
+
+        @Override
+        public Map<String, String> sandboxTelemetrySourceConfiguration(MmtcConfig mmtcConfig, Path sandboxRoot, Path sandboxConfigRoot) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public List<FrameSample> getSamplesInRange(OffsetDateTime startErt, OffsetDateTime stopErt) throws MmtcException {
+            return Collections.emptyList();
+        }
+    }
+
+    @BeforeEach
+    public void setup() throws Exception {
+        testDir = TestHelper.createInstallation(Paths.get("/tmp", "mmtc-test-plugin-discovery-" + UUID.randomUUID()));
+        TestHelper.useTelemetrySourcePlugin(testDir, "pluginDiscoveryTest", PluginTelemetrySource.class, PLUGIN_JAR_PREFIX);
+
+        mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS);
+        mockedEnvironment
+                .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                .thenReturn(testDir.toString());
+
+        mockedClassLoader = Mockito.mockStatic(IsolatingUrlClassLoader.class, Mockito.CALLS_REAL_METHODS);
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        mockedClassLoader.close();
+        mockedEnvironment.close();
+
+        try (Stream<Path> paths = Files.walk(testDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testPluginDiscoveredOncePerInvocation() throws Exception {
+        // as MmtcCli does: load the configuration once, take the lock file with it, and run the command atop it
+        final MmtcConfig snapshot = new MmtcConfig();
+        snapshot.acquireLockFile();
+        try {
+            final TimeCorrelationRunConfig runConfig = TimeCorrelationRunConfig.withSnapshotTlmSource(
+                    new TimeCorrelationCliInputConfig("2017-01-07T00:00:00.000Z", "2017-01-10T00:00:00.000Z"),
+                    snapshot
+            );
+            assertTrue(runConfig.getTelemetrySource() instanceof PluginTelemetrySource);
+        } finally {
+            snapshot.releaseLockFile();
+        }
+
+        mockedClassLoader.verify(() -> IsolatingUrlClassLoader.forPluginJar(any()), times(1));
+    }
+
+    @Test
+    public void testCommandConfigsShareSnapshotTelemetrySource() throws Exception {
+        final MmtcConfig snapshot = new MmtcConfig();
+
+        // a command that does not need a telemetry source does not discover it
+        new RollbackConfig(snapshot);
+        new MigrationConfig(snapshot);
+        mockedClassLoader.verify(() -> IsolatingUrlClassLoader.forPluginJar(any()), times(0));
+
+        final TelemetryCacheOperationsConfig cacheOpsConfig = new TelemetryCacheOperationsConfig(snapshot);
+        final MmtcSandboxCreatorConfig sandboxConfig = new MmtcSandboxCreatorConfig(snapshot, testDir.resolve("sandbox").toString());
+        final TimeCorrelationRunConfig runConfig = TimeCorrelationRunConfig.withSnapshotTlmSource(
+                new TimeCorrelationCliInputConfig("2017-01-07T00:00:00.000Z", "2017-01-10T00:00:00.000Z"),
+                snapshot
+        );
+
+        assertSame(cacheOpsConfig.getTelemetrySource(), sandboxConfig.getTelemetrySource());
+        assertSame(cacheOpsConfig.getTelemetrySource(), runConfig.getTelemetrySource());
+        mockedClassLoader.verify(() -> IsolatingUrlClassLoader.forPluginJar(any()), times(1));
+    }
+
+    @Test
+    public void testSeparatelyLoadedConfigsEachDiscoverPlugin() throws Exception {
+        new TelemetryCacheOperationsConfig();
+        new TelemetryCacheOperationsConfig();
+
+        mockedClassLoader.verify(() -> IsolatingUrlClassLoader.forPluginJar(any()), times(2));
+    }
+}
@@ -4,12 +4,30 @@ import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 class SclkPartitionMapTests {
+    private static final int NUM_MAPS = 500;
+    private static final int NUM_LOOKUPS_PER_MAP = 200;
+
+    private static final long MIN_EPOCH_SECOND = OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+    private static final long MAX_EPOCH_SECOND = OffsetDateTime.of(2040, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+
     private SclkPartitionMap partitionMap;
 
     @BeforeEach
@@ -36,4 +54,146 @@ class SclkPartitionMapTests {
             fail("Invalid partition number " + partitionNum);
         }
     }
+
+    @Test
+    void testGetSclkPartition() {
+        assertEquals(1, partitionMap.getSclkPartition(OffsetDateTime.parse("2009-06-01T00:00:00Z")));
+        assertEquals(1, partitionMap.getSclkPartition(OffsetDateTime.parse("2010-01-01T00:00:00Z")));
+        assertEquals(1, partitionMap.getSclkPartition(OffsetDateTime.parse("2010-07-02T20:00:00Z")));
+        assertEquals(2, partitionMap.getSclkPartition(OffsetDateTime.parse("2010-07-02T20:00:00.000000001Z")));
+        assertEquals(3, partitionMap.getSclkPartition(OffsetDateTime.parse("2020-01-01T00:00:00Z")));
+    }
+
+    /**
+     * The linear search that SclkPartitionMap.getSclkPartition performed before its partitions were indexed by start time.
+     */
+    private static int referenceGetSclkPartition(Map<Integer, OffsetDateTime> partitions, OffsetDateTime groundReceiptTime) {
+        int partition = 1;
+
+        for (Map.Entry<Integer, OffsetDateTime> entry : partitions.entrySet()) {
+            if (entry.getValue().isBefore(groundReceiptTime)) {
+                partition = entry.getKey();
+            }
+        }
+
+        return partition;
+    }
+
+    private static OffsetDateTime randomTime(Random random) {
+        final long epochSecond = MIN_EPOCH_SECOND + (long) (random.nextDouble() * (MAX_EPOCH_SECOND - MIN_EPOCH_SECOND));
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, random.nextInt(1_000_000_000)), ZoneOffset.UTC);
+    }
+
+    /**
+     * Generates a partition map of one to twenty partitions, whose start times usually, but not always, increase with
+     * partition number, and sometimes coincide.
+     */
+    private static TreeMap<Integer, OffsetDateTime> randomPartitions(Random random) {
+        final int numPartitions = 1 + random.nextInt(20);
+        final List<OffsetDateTime> startTimes = new ArrayList<>();
+        for (int i = 0; i < numPartitions; i++) {
+            if (i > 0 && random.nextInt(5) == 0) {
+                startTimes.add(startTimes.get(random.nextInt(i)));
+            } else {
+                startTimes.add(randomTime(random));
+            }
+        }
+
+        if (random.nextInt(4) != 0) {
+            Collections.sort(startTimes);
+        }
+
+        final TreeMap<Integer, OffsetDateTime> partitions = new TreeMap<>();
+        int partitionNum = random.nextInt(3);
+        for (OffsetDateTime startTime : startTimes) {
+            partitions.put(partitionNum, startTime);
+            partitionNum += 1 + random.nextInt(2);
+        }
+        return partitions;
+    }
+
+    /**
+     * Generates query times that are random, before the first partition, after the last, and at and a nanosecond to either
+     * side of each partition's start time, in the given offset.
+     */
+    private static List<OffsetDateTime> queryTimes(Random random, Map<Integer, OffsetDateTime> partitions, ZoneOffset offset) {
+        final List<OffsetDateTime> times = new ArrayList<>();
+        for (int i = 0; i < NUM_LOOKUPS_PER_MAP; i++) {
+            times.add(randomTime(random));
+        }
+
+        times.add(OffsetDateTime.of(1990, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        times.add(OffsetDateTime.of(2050, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        times.add(OffsetDateTime.MIN);
+        times.add(OffsetDateTime.MAX);
+
+        for (OffsetDateTime startTime : partitions.values()) {
+            times.add(startTime.minusNanos(1));
+            times.add(startTime);
+            times.add(startTime.plusNanos(1));
+        }
+
+        final List<OffsetDateTime> offsetTimes = new ArrayList<>();
+        for (OffsetDateTime t : times) {
+            offsetTimes.add(t.equals(OffsetDateTime.MIN) || t.equals(OffsetDateTime.MAX) ? t : t.withOffsetSameInstant(offset));
+        }
+        return offsetTimes;
+    }
+
+    private static SclkPartitionMap load(Map<Integer, OffsetDateTime> partitions) throws Exception {
+        final StringBuilder csv = new StringBuilder("Partition Number, Date\n");
+        for (Map.Entry<Integer, OffsetDateTime> partition : partitions.entrySet()) {
+            csv.append(partition.getKey()).append(',').append(partition.getValue()).append('\n');
+        }
+
+        final Path csvPath = Files.createTempFile("SclkPartitionMap", ".csv");
+        try {
+            Files.write(csvPath, csv.toString().getBytes(StandardCharsets.UTF_8));
+            final SclkPartitionMap map = new SclkPartitionMap(csvPath);
+            assertTrue(map.load());
+            return map;
+        } finally {
+            Files.delete(csvPath);
+        }
+    }
+
+    @Test
+    void lookupsMatchLinearSearch() throws Exception {
+        final Random random = new Random(0x5C1C);
+
+        for (int i = 0; i < NUM_MAPS; i++) {
+            final TreeMap<Integer, OffsetDateTime> partitions = randomPartitions(random);
+            final SclkPartitionMap map = load(partitions);
+            final ZoneOffset offset = ZoneOffset.ofHours(random.nextInt(25) - 12);
+
+            for (OffsetDateTime t : queryTimes(random, partitions, offset)) {
+                assertEquals(referenceGetSclkPartition(partitions, t), map.getSclkPartition(t), partitions + " at " + t);
+            }
+        }
+    }
+
+    @Test
+    void cursorLookupsMatchLinearSearch() throws Exception {
+        final Random random = new Random(0xC0C5);
+
+        for (int i = 0; i < NUM_MAPS; i++) {
+            final TreeMap<Integer, OffsetDateTime> partitions = randomPartitions(random);
+            final SclkPartitionMap map = load(partitions);
+            final List<OffsetDateTime> times = queryTimes(random, partitions, ZoneOffset.UTC);
+
+            // once in time order, as the frames of a telemetry query would be, then in random order, with repeats
+            Collections.sort(times);
+            final SclkPartitionMap.Cursor sortedCursor = map.newCursor();
+            for (OffsetDateTime t : times) {
+                assertEquals(referenceGetSclkPartition(partitions, t), sortedCursor.getSclkPartition(t), partitions + " at " + t);
+            }
+
+            Collections.shuffle(times, random);
+            final SclkPartitionMap.Cursor shuffledCursor = map.newCursor();
+            for (OffsetDateTime t : times) {
+                assertEquals(referenceGetSclkPartition(partitions, t), shuffledCursor.getSclkPartition(t), partitions + " at " + t);
+                assertEquals(referenceGetSclkPartition(partitions, t), shuffledCursor.getSclkPartition(t), partitions + " at " + t);
+            }
+        }
+    }
 }
@@ -0,0 +1,144 @@
+package edu.jhuapl.sd.sig.mmtc.correlation;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import spice.basic.CSPICE;
+import spice.basic.SpiceErrorException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EphemerisStatesTests {
+    private static final String NH_SC_ID = "-98";
+
+    @BeforeAll
+    static void setup() throws TimeConvertException {
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        Map<String, String> kernelsToLoad = new HashMap<>();
+        kernelsToLoad.put("src/test/resources/nh_kernels/lsk/naif0012.tls", "lsk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/spk/nh_pred_alleph_od124.bsp", "spk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/spk/nh_recon_pluto_od122_v01.bsp", "spk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/spk/NavPE_de433_od123.bsp", "spk");
+        TimeConvert.loadSpiceKernels(kernelsToLoad);
+    }
+
+    @AfterAll
+    static void teardown() {
+        TimeConvert.unloadSpiceKernels();
+    }
+
+    /**
+     * Records each call made to SPICE to compute a state, and then delegates to spkezr.
+     */
+    private static class CountingStateFunction implements EphemerisStates.StateFunction {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public double[] computeState(String target, double et, String frame, String abcorr, String observer) throws SpiceErrorException {
+            calls.add(String.join(",", target, observer, frame, abcorr, Double.toString(et)));
+
+            final double[] state = new double[6];
+            CSPICE.spkezr(target, et, frame, abcorr, observer, state, new double[1]);
+            return state;
+        }
+    }
+
+    private static double epoch() throws SpiceErrorException {
+        return CSPICE.str2et("2015-07-14T11:49:57");
+    }
+
+    @Test
+    void geometryValuesShareStates() throws Exception {
+        final CountingStateFunction spice = new CountingStateFunction();
+        final EphemerisStates ephemeris = new EphemerisStates(spice);
+        final double et = epoch();
+
+        // the same sequence of values computed for each correlation
+        final double scSunDistKm = ephemeris.getDistanceKm(NH_SC_ID, "SUN", et);
+        final double scEarthDistKm = ephemeris.getDistanceKm(NH_SC_ID, "EARTH", et);
+        final double scVelSsbKmS = ephemeris.getVelocityKmS(NH_SC_ID, "SSB", et);
+        final double scVelEarthKmS = ephemeris.getVelocityKmS(NH_SC_ID, "EARTH", et);
+        final double earthVelSsbKmS = ephemeris.getVelocityKmS("EARTH", "SSB", et);
+        final double earthSunDistKm = ephemeris.getDistanceKm("EARTH", "SUN", et);
+
+        // five distinct target/observer pairs; the SC-Earth state is used for both a distance and a velocity
+        assertEquals(5, spice.calls.size());
+        assertEquals(5, ephemeris.getStateComputationCount());
+        assertEquals(5, spice.calls.stream().distinct().count());
+
+        // values are identical to those computed directly from individual spkezr calls
+        assertEquals(directNorm(NH_SC_ID, "SUN", et, 0), scSunDistKm);
+        assertEquals(directNorm(NH_SC_ID, "EARTH", et, 0), scEarthDistKm);
+        assertEquals(directNorm(NH_SC_ID, "SSB", et, 3), scVelSsbKmS);
+        assertEquals(directNorm(NH_SC_ID, "EARTH", et, 3), scVelEarthKmS);
+        assertEquals(directNorm("EARTH", "SSB", et, 3), earthVelSsbKmS);
+        assertEquals(directNorm("EARTH", "SUN", et, 0), earthSunDistKm);
+
+        // NH was ~32.9 AU from the Sun at the Pluto encounter
+        assertEquals(32.9, CSPICE.convrt(scSunDistKm, "KM", "AU"), 0.1);
+
+        // asking again computes nothing new
+        ephemeris.getDistanceKm(NH_SC_ID, "SUN", et);
+        ephemeris.getVelocityKmS("EARTH", "SSB", et);
+        assertEquals(5, spice.calls.size());
+    }
+
+    @Test
+    void statesAreKeyedByFrameAberrationCorrectionAndEpoch() throws Exception {
+        final CountingStateFunction spice = new CountingStateFunction();
+        final EphemerisStates ephemeris = new EphemerisStates(spice);
+        final double et = epoch();
+
+        ephemeris.getState("EARTH", "SUN", et);
+        ephemeris.getState("EARTH", "SUN", EphemerisStates.DEFAULT_FRAME, EphemerisStates.DEFAULT_ABERRATION_CORRECTION, et);
+        assertEquals(1, spice.calls.size());
+
+        ephemeris.getState("EARTH", "SUN", "ECLIPJ2000", "NONE", et);
+        ephemeris.getState("EARTH", "SUN", "J2000", "LT", et);
+        ephemeris.getState("EARTH", "SUN", et + 1.0);
+        ephemeris.getState("SUN", "EARTH", et);
+        assertEquals(5, spice.calls.size());
+    }
+
+    @Test
+    void returnedStatesAreCopies() throws Exception {
+        final EphemerisStates ephemeris = new EphemerisStates();
+        final double et = epoch();
+
+        final double[] first = ephemeris.getState("EARTH", "SUN", et);
+        final double[] expected = Arrays.copyOf(first, first.length);
+        Arrays.fill(first, 0.0);
+
+        assertArrayEquals(expected, ephemeris.getState("EARTH", "SUN", et));
+    }
+
+    @Test
+    void spiceErrorsAreReportedAndNotMemoized() throws Exception {
+        final CountingStateFunction spice = new CountingStateFunction();
+        final EphemerisStates ephemeris = new EphemerisStates(spice);
+        final double et = epoch();
+
+        // no ephemeris data for this body is loaded
+        assertThrows(MmtcException.class, () -> ephemeris.getDistanceKm("MARS BARYCENTER", "-12345", et));
+        assertThrows(MmtcException.class, () -> ephemeris.getDistanceKm("MARS BARYCENTER", "-12345", et));
+        assertEquals(2, spice.calls.size());
+        assertEquals(0, ephemeris.getStateComputationCount());
+    }
+
+    private static double directNorm(String target, String observer, double et, int from) throws SpiceErrorException {
+        final double[] state = new double[6];
+        CSPICE.spkezr(target, et, "J2000", "NONE", observer, state, new double[1]);
+        return CSPICE.vnorm(Arrays.copyOfRange(state, from, from + 3));
+    }
+}
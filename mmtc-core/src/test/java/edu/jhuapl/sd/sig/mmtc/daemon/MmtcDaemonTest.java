@@ -0,0 +1,364 @@
+package edu.jhuapl.sd.sig.mmtc.daemon;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleBatch;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleIterator;
+import edu.jhuapl.sd.sig.mmtc.tlm.RawTelemetryTableTelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache.TelemetryCacheUserOperations;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import org.apache.commons.cli.Option;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MmtcDaemonTest {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String[] PRECACHE_ARGS = {"2017-01-07T00:00:00.000Z", "2017-01-10T00:00:00.000Z"};
+
+    private static final String FAILING_PLUGIN_JAR_PREFIX = "mmtc-plugin-daemon-test";
+
+    /**
+     * The Raw Telemetry Table source, provided by a plugin jar (as in PluginDiscoveryTests), with an option that makes
+     * its queries fail.  As with the AMPCS source after a failed or timed-out query, a failed query leaves the source
+     * unusable until it is reconnected.
+     */
+    public static class FailingTelemetrySource extends RawTelemetryTableTelemetrySource {
+        static volatile FailingTelemetrySource instance;
+
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile boolean usable;
+        private volatile boolean failQueries;
+
+        public FailingTelemetrySource() {
+            instance = this;
+        }
+
+        @Override
+        public String getName() {
+            return "daemonTest";
+        }
+
+        @Override
+        public List<AdditionalOption> getAdditionalOptions() {
+            return Collections.singletonList(new AdditionalOption(
+                    "failQueries",
+                    Option.builder().longOpt("fail-queries").hasArg().desc("Whether this command's telemetry queries fail.").build()
+            ));
+        }
+
+        @Override
+        public void applyOption(String name, String value) {
+            failQueries = Boolean.parseBoolean(value);
+        }
+
+        @Override
+        public void resetOptions() {
+            failQueries = false;
+        }
+
+        @Override
+        public void connect() {
+            usable = true;
+            connections.incrementAndGet();
+        }
+
+        @Override
+        public void disconnect() {
+            usable = false;
+        }
+
+        private void query() throws MmtcException {
+            if (! usable) {
+                throw new MmtcException("Telemetry source queried while unusable");
+            }
+
+            if (failQueries) {
+                usable = false;
+                throw new MmtcException("Telemetry query failed");
+            }
+        }
+
+        @Override
+        public List<FrameSample> getSamplesInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
+            query();
+            return super.getSamplesInRange(start, stop);
+        }
+
+        @Override
+        public FrameSampleIterator iterateSamplesInRange(OffsetDateTime start, OffsetDateTime stop, FrameSampleIterator.ErtOrder order) throws MmtcException {
+            query();
+            return super.iterateSamplesInRange(start, stop, order);
+        }
+
+        @Override
+        public synchronized FrameSampleBatch getSampleBatchInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
+            query();
+            return super.getSampleBatchInRange(start, stop);
+        }
+    }
+
+    private Path testDir;
+    private Path lockFile;
+    private Path endpointFile;
+    private MockedStatic<Environment> mockedEnvironment;
+
+    private MmtcDaemon daemon;
+    private Thread serveThread;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        testDir = TestHelper.createInstallation(Paths.get("/tmp", "mmtc-test-daemon-" + UUID.randomUUID()));
+
+        // the lock file and daemon endpoint file are kept beside the run history file, in the installation's output directory
+        lockFile = testDir.resolve("output").resolve(".mmtc_lock");
+        endpointFile = testDir.resolve("output").resolve(".mmtc_daemon");
+
+        mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS);
+        mockedEnvironment
+                .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                .thenReturn(testDir.toString());
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        if (daemon != null) {
+            daemon.close();
+            serveThread.join(10_000);
+        }
+
+        mockedEnvironment.close();
+
+        try (Stream<Path> paths = Files.walk(testDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private void startDaemon() throws Exception {
+        daemon = new MmtcDaemon(new MmtcDaemonConfig());
+        serveThread = new Thread(daemon::serve, "mmtc-daemon-test-server");
+        serveThread.start();
+    }
+
+    /**
+     * Configures the test installation to use a {@link FailingTelemetrySource} in place of the Raw Telemetry Table source.
+     */
+    private void useFailingTelemetrySource() throws Exception {
+        TestHelper.useTelemetrySourcePlugin(testDir, "daemonTest", FailingTelemetrySource.class, FAILING_PLUGIN_JAR_PREFIX);
+    }
+
+    private static class ClientResult {
+        final int status;
+        final String output;
+
+        ClientResult(int status, String output) {
+            this.status = status;
+            this.output = output;
+        }
+    }
+
+    private ClientResult runClient(String... args) throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final int status = MmtcDaemonClient.run(endpointFile, new PrintStream(output, true, "UTF-8"), args);
+        return new ClientResult(status, new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEndpointFileAdvertisesPort() throws Exception {
+        startDaemon();
+
+        assertTrue(Files.exists(endpointFile));
+        assertEquals(daemon.getPort(), MmtcDaemonProtocol.readEndpointFile(endpointFile).port);
+    }
+
+    @Test
+    public void testPrecacheAcquiresAndReleasesLockFile() throws Exception {
+        startDaemon();
+
+        for (int i = 0; i < 3; i++) {
+            final ClientResult result = runClient(prepend("precache", PRECACHE_ARGS));
+            assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, result.status, result.output);
+            assertFalse(Files.exists(lockFile));
+        }
+
+        assertTrue(runClient("status").output.contains("3 commands run"));
+    }
+
+    @Test
+    public void testCommandFailsWhenLockFileHeld() throws Exception {
+        startDaemon();
+        Files.write(lockFile, "held by another MMTC process".getBytes(StandardCharsets.UTF_8));
+
+        final ClientResult result = runClient(prepend("precache", PRECACHE_ARGS));
+        assertEquals(MmtcDaemonProtocol.EXIT_FAILURE, result.status);
+        assertTrue(result.output.contains("Lock file already exists"), result.output);
+
+        // the other process's lock file is left alone
+        assertEquals("held by another MMTC process", new String(Files.readAllBytes(lockFile), StandardCharsets.UTF_8));
+
+        Files.delete(lockFile);
+        assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, runClient(prepend("precache", PRECACHE_ARGS)).status);
+    }
+
+    @Test
+    public void testFailedCommandDoesNotAffectLaterCommands() throws Exception {
+        useFailingTelemetrySource();
+        startDaemon();
+        assertEquals(1, FailingTelemetrySource.instance.connections.get());
+
+        final ClientResult failed = runClient(prepend("precache", "--fail-queries", "true", PRECACHE_ARGS[0], PRECACHE_ARGS[1]));
+        assertEquals(MmtcDaemonProtocol.EXIT_FAILURE, failed.status);
+        assertTrue(failed.output.contains("Precaching failed."), failed.output);
+
+        // the next command neither inherits the failed command's option nor finds the source left unusable
+        final ClientResult succeeded = runClient(prepend("precache", PRECACHE_ARGS));
+        assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, succeeded.status, succeeded.output);
+        assertEquals(2, FailingTelemetrySource.instance.connections.get());
+        assertFalse(Files.exists(lockFile));
+    }
+
+    @Test
+    public void testInvalidTokenRejected() throws Exception {
+        startDaemon();
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final int status = MmtcDaemonClient.send(
+                new MmtcDaemonProtocol.Endpoint(daemon.getPort(), "not-the-token"),
+                new MmtcDaemonProtocol.Request("not-the-token", MmtcDaemonProtocol.CMD_PRECACHE, PRECACHE_ARGS),
+                new PrintStream(output, true, "UTF-8")
+        );
+
+        assertEquals(MmtcDaemonProtocol.EXIT_FAILURE, status);
+        assertTrue(new String(output.toByteArray(), StandardCharsets.UTF_8).contains("Invalid MMTC daemon token"));
+        assertTrue(runClient("status").output.contains("0 commands run"));
+    }
+
+    @Test
+    public void testIdleConnectionsDoNotBlockLaterCommands() throws Exception {
+        startDaemon();
+
+        // connections that never send a request are closed once the request read timeout expires, freeing their threads
+        final List<Socket> idleConnections = new ArrayList<>();
+        try {
+            for (int i = 0; i < MmtcDaemon.NUM_CONNECTION_THREADS; i++) {
+                idleConnections.add(new Socket(InetAddress.getLoopbackAddress(), daemon.getPort()));
+            }
+
+            final long start = System.nanoTime();
+            assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, runClient("status").status);
+            assertTrue(System.nanoTime() - start < MmtcDaemon.REQUEST_READ_TIMEOUT.multipliedBy(2).toNanos());
+
+            for (Socket idleConnection : idleConnections) {
+                idleConnection.setSoTimeout((int) MmtcDaemon.REQUEST_READ_TIMEOUT.multipliedBy(2).toMillis());
+                assertEquals(-1, idleConnection.getInputStream().read());
+            }
+        } finally {
+            for (Socket idleConnection : idleConnections) {
+                idleConnection.close();
+            }
+        }
+    }
+
+    @Test
+    public void testHelpRejectedWithoutStoppingDaemon() throws Exception {
+        startDaemon();
+
+        final ClientResult result = runClient("precache", "--help");
+        assertEquals(MmtcDaemonProtocol.EXIT_FAILURE, result.status);
+        assertTrue(result.output.contains("Help options are not supported"), result.output);
+
+        assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, runClient("status").status);
+    }
+
+    @Test
+    public void testSecondDaemonRefusesToStart() throws Exception {
+        startDaemon();
+
+        assertThrows(Exception.class, () -> new MmtcDaemon(new MmtcDaemonConfig()));
+        assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, runClient("status").status);
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        startDaemon();
+
+        assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, runClient("shutdown").status);
+        serveThread.join(10_000);
+        assertFalse(serveThread.isAlive());
+
+        daemon.close();
+        assertFalse(Files.exists(endpointFile));
+        assertThrows(Exception.class, () -> runClient("status"));
+    }
+
+    /**
+     * Compares the latency of precaching through a warm daemon against running the same precache command in-process
+     * as the CLI does, which loads configuration, plugins, and the telemetry source connection on every invocation.
+     * (The cold timings do not include JVM startup, which the daemon also avoids.)  Run with the 'benchmark' Gradle task.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "mmtc.benchmarks", matches = "true")
+    public void benchmarkColdVersusWarmLatency() throws Exception {
+        final int iterations = 10;
+
+        final long[] coldNanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            TelemetryCacheUserOperations.precache(PRECACHE_ARGS);
+            coldNanos[i] = System.nanoTime() - start;
+        }
+
+        startDaemon();
+
+        final long[] warmNanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            assertEquals(MmtcDaemonProtocol.EXIT_SUCCESS, runClient(prepend("precache", PRECACHE_ARGS)).status);
+            warmNanos[i] = System.nanoTime() - start;
+        }
+
+        logger.info(USER_NOTICE, String.format("Precache latency, median of %d: cold (in-process CLI) %.1f ms, warm (daemon) %.1f ms",
+                iterations, median(coldNanos) / 1e6, median(warmNanos) / 1e6));
+    }
+
+    private static String[] prepend(String first, String... rest) {
+        final String[] args = new String[rest.length + 1];
+        args[0] = first;
+        System.arraycopy(rest, 0, args, 1, rest.length);
+        return args;
+    }
+
+    private static double median(long[] values) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
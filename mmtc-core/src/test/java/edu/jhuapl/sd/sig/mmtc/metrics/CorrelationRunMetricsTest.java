@@ -0,0 +1,117 @@
+package edu.jhuapl.sd.sig.mmtc.metrics;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.products.definition.OutputProductDefinition;
+import edu.jhuapl.sd.sig.mmtc.products.util.GenericCsv;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static edu.jhuapl.sd.sig.mmtc.metrics.CorrelationMetricNames.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorrelationRunMetricsTest {
+    private Path testDir;
+    private MockedStatic<Environment> mockedEnvironment;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        testDir = Paths.get("/tmp", "mmtc-test-run-metrics-" + UUID.randomUUID());
+        TestHelper.createInstallation(testDir, Collections.singletonMap("metrics.runSummary.enabled", "true"));
+
+        mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS);
+        mockedEnvironment
+                .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                .thenAnswer(invocation -> testDir.toString());
+
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        mockedEnvironment.close();
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        try (Stream<Path> paths = Files.walk(testDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testEveryStageIsTimed() throws Exception {
+        final TimeCorrelationContext ctx = new TimeCorrelationApp("2017-342T00:00:00", "2017-342T23:59:59", "-F", "--clkchgrate-compute", "p").run();
+        final RunMetrics metrics = ctx.metrics;
+
+        final List<String> expectedStages = new ArrayList<>(Arrays.asList(
+                STAGE_RUN,
+                STAGE_INIT,
+                STAGE_SPICE_LOAD,
+                STAGE_SELECT_TARGET,
+                STAGE_TELEMETRY_FETCH,
+                STAGE_ENRICH_AND_VALIDATE,
+                STAGE_FILTERS,
+                STAGE_CLOCK_CHANGE_RATE,
+                STAGE_ANCILLARY_OPERATIONS,
+                STAGE_WRITE_RUN_HISTORY
+        ));
+        for (OutputProductDefinition<?> prodDef : ctx.config.getAllOutputProductDefs()) {
+            if (prodDef.shouldBeWritten(ctx)) {
+                expectedStages.add(writeProductStage(prodDef.getName()));
+            }
+        }
+        for (String filterName : ctx.config.getFilters().values().stream().map(f -> f.getClass().getSimpleName()).collect(Collectors.toList())) {
+            expectedStages.add(filterStage(filterName));
+        }
+
+        for (String stage : expectedStages) {
+            assertTrue(metrics.getStageTimer(stage).isPresent(), "Stage not timed: " + stage);
+            assertTrue(metrics.getStageTimer(stage).get().getCount() > 0, stage);
+        }
+
+        // the run's stages are nested within it
+        final long runNanos = metrics.getStageTimer(STAGE_RUN).get().getSum();
+        assertTrue(metrics.getStageTimer(STAGE_SELECT_TARGET).get().getSum() <= runNanos);
+        assertTrue(metrics.getStageTimer(STAGE_ANCILLARY_OPERATIONS).get().getSum() <= runNanos);
+        assertTrue(metrics.getStageTimer(STAGE_SPICE_LOAD).get().getSum() <= metrics.getStageTimer(STAGE_INIT).get().getSum());
+
+        // one sample set is evaluated by the filters per rejected set, plus the selected set
+        assertEquals(metrics.getCount(COUNT_SAMPLE_SETS_REJECTED) + 1, metrics.getCount(COUNT_SAMPLE_SETS_EVALUATED));
+        assertEquals(metrics.getCount(COUNT_SAMPLE_SETS_EVALUATED), metrics.getStageTimer(STAGE_FILTERS).get().getCount());
+        assertEquals(Long.valueOf(metrics.getCount(COUNT_SAMPLE_SETS_REJECTED)), Long.valueOf(ctx.correlation.rejected_sample_set_count.get()));
+
+        assertTrue(metrics.getCount(COUNT_TELEMETRY_QUERIES) > 0);
+        assertTrue(metrics.getCount(COUNT_FRAMES_FETCHED) > 0);
+        assertTrue(metrics.getCount(COUNT_SPICE_CALLS) > 0);
+
+        // the summary is written next to the Run History File, and holds a row for every stage
+        final Path summaryPath = testDir.resolve("output").resolve("run-metrics").resolve("run-00001-metrics.csv");
+        assertTrue(Files.exists(summaryPath));
+
+        final Set<String> summarizedStages = new GenericCsv(summaryPath).getRows().stream()
+                .filter(row -> row.get(RunMetricsSummaryFile.TYPE).equals("stage"))
+                .map(row -> row.get(RunMetricsSummaryFile.NAME))
+                .collect(Collectors.toSet());
+        assertEquals(metrics.getStageTimers().keySet(), summarizedStages);
+    }
+
+    @Test
+    public void testNoSummaryForDryRun() throws Exception {
+        final TimeCorrelationContext ctx = new TimeCorrelationApp("2017-342T00:00:00", "2017-342T23:59:59", "-F", "--clkchgrate-compute", "p", "--dry-run").run();
+
+        assertTrue(ctx.metrics.getStageTimer(STAGE_RUN).isPresent());
+        assertFalse(ctx.metrics.getStageTimer(STAGE_WRITE_RUN_HISTORY).isPresent());
+        assertFalse(Files.exists(testDir.resolve("output").resolve("run-metrics")));
+    }
+}
@@ -0,0 +1,102 @@
+package edu.jhuapl.sd.sig.mmtc.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RunMetricsTest {
+
+    @Test
+    public void testHistogram() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0.0, histogram.getMean());
+        assertTrue(histogram.getBucketCounts().isEmpty());
+
+        for (long value : new long[]{0, 1, 3, 4, 7, 1000, -5}) {
+            histogram.record(value);
+        }
+
+        assertEquals(7, histogram.getCount());
+        assertEquals(1015, histogram.getSum());
+        assertEquals(0, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(1015 / 7.0, histogram.getMean(), 1e-9);
+
+        final Map<Long, Long> expectedBuckets = new HashMap<>();
+        expectedBuckets.put(1L, 2L);    // 0, and -5 recorded as 0
+        expectedBuckets.put(2L, 1L);    // 1
+        expectedBuckets.put(4L, 1L);    // 3
+        expectedBuckets.put(8L, 2L);    // 4, 7
+        expectedBuckets.put(1024L, 1L); // 1000
+        assertEquals(expectedBuckets, histogram.getBucketCounts());
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.valueOf(1), histogram.getBucketCounts().get(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testTimersCountersAndHistograms() {
+        final RunMetrics metrics = new RunMetrics();
+
+        try (StageTimer timer = metrics.time("stage")) {
+            metrics.increment("counter");
+        }
+        final StageTimer timer = metrics.time("stage");
+        timer.close();
+        timer.close();
+
+        metrics.add("counter", 4);
+        metrics.record("histogram", 12);
+
+        assertEquals(2, metrics.getStageTimer("stage").get().getCount());
+        assertFalse(metrics.getStageTimer("other stage").isPresent());
+        assertEquals(5, metrics.getCount("counter"));
+        assertEquals(0, metrics.getCount("other counter"));
+        assertEquals(12, metrics.getHistogram("histogram").get().getMax());
+    }
+
+    @Test
+    public void testBinding() throws Exception {
+        final RunMetrics outer = new RunMetrics();
+        final RunMetrics inner = new RunMetrics();
+
+        // metrics recorded outside of any run are discarded
+        RunMetrics.current().increment("counter");
+        assertNotSame(outer, RunMetrics.current());
+        assertEquals(0, RunMetrics.current().getCount("counter"));
+
+        try (RunMetrics.Binding outerBinding = outer.bindToCurrentThread()) {
+            RunMetrics.current().increment("counter");
+
+            try (RunMetrics.Binding innerBinding = inner.bindToCurrentThread()) {
+                RunMetrics.current().increment("counter");
+            }
+
+            // bound tasks contribute to the binding metrics from other threads, which are otherwise unbound
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                executor.submit(RunMetrics.current().bound(() -> {
+                    RunMetrics.current().increment("counter");
+                    return null;
+                })).get();
+                executor.submit(() -> RunMetrics.current().increment("counter")).get();
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertSame(outer, RunMetrics.current());
+        }
+
+        assertEquals(2, outer.getCount("counter"));
+        assertEquals(1, inner.getCount("counter"));
+        assertNotSame(outer, RunMetrics.current());
+    }
+}
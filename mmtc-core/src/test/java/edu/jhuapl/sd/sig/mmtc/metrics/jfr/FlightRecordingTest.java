@@ -0,0 +1,174 @@
+package edu.jhuapl.sd.sig.mmtc.metrics.jfr;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.products.definition.OutputProductDefinition;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingTest {
+    private static final String SPICE_CALL = "edu.jhuapl.sd.sig.mmtc.SpiceCall";
+    private static final String TELEMETRY_FETCH = "edu.jhuapl.sd.sig.mmtc.TelemetryFetch";
+    private static final String TELEMETRY_CACHE_LOOKUP = "edu.jhuapl.sd.sig.mmtc.TelemetryCacheLookup";
+    private static final String SUBPROCESS = "edu.jhuapl.sd.sig.mmtc.Subprocess";
+    private static final String OUTPUT_PRODUCT_WRITE = "edu.jhuapl.sd.sig.mmtc.OutputProductWrite";
+
+    private Path testDir;
+    private MockedStatic<Environment> mockedEnvironment;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        testDir = Paths.get("/tmp", "mmtc-test-flight-recording-" + UUID.randomUUID());
+        TestHelper.createInstallation(testDir, Collections.singletonMap("metrics.flightRecording.enabled", "true"));
+
+        mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS);
+        mockedEnvironment
+                .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                .thenAnswer(invocation -> testDir.toString());
+
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        mockedEnvironment.close();
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        try (Stream<Path> paths = Files.walk(testDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testCorrelationRunIsRecorded() throws Exception {
+        final TimeCorrelationContext ctx = new TimeCorrelationApp("2017-342T00:00:00", "2017-342T23:59:59", "-F", "--clkchgrate-compute", "p").run();
+
+        final Path recordingDir = testDir.resolve("output").resolve("flight-recordings");
+        final List<Path> recordings;
+        try (Stream<Path> paths = Files.list(recordingDir)) {
+            recordings = paths.collect(Collectors.toList());
+        }
+        assertEquals(1, recordings.size());
+        assertTrue(recordings.get(0).getFileName().toString().matches("mmtc-run-\\d{4}-\\d{3}T\\d{2}-\\d{2}-\\d{2}\\.\\d{3}Z\\.jfr"));
+
+        final List<RecordedEvent> events = readMmtcEvents(recordings.get(0));
+
+        // SPICE calls are recorded from initialization onward, by wrapper name
+        final Set<String> spiceOperations = eventsOfType(events, SPICE_CALL).stream()
+                .map(e -> e.getString("operation"))
+                .collect(Collectors.toSet());
+        assertTrue(spiceOperations.contains("loadSpiceKernels"));
+        assertTrue(spiceOperations.contains("getLoadedKernelNames"));
+        assertTrue(spiceOperations.contains("sclkToEt") || spiceOperations.contains("encSclkToSclk"));
+
+        final List<RecordedEvent> fetches = eventsOfType(events, TELEMETRY_FETCH);
+        assertFalse(fetches.isEmpty());
+        for (RecordedEvent fetch : fetches) {
+            assertEquals("rawTlmTable", fetch.getString("source"));
+            assertNotNull(fetch.getString("startErt"));
+            assertNotNull(fetch.getString("stopErt"));
+        }
+        assertTrue(fetches.stream().anyMatch(fetch -> fetch.getInt("sampleCount") > 0));
+
+        final Set<String> writtenProducts = eventsOfType(events, OUTPUT_PRODUCT_WRITE).stream()
+                .map(e -> e.getString("product"))
+                .collect(Collectors.toSet());
+        final Set<String> expectedProducts = new HashSet<>();
+        for (OutputProductDefinition<?> prodDef : ctx.config.getAllOutputProductDefs()) {
+            if (prodDef.shouldBeWritten(ctx)) {
+                expectedProducts.add(prodDef.getName());
+            }
+        }
+        assertFalse(expectedProducts.isEmpty());
+        assertEquals(expectedProducts, writtenProducts);
+    }
+
+    @Test
+    public void testFailedRunIsRecorded() throws Exception {
+        // no telemetry exists in this range, so the run fails
+        assertThrows(Exception.class, () -> new TimeCorrelationApp("2018-100T00:00:00", "2018-100T23:59:59", "-F", "--clkchgrate-compute", "p").run());
+
+        final Path recordingDir = testDir.resolve("output").resolve("flight-recordings");
+        try (Stream<Path> paths = Files.list(recordingDir)) {
+            final List<Path> recordings = paths.collect(Collectors.toList());
+            assertEquals(1, recordings.size());
+            assertFalse(readMmtcEvents(recordings.get(0)).isEmpty());
+        }
+    }
+
+    @Test
+    public void testEventFields() throws Exception {
+        final Path recordingPath = testDir.resolve("events.jfr");
+        final OffsetDateTime start = OffsetDateTime.of(2017, 12, 8, 0, 0, 0, 0, ZoneOffset.UTC);
+        final OffsetDateTime stop = start.plusDays(1);
+
+        try (FlightRecording recording = FlightRecording.start("test")) {
+            try (TelemetryCacheLookupEvent lookup = TelemetryCacheLookupEvent.begin(start, stop, 2)) { }
+            try (TelemetryCacheLookupEvent lookup = TelemetryCacheLookupEvent.begin(start, stop, 0)) { }
+
+            try (SubprocessEvent subprocess = SubprocessEvent.begin("chill_get_packets -v")) {
+                subprocess.setExitCode(3);
+                subprocess.setStdoutBytes(1234);
+            }
+
+            recording.dump(recordingPath);
+        }
+
+        final List<RecordedEvent> events = readMmtcEvents(recordingPath);
+
+        final List<RecordedEvent> lookups = eventsOfType(events, TELEMETRY_CACHE_LOOKUP);
+        assertEquals(2, lookups.size());
+        assertFalse(lookups.get(0).getBoolean("hit"));
+        assertEquals(2, lookups.get(0).getInt("missingRanges"));
+        assertTrue(lookups.get(1).getBoolean("hit"));
+        assertEquals(start.toString(), lookups.get(1).getString("startErt"));
+        assertEquals(stop.toString(), lookups.get(1).getString("stopErt"));
+
+        final List<RecordedEvent> subprocesses = eventsOfType(events, SUBPROCESS);
+        assertEquals(1, subprocesses.size());
+        assertEquals("chill_get_packets -v", subprocesses.get(0).getString("command"));
+        assertEquals(3, subprocesses.get(0).getInt("exitCode"));
+        assertEquals(1234, subprocesses.get(0).getLong("stdoutBytes"));
+    }
+
+    @Test
+    public void testEventsAreDisabledOutsideRecording() {
+        assertTrue(FlightRecording.isAvailable());
+
+        try (SubprocessEvent subprocess = SubprocessEvent.begin("chill_get_packets -v")) {
+            assertFalse(subprocess.isEnabled());
+            subprocess.setExitCode(0);
+        }
+    }
+
+    private static List<RecordedEvent> readMmtcEvents(Path recordingPath) throws Exception {
+        return RecordingFile.readAllEvents(recordingPath).stream()
+                .filter(e -> e.getEventType().getCategoryNames().contains("MMTC"))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .collect(Collectors.toList());
+    }
+
+    private static List<RecordedEvent> eventsOfType(List<RecordedEvent> events, String eventName) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(eventName))
+                .collect(Collectors.toList());
+    }
+}
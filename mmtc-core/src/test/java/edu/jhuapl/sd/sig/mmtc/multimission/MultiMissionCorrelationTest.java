@@ -0,0 +1,312 @@
+package edu.jhuapl.sd.sig.mmtc.multimission;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
+import edu.jhuapl.sd.sig.mmtc.cfg.MultiMissionConfig;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleBatch;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleIterator;
+import edu.jhuapl.sd.sig.mmtc.tlm.RawTelemetryTableTelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiMissionCorrelationTest {
+    // two synthetic missions, each with its own output products and SCLK kernel, sharing the fixture telemetry and all other kernels
+    private static final String[][] MISSION_A_CORRELATIONS = {
+            {"2017-342T00:00:00", "2017-342T23:59:59", "-F", "--clkchgrate-compute", "p"},
+            {"2017-343T00:00:00", "2017-343T23:59:59", "-F", "--clkchgrate-compute", "i"},
+            {"2017-345T00:00:00", "2017-345T23:59:59", "-F", "--clkchgrate-compute", "i"}
+    };
+
+    private static final String[][] MISSION_B_CORRELATIONS = {
+            {"2017-343T00:00:00", "2017-343T23:59:59", "-F", "--clkchgrate-compute", "p"},
+            {"2017-344T00:00:00", "2017-344T23:59:59", "-F", "--clkchgrate-compute", "i"}
+    };
+
+    private static final String CONNECTION_CHECKING_PLUGIN_JAR_PREFIX = "mmtc-plugin-connection-checking-test";
+
+    /**
+     * The Raw Telemetry Table source, provided by a plugin jar (as in PluginDiscoveryTests), which refuses to be queried
+     * unless it is connected or to be reconfigured while it is connected.
+     */
+    public static class ConnectionCheckingTelemetrySource extends RawTelemetryTableTelemetrySource {
+        static final List<ConnectionCheckingTelemetrySource> instances = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile boolean connected;
+
+        public ConnectionCheckingTelemetrySource() {
+            instances.add(this);
+        }
+
+        @Override
+        public String getName() {
+            return "connectionCheckingTest";
+        }
+
+        @Override
+        public void applyConfiguration(MmtcConfigWithTlmSource config) throws MmtcException {
+            if (connected) {
+                throw new MmtcException("Telemetry source reconfigured while connected");
+            }
+            super.applyConfiguration(config);
+        }
+
+        @Override
+        public void connect() {
+            connected = true;
+            connections.incrementAndGet();
+        }
+
+        @Override
+        public void disconnect() {
+            connected = false;
+        }
+
+        private void ensureConnected() throws MmtcException {
+            if (! connected) {
+                throw new MmtcException("Telemetry source queried while not connected");
+            }
+        }
+
+        @Override
+        public List<FrameSample> getSamplesInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
+            ensureConnected();
+            return super.getSamplesInRange(start, stop);
+        }
+
+        @Override
+        public FrameSampleIterator iterateSamplesInRange(OffsetDateTime start, OffsetDateTime stop, FrameSampleIterator.ErtOrder order) throws MmtcException {
+            ensureConnected();
+            return super.iterateSamplesInRange(start, stop, order);
+        }
+
+        @Override
+        public synchronized FrameSampleBatch getSampleBatchInRange(OffsetDateTime start, OffsetDateTime stop) throws MmtcException {
+            ensureConnected();
+            return super.getSampleBatchInRange(start, stop);
+        }
+    }
+
+    private Path testDir;
+    private Path currentInstallation;
+    private MockedStatic<Environment> mockedEnvironment;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        testDir = Paths.get("/tmp", "mmtc-test-multi-mission-" + UUID.randomUUID());
+
+        mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS);
+        mockedEnvironment
+                .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                .thenAnswer(invocation -> currentInstallation.toString());
+
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+        ConnectionCheckingTelemetrySource.instances.clear();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        mockedEnvironment.close();
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        try (Stream<Path> paths = Files.walk(testDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * Configures the given installation to use a {@link ConnectionCheckingTelemetrySource} in place of the Raw Telemetry
+     * Table source.
+     */
+    private static Path useConnectionCheckingTelemetrySource(Path installationDir) throws Exception {
+        return TestHelper.useTelemetrySourcePlugin(installationDir, "connectionCheckingTest", ConnectionCheckingTelemetrySource.class, CONNECTION_CHECKING_PLUGIN_JAR_PREFIX);
+    }
+
+    private Path writeMissionsFile(Map<String, Path> missionDirs, Map<String, String[][]> missionCorrelations) throws Exception {
+        final List<String> lines = new ArrayList<>();
+        lines.add("# mission  config directory  correlation arguments");
+
+        // interleave the missions' correlations, as the runner must keep each mission's correlations in order regardless
+        final int maxCorrelations = missionCorrelations.values().stream().mapToInt(c -> c.length).max().getAsInt();
+        for (int i = 0; i < maxCorrelations; i++) {
+            for (Map.Entry<String, String[][]> mission : missionCorrelations.entrySet()) {
+                if (i < mission.getValue().length) {
+                    lines.add(mission.getKey() + " " + missionDirs.get(mission.getKey()) + " " + String.join(" ", mission.getValue()[i]));
+                }
+            }
+        }
+
+        final Path missionsFile = testDir.resolve("missions.txt");
+        Files.write(missionsFile, lines, StandardCharsets.UTF_8);
+        return missionsFile;
+    }
+
+    private void runIndividually(Path installation, String[][] correlations) throws Exception {
+        currentInstallation = installation;
+        for (String[] correlation : correlations) {
+            // as with separate invocations of MMTC, each correlation loads its kernels into an empty kernel pool
+            TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+            new TimeCorrelationApp(correlation).run();
+        }
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+    }
+
+    @Test
+    public void testMissionsMatchIndividualCorrelations() throws Exception {
+        final Path expectedA = TestHelper.createInstallation(testDir.resolve("expected-a"));
+        final Path expectedB = TestHelper.createInstallation(testDir.resolve("expected-b"));
+        runIndividually(expectedA, MISSION_A_CORRELATIONS);
+        runIndividually(expectedB, MISSION_B_CORRELATIONS);
+
+        final Map<String, Path> missionDirs = new LinkedHashMap<>();
+        missionDirs.put("mission-a", TestHelper.createInstallation(testDir.resolve("mission-a")));
+        missionDirs.put("mission-b", TestHelper.createInstallation(testDir.resolve("mission-b")));
+
+        final Map<String, String[][]> missionCorrelations = new LinkedHashMap<>();
+        missionCorrelations.put("mission-a", MISSION_A_CORRELATIONS);
+        missionCorrelations.put("mission-b", MISSION_B_CORRELATIONS);
+
+        final Map<String, List<TimeCorrelationContext>> completed = new MultiMissionCorrelation(
+                new MultiMissionConfig("--missions-file", writeMissionsFile(missionDirs, missionCorrelations).toString())
+        ).run();
+
+        assertEquals(MISSION_A_CORRELATIONS.length, completed.get("mission-a").size());
+        assertEquals(MISSION_B_CORRELATIONS.length, completed.get("mission-b").size());
+        for (int i = 0; i < MISSION_A_CORRELATIONS.length; i++) {
+            assertEquals(Integer.valueOf(i + 1), completed.get("mission-a").get(i).runId.get());
+        }
+
+        // each mission's correlations used only its own SCLK kernel, though both missions' SCLK kernels describe the same spacecraft
+        TestHelper.assertSameOutputProducts(expectedA.resolve("output"), missionDirs.get("mission-a").resolve("output"));
+        TestHelper.assertSameOutputProducts(expectedB.resolve("output"), missionDirs.get("mission-b").resolve("output"));
+
+        // lock files were released
+        for (Path missionDir : missionDirs.values()) {
+            assertFalse(Files.exists(new MmtcConfig(missionDir).getLockFileLocation()));
+        }
+    }
+
+    @Test
+    public void testEachMissionConnectsItsTelemetrySourceOnce() throws Exception {
+        final Map<String, Path> missionDirs = new LinkedHashMap<>();
+        missionDirs.put("mission-a", useConnectionCheckingTelemetrySource(TestHelper.createInstallation(testDir.resolve("mission-a"))));
+        missionDirs.put("mission-b", useConnectionCheckingTelemetrySource(TestHelper.createInstallation(testDir.resolve("mission-b"))));
+
+        final Map<String, String[][]> missionCorrelations = new LinkedHashMap<>();
+        missionCorrelations.put("mission-a", MISSION_A_CORRELATIONS);
+        missionCorrelations.put("mission-b", MISSION_B_CORRELATIONS);
+
+        final Map<String, List<TimeCorrelationContext>> completed = new MultiMissionCorrelation(
+                new MultiMissionConfig("--missions-file", writeMissionsFile(missionDirs, missionCorrelations).toString())
+        ).run();
+
+        // every correlation after each mission's first queried the same, still-connected telemetry source
+        assertEquals(MISSION_A_CORRELATIONS.length, completed.get("mission-a").size());
+        assertEquals(MISSION_B_CORRELATIONS.length, completed.get("mission-b").size());
+
+        assertEquals(missionDirs.size(), ConnectionCheckingTelemetrySource.instances.size());
+        for (ConnectionCheckingTelemetrySource source : ConnectionCheckingTelemetrySource.instances) {
+            assertEquals(1, source.connections.get());
+            assertFalse(source.connected);
+        }
+    }
+
+    @Test
+    public void testSharedKernelsExcludeEachMissionsSclkKernel() throws Exception {
+        final MmtcConfig missionA = new MmtcConfig(TestHelper.createInstallation(testDir.resolve("mission-a")));
+        final MmtcConfig missionB = new MmtcConfig(TestHelper.createInstallation(testDir.resolve("mission-b")));
+
+        final Map<String, String> kernelsA = missionA.getKernelsToLoad();
+        final Map<String, String> sharedKernels = MultiMissionCorrelation.findSharedKernels(Arrays.asList(kernelsA, missionB.getKernelsToLoad()));
+
+        final Map<String, String> expectedSharedKernels = new LinkedHashMap<>(kernelsA);
+        expectedSharedKernels.values().removeIf(type -> type.equals("sclk"));
+
+        assertFalse(expectedSharedKernels.isEmpty());
+        assertEquals(new ArrayList<>(expectedSharedKernels.entrySet()), new ArrayList<>(sharedKernels.entrySet()));
+    }
+
+    @Test
+    public void testFindSharedKernelsKeepsCommonPrefixOfEachType() {
+        final Map<String, String> first = new LinkedHashMap<>();
+        first.put("naif0012.tls", "lsk");
+        first.put("de430.bsp", "spk");
+        first.put("sc_a.bsp", "spk");
+        first.put("sc_a.tsc", "sclk");
+
+        final Map<String, String> second = new LinkedHashMap<>();
+        second.put("de430.bsp", "spk");
+        second.put("naif0012.tls", "lsk");
+        second.put("sc_b.bsp", "spk");
+        second.put("de440.bsp", "spk");
+        second.put("sc_b.tsc", "sclk");
+
+        final Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("naif0012.tls", "lsk");
+        expected.put("de430.bsp", "spk");
+
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(MultiMissionCorrelation.findSharedKernels(Arrays.asList(first, second)).entrySet()));
+    }
+
+    @Test
+    public void testMissionsMustNotShareOutputProducts() throws Exception {
+        final Path installation = TestHelper.createInstallation(testDir.resolve("shared"));
+
+        final Map<String, Path> missionDirs = new LinkedHashMap<>();
+        missionDirs.put("mission-a", installation);
+        missionDirs.put("mission-b", installation);
+
+        final Map<String, String[][]> missionCorrelations = new LinkedHashMap<>();
+        missionCorrelations.put("mission-a", new String[][]{MISSION_A_CORRELATIONS[0]});
+        missionCorrelations.put("mission-b", new String[][]{MISSION_B_CORRELATIONS[0]});
+
+        final MultiMissionConfig config = new MultiMissionConfig("--missions-file", writeMissionsFile(missionDirs, missionCorrelations).toString());
+        final MmtcException e = assertThrows(MmtcException.class, () -> new MultiMissionCorrelation(config).run());
+        assertTrue(e.getMessage().contains("same Run History File"), e.getMessage());
+
+        // nothing was written, and no lock file was left behind
+        assertEquals(Collections.singletonList(Paths.get("sclk/new-horizons_1000.tsc")), TestHelper.listRelativeFiles(installation.resolve("output")));
+    }
+
+    @Test
+    public void testFailedMissionDoesNotStopOthers() throws Exception {
+        final Map<String, Path> missionDirs = new LinkedHashMap<>();
+        missionDirs.put("mission-a", TestHelper.createInstallation(testDir.resolve("mission-a")));
+        missionDirs.put("mission-b", TestHelper.createInstallation(testDir.resolve("mission-b")));
+
+        final Map<String, String[][]> missionCorrelations = new LinkedHashMap<>();
+        missionCorrelations.put("mission-a", new String[][]{
+                {"2018-100T00:00:00", "2018-100T23:59:59", "-F", "--clkchgrate-compute", "p"},
+                MISSION_A_CORRELATIONS[1]
+        });
+        missionCorrelations.put("mission-b", MISSION_B_CORRELATIONS);
+
+        final MultiMissionConfig config = new MultiMissionConfig("--missions-file", writeMissionsFile(missionDirs, missionCorrelations).toString(), "--max-concurrent-missions", "1");
+        final MmtcException e = assertThrows(MmtcException.class, () -> new MultiMissionCorrelation(config).run());
+        assertTrue(e.getMessage().contains("1 of 2 missions failed (mission-a)"), e.getMessage());
+
+        // mission A's second correlation was not run after its first failed, but mission B's correlations were all run
+        assertEquals(Collections.singletonList(Paths.get("new-horizons_1000.tsc")), TestHelper.listRelativeFiles(missionDirs.get("mission-a").resolve("output").resolve("sclk")));
+        assertEquals(1 + MISSION_B_CORRELATIONS.length, TestHelper.listRelativeFiles(missionDirs.get("mission-b").resolve("output").resolve("sclk")).size());
+    }
+}
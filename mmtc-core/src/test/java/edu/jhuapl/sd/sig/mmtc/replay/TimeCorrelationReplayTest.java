@@ -0,0 +1,131 @@
+package edu.jhuapl.sd.sig.mmtc.replay;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.cfg.ReplayConfig;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeCorrelationReplayTest {
+    // the correlations run by the MMTC demo, against the same fixture telemetry and seed SCLK kernel
+    private static final String[][] CORRELATIONS = {
+            {"2017-342T00:00:00", "2017-342T23:59:59", "-F", "--clkchgrate-compute", "p"},
+            {"2017-343T00:00:00", "2017-343T23:59:59", "-F", "--clkchgrate-compute", "i"},
+            {"2017-344T00:00:00", "2017-344T23:59:59", "-F", "--clkchgrate-compute", "i"},
+            {"2017-345T00:00:00", "2017-345T23:59:59", "-F", "--clkchgrate-compute", "i"}
+    };
+
+    private Path testDir;
+    private Path cliInstallation;
+    private Path replayInstallation;
+    private Path currentInstallation;
+    private MockedStatic<Environment> mockedEnvironment;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        testDir = Paths.get("/tmp", "mmtc-test-replay-" + UUID.randomUUID());
+        cliInstallation = TestHelper.createInstallation(testDir.resolve("cli"));
+        replayInstallation = TestHelper.createInstallation(testDir.resolve("replay"));
+
+        mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS);
+        mockedEnvironment
+                .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                .thenAnswer(invocation -> currentInstallation.toString());
+
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        mockedEnvironment.close();
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        try (Stream<Path> paths = Files.walk(testDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private Path writeTargetsFile(String[]... correlations) throws Exception {
+        final Path targetsFile = currentInstallation.resolve("replay-targets.txt");
+        final List<String> lines = new ArrayList<>();
+        lines.add("# replayed correlations");
+        for (String[] correlation : correlations) {
+            lines.add(String.join(" ", correlation));
+        }
+        Files.write(targetsFile, lines, StandardCharsets.UTF_8);
+        return targetsFile;
+    }
+
+    @Test
+    public void testReplayMatchesIndividualCorrelations() throws Exception {
+        currentInstallation = cliInstallation;
+        for (String[] correlation : CORRELATIONS) {
+            // as with separate invocations of MMTC, each correlation loads its kernels into an empty kernel pool
+            TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+            new TimeCorrelationApp(correlation).run();
+        }
+
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        currentInstallation = replayInstallation;
+        final List<TimeCorrelationContext> replayed = new TimeCorrelationReplay(new ReplayConfig("--targets-file", writeTargetsFile(CORRELATIONS).toString())).replay();
+
+        assertEquals(CORRELATIONS.length, replayed.size());
+        for (int i = 0; i < CORRELATIONS.length; i++) {
+            assertEquals(Integer.valueOf(i + 1), replayed.get(i).runId.get());
+        }
+
+        TestHelper.assertSameOutputProducts(cliInstallation.resolve("output"), replayInstallation.resolve("output"));
+    }
+
+    @Test
+    public void testSeriesOfIntervals() throws Exception {
+        currentInstallation = replayInstallation;
+        final ReplayConfig config = new ReplayConfig("--start", "2017-342T00:00:00", "--stop", "2017-344T12:00:00", "--interval-hours", "24", "-F");
+
+        final List<List<String>> correlationArgs = config.getCorrelationArgs().stream().map(Arrays::asList).collect(Collectors.toList());
+        assertEquals(Arrays.asList(
+                Arrays.asList("-F", "2017-342T00:00:00.000000", "2017-343T00:00:00.000000"),
+                Arrays.asList("-F", "2017-343T00:00:00.000000", "2017-344T00:00:00.000000"),
+                Arrays.asList("-F", "2017-344T00:00:00.000000", "2017-344T12:00:00.000000")
+        ), correlationArgs);
+    }
+
+    @Test
+    public void testReplayStopsAtFailedCorrelation() throws Exception {
+        currentInstallation = replayInstallation;
+        final Path targetsFile = writeTargetsFile(
+                new String[]{"2017-342T00:00:00", "2017-342T23:59:59", "-F", "--clkchgrate-compute", "p", "--dry-run"},
+                CORRELATIONS[1]
+        );
+
+        final MmtcException e = assertThrows(MmtcException.class, () -> new TimeCorrelationReplay(new ReplayConfig("--targets-file", targetsFile.toString())).replay());
+        assertTrue(e.getMessage().contains("correlation 1 of 2"), e.getMessage());
+
+        // nothing beyond the seed SCLK kernel was written
+        assertEquals(Collections.singletonList(Paths.get("sclk/new-horizons_1000.tsc")), TestHelper.listRelativeFiles(replayInstallation.resolve("output")));
+    }
+
+    @Test
+    public void testTargetsOrSeriesRequired() {
+        currentInstallation = replayInstallation;
+        assertThrows(MmtcException.class, () -> new ReplayConfig("-F"));
+        assertThrows(MmtcException.class, () -> new ReplayConfig("--start", "2017-342T00:00:00", "--stop", "2017-344T00:00:00"));
+    }
+}
@@ -0,0 +1,163 @@
+package edu.jhuapl.sd.sig.mmtc.sweep;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationApp;
+import edu.jhuapl.sd.sig.mmtc.cfg.SweepConfig;
+import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
+import edu.jhuapl.sd.sig.mmtc.products.model.SclkKernel;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeCorrelationSweepTest {
+    private static final String[] PRIOR_CORRELATION = {"2017-342T00:00:00", "2017-342T23:59:59", "-F", "--clkchgrate-compute", "p"};
+    private static final String[] SWEPT_CORRELATION = {"2017-343T00:00:00", "2017-343T23:59:59", "-F", "--clkchgrate-compute", "i"};
+
+    private Path testDir;
+    private Path installation;
+    private MockedStatic<Environment> mockedEnvironment;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        testDir = Paths.get("/tmp", "mmtc-test-sweep-" + UUID.randomUUID());
+        installation = TestHelper.createInstallation(testDir);
+
+        mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS);
+        mockedEnvironment
+                .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                .thenAnswer(invocation -> installation.toString());
+
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+        new TimeCorrelationApp(PRIOR_CORRELATION).run();
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        mockedEnvironment.close();
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        try (Stream<Path> paths = Files.walk(testDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static List<String> sweepArgs(String... sweepOptions) {
+        final List<String> args = new ArrayList<>(Arrays.asList(sweepOptions));
+        args.addAll(Arrays.asList(SWEPT_CORRELATION));
+        return args;
+    }
+
+    @Test
+    public void testSweepEvaluatesGridWithoutWritingProducts() throws Exception {
+        final Map<Path, byte[]> outputBeforeSweep = readOutputProducts();
+
+        final List<SweepResult> results = new TimeCorrelationSweep(new SweepConfig(sweepArgs(
+                "--vary", "telemetry.samplesPerSet=5,4",
+                "--vary", "filter.ert.maxDeltaVarianceSec=120.,0.000001",
+                "--threads", "2"
+        ).toArray(new String[0]))).sweep();
+
+        // the first-given key varies slowest
+        assertEquals(4, results.size());
+        assertEquals(Arrays.asList("5", "5", "4", "4"), results.stream().map(r -> r.variation.get("telemetry.samplesPerSet")).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("120.", "0.000001", "120.", "0.000001"), results.stream().map(r -> r.variation.get("filter.ert.maxDeltaVarianceSec")).collect(Collectors.toList()));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).variationNum);
+        }
+
+        // no sample set can pass an ERT variance filter this tight, so those variations fail, each after rejecting every candidate
+        assertTrue(results.get(0).isSuccessful());
+        assertTrue(results.get(2).isSuccessful());
+        assertFalse(results.get(1).isSuccessful());
+        assertFalse(results.get(3).isSuccessful());
+        assertTrue(results.get(1).rejectedSampleSetCount.get() > 0);
+        assertFalse(results.get(1).newPredictedTriplet.isPresent());
+
+        // the sweep wrote nothing
+        assertEquals(outputBeforeSweep.keySet(), readOutputProducts().keySet());
+        for (Map.Entry<Path, byte[]> product : outputBeforeSweep.entrySet()) {
+            assertArrayEquals(product.getValue(), readOutputProducts().get(product.getKey()), product.getKey().toString());
+        }
+
+        // the variation matching the configuration gives the same triplet as actually running the correlation
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+        final TimeCorrelationContext ctx = new TimeCorrelationApp(SWEPT_CORRELATION).run();
+        final SclkKernel.CorrelationTriplet expected = ctx.correlation.newPredictedTriplet.get();
+        final SclkKernel.CorrelationTriplet swept = results.get(0).newPredictedTriplet.get();
+        assertEquals(expected.encSclk, swept.encSclk);
+        assertEquals(expected.tdtStr, swept.tdtStr);
+        assertEquals(expected.clkChgRate, swept.clkChgRate);
+        assertEquals(ctx.correlation.metrics.ep_ms.get(), results.get(0).tdtPredictionErrorMs.get());
+    }
+
+    @Test
+    public void testSweepResultsIndependentOfThreadCount() throws Exception {
+        final List<SweepResult> serialResults = new TimeCorrelationSweep(new SweepConfig(sweepArgs(
+                "--vary", "telemetry.samplesPerSet=5,4,3",
+                "--threads", "1"
+        ).toArray(new String[0]))).sweep();
+
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+
+        final List<SweepResult> concurrentResults = new TimeCorrelationSweep(new SweepConfig(sweepArgs(
+                "--vary", "telemetry.samplesPerSet=5,4,3",
+                "--threads", "3"
+        ).toArray(new String[0]))).sweep();
+
+        assertEquals(serialResults.size(), concurrentResults.size());
+        for (int i = 0; i < serialResults.size(); i++) {
+            final SweepResult serial = serialResults.get(i);
+            final SweepResult concurrent = concurrentResults.get(i);
+
+            assertEquals(serial.variation, concurrent.variation);
+            assertEquals(serial.failureReason, concurrent.failureReason);
+            assertEquals(serial.rejectedSampleSetCount, concurrent.rejectedSampleSetCount);
+            assertEquals(serial.targetErt, concurrent.targetErt);
+            assertEquals(serial.newPredictedTriplet.map(t -> t.encSclk), concurrent.newPredictedTriplet.map(t -> t.encSclk));
+            assertEquals(serial.newPredictedTriplet.map(t -> t.tdtStr), concurrent.newPredictedTriplet.map(t -> t.tdtStr));
+            assertEquals(serial.newPredictedTriplet.map(t -> t.clkChgRate), concurrent.newPredictedTriplet.map(t -> t.clkChgRate));
+            assertEquals(serial.tdtPredictionErrorMs, concurrent.tdtPredictionErrorMs);
+        }
+    }
+
+    @Test
+    public void testInvalidVariations() {
+        // no variations
+        assertThrows(MmtcException.class, () -> new SweepConfig(SWEPT_CORRELATION));
+
+        // keys that don't affect how a correlation is computed
+        assertThrows(MmtcException.class, () -> new SweepConfig(sweepArgs("--vary", "spice.kernel.sclk.baseName=other").toArray(new String[0])));
+
+        // malformed or repeated variations
+        assertThrows(MmtcException.class, () -> new SweepConfig(sweepArgs("--vary", "telemetry.samplesPerSet").toArray(new String[0])));
+        assertThrows(MmtcException.class, () -> new SweepConfig(sweepArgs("--vary", "telemetry.samplesPerSet=", "--threads", "1").toArray(new String[0])));
+        assertThrows(MmtcException.class, () -> new SweepConfig(sweepArgs("--vary", "telemetry.samplesPerSet=5", "--vary", "telemetry.samplesPerSet=4").toArray(new String[0])));
+
+        assertThrows(MmtcException.class, () -> new SweepConfig(sweepArgs("--vary", "telemetry.samplesPerSet=5", "--threads", "0").toArray(new String[0])));
+    }
+
+    private Map<Path, byte[]> readOutputProducts() throws Exception {
+        final Path outputDir = installation.resolve("output");
+        final Map<Path, byte[]> products = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(outputDir)) {
+            for (Path product : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                products.put(outputDir.relativize(product), Files.readAllBytes(product));
+            }
+        }
+        return products;
+    }
+}
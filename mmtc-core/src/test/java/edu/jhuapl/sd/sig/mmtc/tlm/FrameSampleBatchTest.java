@@ -0,0 +1,222 @@
+package edu.jhuapl.sd.sig.mmtc.tlm;
+
+import edu.jhuapl.sd.sig.mmtc.util.CdsTimeCode;
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameSampleBatchTest {
+
+    private static FrameSample sampleWithErt(CdsTimeCode ert) {
+        final FrameSample fs = new FrameSample();
+        fs.setErt(ert);
+        return fs;
+    }
+
+    private static FrameSample sampleWithErtStr(String ertStr) {
+        final FrameSample fs = new FrameSample();
+        fs.setErtStr(ertStr);
+        return fs;
+    }
+
+    private static List<FrameSample> variedSamples() {
+        final List<FrameSample> samples = new ArrayList<>();
+
+        // unset
+        samples.add(new FrameSample());
+
+        // fully-populated, with a CDS ERT
+        final FrameSample full = sampleWithErt(new CdsTimeCode(21550, 43200123, 4567));
+        full.setSclkCoarse(123456789);
+        full.setSclkFine(12345);
+        full.setScet("2017-001T12:00:00.000");
+        full.setPathId(63);
+        full.setVcid(6);
+        full.setVcfc(1000);
+        full.setMcfc(2000);
+        full.setTkSclkCoarse(123456790);
+        full.setTkSclkFine(54321);
+        full.setTkVcid(7);
+        full.setTkVcfc(1001);
+        full.setTkDataRateBps("2000.5");
+        full.setTkRfEncoding("TURBO_1/6");
+        full.setTkValid(true);
+        full.setSuppVcid(0);
+        full.setSuppVcfc(12);
+        full.setSuppMcfc(2001);
+        full.setSuppErt(new CdsTimeCode(21550, 43201123, 0));
+        full.setDerivedTdBe(1.5e-5);
+        full.setFrameSizeBits(8920);
+        samples.add(full);
+
+        // ISO DOY UTC ERTs of various precisions
+        samples.add(sampleWithErtStr("2017-001T12:00:00.123456"));
+        samples.add(sampleWithErtStr("2017-001T12:00:00.123"));
+        samples.add(sampleWithErtStr("2017-001T12:00:00.123456789"));
+        samples.add(sampleWithErtStr("2017-001T12:00:00.1"));
+
+        // ERTs that can't be reproduced from epoch nanoseconds
+        samples.add(sampleWithErtStr("2017-001T12:00:00"));
+        samples.add(sampleWithErtStr("2017-001T12:00:00.1230"));
+        samples.add(sampleWithErtStr("not a time"));
+        samples.add(sampleWithErt(new CdsTimeCode(21549, 86400500, 0)));
+        final FrameSample both = sampleWithErt(new CdsTimeCode(21550, 0, 0));
+        both.setErtStr("2017-001T00:00:00.000001");
+        samples.add(both);
+
+        // supplemental ERTs
+        final FrameSample suppStr = new FrameSample();
+        suppStr.setSuppErtStr("2017-001T12:00:01.5");
+        samples.add(suppStr);
+
+        // data rates that can't be reproduced from a double
+        final FrameSample scaledRate = new FrameSample();
+        scaledRate.setTkDataRateBps(new BigDecimal("1E+3"));
+        samples.add(scaledRate);
+        final FrameSample preciseRate = new FrameSample();
+        preciseRate.setTkDataRateBps(new BigDecimal("0.12345678901234567890123"));
+        samples.add(preciseRate);
+
+        final FrameSample invalid = new FrameSample();
+        invalid.setTkValid(false);
+        samples.add(invalid);
+
+        return samples;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final List<FrameSample> samples = variedSamples();
+        final FrameSampleBatch batch = FrameSampleBatch.of(samples);
+
+        assertEquals(samples.size(), batch.size());
+        assertEquals(samples, batch.toFrameSamples());
+    }
+
+    @Test
+    public void testRowsMatchSamples() {
+        final List<FrameSample> samples = variedSamples();
+        final FrameSampleBatch batch = FrameSampleBatch.of(samples);
+
+        int i = 0;
+        for (FrameSampleBatch.Row row : batch) {
+            final FrameSample fs = samples.get(i++);
+            final String message = fs.toString();
+
+            assertEquals(fs.getSclkCoarse(), row.getSclkCoarse(), message);
+            assertEquals(fs.getSclkFine(), row.getSclkFine(), message);
+            assertEquals(fs.isErtExplicitlySet(), row.isErtExplicitlySet(), message);
+            assertEquals(fs.isErtStrExplicitlySet(), row.isErtStrExplicitlySet(), message);
+            assertEquals(fs.getErt(), row.getErt(), message);
+            assertEquals(fs.getScet(), row.getScet(), message);
+            assertEquals(fs.getPathId(), row.getPathId(), message);
+            assertEquals(fs.getVcid(), row.getVcid(), message);
+            assertEquals(fs.getVcfc(), row.getVcfc(), message);
+            assertEquals(fs.getMcfc(), row.getMcfc(), message);
+            assertEquals(fs.getTkSclkComposite(65536), row.getTkSclkComposite(65536), message);
+            assertEquals(fs.isTkVcidSet(), row.isTkVcidSet(), message);
+            assertEquals(fs.getTkVcfc(), row.getTkVcfc(), message);
+            assertEquals(fs.getTkDataRateBps().doubleValue(), row.getTkDataRateBps(), message);
+            assertEquals(fs.getTkDataRateBps(), row.getTkDataRateBpsDecimal(), message);
+            assertEquals(fs.isTkDataRateSet(), row.isTkDataRateSet(), message);
+            assertEquals(fs.getTkRfEncoding(), row.getTkRfEncoding(), message);
+            assertEquals(fs.getTkValid(), row.getTkValid(), message);
+            assertEquals(fs.getSuppVcid(), row.getSuppVcid(), message);
+            assertEquals(fs.getSuppVcfc(), row.getSuppVcfc(), message);
+            assertEquals(fs.getSuppMcfc(), row.getSuppMcfc(), message);
+            assertEquals(fs.getSuppErt(), row.getSuppErt(), message);
+            assertEquals(fs.getSuppErtStr(), row.getSuppErtStr(), message);
+            assertEquals(fs.getDerivedTdBe(), row.getDerivedTdBe(), message);
+            assertEquals(fs.isFrameSizeBitsSet(), row.isFrameSizeBitsSet(), message);
+            assertEquals(fs.getErtStr(), row.getErtStr(), message);
+        }
+    }
+
+    @Test
+    public void testErtEpochNanos() {
+        final FrameSampleBatch batch = FrameSampleBatch.of(Arrays.asList(
+                new FrameSample(),
+                sampleWithErt(new CdsTimeCode(21550, 43200123, 4567)),
+                sampleWithErtStr("2017-001T12:00:00.123456789"),
+                sampleWithErtStr("not a time")
+        ));
+
+        assertEquals(FrameSampleBatch.NO_TIME, batch.row(0).getErtEpochNanos());
+        assertEquals(IsoDoyUtc.parseToEpochNanos("2017-001T12:00:00.1234567"), batch.row(1).getErtEpochNanos());
+        assertEquals(IsoDoyUtc.parseToEpochNanos("2017-001T12:00:00.123456789"), batch.row(2).getErtEpochNanos());
+        assertEquals(FrameSampleBatch.NO_TIME, batch.row(3).getErtEpochNanos());
+    }
+
+    @Test
+    public void testSlices() {
+        final List<FrameSample> samples = variedSamples();
+        final FrameSampleBatch batch = FrameSampleBatch.of(samples);
+
+        final FrameSampleBatch slice = batch.slice(2, 9);
+        assertEquals(7, slice.size());
+        assertEquals(samples.subList(2, 9), slice.toFrameSamples());
+
+        final FrameSampleBatch sliceOfSlice = slice.slice(1, 3);
+        assertEquals(samples.subList(3, 5), sliceOfSlice.toFrameSamples());
+        assertEquals(samples.get(4), sliceOfSlice.row(1).toFrameSample());
+
+        assertTrue(batch.slice(5, 5).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.row(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.slice(0, 8));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.row(-1));
+    }
+
+    @Test
+    public void testBuilder() {
+        final List<FrameSample> samples = variedSamples();
+        final FrameSampleBatch batch = FrameSampleBatch.of(samples);
+
+        // copying rows, including those of slices, preserves them
+        final FrameSampleBatch.Builder copier = new FrameSampleBatch.Builder(1);
+        for (FrameSampleBatch.Row row : batch.slice(1, batch.size())) {
+            copier.add(row);
+        }
+        assertEquals(samples.subList(1, samples.size()), copier.build().toFrameSamples());
+
+        // rows set field by field are as the equivalent FrameSamples
+        final FrameSampleBatch built = new FrameSampleBatch.Builder()
+                .addRow()
+                .setSclkCoarse(10)
+                .setErt(new CdsTimeCode(21550, 43200123, 4567))
+                .setTkDataRateBps("-")
+                .setFrameSizeBits("-")
+                .addRow()
+                .setVcid(3)
+                .setTkDataRateBps("1234.567")
+                .setTkValid(true)
+                .build();
+
+        final FrameSample first = sampleWithErt(new CdsTimeCode(21550, 43200123, 4567));
+        first.setSclkCoarse(10);
+        final FrameSample second = new FrameSample();
+        second.setVcid(3);
+        second.setTkDataRateBps("1234.567");
+        second.setTkValid(true);
+        assertEquals(Arrays.asList(first, second), built.toFrameSamples());
+
+        final FrameSampleBatch.Builder used = new FrameSampleBatch.Builder();
+        assertThrows(IllegalStateException.class, () -> used.setVcid(1));
+        used.build();
+        assertThrows(IllegalStateException.class, used::addRow);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(FrameSampleBatch.empty().isEmpty());
+        assertTrue(FrameSampleBatch.of(Collections.emptyList()).isEmpty());
+        assertEquals(Collections.emptyList(), FrameSampleBatch.empty().toFrameSamples());
+        assertFalse(FrameSampleBatch.empty().iterator().hasNext());
+    }
+}
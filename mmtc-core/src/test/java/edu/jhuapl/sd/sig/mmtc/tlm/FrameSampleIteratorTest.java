@@ -0,0 +1,84 @@
+package edu.jhuapl.sd.sig.mmtc.tlm;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.CdsTimeCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameSampleIteratorTest {
+
+    private static FrameSample sample(int msOfDay, int vcfc) {
+        final FrameSample fs = new FrameSample();
+        fs.setErt(new CdsTimeCode(21550, msOfDay, 0));
+        fs.setVcfc(vcfc);
+        return fs;
+    }
+
+    private static List<FrameSample> readAll(FrameSampleIterator samples) throws MmtcException {
+        final List<FrameSample> read = new ArrayList<>();
+        try (FrameSampleIterator it = samples) {
+            while (it.hasNext()) {
+                read.add(it.next());
+            }
+        }
+        return read;
+    }
+
+    @Test
+    public void testListInErtOrder() throws MmtcException {
+        final FrameSample first = sample(1000, 0);
+        final FrameSample second = sample(2000, 1);
+        final FrameSample secondTie = sample(2000, 2);
+        final FrameSample third = sample(3000, 3);
+        final List<FrameSample> unordered = Arrays.asList(third, second, first, secondTie);
+
+        assertEquals(Arrays.asList(first, second, secondTie, third), readAll(FrameSampleIterator.of(unordered, FrameSampleIterator.ErtOrder.OLDEST_FIRST)));
+        assertEquals(Arrays.asList(third, secondTie, second, first), readAll(FrameSampleIterator.of(unordered, FrameSampleIterator.ErtOrder.NEWEST_FIRST)));
+
+        // the given list is left as it was
+        assertEquals(Arrays.asList(third, second, first, secondTie), unordered);
+    }
+
+    @Test
+    public void testBatchInErtOrder() throws MmtcException {
+        final List<FrameSample> ordered = Arrays.asList(sample(1000, 0), sample(2000, 1), sample(2000, 2), sample(3000, 3));
+        final List<FrameSample> reversed = new ArrayList<>(ordered);
+        Collections.reverse(reversed);
+
+        assertEquals(ordered, readAll(FrameSampleIterator.of(FrameSampleBatch.of(ordered), FrameSampleIterator.ErtOrder.OLDEST_FIRST)));
+        assertEquals(reversed, readAll(FrameSampleIterator.of(FrameSampleBatch.of(ordered), FrameSampleIterator.ErtOrder.NEWEST_FIRST)));
+
+        final List<FrameSample> unordered = Arrays.asList(ordered.get(3), ordered.get(1), ordered.get(0), ordered.get(2));
+        assertEquals(ordered, readAll(FrameSampleIterator.of(FrameSampleBatch.of(unordered), FrameSampleIterator.ErtOrder.OLDEST_FIRST)));
+        assertEquals(reversed, readAll(FrameSampleIterator.of(FrameSampleBatch.of(unordered), FrameSampleIterator.ErtOrder.NEWEST_FIRST)));
+    }
+
+    @Test
+    public void testClosingEndsIteration() throws MmtcException {
+        final FrameSampleIterator samples = FrameSampleIterator.of(
+                Arrays.asList(sample(1000, 0), sample(2000, 1), sample(3000, 2)),
+                FrameSampleIterator.ErtOrder.NEWEST_FIRST
+        );
+
+        assertEquals(2, samples.next().getVcfc());
+        samples.close();
+        samples.close();
+
+        assertFalse(samples.hasNext());
+        assertThrows(NoSuchElementException.class, samples::next);
+    }
+
+    @Test
+    public void testEmpty() throws MmtcException {
+        assertEquals(Collections.emptyList(), readAll(FrameSampleIterator.of(Collections.emptyList(), FrameSampleIterator.ErtOrder.OLDEST_FIRST)));
+        assertEquals(Collections.emptyList(), readAll(FrameSampleIterator.of(FrameSampleBatch.empty(), FrameSampleIterator.ErtOrder.NEWEST_FIRST)));
+        assertThrows(NoSuchElementException.class, () -> FrameSampleIterator.of(FrameSampleBatch.empty(), FrameSampleIterator.ErtOrder.NEWEST_FIRST).next());
+    }
+}
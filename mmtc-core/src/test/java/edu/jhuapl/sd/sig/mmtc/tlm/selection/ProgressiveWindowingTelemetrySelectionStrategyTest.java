@@ -0,0 +1,266 @@
+package edu.jhuapl.sd.sig.mmtc.tlm.selection;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationTarget;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationCliInputConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.filter.GroundStationFilter;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleIterator;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the windowing strategies, when configured to query telemetry progressively in growing chunks, select
+ * the same sample sets as when they query the whole query interval at once.
+ */
+class ProgressiveWindowingTelemetrySelectionStrategyTest extends BaseTelemetrySelectionStrategyTest {
+    private interface StrategyFactory {
+        WindowingTelemetrySelectionStrategy create(TimeCorrelationRunConfig config, TelemetrySource tlmSource, int tk_sclk_fine_tick_modulus);
+    }
+
+    private static TimeCorrelationRunConfig withProgressiveQueries(TimeCorrelationRunConfig config, int initialChunkMinutes) throws MmtcException {
+        final TimeCorrelationRunConfig spiedConfig = Mockito.spy(config);
+        when(spiedConfig.isProgressiveWindowingSampleSetBuildingStrategyEnabled()).thenReturn(true);
+        when(spiedConfig.getProgressiveWindowingSampleSetBuildingStrategyInitialChunkMinutes()).thenReturn(initialChunkMinutes);
+        return spiedConfig;
+    }
+
+    private static void assertProgressiveQueriesSelectSameSampleSet(String configPath, String start, String stop, StrategyFactory strategyFactory, boolean groundStationFilter, int initialChunkMinutes) throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn(configPath);
+
+            final TimeCorrelationRunConfig config = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", start, stop));
+            final OffsetDateTime queryStart = config.getResolvedTargetSampleRange().get().getStart();
+            final OffsetDateTime queryStop = config.getResolvedTargetSampleRange().get().getStop();
+            final FilterFunction filterFunction = tcTarget -> !groundStationFilter || new GroundStationFilter().process(tcTarget.getSampleSet(), config);
+
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            final TimeCorrelationTarget expectedTarget = strategyFactory.create(config, tlmSource, NH_FINE_TICK_MODULUS).get(filterFunction);
+
+            final TelemetrySource progressiveTlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            final TimeCorrelationTarget progressiveTarget = strategyFactory.create(withProgressiveQueries(config, initialChunkMinutes), progressiveTlmSource, NH_FINE_TICK_MODULUS).get(filterFunction);
+
+            assertEquals(5, progressiveTarget.getSampleSet().size());
+            assertEquals(expectedTarget.getSampleSet(), progressiveTarget.getSampleSet());
+            assertEquals(expectedTarget.getTargetSample(), progressiveTarget.getTargetSample());
+
+            // the most recent chunk is queried first, and the selection finishes before the whole interval is queried
+            verify(progressiveTlmSource, times(1)).getSamplesInRange(queryStop.minusMinutes(initialChunkMinutes), queryStop);
+            verify(progressiveTlmSource, never()).getSamplesInRange(eq(queryStart), any());
+        }
+    }
+
+    @Test
+    public void testSlidingWindowSelectingLatestSamples() throws Exception {
+        assertProgressiveQueriesSelectSameSampleSet(
+                "src/test/resources/TelemetrySelection/SlidingWindowing",
+                "2006-01-20T01:00:00.000Z",
+                "2018-01-20T00:00:00.000Z",
+                WindowingTelemetrySelectionStrategy::forSlidingWindow,
+                false,
+                60
+        );
+    }
+
+    @Test
+    public void testSlidingWindowSelectingLatestSamplesWithFilter() throws Exception {
+        assertProgressiveQueriesSelectSameSampleSet(
+                "src/test/resources/TelemetrySelection/SlidingWindowing",
+                "2017-001T00:00:00.000Z",
+                "2018-001T00:00:00.000Z",
+                WindowingTelemetrySelectionStrategy::forSlidingWindow,
+                true,
+                60
+        );
+    }
+
+    @Test
+    public void testSlidingWindowSelectingLatestSamplesWithFilterLessRecent() throws Exception {
+        // with one-minute initial chunks, most candidate sample sets span chunk boundaries
+        for (int initialChunkMinutes : new int[] {1, 60, 24 * 60}) {
+            assertProgressiveQueriesSelectSameSampleSet(
+                    "src/test/resources/TelemetrySelection/SlidingWindowingOnlyStation55",
+                    "2017-001T00:00:00.000Z",
+                    "2018-001T00:00:00.000Z",
+                    WindowingTelemetrySelectionStrategy::forSlidingWindow,
+                    true,
+                    initialChunkMinutes
+            );
+        }
+    }
+
+    @Test
+    public void testSeparateConsecutiveWindowsSelectingLatestSamplesWithFilterLessRecent() throws Exception {
+        for (int initialChunkMinutes : new int[] {1, 60, 24 * 60}) {
+            assertProgressiveQueriesSelectSameSampleSet(
+                    "src/test/resources/TelemetrySelection/SeparateConsecutiveWindowingOnlyStation55",
+                    "2017-001T00:00:00.000Z",
+                    "2018-001T00:00:00.000Z",
+                    WindowingTelemetrySelectionStrategy::forSeparateConsecutiveWindows,
+                    true,
+                    initialChunkMinutes
+            );
+        }
+    }
+
+    @Test
+    public void testSelectingLatestSamplesNoneMatchingFilter() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/SlidingWindowing");
+
+            final TimeCorrelationRunConfig config = withProgressiveQueries(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-001T00:00:00.000Z", "2018-001T00:00:00.000Z")), 60);
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+
+            WindowingTelemetrySelectionStrategy tlmSelecStrat = WindowingTelemetrySelectionStrategy.forSlidingWindow(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            MmtcException thrownException = assertThrows(
+                    MmtcException.class,
+                    () -> tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::unsatisfiedFilters)
+            );
+
+            assertEquals("Unable to find valid sample set", thrownException.getMessage());
+
+            // the whole interval was queried, with the oldest chunk bounded by the start of the interval
+            verify(tlmSource, times(1)).getSamplesInRange(eq(config.getResolvedTargetSampleRange().get().getStart()), any());
+        }
+    }
+
+    @Test
+    public void testSelectingLatestSamplesNotEnoughWithinRange() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/SlidingWindowing");
+
+            final TimeCorrelationRunConfig config = withProgressiveQueries(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-353T00:00:00.000Z", "2017-354T00:00:00.000Z")), 60);
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+
+            WindowingTelemetrySelectionStrategy tlmSelecStrat = WindowingTelemetrySelectionStrategy.forSlidingWindow(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            MmtcException thrownException = assertThrows(
+                    MmtcException.class,
+                    () -> tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::satisfiedFilters)
+            );
+
+            assertEquals("Unable to find valid sample set", thrownException.getMessage());
+        }
+    }
+
+    private static final OffsetDateTime BOUNDARY_TEST_START = OffsetDateTime.of(2017, 6, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime BOUNDARY_TEST_STOP = OffsetDateTime.of(2017, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    /**
+     * @return a telemetry source whose queries are inclusive of both bounds, with a sample every 30 minutes from the
+     *         start to the stop of the boundary test range, so that some samples fall exactly on chunk boundaries
+     */
+    private static TelemetrySource sourceWithSamplesOnChunkBoundaries() throws MmtcException, TimeConvertException {
+        final List<FrameSample> allSamples = new ArrayList<>();
+        for (OffsetDateTime ert = BOUNDARY_TEST_START; !ert.isAfter(BOUNDARY_TEST_STOP); ert = ert.plusMinutes(30)) {
+            final FrameSample sample = new FrameSample();
+            sample.setErt(TimeConvert.isoUtcToCds(TimeConvert.timeToIsoUtcString(ert)));
+            sample.setPathId(14);
+            sample.setTkSclkCoarse(allSamples.size());
+            sample.setTkSclkFine(0);
+            sample.setTkDataRateBps("1000");
+            allSamples.add(sample);
+        }
+
+        final TelemetrySource tlmSource = Mockito.mock(TelemetrySource.class);
+        when(tlmSource.getSamplesInRange(any(), any())).thenAnswer(invocation -> {
+            final OffsetDateTime start = invocation.getArgument(0);
+            final OffsetDateTime stop = invocation.getArgument(1);
+            final List<FrameSample> samplesInRange = new ArrayList<>();
+            for (FrameSample sample : allSamples) {
+                final OffsetDateTime ert = sample.getErt().toTime();
+                if (!ert.isBefore(start) && !ert.isAfter(stop)) {
+                    samplesInRange.add(sample);
+                }
+            }
+            return samplesInRange;
+        });
+        return tlmSource;
+    }
+
+    private static TelemetrySelectionStrategy strategyFor(TelemetrySource tlmSource) {
+        return new TelemetrySelectionStrategy(Mockito.mock(TimeCorrelationRunConfig.class), tlmSource, NH_FINE_TICK_MODULUS) {
+            @Override
+            public TimeCorrelationTarget get(FilterFunction filterFunction) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void testSamplesOnChunkBoundariesAreReadOnce() throws Exception {
+        final TelemetrySource tlmSource = sourceWithSamplesOnChunkBoundaries();
+
+        final List<Integer> readTkSclks = new ArrayList<>();
+        try (FrameSampleIterator samples = strategyFor(tlmSource).iterateSamplesInRangeInGrowingChunks(BOUNDARY_TEST_START, BOUNDARY_TEST_STOP, Duration.ofHours(1))) {
+            while (samples.hasNext()) {
+                readTkSclks.add(samples.next().getTkSclkCoarse());
+            }
+        }
+
+        final List<Integer> expectedTkSclks = tlmSource.getSamplesInRange(BOUNDARY_TEST_START, BOUNDARY_TEST_STOP).stream()
+                .map(FrameSample::getTkSclkCoarse)
+                .collect(Collectors.toList());
+        Collections.reverse(expectedTkSclks);
+        assertEquals(9, expectedTkSclks.size());
+        assertEquals(expectedTkSclks, readTkSclks);
+
+        // chunks of 1 and 2 hours, and then the remaining hour of the range
+        verify(tlmSource).getSamplesInRange(BOUNDARY_TEST_STOP.minus(1, ChronoUnit.HOURS), BOUNDARY_TEST_STOP);
+        verify(tlmSource).getSamplesInRange(BOUNDARY_TEST_STOP.minus(3, ChronoUnit.HOURS), BOUNDARY_TEST_STOP.minus(1, ChronoUnit.HOURS));
+        verify(tlmSource).getSamplesInRange(BOUNDARY_TEST_START, BOUNDARY_TEST_STOP.minus(3, ChronoUnit.HOURS));
+    }
+
+    @Test
+    public void testOlderChunksAreNotQueriedOnceClosed() throws Exception {
+        final TelemetrySource tlmSource = sourceWithSamplesOnChunkBoundaries();
+
+        try (FrameSampleIterator samples = strategyFor(tlmSource).iterateSamplesInRangeInGrowingChunks(BOUNDARY_TEST_START, BOUNDARY_TEST_STOP, Duration.ofHours(1))) {
+            // the first chunk holds the samples at 12:00, 11:30, and 11:00
+            for (int i = 0; i < 3; i++) {
+                assertTrue(samples.hasNext());
+                samples.next();
+            }
+        }
+
+        verify(tlmSource, times(1)).getSamplesInRange(any(), any());
+    }
+}
@@ -18,6 +18,8 @@ import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -428,6 +430,173 @@ public class SamplingTelemetrySelectionStrategyTest extends BaseTelemetrySelecti
         }
     }
 
+    /**
+     * Delays each query of a spied telemetry source, and records how many queries were in flight at once and how
+     * many completed.
+     */
+    private static class InjectedLatency {
+        final AtomicInteger numInFlight = new AtomicInteger();
+        final AtomicInteger maxNumInFlight = new AtomicInteger();
+        final AtomicInteger numCompleted = new AtomicInteger();
+
+        InjectedLatency(TelemetrySource spiedTelemetrySource, Function<OffsetDateTime, Long> latencyMsForQueryStop) throws MmtcException {
+            doAnswer(invocation -> {
+                maxNumInFlight.accumulateAndGet(numInFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(latencyMsForQueryStop.apply(invocation.getArgument(1)));
+                    final Object samples = invocation.callRealMethod();
+                    numCompleted.incrementAndGet();
+                    return samples;
+                } finally {
+                    numInFlight.decrementAndGet();
+                }
+            }).when(spiedTelemetrySource).getSamplesInRange(any(), any());
+        }
+    }
+
+    private static TimeCorrelationRunConfig withPrefetchedQueries(TimeCorrelationRunConfig config, int numPrefetchedQueries) throws MmtcException {
+        final TimeCorrelationRunConfig spiedConfig = Mockito.spy(config);
+        when(spiedConfig.getSamplingSampleSetBuildingStrategyPrefetchedQueries()).thenReturn(numPrefetchedQueries);
+        return spiedConfig;
+    }
+
+    @Test
+    public void testPrefetchedQueriesSelectNewestValidSampleSet() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/Sampling/width-12h-rate-48h-OnlyStation55");
+
+            final TimeCorrelationRunConfig config = withPrefetchedQueries(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-001T00:00:00.000Z", "2017-353T00:00:00.000Z")), 4);
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+
+            // newer query ranges take longer to query than older ones, so that queries complete out of order
+            final OffsetDateTime inputStop = config.getResolvedTargetSampleRange().get().getStop();
+            final InjectedLatency latency = new InjectedLatency(tlmSource, queryStop -> Math.max(10, 250 - 5 * ChronoUnit.DAYS.between(queryStop, inputStop)));
+
+            SamplingTelemetrySelectionStrategy tlmSelecStrat = new SamplingTelemetrySelectionStrategy(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            TimeCorrelationTarget tcTarget = tlmSelecStrat.get(
+                    timeCorrelationTarget -> new GroundStationFilter().process(timeCorrelationTarget.getSampleSet(), config)
+            );
+
+            // the same sample set is chosen as when querying one range at a time
+            List<FrameSample> sampleSet = tcTarget.getSampleSet();
+
+            assertEqualTkSclk(370717291,	45881, sampleSet.get(0));
+            assertEqualTkSclk(370720301,	768, sampleSet.get(1));
+
+            assertEqualTkSclk(370723903,	12627, sampleSet.get(2));
+            assertEqualTkSclk(370723903,	12627, tcTarget.getTargetSample());
+
+            assertEqualTkSclk(370727491,	1145, sampleSet.get(3));
+            assertEqualTkSclk(370731093,	13005, sampleSet.get(4));
+
+            // the 31 query ranges needed were all queried once, along with no more than 4 beyond them, and no more than 4 at a time
+            List<Pair<OffsetDateTime, OffsetDateTime>> queriedRanges = getQueriedRanges(tlmSource);
+            queriedRanges.sort(Comparator.comparing((Pair<OffsetDateTime, OffsetDateTime> range) -> range.getRight()).reversed());
+            generalQueryPeriodAssertions(config, queriedRanges);
+            assertTrue(queriedRanges.size() >= 31 && queriedRanges.size() <= 35, "Queried " + queriedRanges.size() + " ranges");
+            assertTrue(latency.maxNumInFlight.get() > 1);
+            assertTrue(latency.maxNumInFlight.get() <= 4);
+        }
+    }
+
+    @Test
+    public void testPrefetchedQueriesCancelledOnceValidSampleSetFound() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/Sampling/width-12h-rate-48h");
+
+            final TimeCorrelationRunConfig config = withPrefetchedQueries(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-001T00:00:00.000Z", "2017-353T00:00:00.000Z")), 3);
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+
+            // only the newest query range responds promptly
+            final OffsetDateTime inputStop = config.getResolvedTargetSampleRange().get().getStop();
+            final InjectedLatency latency = new InjectedLatency(tlmSource, queryStop -> queryStop.equals(inputStop) ? 0L : 60_000L);
+
+            SamplingTelemetrySelectionStrategy tlmSelecStrat = new SamplingTelemetrySelectionStrategy(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            final long startNanos = System.nanoTime();
+            TimeCorrelationTarget tcTarget = tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::satisfiedFilters);
+            final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+            // the newest query range has enough samples, so selection does not wait on the slow, older queries
+            assertEquals(inputStop, getQueriedRanges(tlmSource).get(0).getRight());
+            assertEquals(5, tcTarget.getSampleSet().size());
+            assertTrue(elapsed.getSeconds() < 30, "Selection took " + elapsed);
+            assertTrue(getQueriedRanges(tlmSource).size() <= 4);
+            assertEquals(1, latency.numCompleted.get());
+        }
+    }
+
+    @Test
+    public void testPrefetchedQueriesNotMadeOfSourceWithoutConcurrentQueries() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/Sampling/width-12h-rate-48h");
+
+            final TimeCorrelationRunConfig config = withPrefetchedQueries(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-001T00:00:00.000Z", "2018-001T00:00:00.000Z")), 8);
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            when(tlmSource.supportsConcurrentQueries()).thenReturn(false);
+            final InjectedLatency latency = new InjectedLatency(tlmSource, queryStop -> 5L);
+
+            SamplingTelemetrySelectionStrategy tlmSelecStrat = new SamplingTelemetrySelectionStrategy(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            assertThrows(MmtcException.class, () -> tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::unsatisfiedFilters));
+
+            // every query range was still queried, but one at a time
+            assertEquals(183, getQueriedRanges(tlmSource).size());
+            assertEquals(1, latency.maxNumInFlight.get());
+        }
+    }
+
+    @Test
+    public void testPrefetchedQueriesNoneMatchingFilter() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/Sampling/width-12h-rate-48h");
+
+            final TimeCorrelationRunConfig config = withPrefetchedQueries(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-001T00:00:00.000Z", "2018-001T00:00:00.000Z")), 8);
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            new InjectedLatency(tlmSource, queryStop -> 5L);
+
+            SamplingTelemetrySelectionStrategy tlmSelecStrat = new SamplingTelemetrySelectionStrategy(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            MmtcException thrownException = assertThrows(
+                    MmtcException.class,
+                    () -> tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::unsatisfiedFilters)
+            );
+
+            assertEquals("Unable to find valid sample set", thrownException.getMessage());
+
+            // every query range was queried exactly once
+            List<Pair<OffsetDateTime, OffsetDateTime>> queriedRanges = getQueriedRanges(tlmSource);
+            queriedRanges.sort(Comparator.comparing((Pair<OffsetDateTime, OffsetDateTime> range) -> range.getRight()).reversed());
+            generalQueryPeriodAssertions(config, queriedRanges);
+            assertEquals(183, queriedRanges.size());
+        }
+    }
+
     private static List<Pair<OffsetDateTime, OffsetDateTime>> getQueriedRanges(TelemetrySource spiedTelemetrySource) {
         Collection<Invocation> invocations = mockingDetails(spiedTelemetrySource).getInvocations();
 
@@ -0,0 +1,253 @@
+package edu.jhuapl.sd.sig.mmtc.tlm.selection;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationTarget;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationCliInputConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
+import edu.jhuapl.sd.sig.mmtc.filter.GroundStationFilter;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleIterator;
+import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
+import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the windowing strategies, when configured to stream telemetry newest-first, select the same sample sets
+ * as when they retrieve the whole query interval, while reading only as many frames as they need.
+ */
+class StreamingWindowingTelemetrySelectionStrategyTest extends BaseTelemetrySelectionStrategyTest {
+    private interface StrategyFactory {
+        WindowingTelemetrySelectionStrategy create(TimeCorrelationRunConfig config, TelemetrySource tlmSource, int tk_sclk_fine_tick_modulus);
+    }
+
+    /**
+     * Counts the samples read through, and the closing of, the iterators returned by a telemetry source.
+     */
+    private static class CountingFrameSampleIterator implements FrameSampleIterator {
+        private final FrameSampleIterator samples;
+        private int numRead = 0;
+        private boolean closed = false;
+
+        CountingFrameSampleIterator(FrameSampleIterator samples) {
+            this.samples = samples;
+        }
+
+        @Override
+        public boolean hasNext() throws MmtcException {
+            return samples.hasNext();
+        }
+
+        @Override
+        public FrameSample next() throws MmtcException {
+            numRead++;
+            return samples.next();
+        }
+
+        @Override
+        public void close() throws MmtcException {
+            closed = true;
+            samples.close();
+        }
+    }
+
+    private static TimeCorrelationRunConfig withStreamingEnabled(TimeCorrelationRunConfig config) {
+        final TimeCorrelationRunConfig spiedConfig = Mockito.spy(config);
+        when(spiedConfig.isStreamingWindowingSampleSetBuildingStrategyEnabled()).thenReturn(true);
+        return spiedConfig;
+    }
+
+    private static CountingFrameSampleIterator[] countIterations(TelemetrySource tlmSource) throws MmtcException {
+        final CountingFrameSampleIterator[] iteration = new CountingFrameSampleIterator[1];
+        doAnswer(invocation -> {
+            iteration[0] = new CountingFrameSampleIterator((FrameSampleIterator) invocation.callRealMethod());
+            return iteration[0];
+        }).when(tlmSource).iterateSamplesInRange(any(), any(), any());
+        return iteration;
+    }
+
+    private static void assertStreamingSelectsSameSampleSet(String configPath, String start, String stop, StrategyFactory strategyFactory, boolean groundStationFilter) throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn(configPath);
+
+            final TimeCorrelationRunConfig config = new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", start, stop));
+            final TimeCorrelationRunConfig streamingConfig = withStreamingEnabled(config);
+            final OffsetDateTime queryStart = config.getResolvedTargetSampleRange().get().getStart();
+            final OffsetDateTime queryStop = config.getResolvedTargetSampleRange().get().getStop();
+
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            final TimeCorrelationTarget expectedTarget = strategyFactory.create(config, tlmSource, NH_FINE_TICK_MODULUS).get(
+                    tcTarget -> !groundStationFilter || new GroundStationFilter().process(tcTarget.getSampleSet(), config)
+            );
+            final int numSamplesInRange = tlmSource.getSamplesInRange(queryStart, queryStop).size();
+
+            final TelemetrySource streamedTlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            final CountingFrameSampleIterator[] iteration = countIterations(streamedTlmSource);
+            final TimeCorrelationTarget streamedTarget = strategyFactory.create(streamingConfig, streamedTlmSource, NH_FINE_TICK_MODULUS).get(
+                    tcTarget -> !groundStationFilter || new GroundStationFilter().process(tcTarget.getSampleSet(), config)
+            );
+
+            verify(streamedTlmSource, times(1)).iterateSamplesInRange(queryStart, queryStop, FrameSampleIterator.ErtOrder.NEWEST_FIRST);
+
+            assertEquals(5, streamedTarget.getSampleSet().size());
+            assertEquals(expectedTarget.getSampleSet(), streamedTarget.getSampleSet());
+            assertEquals(expectedTarget.getTargetSample(), streamedTarget.getTargetSample());
+
+            // reading stopped at the oldest frame of the chosen sample set
+            assertTrue(iteration[0].closed);
+            assertTrue(iteration[0].numRead < numSamplesInRange);
+            assertEquals(
+                    streamedTarget.getSampleSet().get(0).getErt(),
+                    tlmSource.getSamplesInRange(queryStart, queryStop).get(numSamplesInRange - iteration[0].numRead).getErt()
+            );
+        }
+    }
+
+    @Test
+    public void testSlidingWindowSelectingLatestSamples() throws Exception {
+        assertStreamingSelectsSameSampleSet(
+                "src/test/resources/TelemetrySelection/SlidingWindowing",
+                "2006-01-20T01:00:00.000Z",
+                "2018-01-20T00:00:00.000Z",
+                WindowingTelemetrySelectionStrategy::forSlidingWindow,
+                false
+        );
+    }
+
+    @Test
+    public void testSlidingWindowSelectingLatestSamplesWithFilter() throws Exception {
+        assertStreamingSelectsSameSampleSet(
+                "src/test/resources/TelemetrySelection/SlidingWindowing",
+                "2017-001T00:00:00.000Z",
+                "2018-001T00:00:00.000Z",
+                WindowingTelemetrySelectionStrategy::forSlidingWindow,
+                true
+        );
+    }
+
+    @Test
+    public void testSlidingWindowSelectingLatestSamplesWithFilterLessRecent() throws Exception {
+        assertStreamingSelectsSameSampleSet(
+                "src/test/resources/TelemetrySelection/SlidingWindowingOnlyStation55",
+                "2017-001T00:00:00.000Z",
+                "2018-001T00:00:00.000Z",
+                WindowingTelemetrySelectionStrategy::forSlidingWindow,
+                true
+        );
+    }
+
+    @Test
+    public void testSeparateConsecutiveWindowsSelectingLatestSamplesWithFilterLessRecent() throws Exception {
+        assertStreamingSelectsSameSampleSet(
+                "src/test/resources/TelemetrySelection/SeparateConsecutiveWindowingOnlyStation55",
+                "2017-001T00:00:00.000Z",
+                "2018-001T00:00:00.000Z",
+                WindowingTelemetrySelectionStrategy::forSeparateConsecutiveWindows,
+                true
+        );
+    }
+
+    @Test
+    public void testSelectingLatestSamplesNoneMatchingFilter() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/SlidingWindowing");
+
+            final TimeCorrelationRunConfig config = withStreamingEnabled(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-001T00:00:00.000Z", "2018-001T00:00:00.000Z")));
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            final CountingFrameSampleIterator[] iteration = countIterations(tlmSource);
+
+            WindowingTelemetrySelectionStrategy tlmSelecStrat = WindowingTelemetrySelectionStrategy.forSlidingWindow(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            MmtcException thrownException = assertThrows(
+                    MmtcException.class,
+                    () -> tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::unsatisfiedFilters)
+            );
+
+            assertEquals("Unable to find valid sample set", thrownException.getMessage());
+
+            // every frame in range was read before giving up
+            assertTrue(iteration[0].closed);
+            assertFalse(iteration[0].hasNext());
+            assertEquals(
+                    tlmSource.getSamplesInRange(config.getResolvedTargetSampleRange().get().getStart(), config.getResolvedTargetSampleRange().get().getStop()).size(),
+                    iteration[0].numRead
+            );
+        }
+    }
+
+    @Test
+    public void testSelectingLatestSamplesNotEnoughWithinRange() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/SlidingWindowing");
+
+            final TimeCorrelationRunConfig config = withStreamingEnabled(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2017-353T00:00:00.000Z", "2017-354T00:00:00.000Z")));
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+
+            WindowingTelemetrySelectionStrategy tlmSelecStrat = WindowingTelemetrySelectionStrategy.forSlidingWindow(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            MmtcException thrownException = assertThrows(
+                    MmtcException.class,
+                    () -> tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::satisfiedFilters)
+            );
+
+            assertEquals("Unable to find valid sample set", thrownException.getMessage());
+
+            verify(tlmSource, never()).getSamplesInRange(any(), any());
+        }
+    }
+
+    @Test
+    public void testFiltersThrowingException() throws Exception {
+        try (MockedStatic<Environment> mockedEnvironment = Mockito.mockStatic(Environment.class, Mockito.CALLS_REAL_METHODS)) {
+            mockedEnvironment
+                    .when(() -> Environment.getEnvironmentVariable("TK_CONFIG_PATH"))
+                    .thenReturn("src/test/resources/TelemetrySelection/SlidingWindowing");
+
+            final TimeCorrelationRunConfig config = withStreamingEnabled(new TimeCorrelationRunConfig(new TimeCorrelationCliInputConfig("-T", "0.0", "2006-01-20T01:00:00.000Z", "2018-01-20T00:00:00.000Z")));
+            final TelemetrySource tlmSource = getSpiedRawTelemetrySourceFor(config, RAW_TLM_TBL_NH_REFORMATTED);
+            final CountingFrameSampleIterator[] iteration = countIterations(tlmSource);
+
+            WindowingTelemetrySelectionStrategy tlmSelecStrat = WindowingTelemetrySelectionStrategy.forSlidingWindow(
+                    config,
+                    tlmSource,
+                    NH_FINE_TICK_MODULUS
+            );
+
+            MmtcException thrownException = assertThrows(
+                    MmtcException.class,
+                    () -> tlmSelecStrat.get(BaseTelemetrySelectionStrategyTest::throwingFilters)
+            );
+
+            assertEquals("Test exception from filter", thrownException.getMessage());
+
+            // the iteration is closed even though selection failed with the first candidate sample set
+            assertTrue(iteration[0].closed);
+            assertEquals(5, iteration[0].numRead);
+        }
+    }
+}
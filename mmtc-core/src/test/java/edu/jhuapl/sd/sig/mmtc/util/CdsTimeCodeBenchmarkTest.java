@@ -0,0 +1,71 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the time taken to sort a large set of frame ERTs by comparing their CDS segments directly against sorting
+ * them by their converted times, as frame samples were previously sorted.  Run with the 'benchmark' Gradle task.
+ */
+@EnabledIfSystemProperty(named = "mmtc.benchmarks", matches = "true")
+public class CdsTimeCodeBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int NUM_FRAMES = 1_000_000;
+
+    @Test
+    public void sortLatency() {
+        // a day's worth of frames at a steady rate, received slightly out of order
+        final Random random = new Random(1);
+        final List<CdsTimeCode> erts = new ArrayList<>(NUM_FRAMES);
+        for (int i = 0; i < NUM_FRAMES; i++) {
+            final long tenthsOfMicrosOfDay = (long) i * 864_000_000L / NUM_FRAMES * 1000L + random.nextInt(1000);
+            erts.add(new CdsTimeCode(24000, (int) (tenthsOfMicrosOfDay / 10_000), (int) (tenthsOfMicrosOfDay % 10_000)));
+        }
+        Collections.shuffle(erts, random);
+
+        final Comparator<CdsTimeCode> byConvertedTime = (one, other) -> {
+            try {
+                return TimeConvert.parseIsoDoyUtcStr(TimeConvert.cdsToIsoUtc(one)).compareTo(TimeConvert.parseIsoDoyUtcStr(TimeConvert.cdsToIsoUtc(other)));
+            } catch (TimeConvertException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        final List<CdsTimeCode> sortedByConvertedTime = new ArrayList<>(erts);
+        long start = System.nanoTime();
+        sortedByConvertedTime.sort(byConvertedTime);
+        final long convertedTimeNanos = System.nanoTime() - start;
+
+        final List<CdsTimeCode> sortedByEpochNanos = new ArrayList<>(erts);
+        start = System.nanoTime();
+        sortedByEpochNanos.sort(Comparator.comparingLong(CdsTimeCode::toEpochNanos));
+        final long epochNanosNanos = System.nanoTime() - start;
+
+        final List<CdsTimeCode> sortedBySegments = new ArrayList<>(erts);
+        start = System.nanoTime();
+        sortedBySegments.sort(CdsTimeCode.CHRONOLOGICAL_ORDER);
+        final long segmentsNanos = System.nanoTime() - start;
+
+        logger.info(USER_NOTICE, String.format("Frames: %d%n" +
+                        "Sort by converted time (ISO string): %10.1f ms%n" +
+                        "Sort by epoch nanos:                 %10.1f ms%n" +
+                        "Sort by CDS segments:                %10.1f ms",
+                NUM_FRAMES, convertedTimeNanos / 1e6, epochNanosNanos / 1e6, segmentsNanos / 1e6));
+
+        // the ERTs are distinct to the microsecond, so all orders agree
+        assertEquals(sortedByConvertedTime, sortedBySegments);
+        assertEquals(sortedByEpochNanos, sortedBySegments);
+    }
+}
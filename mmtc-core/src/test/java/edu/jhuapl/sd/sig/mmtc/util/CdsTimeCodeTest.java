@@ -0,0 +1,222 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the direct CDS conversions against the day-counting, string-based conversion they replace, over the full
+ * range of 16-bit CDS day segments.
+ */
+public class CdsTimeCodeTest {
+    private static final int MAX_16_BIT_CDS_DAY = 65535;
+    private static final OffsetDateTime CDS_EPOCH = OffsetDateTime.of(1958, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    /**
+     * The conversion that TimeConvert.cdsToIsoUtc performed before the direct conversion was added.
+     */
+    private static String referenceCdsToIsoUtc(int cdsDay, int cdsMsOfDay, int cdsSubMs) {
+        long utcYear = 1958;
+        int utcDoY = cdsDay;
+        int numLeapDays = Year.isLeap(utcYear) ? 1 : 0;
+
+        while (numLeapDays + 365 <= utcDoY) {
+            utcYear++;
+            utcDoY -= numLeapDays + 365;
+            numLeapDays = Year.isLeap(utcYear) ? 1 : 0;
+        }
+        utcDoY++;
+
+        int secondOfEpochDay = cdsMsOfDay / 1000;
+        int hour;
+        int minute;
+        if (secondOfEpochDay >= 86400) {
+            hour = 23;
+            minute = 59;
+        } else {
+            hour = secondOfEpochDay / 3600;
+            minute = (secondOfEpochDay / 60) % 60;
+        }
+
+        int secondOfDay = secondOfEpochDay - ((hour * 60) + minute) * 60;
+        double fracsec = (cdsMsOfDay / 1000.0) - secondOfEpochDay + (cdsSubMs / 10000000.0);
+        double second = secondOfDay + fracsec;
+
+        DecimalFormat secfmt = new DecimalFormat("00.000000");
+        secfmt.setRoundingMode(RoundingMode.HALF_UP);
+        return String.format("%4d-%03dT%02d:%02d:%s", utcYear, utcDoY, hour, minute, secfmt.format(second));
+    }
+
+    /**
+     * @return whether the reference conversion rounds this time to 60 seconds past the minute rather than carrying
+     *         into the next minute
+     */
+    private static boolean referenceRoundsUpToSixtySeconds(int msOfDay, int subMs) {
+        return msOfDay % 60_000 == 59_999 && subMs >= 9995;
+    }
+
+    private static long exactEpochNanos(int day, int msOfDay, int subMs) {
+        final OffsetDateTime t = CDS_EPOCH.plusDays(day).plus(msOfDay, ChronoUnit.MILLIS).plusNanos(subMs * 100L);
+        return t.toEpochSecond() * 1_000_000_000L + t.getNano();
+    }
+
+    @Test
+    public void conversionsMatchDayCountingOverFullRange() throws TimeConvertException {
+        final Random random = new Random(1958);
+        int numTies = 0;
+
+        for (int day = 0; day <= MAX_16_BIT_CDS_DAY; day++) {
+            for (int i = 0; i < 2; i++) {
+                final int msOfDay = random.nextInt(86_400_000);
+                final int subMs = random.nextInt(10_000);
+                final CdsTimeCode cds = new CdsTimeCode(day, msOfDay, subMs);
+
+                assertEquals(exactEpochNanos(day, msOfDay, subMs), cds.toEpochNanos(), cds.toString());
+
+                if (referenceRoundsUpToSixtySeconds(msOfDay, subMs)) {
+                    continue;
+                }
+
+                final String expectedUtc = referenceCdsToIsoUtc(day, msOfDay, subMs);
+                if (subMs % 10 == 5) {
+                    // exact ties are rounded up; the reference rounds the nearest double, which may fall either side
+                    numTies++;
+                    final long diffMicros = ChronoUnit.MICROS.between(TimeConvert.parseIsoDoyUtcStr(expectedUtc), cds.toTime());
+                    assertTrue(diffMicros == 0 || diffMicros == 1, cds + ": " + diffMicros);
+                    assertEquals(TimeConvert.timeToIsoUtcString(cds.toTime()), TimeConvert.cdsToIsoUtc(cds));
+                    continue;
+                }
+
+                assertEquals(expectedUtc, TimeConvert.cdsToIsoUtc(cds), cds.toString());
+                assertEquals(TimeConvert.parseIsoDoyUtcStr(expectedUtc), cds.toTime(), cds.toString());
+            }
+        }
+
+        assertTrue(numTies > 0);
+    }
+
+    @Test
+    public void dayAndMillisecondBoundaries() throws TimeConvertException {
+        final int[] days = {0, 1, 364, 365, 730, 731, 1095, 1096, 1460, 1461, 4382, 4383, 15340, 21915, 21916, MAX_16_BIT_CDS_DAY};
+        final int[] msOfDays = {0, 1, 999, 1000, 59_999, 60_000, 3_599_999, 3_600_000, 43_200_000, 86_399_999};
+        final int[] subMss = {0, 1, 4, 9, 10, 9990, 9994};
+
+        for (int day : days) {
+            for (int msOfDay : msOfDays) {
+                for (int subMs : subMss) {
+                    final CdsTimeCode cds = new CdsTimeCode(day, msOfDay, subMs);
+                    final String expectedUtc = referenceCdsToIsoUtc(day, msOfDay, subMs);
+
+                    assertEquals(exactEpochNanos(day, msOfDay, subMs), cds.toEpochNanos(), cds.toString());
+                    assertEquals(expectedUtc, TimeConvert.cdsToIsoUtc(cds), cds.toString());
+                    assertEquals(TimeConvert.parseIsoDoyUtcStr(expectedUtc), cds.toTime(), cds.toString());
+                }
+            }
+        }
+
+        assertEquals(0L, new CdsTimeCode(4383, 0, 0).toEpochNanos());
+        assertEquals("1970-001T00:00:00.000000", TimeConvert.cdsToIsoUtc(new CdsTimeCode(4383, 0, 0)));
+        assertEquals("2017-334T15:30:35.368558", TimeConvert.cdsToIsoUtc(new CdsTimeCode(21883, 55835368, 5580)));
+    }
+
+    @Test
+    public void fromEpochNanosInvertsToEpochNanos() {
+        final int[] days = {0, 1, 4382, 4383, 21915, MAX_16_BIT_CDS_DAY};
+        final int[] msOfDays = {0, 1, 999, 43_200_000, 86_399_999};
+        final int[] subMss = {0, 1, 9999};
+
+        for (int day : days) {
+            for (int msOfDay : msOfDays) {
+                for (int subMs : subMss) {
+                    final CdsTimeCode cds = new CdsTimeCode(day, msOfDay, subMs);
+                    assertEquals(cds, CdsTimeCode.fromEpochNanos(cds.toEpochNanos()), cds.toString());
+                }
+            }
+        }
+
+        assertEquals(new CdsTimeCode(4383, 0, 0), CdsTimeCode.fromEpochNanos(0));
+        assertThrows(IllegalArgumentException.class, () -> CdsTimeCode.fromEpochNanos(150));
+        assertThrows(IllegalArgumentException.class, () -> CdsTimeCode.fromEpochNanos(new CdsTimeCode(0, 0, 0).toEpochNanos() - 100));
+    }
+
+    @Test
+    public void roundingCarriesIntoTheNextMinuteAndDay() throws TimeConvertException {
+        assertEquals("2000-001T00:01:00.000000", TimeConvert.cdsToIsoUtc(new CdsTimeCode(15340, 59_999, 9995)));
+        assertEquals("2000-002T00:00:00.000000", TimeConvert.cdsToIsoUtc(new CdsTimeCode(15340, 86_399_999, 9999)));
+        assertEquals(
+                LocalDate.of(2000, 1, 2).atStartOfDay().atOffset(ZoneOffset.UTC),
+                new CdsTimeCode(15340, 86_399_999, 9999).toTime()
+        );
+    }
+
+    @Test
+    public void leapSecondsAreConvertedAsBefore() throws TimeConvertException {
+        // 2016-366T23:59:60.5
+        final CdsTimeCode duringLeapSecond = new CdsTimeCode(21549, 86_400_500, 0);
+
+        assertEquals(referenceCdsToIsoUtc(21549, 86_400_500, 0), TimeConvert.cdsToIsoUtc(duringLeapSecond));
+        assertEquals("2016-366T23:59:60.500000", TimeConvert.cdsToIsoUtc(duringLeapSecond));
+        assertThrows(RuntimeException.class, duringLeapSecond::toTime);
+    }
+
+    @Test
+    public void chronologicalOrderMatchesEpochNanos() {
+        final Random random = new Random(1959);
+
+        for (int i = 0; i < 1_000_000; i++) {
+            final CdsTimeCode one = randomNearbyTimeCode(random);
+            final CdsTimeCode other = randomNearbyTimeCode(random);
+
+            assertEquals(
+                    Long.signum(Long.compare(one.toEpochNanos(), other.toEpochNanos())),
+                    Integer.signum(CdsTimeCode.CHRONOLOGICAL_ORDER.compare(one, other)),
+                    one + " vs " + other
+            );
+        }
+    }
+
+    @Test
+    public void chronologicalOrderSortsAsToTimeDid() throws TimeConvertException {
+        final Random random = new Random(1960);
+        final List<CdsTimeCode> erts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // distinct to the microsecond, so that ordering by the rounded time is unambiguous
+            erts.add(new CdsTimeCode(21000 + random.nextInt(3), random.nextInt(86_400_000), random.nextInt(1000) * 10));
+        }
+
+        final List<CdsTimeCode> byTime = new ArrayList<>(erts);
+        byTime.sort((a, b) -> {
+            try {
+                return a.toTime().compareTo(b.toTime());
+            } catch (TimeConvertException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        final List<CdsTimeCode> byFields = new ArrayList<>(erts);
+        byFields.sort(CdsTimeCode.CHRONOLOGICAL_ORDER);
+
+        assertEquals(byTime, byFields);
+
+        Collections.shuffle(byFields, random);
+        byFields.sort(CdsTimeCode.CHRONOLOGICAL_ORDER);
+        assertEquals(byTime, byFields);
+    }
+
+    private static CdsTimeCode randomNearbyTimeCode(Random random) {
+        // a small range of each segment, so that equal segments are common
+        return new CdsTimeCode(21000 + random.nextInt(2), 43_200_000 + random.nextInt(3), random.nextInt(4) * 2500);
+    }
+}
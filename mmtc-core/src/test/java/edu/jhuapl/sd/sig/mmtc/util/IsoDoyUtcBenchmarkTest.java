@@ -0,0 +1,128 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the throughput of the direct ISO DOY parser and formatter against the java.time-based conversions they
+ * replace, over a set of frame ERTs like those read from a telemetry archive.  Run with the 'benchmark' Gradle task.
+ */
+@EnabledIfSystemProperty(named = "mmtc.benchmarks", matches = "true")
+public class IsoDoyUtcBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int NUM_ERTS = 100_000;
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int ITERATIONS = 20;
+
+    private static final DateTimeFormatter ISO_UTC_DOY_FORMAT = DateTimeFormatter.ofPattern("yyyy-DDD'T'HH:mm:ss.SSSSSSSSS").withZone(ZoneOffset.UTC);
+
+    private interface Workload {
+        long run();
+    }
+
+    @Test
+    public void parseAndFormatThroughput() {
+        final Random random = new Random(1);
+        final String[] erts = new String[NUM_ERTS];
+        final OffsetDateTime[] times = new OffsetDateTime[NUM_ERTS];
+
+        OffsetDateTime ert = OffsetDateTime.of(2024, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < NUM_ERTS; i++) {
+            ert = ert.plusNanos(1_000_000_000L + random.nextInt(1_000_000_000));
+            times[i] = ert;
+            erts[i] = IsoDoyUtc.format(ert, 3 + random.nextInt(7));
+        }
+
+        for (String s : erts) {
+            final OffsetDateTime expected = javaTimeParse(s);
+            assertEquals(expected, IsoDoyUtc.parse(s), s);
+            assertEquals(expected.toEpochSecond() * 1_000_000_000L + expected.getNano(), IsoDoyUtc.parseToEpochNanos(s), s);
+        }
+
+        final double javaTimeParseNanos = measure(() -> {
+            long checksum = 0;
+            for (String s : erts) {
+                checksum += javaTimeParse(s).getNano();
+            }
+            return checksum;
+        });
+        final double directParseNanos = measure(() -> {
+            long checksum = 0;
+            for (String s : erts) {
+                checksum += IsoDoyUtc.parse(s).getNano();
+            }
+            return checksum;
+        });
+        final double directParseToEpochNanosNanos = measure(() -> {
+            long checksum = 0;
+            for (String s : erts) {
+                checksum += IsoDoyUtc.parseToEpochNanos(s);
+            }
+            return checksum;
+        });
+
+        final double javaTimeFormatNanos = measure(() -> {
+            long checksum = 0;
+            for (OffsetDateTime t : times) {
+                checksum += t.format(DateTimeFormatter.ofPattern("yyyy-DDD'T'HH:mm:ss.SSSSSS").withZone(ZoneOffset.UTC)).length();
+            }
+            return checksum;
+        });
+        final double directFormatNanos = measure(() -> {
+            long checksum = 0;
+            for (OffsetDateTime t : times) {
+                checksum += IsoDoyUtc.format(t, 6).length();
+            }
+            return checksum;
+        });
+
+        logger.info(USER_NOTICE, String.format("ERTs: %d%n" +
+                        "Parse, java.time:             %8.1f ns/op%n" +
+                        "Parse, direct:                %8.1f ns/op%n" +
+                        "Parse to epoch nanos, direct: %8.1f ns/op%n" +
+                        "Format, java.time:            %8.1f ns/op%n" +
+                        "Format, direct:               %8.1f ns/op",
+                NUM_ERTS, javaTimeParseNanos, directParseNanos, directParseToEpochNanosNanos, javaTimeFormatNanos, directFormatNanos));
+    }
+
+    /**
+     * @return the mean time per ERT, in ns, over all measured iterations of the workload
+     */
+    private static double measure(Workload workload) {
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            checksum += workload.run();
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += workload.run();
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+
+        // keep the results live so the work cannot be optimized away
+        assertNotEquals(Long.MIN_VALUE, checksum);
+
+        return (double) elapsedNanos / ITERATIONS / NUM_ERTS;
+    }
+
+    private static OffsetDateTime javaTimeParse(String utc) {
+        final StringBuilder padded = new StringBuilder(utc);
+        while (padded.length() < 27) {
+            padded.append('0');
+        }
+        return LocalDateTime.parse(padded, ISO_UTC_DOY_FORMAT).atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,227 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the direct ISO DOY parser and formatter against the java.time-based conversions they replace, over randomly
+ * generated times and strings.
+ */
+public class IsoDoyUtcTest {
+    private static final int NUM_SAMPLES = 200_000;
+
+    // the range of epoch nanoseconds, which covers years 1677 through 2262
+    private static final long MIN_EPOCH_SECOND_IN_NANOS_RANGE = Long.MIN_VALUE / 1_000_000_000L + 1;
+    private static final long MAX_EPOCH_SECOND_IN_NANOS_RANGE = Long.MAX_VALUE / 1_000_000_000L - 1;
+
+    // years 0001 through 9999
+    private static final long MIN_FOUR_DIGIT_YEAR_EPOCH_SECOND = OffsetDateTime.of(1, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+    private static final long MAX_FOUR_DIGIT_YEAR_EPOCH_SECOND = OffsetDateTime.of(9999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC).toEpochSecond();
+
+    /**
+     * The java.time-based parse that TimeConvert.parseIsoDoyUtcStr performed before the direct parser was added.
+     */
+    private static OffsetDateTime referenceParse(String utc) {
+        final String utcStr;
+        if (! utc.contains(".")) {
+            utcStr = utc + ".000000000";
+        } else if (utc.length() < 27) {
+            final StringBuilder padded = new StringBuilder(utc);
+            while (padded.length() < 27) {
+                padded.append('0');
+            }
+            utcStr = padded.toString();
+        } else if (utc.length() > 27) {
+            throw new IllegalArgumentException("Cannot convert times with higher-than-nanosecond-precision: " + utc);
+        } else {
+            utcStr = utc;
+        }
+
+        return LocalDateTime.parse(utcStr, DateTimeFormatter.ofPattern("yyyy-DDD'T'HH:mm:ss.SSSSSSSSS").withZone(ZoneOffset.UTC)).atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * The java.time-based format that TimeConvert.timeToIsoUtcString performed before the direct formatter was added.
+     */
+    private static String referenceFormat(OffsetDateTime t, int subsecondPrecision) {
+        String subsecondFormat = "";
+        for (int i = 0; i < subsecondPrecision; i++) { subsecondFormat += "S"; }
+
+        return t.format(DateTimeFormatter.ofPattern("yyyy-DDD'T'HH:mm:ss." + subsecondFormat).withZone(ZoneOffset.UTC));
+    }
+
+    private static OffsetDateTime randomTime(Random random, long minEpochSecond, long maxEpochSecond) {
+        final long epochSecond = minEpochSecond + (long) (random.nextDouble() * (maxEpochSecond - minEpochSecond));
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, random.nextInt(1_000_000_000)), ZoneOffset.UTC);
+    }
+
+    private static String randomIsoDoyString(Random random, long minEpochSecond, long maxEpochSecond) {
+        final OffsetDateTime t = randomTime(random, minEpochSecond, maxEpochSecond);
+        final int numFractionDigits = random.nextInt(10);
+
+        if (numFractionDigits == 0) {
+            // either no fraction at all, or a bare decimal point
+            return referenceFormat(t, 1).substring(0, random.nextBoolean() ? 17 : 18);
+        }
+        return referenceFormat(t, numFractionDigits);
+    }
+
+    @Test
+    public void parsingMatchesJavaTime() {
+        final Random random = new Random(20240301L);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final String utc = randomIsoDoyString(random, MIN_FOUR_DIGIT_YEAR_EPOCH_SECOND, MAX_FOUR_DIGIT_YEAR_EPOCH_SECOND);
+            assertEquals(referenceParse(utc), IsoDoyUtc.parse(utc), utc);
+        }
+    }
+
+    @Test
+    public void parsingToEpochNanosMatchesJavaTime() {
+        final Random random = new Random(20240302L);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final String utc = randomIsoDoyString(random, MIN_EPOCH_SECOND_IN_NANOS_RANGE, MAX_EPOCH_SECOND_IN_NANOS_RANGE);
+            final OffsetDateTime expected = referenceParse(utc);
+            assertEquals(expected.toEpochSecond() * 1_000_000_000L + expected.getNano(), IsoDoyUtc.parseToEpochNanos(utc), utc);
+        }
+    }
+
+    @Test
+    public void formattingMatchesJavaTime() {
+        final Random random = new Random(20240303L);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final OffsetDateTime t = randomTime(random, MIN_FOUR_DIGIT_YEAR_EPOCH_SECOND, MAX_FOUR_DIGIT_YEAR_EPOCH_SECOND);
+            final int precision = 1 + random.nextInt(9);
+            assertEquals(referenceFormat(t, precision), IsoDoyUtc.format(t, precision));
+        }
+    }
+
+    @Test
+    public void formattingEpochNanosMatchesJavaTime() {
+        final Random random = new Random(20240304L);
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final long epochNanos = random.nextLong();
+            final OffsetDateTime t = OffsetDateTime.ofInstant(
+                    Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L)),
+                    ZoneOffset.UTC
+            );
+            final int precision = 1 + random.nextInt(9);
+
+            assertEquals(referenceFormat(t, precision), IsoDoyUtc.formatEpochNanos(epochNanos, precision));
+
+            sb.setLength(0);
+            assertEquals(referenceFormat(t, precision), IsoDoyUtc.appendEpochNanos(sb, epochNanos, precision).toString());
+        }
+    }
+
+    @Test
+    public void roundTripsThroughEpochNanos() {
+        final Random random = new Random(20240305L);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final long epochNanos = random.nextLong();
+            assertEquals(epochNanos, IsoDoyUtc.parseToEpochNanos(IsoDoyUtc.formatEpochNanos(epochNanos, 9)));
+        }
+    }
+
+    @Test
+    public void formattingConvertsToUtc() {
+        final OffsetDateTime t = OffsetDateTime.of(2024, 1, 1, 1, 30, 0, 123_456_789, ZoneOffset.ofHours(5));
+        assertEquals("2023-365T20:30:00.123456", IsoDoyUtc.format(t, 6));
+        assertEquals(referenceFormat(t, 6), IsoDoyUtc.format(t, 6));
+    }
+
+    @Test
+    public void boundaryTimes() {
+        final List<String> utcs = Arrays.asList(
+                "0001-001T00:00:00",
+                "9999-365T23:59:59.999999999",
+                "1970-001T00:00:00.",
+                "1969-365T23:59:59.999999999",
+                "2016-366T23:59:59.5",
+                "2000-366T12:00:00.000000001",
+                "1900-365T00:00:00",
+                "2262-001T00:00:00"
+        );
+
+        for (String utc : utcs) {
+            assertEquals(referenceParse(utc), IsoDoyUtc.parse(utc), utc);
+        }
+    }
+
+    @Test
+    public void nonCanonicalInputsBehaveAsBefore() {
+        // accepted by java.time, but not in canonical form
+        final List<String> accepted = Arrays.asList(
+                "2019-322T24:00:00",
+                "2019-322T24:00:00.000"
+        );
+        for (String utc : accepted) {
+            assertEquals(referenceParse(utc), IsoDoyUtc.parse(utc), utc);
+        }
+
+        // rejected by java.time, with the same type of exception
+        final List<String> rejected = Arrays.asList(
+                "2019-322T21:37:15.123456789123",
+                "2019-322T21:37:15Z",
+                "2019-322T21:37:15.123Z",
+                "2019-366T00:00:00",
+                "2019-000T00:00:00",
+                "0000-001T00:00:00",
+                "2019-322T25:00:00",
+                "2019-322T21:60:00",
+                "2019-322T21:37:60",
+                "2019-322 21:37:15",
+                "2019-322T21:37:15.12a",
+                "2019-322T21:37:15,123",
+                "19-322T21:37:15",
+                "",
+                "2019-322T21:37:15.-1"
+        );
+        for (String utc : rejected) {
+            final Class<? extends Throwable> expected = assertThrows(RuntimeException.class, () -> referenceParse(utc), utc).getClass();
+            assertEquals(expected, assertThrows(RuntimeException.class, () -> IsoDoyUtc.parse(utc), utc).getClass(), utc);
+            assertEquals(expected, assertThrows(RuntimeException.class, () -> IsoDoyUtc.parseToEpochNanos(utc), utc).getClass(), utc);
+        }
+    }
+
+    @Test
+    public void outOfRangeTimesAndPrecisions() {
+        // outside the range of four-digit years, formatting falls back to java.time
+        final OffsetDateTime farFuture = OffsetDateTime.of(10000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        assertEquals(referenceFormat(farFuture, 3), IsoDoyUtc.format(farFuture, 3));
+
+        // outside the range of epoch nanoseconds
+        assertThrows(ArithmeticException.class, () -> IsoDoyUtc.parseToEpochNanos("2263-001T00:00:00"));
+        assertThrows(ArithmeticException.class, () -> IsoDoyUtc.toEpochNanos(farFuture));
+        assertEquals(Long.MAX_VALUE, IsoDoyUtc.toEpochNanosSaturated(farFuture));
+        assertEquals(Long.MIN_VALUE, IsoDoyUtc.toEpochNanosSaturated(OffsetDateTime.of(1000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)));
+
+        final OffsetDateTime t = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        assertThrows(IllegalArgumentException.class, () -> IsoDoyUtc.format(t, 0));
+        assertThrows(IllegalArgumentException.class, () -> IsoDoyUtc.format(t, 10));
+        assertThrows(IllegalArgumentException.class, () -> IsoDoyUtc.formatEpochNanos(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> IsoDoyUtc.formatEpochNanos(0, 10));
+    }
+
+    @Test
+    public void formattersAreShared() {
+        for (int precision = 1; precision <= 9; precision++) {
+            assertSame(IsoDoyUtc.getFormatter(precision), IsoDoyUtc.getFormatter(precision));
+        }
+    }
+}
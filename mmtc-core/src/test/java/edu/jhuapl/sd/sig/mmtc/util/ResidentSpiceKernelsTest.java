@@ -0,0 +1,103 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import edu.jhuapl.sd.sig.mmtc.TestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import spice.basic.CSPICE;
+import spice.basic.KernelDatabase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResidentSpiceKernelsTest {
+    private static final String LSK = "src/test/resources/nh_kernels/lsk/naif0012.tls";
+    private static final String SCLK_1454 = "src/test/resources/nh_kernels/sclk/new-horizons_1454.tsc";
+    private static final String SCLK_1876 = "src/test/resources/nh_kernels/sclk/new-horizons_1876.tsc";
+
+    private ResidentSpiceKernels residentKernels;
+
+    @BeforeEach
+    public void setup() throws TimeConvertException {
+        TestHelper.ensureSpiceIsLoadedAndUnloadAllKernels();
+        residentKernels = new ResidentSpiceKernels();
+    }
+
+    @AfterEach
+    public void teardown() {
+        residentKernels.unloadAll();
+    }
+
+    private static Map<String, String> kernels(String... pathsAndTypes) {
+        final Map<String, String> kernels = new LinkedHashMap<>();
+        for (int i = 0; i < pathsAndTypes.length; i += 2) {
+            kernels.put(pathsAndTypes[i], pathsAndTypes[i + 1]);
+        }
+        return kernels;
+    }
+
+    private static List<String> loadedKernelsInLoadOrder() throws Exception {
+        final List<String> files = new ArrayList<>();
+        for (int i = 0; i < CSPICE.ktotal("ALL"); i++) {
+            files.add(KernelDatabase.getFileName(i, "all"));
+        }
+        return files;
+    }
+
+    @Test
+    public void testUnchangedKernelsAreRetained() throws Exception {
+        residentKernels.load(kernels(LSK, "lsk", SCLK_1454, "sclk"));
+        assertEquals(Arrays.asList(LSK, SCLK_1454), loadedKernelsInLoadOrder());
+
+        // the LSK is not reloaded, so it remains ahead of the newly-loaded SCLK kernel
+        residentKernels.load(kernels(SCLK_1876, "sclk", LSK, "lsk"));
+        assertEquals(Arrays.asList(LSK, SCLK_1876), loadedKernelsInLoadOrder());
+    }
+
+    @Test
+    public void testReorderedKernelsOfTheSameTypeAreReloaded() throws Exception {
+        residentKernels.load(kernels(LSK, "lsk", SCLK_1454, "sclk", SCLK_1876, "sclk"));
+        assertEquals(Arrays.asList(LSK, SCLK_1454, SCLK_1876), loadedKernelsInLoadOrder());
+
+        residentKernels.load(kernels(LSK, "lsk", SCLK_1876, "sclk", SCLK_1454, "sclk"));
+        assertEquals(Arrays.asList(LSK, SCLK_1876, SCLK_1454), loadedKernelsInLoadOrder());
+
+        // dropping the later kernel of a type retains the earlier one
+        residentKernels.load(kernels(LSK, "lsk", SCLK_1876, "sclk"));
+        assertEquals(Arrays.asList(LSK, SCLK_1876), loadedKernelsInLoadOrder());
+    }
+
+    @Test
+    public void testModifiedKernelIsReloaded() throws Exception {
+        final Path modifiableLsk = Files.createTempFile("mmtc-test-resident-kernels-", ".tls");
+        try {
+            Files.copy(Paths.get(LSK), modifiableLsk, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+
+            residentKernels.load(kernels(modifiableLsk.toString(), "lsk", SCLK_1454, "sclk"));
+            assertEquals(Arrays.asList(modifiableLsk.toString(), SCLK_1454), loadedKernelsInLoadOrder());
+
+            assertTrue(modifiableLsk.toFile().setLastModified(modifiableLsk.toFile().lastModified() + 10_000));
+
+            residentKernels.load(kernels(modifiableLsk.toString(), "lsk", SCLK_1454, "sclk"));
+            assertEquals(Arrays.asList(SCLK_1454, modifiableLsk.toString()), loadedKernelsInLoadOrder());
+        } finally {
+            residentKernels.unloadAll();
+            Files.delete(modifiableLsk);
+        }
+    }
+
+    @Test
+    public void testKernelsUnloadedElsewhereAreReloaded() throws Exception {
+        residentKernels.load(kernels(LSK, "lsk", SCLK_1454, "sclk"));
+
+        TimeConvert.unloadSpiceKernels();
+        assertEquals(Collections.emptyList(), loadedKernelsInLoadOrder());
+
+        residentKernels.load(kernels(LSK, "lsk", SCLK_1454, "sclk"));
+        assertEquals(Arrays.asList(LSK, SCLK_1454), loadedKernelsInLoadOrder());
+    }
+}
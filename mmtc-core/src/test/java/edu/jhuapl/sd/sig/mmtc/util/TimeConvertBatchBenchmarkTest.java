@@ -0,0 +1,116 @@
+package edu.jhuapl.sd.sig.mmtc.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import spice.basic.CSPICE;
+import spice.basic.SpiceErrorException;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the time taken to convert a large set of frames' SCLKs and TDTs one at a time against converting them with
+ * the batch conversions in TimeConvert.  Run with the 'benchmark' Gradle task.
+ * <p>
+ * Like MMTC's other benchmarks, this is a plain JUnit test rather than a JMH harness, so it needs no additional build
+ * tooling; each conversion is warmed up before it is timed, and its mean over several iterations is reported.
+ */
+@EnabledIfSystemProperty(named = "mmtc.benchmarks", matches = "true")
+public class TimeConvertBatchBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int SPICE_NH_SC_ID = -98;
+    private static final int NUM_FRAMES = 100_000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 5;
+
+    @BeforeAll
+    static void setup() throws TimeConvertException {
+        if (! TimeConvert.spiceLibLoaded()) {
+            TimeConvert.loadSpiceLib();
+        }
+        TimeConvert.unloadSpiceKernels();
+
+        Map<String, String> kernelsToLoad = new HashMap<>();
+        kernelsToLoad.put("src/test/resources/nh_kernels/lsk/naif0012.tls", "lsk");
+        kernelsToLoad.put("src/test/resources/nh_kernels/sclk/new-horizons_1454.tsc", "sclk");
+        TimeConvert.loadSpiceKernels(kernelsToLoad);
+    }
+
+    @AfterAll
+    static void teardown() {
+        TimeConvert.unloadSpiceKernels();
+    }
+
+    @Test
+    public void conversionLatency() throws Exception {
+        // the encoded SCLKs of a few years of frames
+        final Random random = new Random(1);
+        final double[] encSclks = new double[NUM_FRAMES];
+        for (int i = 0; i < NUM_FRAMES; i++) {
+            encSclks[i] = 2.0e13 + random.nextDouble() * 5.0e12;
+        }
+
+        final double[] scalarTdts = scalarEncSclkToTdt(encSclks);
+        final double[] batchTdts = TimeConvert.etToTdt(TimeConvert.encSclkToEt(SPICE_NH_SC_ID, encSclks));
+        assertArrayEquals(scalarTdts, batchTdts);
+        assertArrayEquals(scalarTdtToUtc(scalarTdts), TimeConvert.tdtToUtc(batchTdts, 9));
+
+        final double scalarTdtMillis = measure(() -> scalarEncSclkToTdt(encSclks));
+        final double batchTdtMillis = measure(() -> TimeConvert.etToTdt(TimeConvert.encSclkToEt(SPICE_NH_SC_ID, encSclks)));
+        final double scalarScetMillis = measure(() -> scalarTdtToUtc(scalarTdts));
+        final double batchScetMillis = measure(() -> TimeConvert.tdtToUtc(batchTdts, 9));
+
+        logger.info(USER_NOTICE, String.format("Frames: %d%n" +
+                        "Encoded SCLK to TDT, scalar: %10.1f ms%n" +
+                        "Encoded SCLK to TDT, batch:  %10.1f ms%n" +
+                        "TDT to SCET (UTC), scalar:   %10.1f ms%n" +
+                        "TDT to SCET (UTC), batch:    %10.1f ms",
+                NUM_FRAMES, scalarTdtMillis, batchTdtMillis, scalarScetMillis, batchScetMillis));
+    }
+
+    private interface Workload {
+        Object run() throws Exception;
+    }
+
+    /**
+     * @return the mean time, in ms, over all measured iterations of the workload
+     */
+    private static double measure(Workload workload) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertNotNull(workload.run());
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            // keep the results live so the work cannot be optimized away
+            assertNotNull(workload.run());
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+
+    private static double[] scalarEncSclkToTdt(double[] encSclks) throws SpiceErrorException {
+        final double[] tdts = new double[encSclks.length];
+        for (int i = 0; i < encSclks.length; i++) {
+            tdts[i] = TimeConvert.etToTdt(CSPICE.sct2e(SPICE_NH_SC_ID, encSclks[i]));
+        }
+        return tdts;
+    }
+
+    private static OffsetDateTime[] scalarTdtToUtc(double[] tdts) throws TimeConvertException {
+        final OffsetDateTime[] utcs = new OffsetDateTime[tdts.length];
+        for (int i = 0; i < tdts.length; i++) {
+            utcs[i] = TimeConvert.tdtToUtc(tdts[i], 9);
+        }
+        return utcs;
+    }
+}
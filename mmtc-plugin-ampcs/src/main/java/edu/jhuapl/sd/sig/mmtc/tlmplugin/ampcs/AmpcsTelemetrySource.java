@@ -3,6 +3,7 @@ package edu.jhuapl.sd.sig.mmtc.tlmplugin.ampcs;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -22,6 +23,7 @@ import java.util.stream.Stream;
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
 import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
+import edu.jhuapl.sd.sig.mmtc.metrics.jfr.SubprocessEvent;
 import edu.jhuapl.sd.sig.mmtc.tlm.TimekeepingPacketParser;
 import edu.jhuapl.sd.sig.mmtc.tlmplugin.ampcs.chanvals.ChanValReadConfig;
 import edu.jhuapl.sd.sig.mmtc.tlmplugin.ampcs.chanvals.ChanValsReader;
@@ -135,6 +137,12 @@ public abstract class AmpcsTelemetrySource implements TelemetrySource {
         }
     }
 
+    @Override
+    public void resetOptions() throws MmtcException {
+        setSessionId(null);
+        this.connectionParms = ampcsConfig == null ? null : ampcsConfig.getConnectionParms();
+    }
+
     @Override
     public Map<String, String> sandboxTelemetrySourceConfiguration(MmtcConfig mmtcConfig, Path sandboxRoot, Path sandboxConfigRoot) throws IOException {
         final Path originalTkPacketDescriptionFilePath = Paths.get(mmtcConfig.getString("telemetry.source.plugin.ampcs.tkpacket.tkPacketDescriptionFile.path"));
@@ -487,12 +495,20 @@ public abstract class AmpcsTelemetrySource implements TelemetrySource {
      * exceptions, and should be avoided until the {@code AmpcsTelemetrySource} instance is reset.
      * To reset the instance, call {@code disconnect()} and then {@code connect(String)} again.
      *
+     * Each run is recorded as a {@link SubprocessEvent} in any running flight recording.
+     *
      * @param cmd IN: the command text to execute
      * @param ignoreExitCode IN: whether to allow (and not throw on) nonzero exit codes
      * @return the process's stdout
      * @throws IOException if an error occurred during the run or while reading stdout/stderr
      */
     protected String runSubprocess(String cmd, boolean ignoreExitCode) throws IOException {
+        try (SubprocessEvent subprocessEvent = SubprocessEvent.begin(cmd)) {
+            return runSubprocess(cmd, ignoreExitCode, subprocessEvent);
+        }
+    }
+
+    private String runSubprocess(String cmd, boolean ignoreExitCode, SubprocessEvent subprocessEvent) throws IOException {
         if (! connectedToAmpcs) {
             throw new IllegalStateException("Not connected to AMPCS.");
         }
@@ -544,6 +560,7 @@ public abstract class AmpcsTelemetrySource implements TelemetrySource {
                 throw new IOException(String.format("Process did not complete after %d seconds", chillTimeoutSec));
             }
 
+            subprocessEvent.setExitCode(p.exitValue());
             if (!ignoreExitCode && p.exitValue() != 0) {
                 executorService.shutdownNow();
                 throw new IOException(String.format("Process exited with code %d", p.exitValue()));
@@ -555,7 +572,11 @@ public abstract class AmpcsTelemetrySource implements TelemetrySource {
         }
 
         // return stdout
-        return stdoutStringBuffer.toString();
+        final String stdout = stdoutStringBuffer.toString();
+        if (subprocessEvent.isEnabled()) {
+            subprocessEvent.setStdoutBytes(stdout.getBytes(Charset.defaultCharset()).length);
+        }
+        return stdout;
     }
 
     /**
@@ -12,6 +12,7 @@ import edu.jhuapl.sd.sig.mmtc.tlm.TimekeepingPacketParser;
 import edu.jhuapl.sd.sig.mmtc.tlm.TimekeepingRecord;
 import edu.jhuapl.sd.sig.mmtc.tlm.persistence.cache.OffsetDateTimeRange;
 import edu.jhuapl.sd.sig.mmtc.util.Environment;
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -656,24 +657,26 @@ public class AmpcsTlmWithFrames extends AmpcsTelemetrySource {
             }
 
             public Optional<CSVRecord> findLatestFrameMatching(OffsetDateTime beginErt, OffsetDateTime endErt, int vcid, int vcfc) {
+                final long beginErtEpochNanos = IsoDoyUtc.toEpochNanosSaturated(beginErt);
+                final long endErtEpochNanos = IsoDoyUtc.toEpochNanosSaturated(endErt);
+
                 List<CSVRecord> matchingSortedRecords = this.results
                         .stream()
                         .filter(rec -> {
                             // the actual target frame must be within ERT bounds and have the expected VCID and VCFC
-                            final OffsetDateTime frameErt = TimeConvert.parseIsoDoyUtcStr(rec.get(ampcsConfig.getFrameErtFieldName()));
+                            final long frameErtEpochNanos = IsoDoyUtc.parseToEpochNanos(rec.get(ampcsConfig.getFrameErtFieldName()));
 
-                            final boolean isWithinBeginErtBound = frameErt.isEqual(beginErt) || frameErt.isAfter(beginErt);
-                            final boolean isWithinEndErtBound = frameErt.isEqual(endErt) || frameErt.isBefore(endErt);
+                            final boolean isWithinBeginErtBound = frameErtEpochNanos >= beginErtEpochNanos;
+                            final boolean isWithinEndErtBound = frameErtEpochNanos <= endErtEpochNanos;
                             final boolean matchesVcidAndVcfc = (Integer.parseInt(rec.get(ampcsConfig.getFrameVcidFieldName())) == vcid)
                                     && (Integer.parseInt(rec.get(ampcsConfig.getFrameVcfcFieldName())) == vcfc);
 
                             return isWithinBeginErtBound && isWithinEndErtBound && matchesVcidAndVcfc;
                         })
-                        .sorted((a,b) -> {
-                            OffsetDateTime aErt = TimeConvert.parseIsoDoyUtcStr(a.get(ampcsConfig.getFrameErtFieldName()));
-                            OffsetDateTime bErt = TimeConvert.parseIsoDoyUtcStr(b.get(ampcsConfig.getFrameErtFieldName()));
-                            return bErt.compareTo(aErt);
-                        })
+                        .sorted((a,b) -> Long.compare(
+                                IsoDoyUtc.parseToEpochNanos(b.get(ampcsConfig.getFrameErtFieldName())),
+                                IsoDoyUtc.parseToEpochNanos(a.get(ampcsConfig.getFrameErtFieldName()))
+                        ))
                         .collect(Collectors.toList());
 
                 Optional<CSVRecord> latestMatching = matchingSortedRecords.stream().findFirst();
@@ -1,10 +1,9 @@
 package edu.jhuapl.sd.sig.mmtc.tlmplugin.ampcs.chanvals;
 
 import edu.jhuapl.sd.sig.mmtc.tlmplugin.ampcs.AmpcsTelemetrySourceConfig;
-import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.IsoDoyUtc;
 import org.apache.commons.csv.CSVRecord;
 
-import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,7 +12,7 @@ import java.util.function.Function;
 
 public class SingleChanValReader {
     private final String targetChannelId;
-    private final OffsetDateTime targetScet;
+    private final long targetScetEpochNanos;
     private final String numericalColToRead;
     private final AmpcsTelemetrySourceConfig config;
 
@@ -22,12 +21,13 @@ public class SingleChanValReader {
     private final Function<Double, Boolean> acceptanceCriterion;
 
     private OffsetDateTime closestScet = null;
+    private long closestScetDistanceNanos = Long.MAX_VALUE;
     private Double closestValue = Double.NaN;
 
     public SingleChanValReader(AmpcsTelemetrySourceConfig config, ChanValReadConfig readConfig, OffsetDateTime targetScet) {
         this.config = config;
         this.targetChannelId = readConfig.channelId;
-        this.targetScet = targetScet;
+        this.targetScetEpochNanos = IsoDoyUtc.toEpochNanos(targetScet);
         this.numericalColToRead = readConfig.readField;
         this.retainAll = readConfig.retainAll;
         this.acceptanceCriterion = readConfig.acceptanceCriterion;
@@ -51,10 +51,12 @@ public class SingleChanValReader {
             return;
         }
 
-        final OffsetDateTime newScet = TimeConvert.parseIsoDoyUtcStr(channelRow.get(config.getChannelScetFieldName()));
+        final OffsetDateTime newScet = IsoDoyUtc.parse(channelRow.get(config.getChannelScetFieldName()));
+        final long newScetDistanceNanos = Math.abs(IsoDoyUtc.toEpochNanos(newScet) - targetScetEpochNanos);
 
-        if (closestScet == null || (Duration.between(newScet, targetScet).abs().compareTo(Duration.between(closestScet, targetScet).abs()) < 0)) {
+        if (closestScet == null || newScetDistanceNanos < closestScetDistanceNanos) {
             closestScet = newScet;
+            closestScetDistanceNanos = newScetDistanceNanos;
             closestValue = newValue;
             valuesByScet.put(newScet, newValue);
         }
@@ -57,6 +57,17 @@ public class AmpcsTlmArchiveTests {
 
      */
 
+    @Test
+    void testResetOptionsClearsSessionId() throws Exception {
+        AmpcsTlmArchive tlmArchive = new AmpcsTlmArchive();
+
+        tlmArchive.applyOption(AmpcsTelemetrySource.AMPCS_SESSION_ID_OPT, "10");
+        assertEquals("10", tlmArchive.getSessionId());
+
+        tlmArchive.resetOptions();
+        assertNull(tlmArchive.getSessionId());
+    }
+
     @Test
     void testUseUnallowableFilter() throws Exception {
         TimeCorrelationRunConfig mockedConfig = mock(TimeCorrelationRunConfig.class);
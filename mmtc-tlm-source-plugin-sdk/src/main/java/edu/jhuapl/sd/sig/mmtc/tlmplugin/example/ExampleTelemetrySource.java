@@ -5,6 +5,7 @@ import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfig;
 import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
 import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationRunConfig;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSampleIterator;
 import edu.jhuapl.sd.sig.mmtc.tlm.TelemetrySource;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
@@ -23,7 +24,8 @@ public class ExampleTelemetrySource implements TelemetrySource {
     // a typical implementation of a telemetry source will not need to know such values, as they should be read directly from the underlying source
     final int MAX_VCFC = 2048;
 
-    int maxNumFramesToGenerate = 2000;
+    private static final int DEFAULT_MAX_NUM_FRAMES_TO_GENERATE = 2000;
+    int maxNumFramesToGenerate = DEFAULT_MAX_NUM_FRAMES_TO_GENERATE;
 
     private MmtcConfigWithTlmSource config;
 
@@ -73,6 +75,12 @@ public class ExampleTelemetrySource implements TelemetrySource {
         }
     }
 
+    @Override
+    public void resetOptions() {
+        // called between commands by long-running MMTC processes, so that an option given to one command does not carry over to the next
+        this.maxNumFramesToGenerate = DEFAULT_MAX_NUM_FRAMES_TO_GENERATE;
+    }
+
     @Override
     public void checkCorrelationConfiguration(TimeCorrelationRunConfig config) throws MmtcException {
         /*
@@ -142,8 +150,31 @@ public class ExampleTelemetrySource implements TelemetrySource {
          *
          * It is critical that these FrameSamples are populated accurately and precisely.  Any deficiency here could result in inaccurate or incorrect time correlation products being produced.  It is vital that the plugin developer and mission test the end-to-end implementation of MMTC.
          *
-         * For this example plugin, we'll generate some FrameSamples that mimic sequential frames downlinked from a spacecraft.
-         * A realistic plugin would interface with the underlying telemetry source (making web calls to a webservice, using RPCs, running subprocesses, etc.)
+         * For this example plugin, the FrameSamples are produced by the streaming form of this method below, so here we simply read all of them into a list.
+         */
+        List<FrameSample> results = new ArrayList<>();
+
+        try (FrameSampleIterator samples = iterateSamplesInRange(start, stop, FrameSampleIterator.ErtOrder.OLDEST_FIRST)) {
+            while (samples.hasNext()) {
+                results.add(samples.next());
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public FrameSampleIterator iterateSamplesInRange(OffsetDateTime start, OffsetDateTime stop, FrameSampleIterator.ErtOrder order) throws MmtcException {
+        /*
+         * This is the streaming form of getSamplesInRange: rather than returning all FrameSamples within the given time range at once, it returns them one at a time, in the requested ERT order.
+         * MMTC may close the returned iterator as soon as it has found a suitable sample set (e.g. when the windowing sample set building strategies are configured to stream telemetry), so a
+         * plugin that reads its telemetry incrementally (e.g. page by page from a webservice, or line by line from a subprocess) can avoid retrieving telemetry that MMTC does not need.
+         *
+         * Implementing this method is optional; by default, MMTC sorts the results of getSamplesInRange.
+         *
+         * For this example plugin, we'll generate FrameSamples that mimic sequential frames downlinked from a spacecraft, one per call to next(), starting from either end of the time range.
+         * A realistic plugin would interface with the underlying telemetry source (making web calls to a webservice, using RPCs, running subprocesses, etc.), and would release any
+         * resources held for the query (connections, subprocesses, etc.) in close().
          */
 
         // for the purposes of this example, assume a 100kbps downlink data rate
@@ -159,64 +190,83 @@ public class ExampleTelemetrySource implements TelemetrySource {
         final int frameSizeBits = 16384;
         final int framePeriodMs = (int) (((frameSizeBits * 1.0) / downlinkDataRateBps) * 1000);
 
-        OffsetDateTime currentErt = start;
-        OffsetDateTime nextErt = start.plus(framePeriodMs, ChronoUnit.MILLIS);
-        int currentVcfc = 0;
+        // frames are generated every framePeriodMs from the start of the range, up to the end of the range or maxNumFramesToGenerate (an example use of a command-line argument), whichever comes first
+        final int numFrames = stop.isBefore(start) ? 0 : (int) Math.min(maxNumFramesToGenerate, Duration.between(start, stop).toMillis() / framePeriodMs + 1);
 
-        List<FrameSample> results = new ArrayList<>();
+        return new FrameSampleIterator() {
+            private int numFramesRead = 0;
 
-        // maxNumFramesToGenerate is an example use of a commnad-line argument
-        while (! currentErt.isAfter(stop) && results.size() < maxNumFramesToGenerate) {
-            FrameSample frameSample = new FrameSample();
+            @Override
+            public boolean hasNext() {
+                return numFramesRead < numFrames;
+            }
 
-            // -------- these values are usually sourced from the 'current' frame --------
+            @Override
+            public FrameSample next() throws MmtcException {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
 
-            frameSample.setFrameSizeBits(frameSizeBits);
+                final int frameIndex = order == FrameSampleIterator.ErtOrder.OLDEST_FIRST ? numFramesRead : numFrames - 1 - numFramesRead;
+                numFramesRead++;
 
-            // of course, in reality the ERT and the SCLK will come from independent sources, but for this example we'll use them together to generate sane fake telemetry
-            final SclkPair currentSclkPair = generateFakeSclkPair(currentErt);
-            frameSample.setSclkCoarse(currentSclkPair.coarseTicks);
-            frameSample.setSclkFine(currentSclkPair.fineTicks);
+                final OffsetDateTime currentErt = start.plus((long) frameIndex * framePeriodMs, ChronoUnit.MILLIS);
+                final OffsetDateTime nextErt = currentErt.plus(framePeriodMs, ChronoUnit.MILLIS);
+                return generateFakeFrameSample(frameSizeBits, currentErt, nextErt, frameIndex);
+            }
 
-            try {
-                frameSample.setErt(TimeConvert.isoUtcToCds(TimeConvert.timeToIsoUtcString(currentErt)));
-            } catch (TimeConvertException e) {
-                throw new MmtcException("Could not convert ERT to CDS", e);
+            @Override
+            public void close() {
+                // nothing to release in this example
+                numFramesRead = numFrames;
             }
+        };
+    }
 
-            // pretend that these frames are all downlinked via DSS-14
-            frameSample.setPathId(14);
+    private FrameSample generateFakeFrameSample(int frameSizeBits, OffsetDateTime currentErt, OffsetDateTime nextErt, int currentVcfc) throws MmtcException {
+        FrameSample frameSample = new FrameSample();
 
-            frameSample.setVcid(0);
-            frameSample.setVcfc(currentVcfc % MAX_VCFC);
+        // -------- these values are usually sourced from the 'current' frame --------
 
-            // -------- these values are usually sourced from the 'next' frame --------
+        frameSample.setFrameSizeBits(frameSizeBits);
 
-            // final SclkPair nextSclkPair = generateFakeSclkPair(nextErt);
-            // NOTE: the actual 'tk' values should come from a following packet, but for the purposes of this example, we'll reuse the same ones
-            frameSample.setTkSclkCoarse(currentSclkPair.coarseTicks);
-            frameSample.setTkSclkFine(currentSclkPair.fineTicks);
-            frameSample.setTkVcid(0);
-            frameSample.setTkVcfc(currentVcfc % MAX_VCFC);
+        // of course, in reality the ERT and the SCLK will come from independent sources, but for this example we'll use them together to generate sane fake telemetry
+        final SclkPair currentSclkPair = generateFakeSclkPair(currentErt);
+        frameSample.setSclkCoarse(currentSclkPair.coarseTicks);
+        frameSample.setSclkFine(currentSclkPair.fineTicks);
 
-            // -------- these values are usually sourced from the 'next' frame --------
-            frameSample.setSuppVcid(0);
-            frameSample.setSuppVcfc((currentVcfc + 1) % MAX_VCFC);
+        try {
+            frameSample.setErt(TimeConvert.isoUtcToCds(TimeConvert.timeToIsoUtcString(currentErt)));
+        } catch (TimeConvertException e) {
+            throw new MmtcException("Could not convert ERT to CDS", e);
+        }
 
-            try {
-                frameSample.setSuppErt(TimeConvert.isoUtcToCds(TimeConvert.timeToIsoUtcString(nextErt)));
-            } catch (TimeConvertException e) {
-                throw new MmtcException("Could not convert ERT to CDS", e);
-            }
+        // pretend that these frames are all downlinked via DSS-14
+        frameSample.setPathId(14);
+
+        frameSample.setVcid(0);
+        frameSample.setVcfc(currentVcfc % MAX_VCFC);
 
-            results.add(frameSample);
+        // -------- these values are usually sourced from the 'next' frame --------
 
-            currentVcfc += 1;
-            currentErt = nextErt;
-            nextErt = currentErt.plus(framePeriodMs, ChronoUnit.MILLIS);
+        // final SclkPair nextSclkPair = generateFakeSclkPair(nextErt);
+        // NOTE: the actual 'tk' values should come from a following packet, but for the purposes of this example, we'll reuse the same ones
+        frameSample.setTkSclkCoarse(currentSclkPair.coarseTicks);
+        frameSample.setTkSclkFine(currentSclkPair.fineTicks);
+        frameSample.setTkVcid(0);
+        frameSample.setTkVcfc(currentVcfc % MAX_VCFC);
+
+        // -------- these values are usually sourced from the 'next' frame --------
+        frameSample.setSuppVcid(0);
+        frameSample.setSuppVcfc((currentVcfc + 1) % MAX_VCFC);
+
+        try {
+            frameSample.setSuppErt(TimeConvert.isoUtcToCds(TimeConvert.timeToIsoUtcString(nextErt)));
+        } catch (TimeConvertException e) {
+            throw new MmtcException("Could not convert ERT to CDS", e);
         }
 
-        return results;
+        return frameSample;
     }
 
     // internal utility class
@@ -8,8 +8,12 @@ import edu.jhuapl.sd.sig.mmtc.webapp.auth.AutoGenBasicHttpAuthorizationService;
 import edu.jhuapl.sd.sig.mmtc.webapp.auth.NoopAuthorizationService;
 import edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig;
 import edu.jhuapl.sd.sig.mmtc.webapp.controller.*;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.WebAppMetrics;
 import edu.jhuapl.sd.sig.mmtc.webapp.service.OutputProductService;
 import edu.jhuapl.sd.sig.mmtc.webapp.service.TelemetryService;
+import edu.jhuapl.sd.sig.mmtc.webapp.spice.InProcessSpiceBackend;
+import edu.jhuapl.sd.sig.mmtc.webapp.spice.SpiceBackend;
+import edu.jhuapl.sd.sig.mmtc.webapp.spice.SpiceWorkerPool;
 import edu.jhuapl.sd.sig.mmtc.webapp.util.MmtcObjectMapper;
 import io.javalin.Javalin;
 import io.javalin.json.JavalinJackson;
@@ -20,6 +24,7 @@ import org.eclipse.jetty.util.ssl.SslContextFactory;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 public class MmtcWebApp {
@@ -27,7 +32,9 @@ public class MmtcWebApp {
 
     private final Javalin javalinApp;
     private final MmtcWebAppConfig config;
+    private final WebAppMetrics metrics = new WebAppMetrics();
 
+    private final SpiceBackend spiceBackend;
     private final TelemetryService telemetryService;
     private final OutputProductService outputProductService;
 
@@ -72,6 +79,8 @@ public class MmtcWebApp {
             javalinConfig.staticFiles.add("/docs");
 
             javalinConfig.jsonMapper(new JavalinJackson(MmtcObjectMapper.get(), false));
+
+            metrics.instrument(javalinConfig);
         });
 
         // set up auth
@@ -88,17 +97,33 @@ public class MmtcWebApp {
         });
         logger.info("Auth service: " + authService.getClass().getSimpleName());
 
-        this.telemetryService = new TelemetryService(config);
+        if (config.isSpiceWorkerPoolEnabled()) {
+            this.spiceBackend = new SpiceWorkerPool(config.getSpiceWorkerPoolSize(), List.of("-Xmx" + config.getSpiceWorkerMaxHeapMb() + "m"));
+            logger.info("SPICE worker pool started with " + config.getSpiceWorkerPoolSize() + " workers");
+        } else {
+            this.spiceBackend = new InProcessSpiceBackend(config::withSpiceMutexAndKernels);
+        }
+
+        this.telemetryService = new TelemetryService(config, this.spiceBackend);
         this.outputProductService = new OutputProductService(config);
 
         // instantiate controllers and set up routes
+        final TimeCorrelationController timeCorrelationController = new TimeCorrelationController(config, this.telemetryService, this.outputProductService, this.spiceBackend);
         Collection<BaseController> controllers = new HashSet<>();
-        controllers.add(new TimeCorrelationController(config, this.telemetryService, this.outputProductService));
+        controllers.add(timeCorrelationController);
         controllers.add(new TelemetryController(config, this.telemetryService));
         controllers.add(new OutputProductController(config, this.outputProductService));
         controllers.add(new InfoController(config));
+        controllers.add(new MetricsController(config, metrics));
         controllers.forEach(c -> c.registerEndpoints(javalinApp));
 
+        // register the metrics served by the MetricsController
+        BaseController.registerExecutorMetrics(metrics);
+        metrics.registerMutex("spice", config.getSpiceMutex());
+        this.telemetryService.registerMetrics(metrics);
+        this.outputProductService.registerMetrics(metrics);
+        timeCorrelationController.registerMetrics(metrics);
+
         javalinApp.exception(Exception.class, (e, ctx) -> {
             logger.error("Server error", e);
             ctx.status(500);
@@ -120,6 +145,7 @@ public class MmtcWebApp {
                 try {
                     this.config.getTelemetrySource().disconnect();
                 } finally {
+                    this.spiceBackend.close();
                     this.config.releaseLockFile();
                 }
             });
@@ -3,18 +3,19 @@ package edu.jhuapl.sd.sig.mmtc.webapp.config;
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
 import edu.jhuapl.sd.sig.mmtc.cfg.MmtcConfigWithTlmSource;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.TimedMutex;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
 
 public class MmtcWebAppConfig extends MmtcConfigWithTlmSource {
     private static final Logger logger = LogManager.getLogger();
 
-    private final Object spiceLoadedKernelMutex = new Object();
+    private final TimedMutex spiceLoadedKernelMutex = new TimedMutex();
 
     public MmtcWebAppConfig() throws Exception {
         super();
@@ -68,33 +69,69 @@ public class MmtcWebAppConfig extends MmtcConfigWithTlmSource {
     }
 
     public <T> T withSpiceMutex(Callable<T> callable) throws MmtcException {
-        synchronized (spiceLoadedKernelMutex) {
-            try {
-                return callable.call();
-            } catch (Exception e) {
-                throw new MmtcException(e);
-            } finally {
-                TimeConvert.unloadSpiceKernels();
-            }
+        try {
+            return spiceLoadedKernelMutex.call(() -> {
+                try {
+                    return callable.call();
+                } finally {
+                    TimeConvert.unloadSpiceKernels();
+                }
+            });
+        } catch (Exception e) {
+            throw new MmtcException(e);
         }
     }
 
     public <T> T withSpiceMutexAndKernels(Path sclkKernelPath, Callable<T> callable) throws MmtcException {
-        synchronized (spiceLoadedKernelMutex) {
-            try {
-                TimeConvert.loadSpiceLib();
-                TimeConvert.loadSpiceKernels(getKernelsToLoad(false));
-
-                final Map<String, String> sclkKernelToLoad = new HashMap<>();
-                sclkKernelToLoad.put(sclkKernelPath.toAbsolutePath().toString(), "sclk");
-                TimeConvert.loadSpiceKernels(sclkKernelToLoad);
-
-                return callable.call();
-            } catch (Exception e) {
-                throw new MmtcException(e);
-            } finally {
-                TimeConvert.unloadSpiceKernels();
-            }
+        return withSpiceMutexAndKernels(getKernelsToLoadWithSclkKernel(sclkKernelPath), callable);
+    }
+
+    public <T> T withSpiceMutexAndKernels(Map<String, String> kernelsToLoad, Callable<T> callable) throws MmtcException {
+        try {
+            return spiceLoadedKernelMutex.call(() -> {
+                try {
+                    TimeConvert.loadSpiceLib();
+                    TimeConvert.loadSpiceKernels(kernelsToLoad);
+                    return callable.call();
+                } finally {
+                    TimeConvert.unloadSpiceKernels();
+                }
+            });
+        } catch (Exception e) {
+            throw new MmtcException(e);
         }
     }
+
+    /**
+     * @return the mutex guarding the in-process SPICE library and its loaded kernels
+     */
+    public TimedMutex getSpiceMutex() {
+        return spiceLoadedKernelMutex;
+    }
+
+    /**
+     * Gets the configured SPICE kernels (excluding the configured input SCLK kernel) followed by the given SCLK kernel,
+     * in the order they should be loaded.
+     *
+     * @param sclkKernelPath the SCLK kernel to use
+     * @return a map of kernel paths to kernel types
+     * @throws MmtcException if the configured kernels could not be determined
+     */
+    public Map<String, String> getKernelsToLoadWithSclkKernel(Path sclkKernelPath) throws MmtcException {
+        final Map<String, String> kernels = new LinkedHashMap<>(getKernelsToLoad(false));
+        kernels.put(sclkKernelPath.toAbsolutePath().toString(), "sclk");
+        return kernels;
+    }
+
+    public boolean isSpiceWorkerPoolEnabled() {
+        return getBoolean("webapp.spice.workerPool.enabled", false);
+    }
+
+    public int getSpiceWorkerPoolSize() {
+        return getInt("webapp.spice.workerPool.size", Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public int getSpiceWorkerMaxHeapMb() {
+        return getInt("webapp.spice.workerPool.maxHeapMb", 256);
+    }
 }
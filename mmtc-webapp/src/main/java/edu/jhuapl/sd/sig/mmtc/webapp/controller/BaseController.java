@@ -1,15 +1,15 @@
 package edu.jhuapl.sd.sig.mmtc.webapp.controller;
 
 import edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.TimedExecutor;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.WebAppMetrics;
 import io.javalin.Javalin;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public abstract class BaseController {
-    private static final ExecutorService singleThreadedExecutor = Executors.newSingleThreadExecutor();
+    private static final TimedExecutor singleThreadedExecutor = new TimedExecutor(1);
     protected final MmtcWebAppConfig config;
 
     public BaseController(MmtcWebAppConfig config) {
@@ -21,4 +21,13 @@ public abstract class BaseController {
     protected <T> T executeSingleThreaded(Callable<T> callable) throws ExecutionException, InterruptedException {
         return singleThreadedExecutor.submit(callable).get();
     }
+
+    /**
+     * Registers the queue depth and task timings of the executor shared by all controllers' single-threaded work.
+     *
+     * @param metrics the registry to register with
+     */
+    public static void registerExecutorMetrics(WebAppMetrics metrics) {
+        metrics.registerExecutor("single-threaded", singleThreadedExecutor);
+    }
 }
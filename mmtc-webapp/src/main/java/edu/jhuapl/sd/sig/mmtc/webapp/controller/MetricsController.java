@@ -0,0 +1,26 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.controller;
+
+import edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.WebAppMetrics;
+import io.javalin.Javalin;
+
+/**
+ * Serves the web app's metrics in the Prometheus text exposition format, for scraping by a monitoring system.  As with
+ * every other endpoint, requests must satisfy the configured authorization service.
+ */
+public class MetricsController extends BaseController {
+    private final WebAppMetrics metrics;
+
+    public MetricsController(MmtcWebAppConfig config, WebAppMetrics metrics) {
+        super(config);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void registerEndpoints(Javalin javalinApp) {
+        javalinApp.get("/api/v1/metrics", ctx -> {
+            ctx.contentType(WebAppMetrics.CONTENT_TYPE);
+            ctx.result(metrics.scrape());
+        });
+    }
+}
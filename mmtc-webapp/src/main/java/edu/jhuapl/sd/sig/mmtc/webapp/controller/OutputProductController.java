@@ -1,19 +1,18 @@
 package edu.jhuapl.sd.sig.mmtc.webapp.controller;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
-import edu.jhuapl.sd.sig.mmtc.products.definition.AppendedFileOutputProductDefinition;
-import edu.jhuapl.sd.sig.mmtc.products.definition.EntireFileOutputProductDefinition;
-import edu.jhuapl.sd.sig.mmtc.products.definition.OutputProductDefinition;
-import edu.jhuapl.sd.sig.mmtc.products.util.GenericCsv;
 import edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig;
 import edu.jhuapl.sd.sig.mmtc.webapp.service.OutputProductService;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentityCache;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.HttpCaching;
 import io.javalin.Javalin;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.Context;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 public class OutputProductController extends BaseController {
     private final OutputProductService outputputProductService;
@@ -26,54 +25,98 @@ public class OutputProductController extends BaseController {
     @Override
     public void registerEndpoints(Javalin javalinApp) {
         // list all products by name
-        javalinApp.get("/api/v1/products/", ctx -> ctx.json(outputputProductService.getAllOutputProductDefs()));
+        javalinApp.get("/api/v1/products/", ctx -> {
+            if (! HttpCaching.respondIfNotModified(ctx, outputputProductService.getOutputProductListingIdentities())) {
+                ctx.json(outputputProductService.getAllOutputProductDefs());
+            }
+        });
 
         // get the contents of a product
         javalinApp.get("/api/v1/products/{name}/{filename}", ctx -> {
-            ctx.result(getOutputProductContents(ctx.pathParam("name"),  ctx.pathParam("filename")));
+            FileIdentityCache.Entry<String> contents = outputputProductService.getProductContents(getFilePathForOutputProduct(ctx.pathParam("name"), ctx.pathParam("filename")));
+            if (! HttpCaching.respondIfNotModified(ctx, contents.identity())) {
+                ctx.result(contents.value());
+            }
         });
 
-        // get the contents of a product as table rows
+        // get the contents of a product as table rows, optionally paginated and/or projected to a subset of columns
         javalinApp.get("/api/v1/productsAsTable/{name}/{filename}", ctx -> {
-            ctx.json(getOutputProductContentsAsTable(ctx.pathParam("name"),  ctx.pathParam("filename")));
+            if (PAGE_QUERY_PARAMS.stream().noneMatch(param -> ctx.queryParam(param) != null)) {
+                Path productPath = getFilePathForOutputProduct(ctx.pathParam("name"), ctx.pathParam("filename"));
+                FileIdentityCache.Entry<OutputProductService.TableResult> table = outputputProductService.getProductContentsAsTable(productPath);
+                if (! HttpCaching.respondIfNotModified(ctx, table.identity())) {
+                    ctx.json(table.value());
+                }
+                return;
+            }
+
+            // a malformed page request is rejected before the product is looked up
+            OutputProductService.TablePageRequest pageRequest = parseTablePageRequest(ctx);
+            Path productPath = getFilePathForOutputProduct(ctx.pathParam("name"), ctx.pathParam("filename"));
+            FileIdentityCache.Entry<OutputProductService.TablePage> page;
+            try {
+                page = outputputProductService.getProductContentsAsTablePage(productPath, pageRequest);
+            } catch (OutputProductService.UnknownColumnException e) {
+                throw new BadRequestResponse(e.getMessage());
+            }
+            if (! HttpCaching.respondIfNotModified(ctx, page.identity())) {
+                ctx.json(page.value());
+            }
         });
     }
 
-    record TableResult (
-            List<String> columns,
-            List<Map<String, String>> rows
-    ) { }
-
-    private TableResult getOutputProductContentsAsTable(String outputProductName, String filename) throws MmtcException, IOException {
-        Path filePathForOutputProduct = getFilePathForOutputProduct(outputProductName, filename);
-        GenericCsv csv = new GenericCsv(filePathForOutputProduct);
-        return new TableResult(
-                csv.getHeaders(),
-                csv.getRows()
-        );
+    private static final List<String> PAGE_QUERY_PARAMS = Arrays.asList("offset", "limit", "last", "columns", "order");
+
+    /**
+     * @throws BadRequestResponse if any of the page query parameters are malformed
+     */
+    private static OutputProductService.TablePageRequest parseTablePageRequest(Context ctx) {
+        final Optional<List<String>> columns = Optional.ofNullable(ctx.queryParam("columns"))
+                .map(cols -> Arrays.stream(cols.split(","))
+                        .map(String::trim)
+                        .filter(col -> ! col.isEmpty())
+                        .toList()
+                );
+
+        final OutputProductService.RowOrder order = Optional.ofNullable(ctx.queryParam("order"))
+                .map(OutputProductController::parseRowOrder)
+                .orElse(OutputProductService.RowOrder.ASC);
+
+        try {
+            return new OutputProductService.TablePageRequest(
+                    parseIntQueryParam(ctx, "offset").orElse(0),
+                    parseIntQueryParam(ctx, "limit"),
+                    parseIntQueryParam(ctx, "last"),
+                    columns,
+                    order
+            );
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestResponse(e.getMessage());
+        }
     }
 
-    private String getOutputProductContents(String outputProductName, String filename) throws MmtcException, IOException {
-        Path filePathForOutputProduct = getFilePathForOutputProduct(outputProductName, filename);
-        return String.join("\n", Files.readAllLines(filePathForOutputProduct));
+    private static OutputProductService.RowOrder parseRowOrder(String val) {
+        try {
+            return OutputProductService.RowOrder.valueOf(val.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestResponse(String.format("Query parameter 'order' must be one of %s, but was: %s", Arrays.toString(OutputProductService.RowOrder.values()), val));
+        }
     }
 
-    private Path getFilePathForOutputProduct(String outputProductName, String filename) throws MmtcException, IOException {
-        OutputProductDefinition<?> productDef = config.getOutputProductDefByName(outputProductName);
-        final Path filepathToRead;
-        if (productDef instanceof EntireFileOutputProductDefinition) {
-            EntireFileOutputProductDefinition entireFileDef =  (EntireFileOutputProductDefinition) productDef;
-            filepathToRead = entireFileDef.resolveLocation(config).findAllMatching().stream()
-                    .filter(p -> p.getFileName().toString().equals(filename))
-                    .findFirst()
-                    .orElseThrow(() -> new MmtcException("No file with filename: " + filename));
-        } else if (productDef instanceof AppendedFileOutputProductDefinition) {
-            AppendedFileOutputProductDefinition appendedFileDef =  (AppendedFileOutputProductDefinition) productDef;
-            filepathToRead = appendedFileDef.resolveLocation(config).pathToProduct;
-        } else {
-            throw new MmtcException("Unexpected type for: " + outputProductName);
+    private static Optional<Integer> parseIntQueryParam(Context ctx, String name) {
+        final String val = ctx.queryParam(name);
+        if (val == null || val.isEmpty()) {
+            return Optional.empty();
         }
 
-        return filepathToRead;
+        try {
+            return Optional.of(Integer.parseInt(val));
+        } catch (NumberFormatException e) {
+            throw new BadRequestResponse(String.format("Query parameter '%s' must be an integer, but was: %s", name, val));
+        }
+    }
+
+    private Path getFilePathForOutputProduct(String outputProductName, String filename) throws MmtcException {
+        return outputputProductService.getFilePathForOutputProduct(config.getOutputProductDefByName(outputProductName), filename);
     }
 }
@@ -32,7 +32,11 @@ public class TelemetryController extends BaseController {
             }
             Path sclkKernelPath = config.getSclkKernelPathFor(sclkKernelName);
 
-            ctx.json(executeSingleThreaded(() -> telemetryService.getTelemetryPoints(beginTimeErt, endTimeErt, sclkKernelPath)));
+            if (telemetryService.isConcurrent()) {
+                ctx.json(telemetryService.getTelemetryPoints(beginTimeErt, endTimeErt, sclkKernelPath));
+            } else {
+                ctx.json(executeSingleThreaded(() -> telemetryService.getTelemetryPoints(beginTimeErt, endTimeErt, sclkKernelPath)));
+            }
         });
     }
 }
@@ -7,11 +7,10 @@ import edu.jhuapl.sd.sig.mmtc.correlation.AncillaryInfo;
 import edu.jhuapl.sd.sig.mmtc.correlation.CorrelationInfo;
 import edu.jhuapl.sd.sig.mmtc.correlation.GeometryInfo;
 import edu.jhuapl.sd.sig.mmtc.correlation.TimeCorrelationContext;
-import edu.jhuapl.sd.sig.mmtc.products.definition.EntireFileOutputProductDefinition;
-import edu.jhuapl.sd.sig.mmtc.products.definition.SclkKernelProductDefinition;
 import edu.jhuapl.sd.sig.mmtc.products.model.RunHistoryFile;
 import edu.jhuapl.sd.sig.mmtc.products.model.SclkKernel;
 import edu.jhuapl.sd.sig.mmtc.products.model.TableRecord;
+import edu.jhuapl.sd.sig.mmtc.products.model.TextProductException;
 import edu.jhuapl.sd.sig.mmtc.rollback.TimeCorrelationRollback;
 import edu.jhuapl.sd.sig.mmtc.util.Settable;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
@@ -19,16 +18,18 @@ import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
 import edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig;
 import edu.jhuapl.sd.sig.mmtc.webapp.config.NewTimeCorrelationConfigRequest;
 import edu.jhuapl.sd.sig.mmtc.webapp.config.NewTimeCorrelationConfigRequestPreview;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.WebAppMetrics;
 import edu.jhuapl.sd.sig.mmtc.webapp.service.OutputProductService;
 import edu.jhuapl.sd.sig.mmtc.webapp.service.TelemetryService;
+import edu.jhuapl.sd.sig.mmtc.webapp.spice.SpiceBackend;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentityCache;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.HttpCaching;
 import io.javalin.Javalin;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -38,11 +39,25 @@ public class TimeCorrelationController extends BaseController {
 
     private final TelemetryService telemetryService;
     private final OutputProductService outputProductService;
+    private final SpiceBackend spiceBackend;
 
-    public TimeCorrelationController(MmtcWebAppConfig config, TelemetryService telemetryService, OutputProductService outputProductService) {
+    // the parsed Run History File, reused until a correlation or rollback modifies the file
+    private final FileIdentityCache<List<Map<String, String>>> runHistoryCache = new FileIdentityCache<>(1, this::readRunHistoryContentsAsTableRows);
+
+    public TimeCorrelationController(MmtcWebAppConfig config, TelemetryService telemetryService, OutputProductService outputProductService, SpiceBackend spiceBackend) {
         super(config);
         this.telemetryService = telemetryService;
         this.outputProductService = outputProductService;
+        this.spiceBackend = spiceBackend;
+    }
+
+    /**
+     * Registers the hit ratio of this controller's Run History File cache.
+     *
+     * @param metrics the registry to register with
+     */
+    public void registerMetrics(WebAppMetrics metrics) {
+        metrics.registerCache("run-history", runHistoryCache);
     }
 
     record CorrelationResults (
@@ -82,7 +97,10 @@ public class TimeCorrelationController extends BaseController {
         });
 
         javalinApp.get("/api/v1/correlation/runhistory", ctx -> {
-            ctx.json(executeSingleThreaded(() -> getRunHistoryContentsAsTableRows()));
+            FileIdentityCache.Entry<List<Map<String, String>>> runHistory = executeSingleThreaded(() -> runHistoryCache.get(config.getRunHistoryFilePath()));
+            if (! HttpCaching.respondIfNotModified(ctx, runHistory.identity())) {
+                ctx.json(runHistory.value());
+            }
         });
 
         javalinApp.post("/api/v1/correlation/rollback", ctx -> {
@@ -97,7 +115,13 @@ public class TimeCorrelationController extends BaseController {
             String beginTime = ctx.queryParam("beginTime");
             String endTime = ctx.queryParam("endTime");
             String sclkKernelName = ctx.queryParam("sclkKernelName");
-            ctx.json(executeSingleThreaded(() -> getCorrelationTriplets(beginTime, endTime, sclkKernelName)));
+
+            // this only reads existing products, so it need not wait behind other requests unless SPICE work is serialized anyway
+            if (spiceBackend.isConcurrent()) {
+                ctx.json(getCorrelationTriplets(beginTime, endTime, sclkKernelName));
+            } else {
+                ctx.json(executeSingleThreaded(() -> getCorrelationTriplets(beginTime, endTime, sclkKernelName)));
+            }
         });
     }
 
@@ -108,8 +132,7 @@ public class TimeCorrelationController extends BaseController {
             throw new IllegalArgumentException("Must provide SCLK kernel name");
         }
 
-        EntireFileOutputProductDefinition sclkKernelDef = (EntireFileOutputProductDefinition) config.getOutputProductDefByName(SclkKernelProductDefinition.PRODUCT_NAME);
-        sclkKernelPath = sclkKernelDef.resolveLocation(config).findMatchingFilename(sclkKernelName);
+        sclkKernelPath = outputProductService.getSclkKernelPath(sclkKernelName);
 
         final Optional<OffsetDateTime> begin = beginTime == null ? Optional.empty() : Optional.of(TimeConvert.parseIsoDoyUtcStr(beginTime));
         final Optional<OffsetDateTime> end = endTime == null ? Optional.empty() : Optional.of(TimeConvert.parseIsoDoyUtcStr(endTime));
@@ -146,11 +169,10 @@ public class TimeCorrelationController extends BaseController {
     }
 
     private TimeCorrelationPreviewResults previewNewCorrelation(NewTimeCorrelationConfigRequestPreview correlationConfigPreview) throws Exception {
-        Files.createDirectories(Paths.get("/tmp/mmtc/previews"));
-        Path tmpSclkKernelPath = Paths.get("/tmp/mmtc/previews/", String.format("mmtc_sclk_preview_%s.tsc", UUID.randomUUID().toString()));
+        // the candidate SCLK kernel is only generated in memory, and is loaded directly from there into SPICE below
         correlationConfigPreview.setDryRunConfig(new TimeCorrelationRunConfig.DryRunConfig(
-                TimeCorrelationRunConfig.DryRunMode.DRY_RUN_GENERATE_SEPARATE_SCLK_ONLY,
-                tmpSclkKernelPath
+                TimeCorrelationRunConfig.DryRunMode.DRY_RUN_GENERATE_SCLK_IN_MEMORY_ONLY,
+                null
         ));
 
         // have this preview endpoint calculate and return the graph data, among other stats about the new correlation run
@@ -161,11 +183,14 @@ public class TimeCorrelationController extends BaseController {
                 return null;
             });
             TimeCorrelationContext ctxResult = settableCtxResult.get();
+            final List<String> previewSclkKernelLines = ctxResult.newSclkKernel.get().getNewProductLines();
 
-            final List<TelemetryService.TimekeepingTelemetryPoint> tlmPoints = telemetryService.getTelemetryPoints(correlationConfigPreview.beginTimeErt, correlationConfigPreview.endTimeErt, tmpSclkKernelPath);
+            final List<TelemetryService.TimekeepingTelemetryPoint> tlmPoints = telemetryService.getTelemetryPointsWithSclkKernelContents(correlationConfigPreview.beginTimeErt, correlationConfigPreview.endTimeErt, previewSclkKernelLines);
 
             final List<TimeCorrelationTriplet> updatedTriplets = new ArrayList<>();
-            config.withSpiceMutexAndKernels(tmpSclkKernelPath, () -> {
+            config.withSpiceMutexAndKernels(config.getKernelsToLoad(false), () -> {
+                TimeConvert.loadSpiceKernelText(previewSclkKernelLines);
+
                 if (ctxResult.correlation.updatedInterpolatedTriplet.isSet()) {
                     updatedTriplets.add(convertTriplet(ctxResult.correlation.updatedInterpolatedTriplet.get()));
                 }
@@ -189,10 +214,6 @@ public class TimeCorrelationController extends BaseController {
         } catch (Exception e) {
             logger.error(e);
             throw e;
-        } finally {
-            if (Files.exists(tmpSclkKernelPath)) {
-                Files.delete(tmpSclkKernelPath);
-            }
         }
     }
 
@@ -256,8 +277,8 @@ public class TimeCorrelationController extends BaseController {
         return "success";
     }
 
-    private List<Map<String, String>> getRunHistoryContentsAsTableRows() throws MmtcException {
-        final RunHistoryFile rhf = new RunHistoryFile(config.getRunHistoryFilePath(), config.getAllOutputProductDefs());
+    private List<Map<String, String>> readRunHistoryContentsAsTableRows(Path runHistoryFilePath) throws MmtcException {
+        final RunHistoryFile rhf = new RunHistoryFile(runHistoryFilePath, config.getAllOutputProductDefs());
 
         List<Map<String, String>> recs = rhf.readRecords(RunHistoryFile.RollbackEntryOption.IGNORE_ROLLBACKS).stream()
                 .map(TableRecord::getColsAndVals)
@@ -266,7 +287,7 @@ public class TimeCorrelationController extends BaseController {
         // to sort most recent rows first
         Collections.reverse(recs);
 
-        return recs;
+        return Collections.unmodifiableList(recs);
     }
 
     private record TimeCorrelationTriplet (
@@ -288,29 +309,41 @@ public class TimeCorrelationController extends BaseController {
     }
 
     private List<TimeCorrelationTriplet> getAllTimeCorrelationTriplets(String sclkKernelFilename) throws MmtcException, IOException {
-        final Path sclkKernelPath = config.getSclkKernelPathFor(sclkKernelFilename);
+        final Path sclkKernelPath = outputProductService.getSclkKernelPath(sclkKernelFilename);
 
-        return config.withSpiceMutexAndKernels(sclkKernelPath, () -> {
-            SclkKernel sclkKernel = new SclkKernel(sclkKernelPath.toAbsolutePath().toString());
+        final SclkKernel sclkKernel = new SclkKernel(sclkKernelPath.toAbsolutePath().toString());
+        try {
             sclkKernel.readSourceProduct();
+        } catch (TextProductException e) {
+            throw new MmtcException("Unable to read SCLK kernel " + sclkKernelPath, e);
+        }
 
-            List<String[]> parsedRecords = sclkKernel.getParsedRecords();
+        final List<String[]> parsedRecords = sclkKernel.getParsedRecords();
+        final List<String> tdtCalStrs = parsedRecords.stream()
+                .map(rec -> rec[SclkKernel.TRIPLET_TDTG_FIELD_INDEX])
+                .collect(Collectors.toList());
 
-            List<TimeCorrelationTriplet> results = new ArrayList<>();
+        final List<SpiceBackend.TdtConversion> conversions = spiceBackend.convertTdtCalStrs(
+                config.getKernelsToLoadWithSclkKernel(sclkKernelPath),
+                tdtCalStrs,
+                6
+        );
 
-            for (String[] rec : parsedRecords) {
-                results.add(
-                        new TimeCorrelationTriplet(
-                                rec[SclkKernel.TRIPLET_ENCSCLK_FIELD_INDEX],
-                                TimeConvert.tdtCalStrToTdt(rec[SclkKernel.TRIPLET_TDTG_FIELD_INDEX]),
-                                rec[SclkKernel.TRIPLET_TDTG_FIELD_INDEX],
-                                rec[SclkKernel.TRIPLET_CLKCHGRATE_FIELD_INDEX],
-                                TimeConvert.tdtCalStrToUtc(rec[SclkKernel.TRIPLET_TDTG_FIELD_INDEX], 6)
-                        )
-                );
-            }
+        final List<TimeCorrelationTriplet> results = new ArrayList<>();
+
+        for (int i = 0; i < parsedRecords.size(); i++) {
+            final String[] rec = parsedRecords.get(i);
+            results.add(
+                    new TimeCorrelationTriplet(
+                            rec[SclkKernel.TRIPLET_ENCSCLK_FIELD_INDEX],
+                            conversions.get(i).tdt(),
+                            rec[SclkKernel.TRIPLET_TDTG_FIELD_INDEX],
+                            rec[SclkKernel.TRIPLET_CLKCHGRATE_FIELD_INDEX],
+                            conversions.get(i).utc()
+                    )
+            );
+        }
 
-            return results;
-        });
+        return results;
     }
 }
@@ -0,0 +1,68 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.metrics;
+
+import edu.jhuapl.sd.sig.mmtc.metrics.Histogram;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-size executor that records how long each task waited in its queue before it began running, and how long it
+ * then ran.
+ */
+public class TimedExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Histogram queueWaitNanos = new Histogram();
+    private final Histogram runNanos = new Histogram();
+
+    /**
+     * @param numThreads the number of threads, which run tasks in the order they were submitted
+     */
+    public TimedExecutor(int numThreads) {
+        this.executor = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * Submits a task to be run on one of this executor's threads.
+     *
+     * @param callable the task
+     * @param <T> the type of the task's result
+     * @return a future holding the task's result
+     */
+    public <T> Future<T> submit(Callable<T> callable) {
+        final long submitted = System.nanoTime();
+        return executor.submit(() -> {
+            final long started = System.nanoTime();
+            queueWaitNanos.record(started - submitted);
+            try {
+                return callable.call();
+            } finally {
+                runNanos.record(System.nanoTime() - started);
+            }
+        });
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the approximate number of tasks being run
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public Histogram getQueueWaitNanos() {
+        return queueWaitNanos;
+    }
+
+    public Histogram getRunNanos() {
+        return runNanos;
+    }
+}
@@ -0,0 +1,42 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.metrics;
+
+import edu.jhuapl.sd.sig.mmtc.metrics.Histogram;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A mutex that records how long each caller waited to acquire it, and how long it was then held.
+ */
+public class TimedMutex {
+    private final Histogram waitNanos = new Histogram();
+    private final Histogram holdNanos = new Histogram();
+
+    /**
+     * Calls the given callable while holding this mutex.
+     *
+     * @param callable the work to perform
+     * @param <T> the type of the result
+     * @return the callable's result
+     * @throws Exception if the callable throws
+     */
+    public <T> T call(Callable<T> callable) throws Exception {
+        final long waitStart = System.nanoTime();
+        synchronized (this) {
+            final long holdStart = System.nanoTime();
+            waitNanos.record(holdStart - waitStart);
+            try {
+                return callable.call();
+            } finally {
+                holdNanos.record(System.nanoTime() - holdStart);
+            }
+        }
+    }
+
+    public Histogram getWaitNanos() {
+        return waitNanos;
+    }
+
+    public Histogram getHoldNanos() {
+        return holdNanos;
+    }
+}
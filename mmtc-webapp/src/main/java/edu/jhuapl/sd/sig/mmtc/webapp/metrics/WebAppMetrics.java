@@ -0,0 +1,312 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.metrics;
+
+import edu.jhuapl.sd.sig.mmtc.metrics.Histogram;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentityCache;
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Context;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * An in-process registry of the web app's metrics, which renders them in the Prometheus text exposition format
+ * (version 0.0.4) on each scrape.
+ * <p>
+ * Components measure themselves, e.g. with {@link Histogram}s of durations in nanoseconds, and register those
+ * measurements here under a metric name and set of labels; the registry only reads them when scraped.  Durations are
+ * exposed in seconds, and histograms' power-of-two buckets as cumulative 'le' buckets.  The registry also times every
+ * HTTP request (see {@link #instrument(JavalinConfig)}), and reports the JVM's memory, garbage collection, and thread
+ * counts.
+ */
+public class WebAppMetrics {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    public static final String HTTP_REQUEST_DURATION = "mmtc_http_request_duration_seconds";
+
+    // requests that matched no endpoint (e.g. those rejected before routing, or for static files) share one label
+    static final String UNMATCHED_ROUTE = "unmatched";
+
+    private enum Type {
+        COUNTER,
+        GAUGE,
+        HISTOGRAM
+    }
+
+    private record Sample(Map<String, String> labels, double value) { }
+
+    private record HistogramSample(Map<String, String> labels, Histogram nanos) { }
+
+    private record Family(String name, Type type, String help, List<Supplier<List<?>>> sources) { }
+
+    private record RequestKey(String method, String route, int status) { }
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+    private final Map<RequestKey, Histogram> requestDurations = new ConcurrentHashMap<>();
+
+    public WebAppMetrics() {
+        registerHistograms(HTTP_REQUEST_DURATION, "Time taken to handle HTTP requests, by endpoint and response status", () -> {
+            final List<HistogramSample> samples = new ArrayList<>();
+            requestDurations.forEach((key, histogram) -> samples.add(new HistogramSample(
+                    labels("method", key.method(), "route", key.route(), "status", Integer.toString(key.status())),
+                    histogram
+            )));
+            return samples;
+        });
+
+        registerJvmMetrics();
+    }
+
+    /**
+     * Times every HTTP request handled by the Javalin app being configured, by method, matched endpoint path, and
+     * response status.  The endpoint's path template (e.g. /api/v1/products/{name}) is used rather than the request's
+     * path, so the number of distinct series remains bounded.
+     *
+     * @param javalinConfig the configuration of the Javalin app to instrument
+     */
+    public void instrument(JavalinConfig javalinConfig) {
+        javalinConfig.requestLogger.http(this::recordRequest);
+    }
+
+    private void recordRequest(Context ctx, Float executionTimeMs) {
+        final RequestKey key = new RequestKey(String.valueOf(ctx.method()), routeOf(ctx), ctx.statusCode());
+        requestDurations.computeIfAbsent(key, k -> new Histogram()).record((long) (executionTimeMs * 1_000_000.0));
+    }
+
+    private static String routeOf(Context ctx) {
+        try {
+            final String path = ctx.endpointHandlerPath();
+            return path == null || path.isEmpty() || path.equals("*") ? UNMATCHED_ROUTE : path;
+        } catch (RuntimeException e) {
+            return UNMATCHED_ROUTE;
+        }
+    }
+
+    /**
+     * Registers a counter, whose value is read on each scrape.
+     *
+     * @param name the metric name, which by convention ends in '_total'
+     * @param help a description of the metric
+     * @param labels the labels distinguishing this series from others of the same name
+     * @param value the current value of the counter
+     */
+    public void registerCounter(String name, String help, Map<String, String> labels, DoubleSupplier value) {
+        register(name, Type.COUNTER, help, () -> List.of(new Sample(labels, value.getAsDouble())));
+    }
+
+    /**
+     * Registers a gauge, whose value is read on each scrape.
+     *
+     * @param name the metric name
+     * @param help a description of the metric
+     * @param labels the labels distinguishing this series from others of the same name
+     * @param value the current value of the gauge
+     */
+    public void registerGauge(String name, String help, Map<String, String> labels, DoubleSupplier value) {
+        register(name, Type.GAUGE, help, () -> List.of(new Sample(labels, value.getAsDouble())));
+    }
+
+    /**
+     * Registers a histogram of durations.
+     *
+     * @param name the metric name, which by convention ends in '_seconds'
+     * @param help a description of the metric
+     * @param labels the labels distinguishing this series from others of the same name
+     * @param nanos the histogram, whose values are durations in nanoseconds
+     */
+    public void registerHistogram(String name, String help, Map<String, String> labels, Histogram nanos) {
+        registerHistograms(name, help, () -> List.of(new HistogramSample(labels, nanos)));
+    }
+
+    private void registerHistograms(String name, String help, Supplier<List<HistogramSample>> samples) {
+        register(name, Type.HISTOGRAM, help, samples::get);
+    }
+
+    /**
+     * Registers the hit, miss, and entry counts of a cache, and its hit ratio.  Each lookup that invoked the cache's
+     * loader is counted as a miss.
+     *
+     * @param cacheName the name of the cache, used as the value of the 'cache' label
+     * @param cache the cache
+     */
+    public void registerCache(String cacheName, FileIdentityCache<?> cache) {
+        final Map<String, String> labels = labels("cache", cacheName);
+        registerCounter("mmtc_cache_hits_total", "Lookups answered from a cache", labels, cache::getHitCount);
+        registerCounter("mmtc_cache_misses_total", "Lookups that (re)loaded a cache entry", labels, cache::getLoadCount);
+        registerGauge("mmtc_cache_hit_ratio", "Fraction of a cache's lookups answered from the cache, or 0 if there have been none", labels, () -> {
+            final long hits = cache.getHitCount();
+            final long lookups = hits + cache.getLoadCount();
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        });
+        registerGauge("mmtc_cache_entries", "Entries held by a cache", labels, cache::size);
+    }
+
+    /**
+     * Registers the wait and hold times of a mutex.
+     *
+     * @param mutexName the name of the mutex, used as the value of the 'mutex' label
+     * @param mutex the mutex
+     */
+    public void registerMutex(String mutexName, TimedMutex mutex) {
+        final Map<String, String> labels = labels("mutex", mutexName);
+        registerHistogram("mmtc_mutex_wait_seconds", "Time spent waiting to acquire a mutex", labels, mutex.getWaitNanos());
+        registerHistogram("mmtc_mutex_hold_seconds", "Time a mutex was held once acquired", labels, mutex.getHoldNanos());
+    }
+
+    /**
+     * Registers the queue depth, active task count, and queue wait and run times of an executor.
+     *
+     * @param executorName the name of the executor, used as the value of the 'executor' label
+     * @param executor the executor
+     */
+    public void registerExecutor(String executorName, TimedExecutor executor) {
+        final Map<String, String> labels = labels("executor", executorName);
+        registerGauge("mmtc_executor_queue_depth", "Tasks waiting for an executor thread", labels, executor::getQueueDepth);
+        registerGauge("mmtc_executor_active_tasks", "Tasks being run by an executor", labels, executor::getActiveCount);
+        registerHistogram("mmtc_executor_queue_wait_seconds", "Time tasks spent queued before an executor began running them", labels, executor.getQueueWaitNanos());
+        registerHistogram("mmtc_executor_task_duration_seconds", "Time an executor spent running each task", labels, executor.getRunNanos());
+    }
+
+    private void registerJvmMetrics() {
+        final var memory = ManagementFactory.getMemoryMXBean();
+        for (String area : List.of("heap", "nonheap")) {
+            final Supplier<MemoryUsage> usage = area.equals("heap") ? memory::getHeapMemoryUsage : memory::getNonHeapMemoryUsage;
+            final Map<String, String> labels = labels("area", area);
+            registerGauge("jvm_memory_used_bytes", "Memory used by the JVM, by area", labels, () -> usage.get().getUsed());
+            registerGauge("jvm_memory_committed_bytes", "Memory committed by the JVM, by area", labels, () -> usage.get().getCommitted());
+            registerGauge("jvm_memory_max_bytes", "Maximum memory the JVM may use, by area, or -1 if undefined", labels, () -> usage.get().getMax());
+        }
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            final Map<String, String> labels = labels("gc", gc.getName());
+            registerCounter("jvm_gc_collections_total", "Garbage collections, by collector", labels, gc::getCollectionCount);
+            registerCounter("jvm_gc_collection_seconds_total", "Time spent in garbage collection, by collector", labels, () -> gc.getCollectionTime() / 1000.0);
+        }
+
+        final var threads = ManagementFactory.getThreadMXBean();
+        registerGauge("jvm_threads_live", "Live JVM threads", Collections.emptyMap(), threads::getThreadCount);
+
+        final var runtime = ManagementFactory.getRuntimeMXBean();
+        registerGauge("process_uptime_seconds", "Time since the JVM started", Collections.emptyMap(), () -> runtime.getUptime() / 1000.0);
+    }
+
+    private synchronized void register(String name, Type type, String help, Supplier<List<?>> source) {
+        final Family family = families.computeIfAbsent(name, n -> new Family(n, type, help, new CopyOnWriteArrayList<>()));
+        if (family.type() != type) {
+            throw new IllegalArgumentException(String.format("Metric %s is already registered as a %s", name, family.type()));
+        }
+        family.sources().add(source);
+    }
+
+    /**
+     * @return the current value of every registered metric, in the Prometheus text exposition format
+     */
+    public String scrape() {
+        final List<Family> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(families.values());
+        }
+
+        final StringBuilder out = new StringBuilder();
+        for (Family family : snapshot) {
+            out.append("# HELP ").append(family.name()).append(' ').append(escapeHelp(family.help())).append('\n');
+            out.append("# TYPE ").append(family.name()).append(' ').append(family.type().name().toLowerCase()).append('\n');
+
+            for (Supplier<List<?>> source : family.sources()) {
+                for (Object sample : source.get()) {
+                    if (sample instanceof HistogramSample histogramSample) {
+                        writeHistogram(out, family.name(), histogramSample);
+                    } else {
+                        final Sample s = (Sample) sample;
+                        writeSample(out, family.name(), s.labels(), s.value());
+                    }
+                }
+            }
+        }
+
+        return out.toString();
+    }
+
+    private static void writeHistogram(StringBuilder out, String name, HistogramSample sample) {
+        final long count;
+        final long sum;
+        final Map<Long, Long> buckets;
+
+        // read a consistent snapshot of the histogram
+        synchronized (sample.nanos()) {
+            count = sample.nanos().getCount();
+            sum = sample.nanos().getSum();
+            buckets = sample.nanos().getBucketCounts();
+        }
+
+        long cumulativeCount = 0;
+        for (Map.Entry<Long, Long> bucket : buckets.entrySet()) {
+            cumulativeCount += bucket.getValue();
+            if (bucket.getKey() != Long.MAX_VALUE) {
+                writeSample(out, name + "_bucket", withLabel(sample.labels(), "le", formatValue(bucket.getKey() / 1e9)), cumulativeCount);
+            }
+        }
+        writeSample(out, name + "_bucket", withLabel(sample.labels(), "le", "+Inf"), count);
+        writeSample(out, name + "_sum", sample.labels(), sum / 1e9);
+        writeSample(out, name + "_count", sample.labels(), count);
+    }
+
+    private static void writeSample(StringBuilder out, String name, Map<String, String> labels, double value) {
+        out.append(name);
+        if (! labels.isEmpty()) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                if (! first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append(label.getKey()).append("=\"").append(escapeLabelValue(label.getValue())).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatValue(double value) {
+        if (value == Math.rint(value) && ! Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static Map<String, String> withLabel(Map<String, String> labels, String name, String value) {
+        final Map<String, String> result = new LinkedHashMap<>(labels);
+        result.put(name, value);
+        return result;
+    }
+
+    /**
+     * @param namesAndValues alternating label names and values
+     * @return the labels, in the given order
+     */
+    public static Map<String, String> labels(String... namesAndValues) {
+        final Map<String, String> labels = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            labels.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(labels);
+    }
+}
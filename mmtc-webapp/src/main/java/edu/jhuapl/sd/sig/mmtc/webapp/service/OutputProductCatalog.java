@@ -0,0 +1,145 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.service;
+
+import edu.jhuapl.sd.sig.mmtc.products.definition.util.ResolvedProductDirPrefixSuffix;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentity;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory catalog of the filenames in each output product directory, kept sorted so that the files belonging to
+ * any product (and the latest of them) can be looked up without listing the directory on every request.
+ * <p>
+ * Each directory's listing is keyed to the directory's {@link FileIdentity}, as adding, removing, or renaming an entry
+ * (e.g. a new correlation, a rollback, or an operator dropping in a file by hand) always changes it.  Lookups re-stat
+ * the directory, and when its identity has changed the directory is re-listed and the difference applied to the
+ * existing sorted listing.  As with {@link edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentityCache}, a listing taken
+ * while the directory's modification time is within {@link FileIdentity#RACY_WINDOW} is not trusted, and the
+ * directory is re-listed on each lookup until it settles.
+ */
+public class OutputProductCatalog {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static class DirectoryListing {
+        final NavigableSet<String> filenames = new TreeSet<>();
+        FileIdentity identity = FileIdentity.ABSENT;
+        boolean trusted = false;
+    }
+
+    private final Map<Path, DirectoryListing> listings = new HashMap<>();
+    private long scanCount = 0;
+
+    /**
+     * Returns the names of the files in a product's directory that match its prefix and suffix.
+     *
+     * @param location the resolved location of an entire-file output product
+     * @return the matching filenames in reverse lexicographic order, such that the most recent file is first
+     * @throws IOException if the directory does not exist or cannot be listed
+     */
+    public synchronized List<String> getFilenames(ResolvedProductDirPrefixSuffix location) throws IOException {
+        final List<String> matching = new ArrayList<>();
+        for (String filename : withPrefixDescending(getCurrentListing(location.containingDirectory), location)) {
+            if (filename.endsWith(location.filenameSuffix)) {
+                matching.add(filename);
+            }
+        }
+
+        return Collections.unmodifiableList(matching);
+    }
+
+    /**
+     * @param location the resolved location of an entire-file output product
+     * @return the lexicographically greatest (i.e. most recent) matching filename, if any
+     * @throws IOException if the directory does not exist or cannot be listed
+     */
+    public synchronized Optional<String> getLatestFilename(ResolvedProductDirPrefixSuffix location) throws IOException {
+        for (String filename : withPrefixDescending(getCurrentListing(location.containingDirectory), location)) {
+            if (filename.endsWith(location.filenameSuffix)) {
+                return Optional.of(filename);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Discards all listings, such that each directory is listed again in full on its next lookup.
+     */
+    public synchronized void invalidateAll() {
+        listings.clear();
+    }
+
+    /**
+     * @return the number of times any directory has been listed, for diagnostics and tests
+     */
+    public synchronized long getScanCount() {
+        return scanCount;
+    }
+
+    private static NavigableSet<String> withPrefixDescending(DirectoryListing listing, ResolvedProductDirPrefixSuffix location) {
+        // every name with the prefix sorts at or after the prefix itself and before the prefix followed by the
+        // greatest char, so only that range of the listing needs to be examined
+        return listing.filenames
+                .subSet(location.filenamePrefix, true, location.filenamePrefix + Character.MAX_VALUE, true)
+                .descendingSet();
+    }
+
+    private DirectoryListing getCurrentListing(Path directory) throws IOException {
+        final Path key = directory.toAbsolutePath().normalize();
+
+        // read the identity before listing, so that a concurrent change can only cause an extra re-listing later
+        final FileIdentity identity = FileIdentity.of(key);
+        if (! identity.exists()) {
+            listings.remove(key);
+            throw new NoSuchFileException(key.toString());
+        }
+
+        final DirectoryListing listing = listings.computeIfAbsent(key, k -> new DirectoryListing());
+        if (listing.trusted && listing.identity.equals(identity)) {
+            return listing;
+        }
+
+        final Set<String> current = new HashSet<>();
+        try (Stream<Path> entries = Files.list(key)) {
+            entries.forEach(p -> current.add(p.getFileName().toString()));
+        }
+        scanCount++;
+
+        int removed = 0;
+        for (Iterator<String> it = listing.filenames.iterator(); it.hasNext(); ) {
+            if (! current.contains(it.next())) {
+                it.remove();
+                removed++;
+            }
+        }
+
+        final int sizeBeforeAdding = listing.filenames.size();
+        listing.filenames.addAll(current);
+        final int added = listing.filenames.size() - sizeBeforeAdding;
+
+        if (added > 0 || removed > 0) {
+            logger.debug(String.format("Updated listing of %s: %d added, %d removed", key, added, removed));
+        }
+
+        listing.identity = identity;
+        listing.trusted = identity.isStable(Instant.now());
+        return listing;
+    }
+}
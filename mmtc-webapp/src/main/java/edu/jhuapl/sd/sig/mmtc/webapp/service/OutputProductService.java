@@ -5,15 +5,21 @@ import edu.jhuapl.sd.sig.mmtc.products.definition.AppendedFileOutputProductDefin
 import edu.jhuapl.sd.sig.mmtc.products.definition.EntireFileOutputProductDefinition;
 import edu.jhuapl.sd.sig.mmtc.products.definition.OutputProductDefinition;
 import edu.jhuapl.sd.sig.mmtc.products.definition.SclkKernelProductDefinition;
-import edu.jhuapl.sd.sig.mmtc.products.model.SclkKernel;
+import edu.jhuapl.sd.sig.mmtc.products.definition.util.ResolvedProductDirPrefixSuffix;
+import edu.jhuapl.sd.sig.mmtc.products.util.GenericCsv;
 import edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig;
-import edu.jhuapl.sd.sig.mmtc.webapp.controller.OutputProductController;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.WebAppMetrics;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.CsvRowIndex;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentity;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentityCache;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class OutputProductService {
@@ -21,25 +27,256 @@ public class OutputProductService {
     private final List<OutputProductDefinition<?>> outputProductDefs;
     private final SclkKernelProductDefinition sclkKernelOutputProductDef;
 
+    // small caches of recently-viewed product contents, each entry valid only while its file is unchanged on disk
+    private static final int MAX_CACHED_PRODUCTS = 8;
+    private final FileIdentityCache<String> productTextCache = new FileIdentityCache<>(
+            MAX_CACHED_PRODUCTS,
+            path -> String.join("\n", Files.readAllLines(path))
+    );
+    private final FileIdentityCache<TableResult> productTableCache = new FileIdentityCache<>(
+            MAX_CACHED_PRODUCTS,
+            path -> {
+                GenericCsv csv = new GenericCsv(path);
+                return new TableResult(csv.getHeaders(), Collections.unmodifiableList(csv.getRows()));
+            }
+    );
+
+    // the sorted filenames of each product, so that directories are only re-listed when their contents change
+    private final OutputProductCatalog catalog = new OutputProductCatalog();
+
+    private final FileIdentityCache<CsvRowIndex> productRowIndexCache = new FileIdentityCache<>(
+            MAX_CACHED_PRODUCTS,
+            CsvRowIndex::build
+    );
+
     public OutputProductService(MmtcWebAppConfig config) {
         this.config = config;
         this.outputProductDefs = config.getAllOutputProductDefs();
         this.sclkKernelOutputProductDef = (SclkKernelProductDefinition) this.outputProductDefs.stream().filter(def -> def.getName().equals(SclkKernelProductDefinition.PRODUCT_NAME)).findFirst().get();
     }
 
+    /**
+     * Registers the hit ratios and sizes of this service's product content caches.
+     *
+     * @param metrics the registry to register with
+     */
+    public void registerMetrics(WebAppMetrics metrics) {
+        metrics.registerCache("product-text", productTextCache);
+        metrics.registerCache("product-table", productTableCache);
+        metrics.registerCache("product-row-index", productRowIndexCache);
+    }
+
+    public record TableResult (
+            List<String> columns,
+            List<Map<String, String>> rows
+    ) { }
+
+    public enum RowOrder {
+        ASC,
+        DESC
+    }
+
+    /**
+     * A request for a subset of a tabular product's rows and columns.  Rows are addressed by their index in the file,
+     * where 0 is the first row after the header.
+     *
+     * @param offset the number of rows to skip, counted in the requested order
+     * @param limit the maximum number of rows to return
+     * @param last if present, return only the final N rows of the file (overriding offset and limit)
+     * @param columns if present, the columns to include in each row, in order
+     * @param order whether to return rows in increasing or decreasing row index order
+     */
+    public record TablePageRequest (
+            int offset,
+            Optional<Integer> limit,
+            Optional<Integer> last,
+            Optional<List<String>> columns,
+            RowOrder order
+    ) {
+        public TablePageRequest {
+            if (offset < 0) {
+                throw new IllegalArgumentException("offset must not be negative");
+            }
+            if (limit.isPresent() && limit.get() < 0) {
+                throw new IllegalArgumentException("limit must not be negative");
+            }
+            if (last.isPresent() && last.get() < 0) {
+                throw new IllegalArgumentException("last must not be negative");
+            }
+        }
+
+        /**
+         * @param rowCount the total number of rows in the table
+         * @return the half-open range [from, to) of row indices selected by this request, in file order
+         */
+        public int[] resolveRowRange(int rowCount) {
+            if (last.isPresent()) {
+                return new int[] {rowCount - Math.min(rowCount, last.get()), rowCount};
+            }
+
+            final long available = Math.max(0, rowCount - (long) offset);
+            final int count = (int) Math.min(available, limit.orElse(rowCount));
+
+            if (order == RowOrder.ASC) {
+                final int from = (int) Math.min(rowCount, offset);
+                return new int[] {from, from + count};
+            } else {
+                final int to = (int) available;
+                return new int[] {to - count, to};
+            }
+        }
+
+        /**
+         * @param headers the columns of the table, in order
+         * @return the columns selected by this request, in order
+         * @throws UnknownColumnException if this request selects a column that is not in the table
+         */
+        public List<String> resolveColumns(List<String> headers) {
+            if (columns.isEmpty()) {
+                return headers;
+            }
+
+            for (String column : columns.get()) {
+                if (! headers.contains(column)) {
+                    throw new UnknownColumnException(column);
+                }
+            }
+            return columns.get();
+        }
+    }
+
+    /**
+     * Thrown when a page of a tabular product is requested with a column that the product does not have.
+     */
+    public static class UnknownColumnException extends IllegalArgumentException {
+        public UnknownColumnException(String column) {
+            super("No such column: " + column);
+        }
+    }
+
+    /**
+     * A page of a tabular product.
+     *
+     * @param columns the columns included in each row
+     * @param rows the selected rows, in the requested order
+     * @param totalRows the total number of rows in the product
+     * @param firstRowIndex the row index of the first returned row (or of where it would be, if no rows are returned)
+     * @param order the order of the returned rows
+     */
+    public record TablePage (
+            List<String> columns,
+            List<Map<String, String>> rows,
+            int totalRows,
+            int firstRowIndex,
+            RowOrder order
+    ) { }
+
+    /**
+     * Reads a subset of a tabular product's rows and columns via an index of row offsets, such that only the requested
+     * rows are parsed.  The index is built on first access and rebuilt whenever the product file changes.
+     *
+     * @param productPath the path to the CSV product
+     * @param request the rows and columns to retrieve
+     * @return the requested page and the identity of the file it was read from
+     * @throws MmtcException if the product cannot be read
+     * @throws IOException if the product cannot be read
+     * @throws UnknownColumnException if the request selects a column that the product does not have
+     */
+    public FileIdentityCache.Entry<TablePage> getProductContentsAsTablePage(Path productPath, TablePageRequest request) throws MmtcException, IOException {
+        final FileIdentityCache.Entry<CsvRowIndex> index = productRowIndexCache.get(productPath);
+        final CsvRowIndex rowIndex = index.value();
+
+        final List<String> columns = request.resolveColumns(rowIndex.getHeaders());
+        final int[] range = request.resolveRowRange(rowIndex.getRowCount());
+        final List<Map<String, String>> rows = new ArrayList<>(rowIndex.readRows(productPath, range[0], range[1], columns));
+
+        final int firstRowIndex;
+        if (request.order() == RowOrder.DESC) {
+            Collections.reverse(rows);
+            firstRowIndex = range[1] - 1;
+        } else {
+            firstRowIndex = range[0];
+        }
+
+        return new FileIdentityCache.Entry<>(
+                index.identity(),
+                new TablePage(columns, Collections.unmodifiableList(rows), rowIndex.getRowCount(), firstRowIndex, request.order())
+        );
+    }
+
+    public FileIdentityCache.Entry<String> getProductContents(Path productPath) throws MmtcException, IOException {
+        return productTextCache.get(productPath);
+    }
+
+    public FileIdentityCache.Entry<TableResult> getProductContentsAsTable(Path productPath) throws MmtcException, IOException {
+        return productTableCache.get(productPath);
+    }
+
+    /**
+     * Resolves the path to a specific file of an output product without listing the product's directory.
+     *
+     * @param def the output product definition
+     * @param filename the name of the file (ignored for single-file products)
+     * @return the path to the existing file
+     * @throws MmtcException if there is no such file for the given product
+     */
+    public Path getFilePathForOutputProduct(OutputProductDefinition<?> def, String filename) throws MmtcException {
+        if (def instanceof EntireFileOutputProductDefinition) {
+            ResolvedProductDirPrefixSuffix location = ((EntireFileOutputProductDefinition) def).resolveLocation(config);
+            Path candidate = location.containingDirectory.resolve(filename).normalize();
+
+            // guard against names that would resolve outside of the product directory
+            boolean isValidName = candidate.getParent() != null
+                    && candidate.getParent().equals(location.containingDirectory.normalize())
+                    && filename.startsWith(location.filenamePrefix)
+                    && filename.endsWith(location.filenameSuffix);
+
+            if (! isValidName || ! Files.isRegularFile(candidate)) {
+                throw new MmtcException("No file with filename: " + filename);
+            }
+
+            return candidate;
+        }
+
+        if (def instanceof AppendedFileOutputProductDefinition) {
+            return ((AppendedFileOutputProductDefinition) def).resolveLocation(config).pathToProduct;
+        }
+
+        throw new MmtcException("Unexpected type for: " + def.getName());
+    }
+
+    /**
+     * Returns the identities of the directories and files whose contents determine the result of
+     * {@link #getAllOutputProductDefs()}: any product file being written, rolled back, or removed changes at least
+     * one of them.
+     *
+     * @return the identities, in a stable order
+     * @throws MmtcException if a product location cannot be resolved
+     * @throws IOException if a location's attributes cannot be read
+     */
+    public List<FileIdentity> getOutputProductListingIdentities() throws MmtcException, IOException {
+        final List<FileIdentity> identities = new ArrayList<>();
+
+        for (OutputProductDefinition<?> def : outputProductDefs) {
+            if (def instanceof EntireFileOutputProductDefinition) {
+                identities.add(FileIdentity.of(((EntireFileOutputProductDefinition) def).resolveLocation(config).containingDirectory));
+            } else if (def instanceof AppendedFileOutputProductDefinition) {
+                identities.add(FileIdentity.of(((AppendedFileOutputProductDefinition) def).resolveLocation(config).pathToProduct));
+            } else {
+                throw new MmtcException("Unexpected type for: " + def.getName());
+            }
+        }
+
+        return identities;
+    }
+
     public SclkKernelProductDefinition getSclkKernelOutputProductDef() {
         return this.sclkKernelOutputProductDef;
     }
 
     public List<String> getExistingFilenamesForDef(OutputProductDefinition<?> def) throws MmtcException, IOException {
         if (def instanceof EntireFileOutputProductDefinition) {
-            return ((EntireFileOutputProductDefinition) def)
-                    .resolveLocation(config)
-                    .findAllMatching()
-                    .stream()
-                    .map(p -> p.getFileName().toString())
-                    .sorted(Collections.reverseOrder()) // to sort most recent filenames first
-                    .toList();
+            return catalog.getFilenames(((EntireFileOutputProductDefinition) def).resolveLocation(config));
         }
 
         if (def instanceof AppendedFileOutputProductDefinition) {
@@ -56,9 +293,31 @@ public class OutputProductService {
     }
 
     public Optional<String> getLatestFilenameForDef(OutputProductDefinition<?> def) throws MmtcException, IOException {
+        if (def instanceof EntireFileOutputProductDefinition) {
+            return catalog.getLatestFilename(((EntireFileOutputProductDefinition) def).resolveLocation(config));
+        }
+
         return getExistingFilenamesForDef(def).stream().findFirst();
     }
 
+    /**
+     * Resolves the path to an existing SCLK kernel output product by its filename, using the catalog of known SCLK
+     * kernels rather than listing the SCLK kernel directory.
+     *
+     * @param sclkKernelFilename the filename of the SCLK kernel
+     * @return the path to the SCLK kernel
+     * @throws IOException if no SCLK kernel exists with the given filename
+     */
+    public Path getSclkKernelPath(String sclkKernelFilename) throws IOException {
+        final ResolvedProductDirPrefixSuffix location = sclkKernelOutputProductDef.resolveLocation(config);
+
+        if (! catalog.getFilenames(location).contains(sclkKernelFilename)) {
+            throw new IOException("No such product with filename: " + sclkKernelFilename);
+        }
+
+        return location.containingDirectory.resolve(sclkKernelFilename);
+    }
+
     public List<OutputProductDef> getAllOutputProductDefs() {
         return outputProductDefs.stream()
                 .map(def -> {
@@ -1,24 +1,31 @@
 package edu.jhuapl.sd.sig.mmtc.webapp.service;
 
 import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
-import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationMetricsConfig;
+import edu.jhuapl.sd.sig.mmtc.cfg.SclkPartitionMap;
+import edu.jhuapl.sd.sig.mmtc.metrics.Histogram;
 import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
 import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
-import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
 import edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.WebAppMetrics;
+import edu.jhuapl.sd.sig.mmtc.webapp.spice.SpiceBackend;
 
 import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class TelemetryService {
 
     private final MmtcWebAppConfig config;
+    private final SpiceBackend spiceBackend;
+    private final Histogram fetchNanos = new Histogram();
 
-    public TelemetryService(MmtcWebAppConfig config) {
+    public TelemetryService(MmtcWebAppConfig config, SpiceBackend spiceBackend) {
         this.config = config;
+        this.spiceBackend = spiceBackend;
     }
 
     public record TimekeepingTelemetryPoint(
@@ -30,71 +37,115 @@ public class TelemetryService {
     ) { }
 
 
-    public synchronized List<TimekeepingTelemetryPoint> getTelemetryPoints(OffsetDateTime beginTimeErt, OffsetDateTime endTimeErt, Path sclkKernelPath) throws Exception {
-        final List<FrameSample> frameSamples = config.getTelemetrySource().getSamplesInRange(beginTimeErt, endTimeErt);
-
-        return config.withSpiceMutexAndKernels(sclkKernelPath, () -> {
-            return enrichFrameSamples(frameSamples);
-        });
+    /**
+     * Registers the time taken to fetch telemetry from the configured telemetry source.
+     *
+     * @param metrics the registry to register with
+     */
+    public void registerMetrics(WebAppMetrics metrics) {
+        metrics.registerHistogram(
+                "mmtc_telemetry_fetch_duration_seconds",
+                "Time taken to fetch telemetry from the telemetry source, including any wait for a concurrent fetch",
+                WebAppMetrics.labels("source", config.getTelemetrySourceName()),
+                fetchNanos
+        );
     }
 
-    private List<TimekeepingTelemetryPoint> enrichFrameSamples(List<FrameSample> frameSamples) throws Exception {
-        TimeCorrelationMetricsConfig metricsConfig = new TimeCorrelationMetricsConfig() {
-            @Override
-            public double getFrameErtBitOffsetError() {
-                return config.getFrameErtBitOffsetError();
-            }
+    /**
+     * @return true if telemetry points can be calculated for several requests at once
+     */
+    public boolean isConcurrent() {
+        return spiceBackend.isConcurrent();
+    }
 
-            @Override
-            public Integer getTkSclkFineTickModulus() throws TimeConvertException {
-                return config.getTkSclkFineTickModulus();
-            }
+    public List<TimekeepingTelemetryPoint> getTelemetryPoints(OffsetDateTime beginTimeErt, OffsetDateTime endTimeErt, Path sclkKernelPath) throws Exception {
+        return enrichFrameSamples(
+                getSamplesInRange(beginTimeErt, endTimeErt),
+                config.getKernelsToLoadWithSclkKernel(sclkKernelPath),
+                Collections.emptyList()
+        );
+    }
 
-            @Override
-            public int getNaifSpacecraftId() {
-                return config.getNaifSpacecraftId();
-            }
+    /**
+     * Calculates telemetry points using an SCLK kernel that exists only in memory, such as one generated for a preview.
+     *
+     * @param beginTimeErt the beginning of the ERT range of telemetry to retrieve
+     * @param endTimeErt the end of the ERT range of telemetry to retrieve
+     * @param sclkKernelLines the full contents of the SCLK kernel
+     * @return the telemetry points
+     * @throws Exception if telemetry could not be retrieved or its metrics could not be calculated
+     */
+    public List<TimekeepingTelemetryPoint> getTelemetryPointsWithSclkKernelContents(OffsetDateTime beginTimeErt, OffsetDateTime endTimeErt, List<String> sclkKernelLines) throws Exception {
+        return enrichFrameSamples(
+                getSamplesInRange(beginTimeErt, endTimeErt),
+                config.getKernelsToLoad(false),
+                sclkKernelLines
+        );
+    }
 
-            @Override
-            public boolean isTestMode() {
-                return config.isTestModeOwltEnabled();
-            }
+    private List<FrameSample> getSamplesInRange(OffsetDateTime beginTimeErt, OffsetDateTime endTimeErt) throws MmtcException {
+        final long start = System.nanoTime();
 
-            @Override
-            public double getTestModeOwlt() {
-                return config.getTestModeOwltSec();
+        // telemetry sources are not required to be thread-safe
+        try {
+            synchronized (this) {
+                return config.getTelemetrySource().getSamplesInRange(beginTimeErt, endTimeErt);
             }
+        } finally {
+            fetchNanos.record(System.nanoTime() - start);
+        }
+    }
 
-            @Override
-            public String getStationId(int pathId) throws MmtcException {
-                return config.getStationId(pathId);
-            }
+    private List<TimekeepingTelemetryPoint> enrichFrameSamples(List<FrameSample> frameSamples, Map<String, String> kernels, List<String> textKernelLines) throws Exception {
+        final SpiceBackend.FrameMetricsParams params = new SpiceBackend.FrameMetricsParams(
+                config.getNaifSpacecraftId(),
+                config.getSclkModulusOverride(),
+                config.isTestModeOwltEnabled(),
+                config.getTestModeOwltSec(),
+                config.getSpacecraftTimeDelaySec(),
+                config.getFrameErtBitOffsetError()
+        );
+
+        // resolve everything that only depends on configuration here, so that the SPICE backend only needs the kernels
+        final List<SpiceBackend.FrameMetricsInput> inputs = new ArrayList<>(frameSamples.size());
+        final SclkPartitionMap.Cursor sclkPartitions = config.newSclkPartitionCursor();
+        for (FrameSample fs : frameSamples) {
+            fs.computeAndSetTdBe(params.frameErtBitOffsetError());
+
+            inputs.add(new SpiceBackend.FrameMetricsInput(
+                    fs.getErtStr(),
+                    fs.getPathId(),
+                    config.getStationId(fs.getPathId()),
+                    sclkPartitions.getSclkPartition(TimeConvert.parseIsoDoyUtcStr(fs.getErtStr())),
+                    fs.getTkSclkCoarse(),
+                    fs.getTkSclkFine(),
+                    fs.getDerivedTdBe()
+            ));
+        }
 
-            @Override
-            public int getSclkPartition(OffsetDateTime groundReceiptTime) {
-                return config.getSclkPartition(groundReceiptTime);
-            }
+        final List<SpiceBackend.FrameMetrics> metrics = spiceBackend.calculateFrameMetrics(
+                kernels,
+                textKernelLines,
+                params,
+                inputs
+        );
 
-            @Override
-            public double getSpacecraftTimeDelaySec() {
-                return config.getSpacecraftTimeDelaySec();
-            }
-        };
+        if (metrics.size() != frameSamples.size()) {
+            throw new MmtcException(String.format("Expected metrics for %d frame samples, but received %d", frameSamples.size(), metrics.size()));
+        }
 
         final List<TimekeepingTelemetryPoint> list = new ArrayList<>();
 
-        for (FrameSample fs : frameSamples) {
-            fs.computeAndSetTdBe(metricsConfig.getFrameErtBitOffsetError());
-
-            final TimeConvert.FrameSampleMetrics fsMetrics = TimeConvert.calculateFrameSampleMetrics(metricsConfig, fs);
+        for (int i = 0; i < frameSamples.size(); i++) {
+            final SpiceBackend.FrameMetrics fsMetrics = metrics.get(i);
 
             list.add(
                     new TimekeepingTelemetryPoint(
-                            fs,
-                            fsMetrics.tdtG,
-                            TimeConvert.timeToIsoUtcString(fsMetrics.scetUtc),
-                            new BigDecimal(fsMetrics.scetErrorNanos).divide(new BigDecimal(1_000_000.0)).doubleValue(),
-                            fsMetrics.owltSec
+                            frameSamples.get(i),
+                            fsMetrics.tdtG(),
+                            fsMetrics.scetUtc(),
+                            new BigDecimal(fsMetrics.scetErrorNanos()).divide(new BigDecimal(1_000_000.0)).doubleValue(),
+                            fsMetrics.owltSec()
                     )
             );
         }
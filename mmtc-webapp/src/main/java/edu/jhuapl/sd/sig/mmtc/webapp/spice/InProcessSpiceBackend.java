@@ -0,0 +1,41 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes SPICE calculations within the web application's own process, one request at a time.
+ */
+public class InProcessSpiceBackend implements SpiceBackend {
+    private final SpiceKernelScope kernelScope;
+
+    public InProcessSpiceBackend(SpiceKernelScope kernelScope) {
+        this.kernelScope = kernelScope;
+    }
+
+    @Override
+    public List<FrameMetrics> calculateFrameMetrics(Map<String, String> kernels, List<String> textKernelLines, FrameMetricsParams params, List<FrameMetricsInput> inputs) throws MmtcException {
+        return kernelScope.withKernels(kernels, () -> {
+            if (! textKernelLines.isEmpty()) {
+                TimeConvert.loadSpiceKernelText(textKernelLines);
+            }
+            return SpiceOperations.calculateFrameMetrics(params, inputs);
+        });
+    }
+
+    @Override
+    public List<TdtConversion> convertTdtCalStrs(Map<String, String> kernels, List<String> tdtCalStrs, int utcPrecision) throws MmtcException {
+        return kernelScope.withKernels(kernels, () -> SpiceOperations.convertTdtCalStrs(tdtCalStrs, utcPrecision));
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return false;
+    }
+
+    @Override
+    public void close() { }
+}
@@ -0,0 +1,86 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes batches of SPICE-dependent calculations on behalf of the web application.  Because CSPICE's state is
+ * process-global, the in-process implementation must serialize all work behind a single mutex; the worker pool
+ * implementation instead distributes batches across several child JVMs, each with its own CSPICE state.
+ * <p>
+ * Every request names the full set of kernels its calculations require, in load order.  Frame metrics requests may
+ * additionally supply the contents of a text kernel (e.g. a candidate SCLK kernel) to be loaded from memory after
+ * those files, so that kernels which have not been written to disk can be evaluated.
+ */
+public interface SpiceBackend extends AutoCloseable {
+
+    /**
+     * Mission-wide parameters needed to calculate frame sample metrics.
+     *
+     * @param naifSpacecraftId the NAIF ID of the spacecraft
+     * @param sclkModulusOverride the configured TK SCLK fine tick modulus, or -1 to read it from the SCLK kernel
+     * @param testMode whether to use a fixed OWLT instead of calculating it from ephemerides
+     * @param testModeOwltSec the fixed OWLT to use in test mode
+     * @param spacecraftTimeDelaySec the spacecraft's internal time delay
+     * @param frameErtBitOffsetError the configured error in each frame's ERT bit offset
+     */
+    record FrameMetricsParams(
+            int naifSpacecraftId,
+            int sclkModulusOverride,
+            boolean testMode,
+            double testModeOwltSec,
+            double spacecraftTimeDelaySec,
+            double frameErtBitOffsetError
+    ) { }
+
+    /**
+     * The subset of a FrameSample's values that are needed to calculate its metrics.  Values that only depend on
+     * configuration (the ground station and SCLK partition) are resolved by the caller.
+     */
+    record FrameMetricsInput(
+            String ertStr,
+            int pathId,
+            String stationId,
+            int sclkPartition,
+            int tkSclkCoarse,
+            int tkSclkFine,
+            double derivedTdBe
+    ) { }
+
+    /**
+     * The calculated metrics for a single frame sample; see {@link edu.jhuapl.sd.sig.mmtc.util.TimeConvert.FrameSampleMetrics}.
+     */
+    record FrameMetrics(
+            double tdtG,
+            String scetUtc,
+            double scetErrorNanos,
+            double owltSec
+    ) { }
+
+    /**
+     * A TDT calendar string converted to TDT seconds and a UTC calendar string.
+     */
+    record TdtConversion(
+            double tdt,
+            String utc
+    ) { }
+
+    default List<FrameMetrics> calculateFrameMetrics(Map<String, String> kernels, FrameMetricsParams params, List<FrameMetricsInput> inputs) throws MmtcException {
+        return calculateFrameMetrics(kernels, Collections.emptyList(), params, inputs);
+    }
+
+    List<FrameMetrics> calculateFrameMetrics(Map<String, String> kernels, List<String> textKernelLines, FrameMetricsParams params, List<FrameMetricsInput> inputs) throws MmtcException;
+
+    List<TdtConversion> convertTdtCalStrs(Map<String, String> kernels, List<String> tdtCalStrs, int utcPrecision) throws MmtcException;
+
+    /**
+     * @return true if this backend can usefully execute requests from multiple threads at once
+     */
+    boolean isConcurrent();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,15 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Provides exclusive access to this process's CSPICE state with a given set of kernels loaded, such as
+ * {@link edu.jhuapl.sd.sig.mmtc.webapp.config.MmtcWebAppConfig#withSpiceMutexAndKernels(Map, Callable)}.
+ */
+@FunctionalInterface
+public interface SpiceKernelScope {
+    <T> T withKernels(Map<String, String> kernels, Callable<T> callable) throws MmtcException;
+}
@@ -0,0 +1,146 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.app.TimeCorrelationTarget;
+import edu.jhuapl.sd.sig.mmtc.cfg.TimeCorrelationMetricsConfig;
+import edu.jhuapl.sd.sig.mmtc.tlm.FrameSample;
+import edu.jhuapl.sd.sig.mmtc.util.OwltService;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvertException;
+import spice.basic.SpiceErrorException;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The calculations supported by {@link SpiceBackend}s.  These assume that the necessary kernels are already loaded
+ * into the current process's CSPICE state, and that the caller has exclusive access to it.
+ */
+class SpiceOperations {
+    private SpiceOperations() { }
+
+    static List<SpiceBackend.FrameMetrics> calculateFrameMetrics(SpiceBackend.FrameMetricsParams params, List<SpiceBackend.FrameMetricsInput> inputs) throws MmtcException, TimeConvertException, SpiceErrorException {
+        final int tickModulus = params.sclkModulusOverride() > 0
+                ? params.sclkModulusOverride()
+                : TimeConvert.getSclkKernelTickRate(params.naifSpacecraftId());
+
+        final List<SpiceBackend.FrameMetrics> results = new ArrayList<>(inputs.size());
+
+        // the frames of a batch are typically received over a few station passes, so their OWLTs are interpolated
+        final OwltService owltService = new OwltService();
+
+        // each station's NAIF ID is resolved once per batch, and not kept across batches, whose loaded kernels may differ
+        final Map<String, Integer> stationNaifIds = new HashMap<>();
+
+        final List<TimeCorrelationTarget> tcTargets = new ArrayList<>(inputs.size());
+        for (SpiceBackend.FrameMetricsInput input : inputs) {
+            final FrameSample fs = new FrameSample();
+            fs.setErtStr(input.ertStr());
+            fs.setPathId(input.pathId());
+            fs.setTkSclkCoarse(input.tkSclkCoarse());
+            fs.setTkSclkFine(input.tkSclkFine());
+            fs.setDerivedTdBe(input.derivedTdBe());
+
+            tcTargets.add(new TimeCorrelationTarget(Collections.singletonList(fs), new SingleFrameMetricsConfig(params, tickModulus, input, stationNaifIds), tickModulus, owltService));
+        }
+
+        // the SCET conversions of the whole batch share their kernel pool lookups
+        for (TimeConvert.FrameSampleMetrics metrics : TimeConvert.calculateFrameSampleMetrics(params.naifSpacecraftId(), tcTargets)) {
+            results.add(new SpiceBackend.FrameMetrics(
+                    metrics.tdtG,
+                    TimeConvert.timeToIsoUtcString(metrics.scetUtc),
+                    metrics.scetErrorNanos,
+                    metrics.owltSec
+            ));
+        }
+
+        return results;
+    }
+
+    static List<SpiceBackend.TdtConversion> convertTdtCalStrs(List<String> tdtCalStrs, int utcPrecision) throws TimeConvertException {
+        final List<SpiceBackend.TdtConversion> results = new ArrayList<>(tdtCalStrs.size());
+
+        // each string is parsed once, and its ET converted to both TDT and UTC
+        final double[] ets = TimeConvert.tdtCalStrToEt(tdtCalStrs.toArray(new String[0]));
+        final double[] tdts = TimeConvert.etToTdt(ets);
+        final String[] utcs = TimeConvert.etToUtc(ets, utcPrecision);
+
+        for (int i = 0; i < ets.length; i++) {
+            results.add(new SpiceBackend.TdtConversion(tdts[i], utcs[i]));
+        }
+
+        return results;
+    }
+
+    /**
+     * Answers the configuration lookups made while calculating a single frame's metrics from values the caller
+     * resolved ahead of time, so that no configuration needs to be present in a worker process.
+     */
+    private static class SingleFrameMetricsConfig implements TimeCorrelationMetricsConfig {
+        private final SpiceBackend.FrameMetricsParams params;
+        private final int tickModulus;
+        private final SpiceBackend.FrameMetricsInput input;
+        private final Map<String, Integer> stationNaifIds;
+
+        SingleFrameMetricsConfig(SpiceBackend.FrameMetricsParams params, int tickModulus, SpiceBackend.FrameMetricsInput input, Map<String, Integer> stationNaifIds) {
+            this.params = params;
+            this.tickModulus = tickModulus;
+            this.input = input;
+            this.stationNaifIds = stationNaifIds;
+        }
+
+        @Override
+        public double getFrameErtBitOffsetError() {
+            return params.frameErtBitOffsetError();
+        }
+
+        @Override
+        public Integer getTkSclkFineTickModulus() {
+            return tickModulus;
+        }
+
+        @Override
+        public int getNaifSpacecraftId() {
+            return params.naifSpacecraftId();
+        }
+
+        @Override
+        public boolean isTestMode() {
+            return params.testMode();
+        }
+
+        @Override
+        public double getTestModeOwlt() {
+            return params.testModeOwltSec();
+        }
+
+        @Override
+        public String getStationId(int pathId) {
+            return input.stationId();
+        }
+
+        @Override
+        public int getStationNaifId(int pathId) throws TimeConvertException {
+            Integer naifId = stationNaifIds.get(input.stationId());
+            if (naifId == null) {
+                naifId = TimeConvert.nameToNaifId(input.stationId());
+                stationNaifIds.put(input.stationId(), naifId);
+            }
+            return naifId;
+        }
+
+        @Override
+        public int getSclkPartition(OffsetDateTime groundReceiptTime) {
+            return input.sclkPartition();
+        }
+
+        @Override
+        public double getSpacecraftTimeDelaySec() {
+            return params.spacecraftTimeDelaySec();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point for a SPICE worker process started by {@link SpiceWorkerPool}.  The worker connects back to the pool
+ * over the Unix domain socket given as its sole argument and then serves requests until the pool disconnects or asks
+ * it to shut down.
+ * <p>
+ * The set of kernels loaded for the previous request is retained, so consecutive requests against the same, unmodified
+ * kernels (the common case) do not pay to reload them.
+ */
+public class SpiceWorkerMain {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 4096;
+
+    private List<String> loadedKernelsSignature = Collections.emptyList();
+    private List<String> loadedTextKernelLines = Collections.emptyList();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("usage: SpiceWorkerMain <socket path>");
+            System.exit(2);
+        }
+
+        TimeConvert.loadSpiceLib();
+
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(Paths.get(args[0])));
+            new SpiceWorkerMain().serve(
+                    new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))),
+                    new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))
+            );
+        }
+    }
+
+    private void serve(DataInputStream in, DataOutputStream out) throws Exception {
+        while (true) {
+            final byte op;
+            try {
+                op = in.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+
+            if (op == SpiceWorkerProtocol.OP_SHUTDOWN) {
+                return;
+            }
+
+            final Map<String, String> kernels = SpiceWorkerProtocol.readKernels(in);
+            final List<String> textKernelLines = SpiceWorkerProtocol.readTextKernelLines(in);
+
+            // read the entire request before doing any work, so that the stream stays in sync even if the request fails
+            switch (op) {
+                case SpiceWorkerProtocol.OP_FRAME_METRICS -> {
+                    final SpiceBackend.FrameMetricsParams params = SpiceWorkerProtocol.readFrameMetricsParams(in);
+                    final List<SpiceBackend.FrameMetricsInput> inputs = SpiceWorkerProtocol.readFrameMetricsInputs(in);
+                    try {
+                        ensureKernelsLoaded(kernels, textKernelLines);
+                        final List<SpiceBackend.FrameMetrics> results = SpiceOperations.calculateFrameMetrics(params, inputs);
+                        out.writeByte(SpiceWorkerProtocol.STATUS_OK);
+                        SpiceWorkerProtocol.writeFrameMetrics(out, results);
+                    } catch (Exception e) {
+                        writeError(out, e);
+                    }
+                }
+                case SpiceWorkerProtocol.OP_TDT_CONVERSIONS -> {
+                    final int utcPrecision = SpiceWorkerProtocol.readUtcPrecision(in);
+                    final List<String> tdtCalStrs = SpiceWorkerProtocol.readTdtCalStrs(in);
+                    try {
+                        ensureKernelsLoaded(kernels, textKernelLines);
+                        final List<SpiceBackend.TdtConversion> results = SpiceOperations.convertTdtCalStrs(tdtCalStrs, utcPrecision);
+                        out.writeByte(SpiceWorkerProtocol.STATUS_OK);
+                        SpiceWorkerProtocol.writeTdtConversions(out, results);
+                    } catch (Exception e) {
+                        writeError(out, e);
+                    }
+                }
+                default -> throw new IllegalStateException("Unrecognized SPICE worker operation: " + op);
+            }
+
+            out.flush();
+        }
+    }
+
+    private void ensureKernelsLoaded(Map<String, String> kernels, List<String> textKernelLines) throws Exception {
+        final List<String> signature = signatureOf(kernels);
+        if (signature.equals(loadedKernelsSignature) && textKernelLines.equals(loadedTextKernelLines)) {
+            return;
+        }
+
+        TimeConvert.unloadSpiceKernels();
+        loadedKernelsSignature = Collections.emptyList();
+        loadedTextKernelLines = Collections.emptyList();
+
+        TimeConvert.loadSpiceKernels(kernels);
+        if (! textKernelLines.isEmpty()) {
+            TimeConvert.loadSpiceKernelText(textKernelLines);
+        }
+
+        loadedKernelsSignature = signature;
+        loadedTextKernelLines = textKernelLines;
+    }
+
+    /**
+     * Identifies a set of kernels by their paths, types, and file identities, in load order (which determines
+     * precedence), so that a kernel rewritten in place is never mistaken for the one already loaded.
+     */
+    private static List<String> signatureOf(Map<String, String> kernels) throws IOException {
+        final List<String> signature = new ArrayList<>(kernels.size());
+        for (Map.Entry<String, String> kernel : kernels.entrySet()) {
+            final Path path = Paths.get(kernel.getKey());
+            signature.add(String.format("%s|%s|%d|%d", kernel.getKey(), kernel.getValue(), Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+        }
+        return signature;
+    }
+
+    private void writeError(DataOutputStream out, Exception e) throws Exception {
+        logger.error("SPICE worker request failed", e);
+
+        // start from a clean kernel pool on the next request, in case the failure left it in an unknown state
+        TimeConvert.unloadSpiceKernels();
+        loadedKernelsSignature = Collections.emptyList();
+        loadedTextKernelLines = Collections.emptyList();
+
+        out.writeByte(SpiceWorkerProtocol.STATUS_ERROR);
+        final String message = String.valueOf(e.getMessage());
+        out.writeUTF(message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message);
+    }
+}
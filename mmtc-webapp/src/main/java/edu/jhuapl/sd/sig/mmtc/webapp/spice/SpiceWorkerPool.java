@@ -0,0 +1,466 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes SPICE calculations in a pool of child JVMs, each of which has its own CSPICE state, so that requests from
+ * multiple users can be served in parallel.  Workers communicate with the pool over Unix domain sockets in a
+ * private, owner-only temporary directory.
+ * <p>
+ * Each request is dispatched to a single idle worker.  If a worker's connection fails, or it does not respond to a
+ * request within {@link #REQUEST_TIMEOUT}, it is discarded and replaced in the background with a newly-started worker.
+ */
+public class SpiceWorkerPool implements SpiceBackend {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final Duration WORKER_STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration WORKER_SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+    private static final long WORKER_POLL_INTERVAL_MS = 20;
+    static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    private final List<String> workerJvmArgs;
+    private final Path socketDir;
+    private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+
+    // every running worker, whether idle or borrowed by a request; also guards changes to which workers are idle
+    private final List<Worker> allWorkers = new ArrayList<>();
+
+    private final AtomicInteger workerIdCounter = new AtomicInteger();
+    private final AtomicInteger numPendingReplacements = new AtomicInteger();
+    private final ExecutorService workerReplacer = Executors.newSingleThreadExecutor(daemonThreads("mmtc-spice-worker-replacer"));
+    private final ScheduledThreadPoolExecutor requestTimer = new ScheduledThreadPoolExecutor(1, daemonThreads("mmtc-spice-request-timer"));
+    private volatile boolean closed = false;
+
+    @FunctionalInterface
+    private interface RequestWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Starts a pool of SPICE workers, waiting until all of them have connected.
+     *
+     * @param numWorkers the number of worker processes to start
+     * @param workerJvmArgs additional arguments to pass to each worker JVM, e.g. a max heap size
+     * @throws MmtcException if any of the workers fail to start
+     */
+    public SpiceWorkerPool(int numWorkers, List<String> workerJvmArgs) throws MmtcException {
+        if (numWorkers < 1) {
+            throw new IllegalArgumentException("A SPICE worker pool requires at least one worker");
+        }
+
+        this.workerJvmArgs = new ArrayList<>(workerJvmArgs);
+
+        // nearly every request's deadline is cancelled, so don't retain them until they would have expired
+        this.requestTimer.setRemoveOnCancelPolicy(true);
+
+        try {
+            this.socketDir = Files.createTempDirectory("mmtc-spice-workers-", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (IOException e) {
+            throw new MmtcException("Unable to create a directory for SPICE worker sockets", e);
+        }
+
+        // launch all worker JVMs before waiting on any of them, so that they start up concurrently
+        final List<PendingWorker> pending = new ArrayList<>();
+        try {
+            for (int i = 0; i < numWorkers; i++) {
+                pending.add(launchWorker());
+            }
+
+            for (PendingWorker p : pending) {
+                final Worker worker = p.awaitConnection();
+                synchronized (allWorkers) {
+                    allWorkers.add(worker);
+                }
+                idleWorkers.add(worker);
+            }
+        } catch (MmtcException | RuntimeException e) {
+            pending.forEach(PendingWorker::abandon);
+            close();
+            throw e;
+        }
+
+        logger.info(String.format("Started %d SPICE worker processes", numWorkers));
+    }
+
+    @Override
+    public List<FrameMetrics> calculateFrameMetrics(Map<String, String> kernels, List<String> textKernelLines, FrameMetricsParams params, List<FrameMetricsInput> inputs) throws MmtcException {
+        return dispatch(
+                SpiceWorkerProtocol.OP_FRAME_METRICS,
+                kernels,
+                textKernelLines,
+                out -> SpiceWorkerProtocol.writeFrameMetricsRequest(out, params, inputs),
+                SpiceWorkerProtocol::readFrameMetrics
+        );
+    }
+
+    @Override
+    public List<TdtConversion> convertTdtCalStrs(Map<String, String> kernels, List<String> tdtCalStrs, int utcPrecision) throws MmtcException {
+        return dispatch(
+                SpiceWorkerProtocol.OP_TDT_CONVERSIONS,
+                kernels,
+                Collections.emptyList(),
+                out -> SpiceWorkerProtocol.writeTdtConversionsRequest(out, tdtCalStrs, utcPrecision),
+                SpiceWorkerProtocol::readTdtConversions
+        );
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    public int getNumWorkers() {
+        synchronized (allWorkers) {
+            return allWorkers.size();
+        }
+    }
+
+    private <T> T dispatch(byte op, Map<String, String> kernels, List<String> textKernelLines, RequestWriter requestWriter, ResponseReader<T> responseReader) throws MmtcException {
+        final Worker worker = borrowWorker();
+        boolean reusable = false;
+
+        // the worker's channel cannot time out reads itself, so a worker that does not respond in time (e.g. as it is
+        // stuck in CSPICE) is stopped, which fails the blocked read
+        final AtomicBoolean timedOut = new AtomicBoolean(false);
+        final ScheduledFuture<?> requestDeadline;
+        try {
+            requestDeadline = requestTimer.schedule(() -> {
+                timedOut.set(true);
+                worker.destroy();
+            }, REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            returnWorker(worker);
+            throw new MmtcException("The SPICE worker pool has been shut down");
+        }
+
+        try {
+            worker.out.writeByte(op);
+            SpiceWorkerProtocol.writeKernels(worker.out, kernels);
+            SpiceWorkerProtocol.writeTextKernelLines(worker.out, textKernelLines);
+            requestWriter.write(worker.out);
+            worker.out.flush();
+
+            final byte status = worker.in.readByte();
+            if (status == SpiceWorkerProtocol.STATUS_ERROR) {
+                final String message = worker.in.readUTF();
+                reusable = true;
+                throw new MmtcException("SPICE worker request failed: " + message);
+            }
+
+            final T result = responseReader.read(worker.in);
+            reusable = true;
+            return result;
+        } catch (IOException e) {
+            if (timedOut.get()) {
+                throw new MmtcException(String.format("SPICE worker %d did not respond within %s", worker.id, REQUEST_TIMEOUT), e);
+            }
+            throw new MmtcException("Lost connection to SPICE worker " + worker.id, e);
+        } finally {
+            // if the deadline could not be cancelled, it has already stopped (or is stopping) the worker
+            if (requestDeadline.cancel(false) && reusable) {
+                returnWorker(worker);
+            } else {
+                replaceWorker(worker);
+            }
+        }
+    }
+
+    private Worker borrowWorker() throws MmtcException {
+        try {
+            while (true) {
+                if (closed) {
+                    throw new MmtcException("The SPICE worker pool has been shut down");
+                }
+
+                final Worker worker = idleWorkers.poll(1, TimeUnit.SECONDS);
+                if (worker != null) {
+                    return worker;
+                }
+
+                if (getNumWorkers() == 0 && numPendingReplacements.get() == 0) {
+                    throw new MmtcException("No SPICE workers are available");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MmtcException("Interrupted while waiting for a SPICE worker", e);
+        }
+    }
+
+    /**
+     * Makes a worker borrowed by a request available to other requests, or shuts it down if the pool has been closed
+     * while it was borrowed.
+     */
+    private void returnWorker(Worker worker) {
+        synchronized (allWorkers) {
+            if (! closed) {
+                idleWorkers.add(worker);
+                return;
+            }
+            allWorkers.remove(worker);
+        }
+        worker.shutdown();
+    }
+
+    /**
+     * Stops a worker whose connection can no longer be trusted, and starts a replacement on a background thread, so
+     * that the request that found it failed does not also wait for a new worker to start.
+     */
+    private void replaceWorker(Worker failed) {
+        synchronized (allWorkers) {
+            allWorkers.remove(failed);
+        }
+        failed.destroy();
+
+        if (closed) {
+            return;
+        }
+
+        numPendingReplacements.incrementAndGet();
+        try {
+            workerReplacer.execute(() -> startReplacement(failed.id));
+        } catch (RejectedExecutionException e) {
+            // the pool was closed in the meantime
+            numPendingReplacements.decrementAndGet();
+        }
+    }
+
+    private void startReplacement(int failedId) {
+        PendingWorker pending = null;
+        try {
+            pending = launchWorker();
+            final Worker replacement = pending.awaitConnection();
+            synchronized (allWorkers) {
+                if (! closed) {
+                    allWorkers.add(replacement);
+                    idleWorkers.add(replacement);
+                    logger.warn(String.format("Replaced SPICE worker %d with worker %d", failedId, replacement.id));
+                    return;
+                }
+            }
+            replacement.shutdown();
+        } catch (MmtcException e) {
+            if (pending != null) {
+                pending.abandon();
+            }
+            logger.error("Failed to replace SPICE worker " + failedId, e);
+        } finally {
+            numPendingReplacements.decrementAndGet();
+        }
+    }
+
+    private PendingWorker launchWorker() throws MmtcException {
+        final int id = workerIdCounter.getAndIncrement();
+        final Path socketPath = socketDir.resolve("worker-" + id + ".sock");
+
+        ServerSocketChannel server = null;
+        try {
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+
+            final List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            if (System.getProperty("java.library.path") != null) {
+                command.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+            }
+            command.addAll(workerJvmArgs);
+            command.add(SpiceWorkerMain.class.getName());
+            command.add(socketPath.toString());
+
+            final Process process = new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+
+            return new PendingWorker(id, process, server, socketPath);
+        } catch (IOException e) {
+            if (server != null) {
+                try {
+                    server.close();
+                } catch (IOException ignored) { }
+            }
+            throw new MmtcException("Unable to start SPICE worker " + id, e);
+        }
+    }
+
+    /**
+     * Shuts down the pool's idle workers.  Workers that are serving a request are shut down once the request is
+     * complete, rather than being sent a shutdown request in the middle of it.
+     */
+    @Override
+    public void close() {
+        final List<Worker> workers = new ArrayList<>();
+        synchronized (allWorkers) {
+            closed = true;
+            idleWorkers.drainTo(workers);
+            allWorkers.removeAll(workers);
+        }
+
+        workerReplacer.shutdownNow();
+        requestTimer.shutdown();
+
+        for (Worker worker : workers) {
+            worker.shutdown();
+        }
+
+        try {
+            // a replacement that was starting up is abandoned once interrupted, which also removes its socket
+            workerReplacer.awaitTermination(WORKER_SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            Files.deleteIfExists(socketDir);
+        } catch (IOException e) {
+            logger.warn("Unable to remove SPICE worker socket directory " + socketDir, e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return r -> {
+            final Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class PendingWorker {
+        private final int id;
+        private final Process process;
+        private final ServerSocketChannel server;
+        private final Path socketPath;
+
+        PendingWorker(int id, Process process, ServerSocketChannel server, Path socketPath) {
+            this.id = id;
+            this.process = process;
+            this.server = server;
+            this.socketPath = socketPath;
+        }
+
+        Worker awaitConnection() throws MmtcException {
+            try {
+                server.configureBlocking(false);
+                final Instant deadline = Instant.now().plus(WORKER_STARTUP_TIMEOUT);
+
+                while (Instant.now().isBefore(deadline)) {
+                    final SocketChannel channel = server.accept();
+                    if (channel != null) {
+                        channel.configureBlocking(true);
+                        return new Worker(id, process, channel);
+                    }
+
+                    if (! process.isAlive()) {
+                        throw new MmtcException(String.format("SPICE worker %d exited with code %d before connecting", id, process.exitValue()));
+                    }
+
+                    Thread.sleep(WORKER_POLL_INTERVAL_MS);
+                }
+
+                throw new MmtcException(String.format("SPICE worker %d did not connect within %s", id, WORKER_STARTUP_TIMEOUT));
+            } catch (IOException e) {
+                throw new MmtcException("Unable to accept connection from SPICE worker " + id, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MmtcException("Interrupted while starting SPICE worker " + id, e);
+            } finally {
+                closeServer();
+            }
+        }
+
+        void abandon() {
+            closeServer();
+            process.destroyForcibly();
+        }
+
+        private void closeServer() {
+            try {
+                server.close();
+                Files.deleteIfExists(socketPath);
+            } catch (IOException e) {
+                logger.warn("Unable to clean up socket for SPICE worker " + id, e);
+            }
+        }
+    }
+
+    private static class Worker {
+        private final int id;
+        private final Process process;
+        private final SocketChannel channel;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        Worker(int id, Process process, SocketChannel channel) {
+            this.id = id;
+            this.process = process;
+            this.channel = channel;
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        }
+
+        void shutdown() {
+            try {
+                out.writeByte(SpiceWorkerProtocol.OP_SHUTDOWN);
+                out.flush();
+                if (process.waitFor(WORKER_SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    channel.close();
+                    return;
+                }
+            } catch (IOException e) {
+                // fall through to forcibly stopping the worker
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            destroy();
+        }
+
+        void destroy() {
+            try {
+                channel.close();
+            } catch (IOException ignored) { }
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The binary protocol spoken between {@link SpiceWorkerPool} and {@link SpiceWorkerMain}.  Each request is a one-byte
+ * operation code, followed (for calculation requests) by the set of kernel files the operation requires, the contents
+ * of any text kernel to load from memory, and the operation's batch of inputs.  Each response is a one-byte status followed by either the batch of results or an
+ * error message.
+ */
+class SpiceWorkerProtocol {
+    static final byte OP_FRAME_METRICS = 1;
+    static final byte OP_TDT_CONVERSIONS = 2;
+    static final byte OP_SHUTDOWN = 3;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    private SpiceWorkerProtocol() { }
+
+    static void writeKernels(DataOutputStream out, Map<String, String> kernels) throws IOException {
+        out.writeInt(kernels.size());
+        for (Map.Entry<String, String> kernel : kernels.entrySet()) {
+            out.writeUTF(kernel.getKey());
+            out.writeUTF(kernel.getValue());
+        }
+    }
+
+    static Map<String, String> readKernels(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final Map<String, String> kernels = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            kernels.put(in.readUTF(), in.readUTF());
+        }
+        return kernels;
+    }
+
+    static void writeTextKernelLines(DataOutputStream out, List<String> textKernelLines) throws IOException {
+        out.writeInt(textKernelLines.size());
+        for (String line : textKernelLines) {
+            out.writeUTF(line);
+        }
+    }
+
+    static List<String> readTextKernelLines(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(in.readUTF());
+        }
+        return lines;
+    }
+
+    static void writeFrameMetricsRequest(DataOutputStream out, SpiceBackend.FrameMetricsParams params, List<SpiceBackend.FrameMetricsInput> inputs) throws IOException {
+        out.writeInt(params.naifSpacecraftId());
+        out.writeInt(params.sclkModulusOverride());
+        out.writeBoolean(params.testMode());
+        out.writeDouble(params.testModeOwltSec());
+        out.writeDouble(params.spacecraftTimeDelaySec());
+        out.writeDouble(params.frameErtBitOffsetError());
+
+        out.writeInt(inputs.size());
+        for (SpiceBackend.FrameMetricsInput input : inputs) {
+            out.writeUTF(input.ertStr());
+            out.writeInt(input.pathId());
+            out.writeUTF(input.stationId());
+            out.writeInt(input.sclkPartition());
+            out.writeInt(input.tkSclkCoarse());
+            out.writeInt(input.tkSclkFine());
+            out.writeDouble(input.derivedTdBe());
+        }
+    }
+
+    static SpiceBackend.FrameMetricsParams readFrameMetricsParams(DataInputStream in) throws IOException {
+        return new SpiceBackend.FrameMetricsParams(
+                in.readInt(),
+                in.readInt(),
+                in.readBoolean(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble()
+        );
+    }
+
+    static List<SpiceBackend.FrameMetricsInput> readFrameMetricsInputs(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final List<SpiceBackend.FrameMetricsInput> inputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inputs.add(new SpiceBackend.FrameMetricsInput(
+                    in.readUTF(),
+                    in.readInt(),
+                    in.readUTF(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readDouble()
+            ));
+        }
+        return inputs;
+    }
+
+    static void writeFrameMetrics(DataOutputStream out, List<SpiceBackend.FrameMetrics> results) throws IOException {
+        out.writeInt(results.size());
+        for (SpiceBackend.FrameMetrics result : results) {
+            out.writeDouble(result.tdtG());
+            out.writeUTF(result.scetUtc());
+            out.writeDouble(result.scetErrorNanos());
+            out.writeDouble(result.owltSec());
+        }
+    }
+
+    static List<SpiceBackend.FrameMetrics> readFrameMetrics(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final List<SpiceBackend.FrameMetrics> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(new SpiceBackend.FrameMetrics(in.readDouble(), in.readUTF(), in.readDouble(), in.readDouble()));
+        }
+        return results;
+    }
+
+    static void writeTdtConversionsRequest(DataOutputStream out, List<String> tdtCalStrs, int utcPrecision) throws IOException {
+        out.writeInt(utcPrecision);
+        out.writeInt(tdtCalStrs.size());
+        for (String tdtCalStr : tdtCalStrs) {
+            out.writeUTF(tdtCalStr);
+        }
+    }
+
+    static int readUtcPrecision(DataInputStream in) throws IOException {
+        return in.readInt();
+    }
+
+    static List<String> readTdtCalStrs(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final List<String> tdtCalStrs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tdtCalStrs.add(in.readUTF());
+        }
+        return tdtCalStrs;
+    }
+
+    static void writeTdtConversions(DataOutputStream out, List<SpiceBackend.TdtConversion> results) throws IOException {
+        out.writeInt(results.size());
+        for (SpiceBackend.TdtConversion result : results) {
+            out.writeDouble(result.tdt());
+            out.writeUTF(result.utc());
+        }
+    }
+
+    static List<SpiceBackend.TdtConversion> readTdtConversions(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final List<SpiceBackend.TdtConversion> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(new SpiceBackend.TdtConversion(in.readDouble(), in.readUTF()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,181 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the byte offset at which each record of a CSV file starts, which allows any contiguous range of rows to
+ * be read by seeking directly to it rather than parsing the whole file.  Building the index requires a single pass
+ * over the file's bytes that only tracks quoting, so it is much cheaper than a full parse.
+ * <p>
+ * Rows are parsed with the same rules as {@link edu.jhuapl.sd.sig.mmtc.products.util.GenericCsv}: the first record is
+ * the header, values are trimmed, and blank lines are skipped.
+ */
+public class CsvRowIndex {
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.withTrim();
+
+    private final List<String> headers;
+
+    // the byte offset of the start of each data row, plus a final entry holding the offset of the end of the data
+    private final long[] rowOffsets;
+    private final int rowCount;
+
+    private CsvRowIndex(List<String> headers, long[] rowOffsets, int rowCount) {
+        this.headers = Collections.unmodifiableList(headers);
+        this.rowOffsets = rowOffsets;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Scans the given CSV file and records the offset of every record.
+     *
+     * @param csvPath the path to the CSV file, whose first record must be its header
+     * @return the index
+     * @throws IOException if the file cannot be read
+     */
+    public static CsvRowIndex build(Path csvPath) throws IOException {
+        long[] offsets = new long[1024];
+        int numRecords = 0;
+
+        long pos = 0;
+        boolean inQuotes = false;
+        boolean atRecordStart = true;
+
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            final ByteBuffer buf = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+            while (channel.read(buf) != -1) {
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    final byte b = buf.get();
+
+                    if (atRecordStart) {
+                        if (b == '\n' || b == '\r') {
+                            pos++;
+                            continue;
+                        }
+
+                        if (numRecords == offsets.length - 1) {
+                            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                        }
+                        offsets[numRecords++] = pos;
+                        atRecordStart = false;
+                    }
+
+                    if (b == '"') {
+                        inQuotes = !inQuotes;
+                    } else if (b == '\n' && !inQuotes) {
+                        atRecordStart = true;
+                    }
+
+                    pos++;
+                }
+                buf.clear();
+            }
+        }
+
+        if (numRecords == 0) {
+            throw new IOException("CSV file has no header: " + csvPath);
+        }
+
+        offsets[numRecords] = pos;
+
+        final List<String> headers = new ArrayList<>();
+        try (CSVParser headerParser = CSVParser.parse(new StringReader(readSpan(csvPath, offsets[0], offsets[1])), FORMAT)) {
+            for (String header : headerParser.getRecords().get(0)) {
+                headers.add(header);
+            }
+        }
+
+        // drop the header record's offset so that offsets[i] is the start of data row i
+        return new CsvRowIndex(headers, Arrays.copyOfRange(offsets, 1, numRecords + 1), numRecords - 1);
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Reads and parses a contiguous range of data rows.
+     *
+     * @param csvPath the path to the CSV file this index was built from
+     * @param fromRow the index of the first row to read, inclusive
+     * @param toRow the index of the last row to read, exclusive
+     * @param columns the columns to include in each returned row, in order
+     * @return the rows, in file order
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the row range is invalid or a column is not in this file's header
+     */
+    public List<Map<String, String>> readRows(Path csvPath, int fromRow, int toRow, List<String> columns) throws IOException {
+        if (fromRow < 0 || toRow > rowCount || fromRow > toRow) {
+            throw new IllegalArgumentException(String.format("Invalid row range [%d, %d) for a table of %d rows", fromRow, toRow, rowCount));
+        }
+
+        for (String column : columns) {
+            if (! headers.contains(column)) {
+                throw new IllegalArgumentException("No such column: " + column);
+            }
+        }
+
+        if (fromRow == toRow) {
+            return Collections.emptyList();
+        }
+
+        final String span = readSpan(csvPath, rowOffsets[fromRow], rowOffsets[toRow]);
+        final List<Map<String, String>> rows = new ArrayList<>(toRow - fromRow);
+
+        try (CSVParser parser = CSVParser.parse(new StringReader(span), FORMAT.withHeader(headers.toArray(new String[0])))) {
+            for (CSVRecord record : parser) {
+                final Map<String, String> row = new LinkedHashMap<>();
+                for (String column : columns) {
+                    row.put(column, record.get(column));
+                }
+                rows.add(Collections.unmodifiableMap(row));
+            }
+        }
+
+        return rows;
+    }
+
+    private static String readSpan(Path csvPath, long start, long end) throws IOException {
+        final long length = end - start;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Requested span is too large to read at once: " + length + " bytes");
+        }
+
+        final ByteBuffer buf = ByteBuffer.allocate((int) length);
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long position = start;
+            while (buf.hasRemaining()) {
+                final int read = channel.read(buf, position);
+                if (read == -1) {
+                    break;
+                }
+                position += read;
+            }
+        }
+
+        buf.flip();
+        return StandardCharsets.UTF_8.decode(buf).toString();
+    }
+}
@@ -0,0 +1,105 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identifies a particular version of a file (or directory) on disk by its size, modification time, and filesystem
+ * key (on POSIX systems, its device and inode.)  Any write, append, rename-over, or (for directories) addition or
+ * removal of an entry results in a different identity, which allows the identity to be used both as an HTTP entity
+ * tag and as a key for caching anything parsed from the file's contents.
+ *
+ * @param size the size of the file in bytes, or -1 if the file does not exist
+ * @param lastModifiedNanos the last modified time of the file in nanoseconds since the Unix epoch
+ * @param fileKey a string representation of the filesystem key of the file, or an empty string if not available
+ */
+public record FileIdentity(long size, long lastModifiedNanos, String fileKey) {
+    public static final FileIdentity ABSENT = new FileIdentity(-1, 0, "");
+
+    /**
+     * Files modified more recently than this are not considered to have a stable identity, as filesystems with coarse
+     * timestamp resolution could allow a subsequent write of the same size within the same tick to go unnoticed.
+     */
+    public static final Duration RACY_WINDOW = Duration.ofSeconds(2);
+
+    /**
+     * Reads the current identity of the file at the given path.
+     *
+     * @param path the file or directory to inspect
+     * @return the file's identity, or {@link #ABSENT} if the file does not exist
+     * @throws IOException if the file's attributes could not be read
+     */
+    public static FileIdentity of(Path path) throws IOException {
+        try {
+            final BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileIdentity(
+                    attrs.size(),
+                    attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+                    Objects.toString(attrs.fileKey(), "")
+            );
+        } catch (NoSuchFileException e) {
+            return ABSENT;
+        }
+    }
+
+    public boolean exists() {
+        return size >= 0;
+    }
+
+    public Instant lastModified() {
+        return Instant.ofEpochSecond(0, lastModifiedNanos);
+    }
+
+    /**
+     * @param now the current time
+     * @return true if the file was last modified sufficiently long ago that its identity can be trusted to change on
+     * the next modification
+     */
+    public boolean isStable(Instant now) {
+        return exists() && lastModified().plus(RACY_WINDOW).isBefore(now);
+    }
+
+    /**
+     * @return a strong HTTP entity tag (including surrounding quotes) representing this identity
+     */
+    public String toEtag() {
+        return String.format("\"%x-%x-%x\"", size, lastModifiedNanos, fileKey.hashCode());
+    }
+
+    /**
+     * Computes a single entity tag representing a set of files, e.g. the set of directories whose contents back a
+     * listing.
+     *
+     * @param identities the identities of all files that the represented resource depends on, in a stable order
+     * @return a strong HTTP entity tag (including surrounding quotes)
+     */
+    public static String toEtag(Collection<FileIdentity> identities) {
+        long hash = 17;
+        for (FileIdentity identity : identities) {
+            hash = 31 * hash + identity.size;
+            hash = 31 * hash + identity.lastModifiedNanos;
+            hash = 31 * hash + identity.fileKey.hashCode();
+        }
+        return String.format("\"%x-%x\"", identities.size(), hash);
+    }
+
+    public static boolean allStable(Collection<FileIdentity> identities, Instant now) {
+        return identities.stream().allMatch(id -> id.equals(ABSENT) || id.isStable(now));
+    }
+
+    public static Instant latestModification(Collection<FileIdentity> identities) {
+        return identities.stream()
+                .filter(FileIdentity::exists)
+                .map(FileIdentity::lastModified)
+                .max(Instant::compareTo)
+                .orElse(Instant.EPOCH);
+    }
+}
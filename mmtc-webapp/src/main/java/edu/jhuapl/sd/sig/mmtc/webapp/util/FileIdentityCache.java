@@ -0,0 +1,97 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A small, bounded, least-recently-used cache of values parsed from files, where each entry remains valid only as long
+ * as the identity of the file it was parsed from is unchanged.  Files are re-stat'ed on every lookup, so a new
+ * correlation, rollback, or manual edit is always reflected on the next request.
+ *
+ * @param <T> the type of the parsed value
+ */
+public class FileIdentityCache<T> {
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(Path path) throws MmtcException, IOException;
+    }
+
+    /**
+     * A value along with the identity of the file it was parsed from.
+     */
+    public record Entry<T>(FileIdentity identity, T value) { }
+
+    private final Loader<T> loader;
+    private final Map<Path, Entry<T>> entries;
+    private long loadCount = 0;
+    private long hitCount = 0;
+
+    public FileIdentityCache(int maxEntries, Loader<T> loader) {
+        this.loader = loader;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Entry<T>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed contents of the given file, reusing a previously parsed value if the file has not changed
+     * since.  The file's identity is read before its contents, so any concurrent modification can only result in
+     * an extra reload on a subsequent lookup and never in stale content being served.
+     *
+     * @param path the file to read
+     * @return the parsed value and the identity of the file it corresponds to
+     * @throws MmtcException if the loader fails to parse the file
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized Entry<T> get(Path path) throws MmtcException, IOException {
+        final Path key = path.toAbsolutePath().normalize();
+        final FileIdentity identity = FileIdentity.of(key);
+
+        final Entry<T> cached = entries.get(key);
+        if (cached != null && cached.identity().equals(identity)) {
+            hitCount++;
+            return cached;
+        }
+
+        final Entry<T> loaded = new Entry<>(identity, loader.load(key));
+        loadCount++;
+
+        if (identity.isStable(Instant.now())) {
+            entries.put(key, loaded);
+        } else {
+            entries.remove(key);
+        }
+
+        return loaded;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of times the loader has been invoked over the lifetime of this cache
+     */
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * @return the number of lookups that were answered with a previously parsed value over the lifetime of this cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Helpers for answering conditional GET requests (RFC 9110 section 13) for resources whose content is derived
+ * entirely from files on disk.  Validators are only issued for files whose identity is stable (see
+ * {@link FileIdentity#isStable(Instant)}), so a client can never be told a resource is unchanged when it isn't.
+ */
+public class HttpCaching {
+    private HttpCaching() { }
+
+    /**
+     * Sets the ETag and Last-Modified validators for a resource derived from the given file and, if the request's
+     * preconditions show the client already has this version, responds with 304 Not Modified.
+     *
+     * @param ctx the request context
+     * @param identity the identity of the file the response would be generated from
+     * @return true if a 304 response has been issued and the caller should not write a body
+     */
+    public static boolean respondIfNotModified(Context ctx, FileIdentity identity) {
+        return respondIfNotModified(ctx, Collections.singletonList(identity));
+    }
+
+    /**
+     * Sets the ETag and Last-Modified validators for a resource derived from the given files and, if the request's
+     * preconditions show the client already has this version, responds with 304 Not Modified.
+     *
+     * @param ctx the request context
+     * @param identities the identities of all files the response would be generated from
+     * @return true if a 304 response has been issued and the caller should not write a body
+     */
+    public static boolean respondIfNotModified(Context ctx, Collection<FileIdentity> identities) {
+        // always ask clients to revalidate, as the UI polls for updates
+        ctx.header(Header.CACHE_CONTROL, "no-cache");
+
+        if (! FileIdentity.allStable(identities, Instant.now())) {
+            return false;
+        }
+
+        final String etag = identities.size() == 1 ? identities.iterator().next().toEtag() : FileIdentity.toEtag(identities);
+        final Instant lastModified = FileIdentity.latestModification(identities);
+
+        ctx.header(Header.ETAG, etag);
+        ctx.header(Header.LAST_MODIFIED, formatHttpDate(lastModified));
+
+        if (isNotModified(ctx.header(Header.IF_NONE_MATCH), ctx.header(Header.IF_MODIFIED_SINCE), etag, lastModified)) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Evaluates the If-None-Match and If-Modified-Since preconditions of a GET request.  As specified by RFC 9110,
+     * If-Modified-Since is only considered when If-None-Match is absent.
+     *
+     * @param ifNoneMatch the value of the request's If-None-Match header, or null
+     * @param ifModifiedSince the value of the request's If-Modified-Since header, or null
+     * @param currentEtag the current entity tag of the resource
+     * @param lastModified the current last modification time of the resource
+     * @return true if the client's cached representation is current
+     */
+    public static boolean isNotModified(String ifNoneMatch, String ifModifiedSince, String currentEtag, Instant lastModified) {
+        if (ifNoneMatch != null) {
+            return etagListMatches(ifNoneMatch, currentEtag);
+        }
+
+        if (ifModifiedSince != null) {
+            try {
+                final Instant since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return ! lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+            } catch (DateTimeParseException e) {
+                // invalid dates are ignored per RFC 9110
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean etagListMatches(String ifNoneMatch, String currentEtag) {
+        final String trimmed = ifNoneMatch.trim();
+        if (trimmed.equals("*")) {
+            return true;
+        }
+
+        // If-None-Match uses the weak comparison function
+        final String current = stripWeakPrefix(currentEtag);
+        for (String candidate : trimmed.split(",")) {
+            if (stripWeakPrefix(candidate.trim()).equals(current)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    public static String formatHttpDate(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
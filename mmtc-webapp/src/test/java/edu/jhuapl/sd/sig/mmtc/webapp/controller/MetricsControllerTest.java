@@ -0,0 +1,187 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.controller;
+
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.TimedMutex;
+import edu.jhuapl.sd.sig.mmtc.webapp.metrics.WebAppMetrics;
+import edu.jhuapl.sd.sig.mmtc.webapp.util.FileIdentityCache;
+import io.javalin.Javalin;
+import io.javalin.http.UnauthorizedResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsControllerTest {
+    private static final String AUTH_HEADER = "X-Test-Auth";
+
+    @TempDir
+    Path tempDir;
+
+    private WebAppMetrics metrics;
+    private TimedMutex mutex;
+    private Javalin javalinApp;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * A controller whose endpoint runs its work on the controllers' shared single-threaded executor, while holding a
+     * mutex, as the real controllers do.
+     */
+    private class TestController extends BaseController {
+        TestController() {
+            super(null);
+        }
+
+        @Override
+        public void registerEndpoints(Javalin javalinApp) {
+            javalinApp.get("/api/v1/test/{n}", ctx -> ctx.result(executeSingleThreaded(() -> mutex.call(() -> ctx.pathParam("n")))));
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        metrics = new WebAppMetrics();
+        mutex = new TimedMutex();
+
+        javalinApp = Javalin.create(metrics::instrument);
+        javalinApp.before(ctx -> {
+            if (ctx.header(AUTH_HEADER) == null) {
+                throw new UnauthorizedResponse();
+            }
+        });
+
+        new TestController().registerEndpoints(javalinApp);
+        new MetricsController(null, metrics).registerEndpoints(javalinApp);
+
+        BaseController.registerExecutorMetrics(metrics);
+        metrics.registerMutex("test", mutex);
+
+        javalinApp.start(0);
+    }
+
+    @AfterEach
+    public void teardown() {
+        javalinApp.stop();
+    }
+
+    @Test
+    public void scrapeRequiresAuthorization() throws Exception {
+        final HttpResponse<String> response = get("/api/v1/metrics", false);
+        assertEquals(401, response.statusCode());
+        assertFalse(response.body().contains("# TYPE"));
+    }
+
+    @Test
+    public void scrapeReportsDrivenRequests() throws Exception {
+        final Path product = tempDir.resolve("product.csv");
+        Files.write(product, "a\n1\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(product, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+        final FileIdentityCache<List<String>> cache = new FileIdentityCache<>(4, Files::readAllLines);
+        metrics.registerCache("test", cache);
+        cache.get(product);
+        cache.get(product);
+
+        for (int i = 0; i < 3; i++) {
+            final HttpResponse<String> response = get("/api/v1/test/" + i, true);
+            assertEquals(200, response.statusCode());
+            assertEquals(Integer.toString(i), response.body());
+        }
+        assertEquals(401, get("/api/v1/test/0", false).statusCode());
+
+        // requests are timed once their response has been written, so the last may not be recorded immediately
+        final String requestSeries = "mmtc_http_request_duration_seconds_count{method=\"GET\",route=\"/api/v1/test/{n}\",status=\"200\"}";
+        HttpResponse<String> response = get("/api/v1/metrics", true);
+        for (int attempt = 0; attempt < 50 && ! (response.body().contains(requestSeries + " 3") && response.body().contains("status=\"401\"")); attempt++) {
+            Thread.sleep(20);
+            response = get("/api/v1/metrics", true);
+        }
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+
+        final String scrape = response.body();
+
+        // each family is described once, however many series it has
+        assertEquals(1, countLinesStartingWith(scrape, "# TYPE mmtc_http_request_duration_seconds histogram"));
+        assertEquals(1, countLinesStartingWith(scrape, "# HELP mmtc_http_request_duration_seconds "));
+
+        // requests are grouped by endpoint path rather than by request path
+        assertEquals(3, valueOf(scrape, requestSeries));
+        assertEquals(3, valueOf(scrape, "mmtc_http_request_duration_seconds_bucket{method=\"GET\",route=\"/api/v1/test/{n}\",status=\"200\",le=\"+Inf\"}"));
+        assertTrue(scrape.contains("status=\"401\""));
+
+        // the executor is shared by all controllers in the JVM, so other tests may have used it too
+        assertTrue(valueOf(scrape, "mmtc_executor_task_duration_seconds_count{executor=\"single-threaded\"}") >= 3);
+        assertTrue(valueOf(scrape, "mmtc_executor_queue_wait_seconds_count{executor=\"single-threaded\"}") >= 3);
+        assertEquals(0, valueOf(scrape, "mmtc_executor_queue_depth{executor=\"single-threaded\"}"));
+
+        assertEquals(3, valueOf(scrape, "mmtc_mutex_wait_seconds_count{mutex=\"test\"}"));
+        assertEquals(3, valueOf(scrape, "mmtc_mutex_hold_seconds_count{mutex=\"test\"}"));
+
+        assertEquals(1, valueOf(scrape, "mmtc_cache_hits_total{cache=\"test\"}"));
+        assertEquals(1, valueOf(scrape, "mmtc_cache_misses_total{cache=\"test\"}"));
+        assertEquals(0.5, valueOf(scrape, "mmtc_cache_hit_ratio{cache=\"test\"}"));
+        assertEquals(1, valueOf(scrape, "mmtc_cache_entries{cache=\"test\"}"));
+
+        assertTrue(valueOf(scrape, "jvm_memory_used_bytes{area=\"heap\"}") > 0);
+        assertTrue(valueOf(scrape, "jvm_threads_live") > 0);
+        assertTrue(scrape.contains("# TYPE jvm_gc_collections_total counter"));
+    }
+
+    @Test
+    public void histogramBucketsAreCumulative() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mutex.call(() -> null);
+        }
+
+        final String scrape = metrics.scrape();
+        final List<String> buckets = Arrays.stream(scrape.split("\n"))
+                .filter(line -> line.startsWith("mmtc_mutex_hold_seconds_bucket{mutex=\"test\""))
+                .toList();
+
+        assertFalse(buckets.isEmpty());
+        assertTrue(buckets.get(buckets.size() - 1).contains("le=\"+Inf\""));
+
+        double previous = 0;
+        for (String bucket : buckets) {
+            final double count = Double.parseDouble(bucket.substring(bucket.lastIndexOf(' ') + 1));
+            assertTrue(count >= previous, bucket);
+            previous = count;
+        }
+        assertEquals(5, previous);
+    }
+
+    private HttpResponse<String> get(String path, boolean authorized) throws Exception {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + javalinApp.port() + path)).GET();
+        if (authorized) {
+            request.header(AUTH_HEADER, "true");
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long countLinesStartingWith(String scrape, String prefix) {
+        return Arrays.stream(scrape.split("\n")).filter(line -> line.startsWith(prefix)).count();
+    }
+
+    private static double valueOf(String scrape, String series) {
+        final Optional<String> line = Arrays.stream(scrape.split("\n"))
+                .filter(l -> l.startsWith(series + " "))
+                .findFirst();
+        assertTrue(line.isPresent(), "Series not found: " + series);
+        return Double.parseDouble(line.get().substring(series.length() + 1));
+    }
+}
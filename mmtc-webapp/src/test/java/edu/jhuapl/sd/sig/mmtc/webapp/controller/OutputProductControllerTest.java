@@ -0,0 +1,41 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.controller;
+
+import io.javalin.Javalin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutputProductControllerTest {
+    private Javalin javalinApp;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setup() {
+        // malformed page requests are rejected before any product is looked up, so no configuration is needed
+        javalinApp = Javalin.create();
+        new OutputProductController(null, null).registerEndpoints(javalinApp);
+        javalinApp.start(0);
+    }
+
+    @AfterEach
+    public void teardown() {
+        javalinApp.stop();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"offset=abc", "limit=1.5", "last=ten", "offset=-1", "limit=-1", "last=-1", "order=sideways"})
+    public void malformedTablePageRequestIsBadRequest(String query) throws Exception {
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + javalinApp.port() + "/api/v1/productsAsTable/SCLK%20Kernel/sclk.tsc?" + query)).GET().build();
+        final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), response.body());
+    }
+}
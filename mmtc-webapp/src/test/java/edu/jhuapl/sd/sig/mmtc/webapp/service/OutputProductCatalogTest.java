@@ -0,0 +1,138 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.service;
+
+import edu.jhuapl.sd.sig.mmtc.products.definition.util.ResolvedProductDirPrefixSuffix;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutputProductCatalogTest {
+    @TempDir
+    Path tempDir;
+
+    private Path sclkDir;
+    private ResolvedProductDirPrefixSuffix sclkKernels;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        sclkDir = Files.createDirectory(tempDir.resolve("sclk"));
+        sclkKernels = new ResolvedProductDirPrefixSuffix(sclkDir, "new-horizons_", ".tsc");
+
+        for (int i = 1450; i <= 1454; i++) {
+            Files.write(sclkDir.resolve("new-horizons_" + i + ".tsc"), new byte[] {1});
+        }
+        Files.write(sclkDir.resolve("new-horizons_1454.tsc.bak"), new byte[] {1});
+        Files.write(sclkDir.resolve("notes.txt"), new byte[] {1});
+        age(sclkDir);
+    }
+
+    @Test
+    public void listsMatchingFilesMostRecentFirst() throws IOException {
+        final OutputProductCatalog catalog = new OutputProductCatalog();
+
+        assertEquals(
+                Arrays.asList("new-horizons_1454.tsc", "new-horizons_1453.tsc", "new-horizons_1452.tsc", "new-horizons_1451.tsc", "new-horizons_1450.tsc"),
+                catalog.getFilenames(sclkKernels)
+        );
+        assertEquals(Optional.of("new-horizons_1454.tsc"), catalog.getLatestFilename(sclkKernels));
+    }
+
+    @Test
+    public void unchangedDirectoryIsListedOnce() throws IOException {
+        final OutputProductCatalog catalog = new OutputProductCatalog();
+
+        for (int i = 0; i < 10; i++) {
+            catalog.getFilenames(sclkKernels);
+            catalog.getLatestFilename(sclkKernels);
+        }
+
+        assertEquals(1, catalog.getScanCount());
+    }
+
+    @Test
+    public void productsSharingADirectoryShareOneListing() throws IOException {
+        Files.write(sclkDir.resolve("sclkscet_00010.coeff"), new byte[] {1});
+        Files.write(sclkDir.resolve("sclkscet_00011.coeff"), new byte[] {1});
+        age(sclkDir);
+
+        final OutputProductCatalog catalog = new OutputProductCatalog();
+        final ResolvedProductDirPrefixSuffix sclkScetFiles = new ResolvedProductDirPrefixSuffix(sclkDir, "sclkscet_", ".coeff");
+
+        assertEquals(5, catalog.getFilenames(sclkKernels).size());
+        assertEquals(Arrays.asList("sclkscet_00011.coeff", "sclkscet_00010.coeff"), catalog.getFilenames(sclkScetFiles));
+        assertEquals(1, catalog.getScanCount());
+    }
+
+    @Test
+    public void externallyDroppedFileAppears() throws IOException {
+        final OutputProductCatalog catalog = new OutputProductCatalog();
+        assertEquals(Optional.of("new-horizons_1454.tsc"), catalog.getLatestFilename(sclkKernels));
+
+        // an operator copies in a kernel produced elsewhere
+        Files.write(sclkDir.resolve("new-horizons_1455.tsc"), new byte[] {1});
+
+        assertEquals(Optional.of("new-horizons_1455.tsc"), catalog.getLatestFilename(sclkKernels));
+        assertEquals(6, catalog.getFilenames(sclkKernels).size());
+    }
+
+    @Test
+    public void rolledBackFilesDisappear() throws IOException {
+        final OutputProductCatalog catalog = new OutputProductCatalog();
+        assertEquals(5, catalog.getFilenames(sclkKernels).size());
+
+        // a rollback to 1452 deletes every newer kernel
+        Files.delete(sclkDir.resolve("new-horizons_1454.tsc"));
+        Files.delete(sclkDir.resolve("new-horizons_1453.tsc"));
+
+        assertEquals(Optional.of("new-horizons_1452.tsc"), catalog.getLatestFilename(sclkKernels));
+        assertEquals(
+                Arrays.asList("new-horizons_1452.tsc", "new-horizons_1451.tsc", "new-horizons_1450.tsc"),
+                catalog.getFilenames(sclkKernels)
+        );
+    }
+
+    @Test
+    public void changesWithinTheRacyWindowAreNotMissed() throws IOException {
+        final OutputProductCatalog catalog = new OutputProductCatalog();
+
+        Files.write(sclkDir.resolve("new-horizons_1455.tsc"), new byte[] {1});
+        assertEquals(Optional.of("new-horizons_1455.tsc"), catalog.getLatestFilename(sclkKernels));
+
+        // restore the directory's prior modification time, as a filesystem with coarse timestamps could, so that the
+        // directory's identity alone would not reveal the following change
+        final FileTime recent = Files.getLastModifiedTime(sclkDir);
+        Files.delete(sclkDir.resolve("new-horizons_1455.tsc"));
+        Files.write(sclkDir.resolve("new-horizons_1456.tsc"), new byte[] {1});
+        Files.setLastModifiedTime(sclkDir, recent);
+
+        assertEquals(Optional.of("new-horizons_1456.tsc"), catalog.getLatestFilename(sclkKernels));
+        assertFalse(catalog.getFilenames(sclkKernels).contains("new-horizons_1455.tsc"));
+    }
+
+    @Test
+    public void emptyAndMissingDirectories() throws IOException {
+        final Path emptyDir = Files.createDirectory(tempDir.resolve("empty"));
+        final OutputProductCatalog catalog = new OutputProductCatalog();
+
+        assertEquals(Collections.emptyList(), catalog.getFilenames(new ResolvedProductDirPrefixSuffix(emptyDir, "", ".csv")));
+        assertEquals(Optional.empty(), catalog.getLatestFilename(new ResolvedProductDirPrefixSuffix(emptyDir, "", ".csv")));
+
+        assertThrows(NoSuchFileException.class, () -> catalog.getFilenames(new ResolvedProductDirPrefixSuffix(tempDir.resolve("missing"), "", ".csv")));
+    }
+
+    private static void age(Path dir) throws IOException {
+        Files.setLastModifiedTime(dir, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+}
@@ -0,0 +1,81 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.service;
+
+import edu.jhuapl.sd.sig.mmtc.webapp.service.OutputProductService.RowOrder;
+import edu.jhuapl.sd.sig.mmtc.webapp.service.OutputProductService.TablePageRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablePageRequestTest {
+    @Test
+    public void ascendingPages() {
+        assertRange(0, 10, request(0, 10, null, RowOrder.ASC), 100);
+        assertRange(90, 100, request(90, 10, null, RowOrder.ASC), 100);
+        assertRange(95, 100, request(95, 10, null, RowOrder.ASC), 100);
+        assertRange(100, 100, request(100, 10, null, RowOrder.ASC), 100);
+        assertRange(100, 100, request(150, 10, null, RowOrder.ASC), 100);
+        assertRange(10, 100, request(10, null, null, RowOrder.ASC), 100);
+        assertRange(0, 0, request(0, 0, null, RowOrder.ASC), 100);
+    }
+
+    @Test
+    public void descendingPagesCountFromTheEnd() {
+        assertRange(90, 100, request(0, 10, null, RowOrder.DESC), 100);
+        assertRange(80, 90, request(10, 10, null, RowOrder.DESC), 100);
+        assertRange(0, 5, request(95, 10, null, RowOrder.DESC), 100);
+        assertRange(0, 0, request(100, 10, null, RowOrder.DESC), 100);
+        assertRange(0, 0, request(150, 10, null, RowOrder.DESC), 100);
+        assertRange(0, 90, request(10, null, null, RowOrder.DESC), 100);
+    }
+
+    @Test
+    public void lastRowsOverridesOffsetAndLimit() {
+        assertRange(75, 100, request(0, null, 25, RowOrder.ASC), 100);
+        assertRange(75, 100, request(10, 5, 25, RowOrder.DESC), 100);
+        assertRange(0, 100, request(0, null, 250, RowOrder.ASC), 100);
+        assertRange(100, 100, request(0, null, 0, RowOrder.ASC), 100);
+    }
+
+    @Test
+    public void emptyTable() {
+        assertRange(0, 0, request(0, 10, null, RowOrder.ASC), 0);
+        assertRange(0, 0, request(0, 10, null, RowOrder.DESC), 0);
+        assertRange(0, 0, request(0, null, 10, RowOrder.ASC), 0);
+    }
+
+    @Test
+    public void negativeValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> request(-1, 10, null, RowOrder.ASC));
+        assertThrows(IllegalArgumentException.class, () -> request(0, -1, null, RowOrder.ASC));
+        assertThrows(IllegalArgumentException.class, () -> request(0, null, -1, RowOrder.ASC));
+    }
+
+    @Test
+    public void requestedColumnsMustBeInTheTable() {
+        final List<String> headers = Arrays.asList("Run Time", "Run ID", "Encoded SCLK");
+
+        assertEquals(headers, request(0, 10, null, RowOrder.ASC).resolveColumns(headers));
+        assertEquals(Arrays.asList("Encoded SCLK", "Run ID"), columnsRequest("Encoded SCLK", "Run ID").resolveColumns(headers));
+
+        final OutputProductService.UnknownColumnException e = assertThrows(OutputProductService.UnknownColumnException.class, () -> columnsRequest("Run ID", "TDT(G)").resolveColumns(headers));
+        assertTrue(e.getMessage().contains("TDT(G)"), e.getMessage());
+    }
+
+    private static TablePageRequest columnsRequest(String... columns) {
+        return new TablePageRequest(0, Optional.empty(), Optional.empty(), Optional.of(Arrays.asList(columns)), RowOrder.ASC);
+    }
+
+    private static TablePageRequest request(int offset, Integer limit, Integer last, RowOrder order) {
+        return new TablePageRequest(offset, Optional.ofNullable(limit), Optional.ofNullable(last), Optional.empty(), order);
+    }
+
+    private static void assertRange(int expectedFrom, int expectedTo, TablePageRequest request, int rowCount) {
+        final int[] range = request.resolveRowRange(rowCount);
+        assertEquals(expectedFrom, range[0], "from");
+        assertEquals(expectedTo, range[1], "to");
+    }
+}
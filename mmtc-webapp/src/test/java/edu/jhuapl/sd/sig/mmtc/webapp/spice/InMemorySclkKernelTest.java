@@ -0,0 +1,141 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that frame metrics can be calculated against candidate SCLK kernels that only exist in memory, as is done
+ * for correlation previews.
+ */
+public class InMemorySclkKernelTest {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int NUM_CANDIDATES = 32;
+    private static final Path NH_KERNELS = Paths.get(System.getenv("TK_CONFIG_PATH"), "nh_kernels");
+    private static final Pattern LAST_TRIPLET_RATE = Pattern.compile("(\\s)1\\.00000001162(\\s*)$");
+
+    private static final SpiceBackend.FrameMetricsParams PARAMS = new SpiceBackend.FrameMetricsParams(-98, -1, true, 15_000.0, 0.0, 0.0);
+    private static final List<SpiceBackend.FrameMetricsInput> INPUTS = Arrays.asList(
+            new SpiceBackend.FrameMetricsInput("2022-350T00:00:00.000000", 1, "DSS-14", 3, 533_743_743, 0, 0.0),
+            new SpiceBackend.FrameMetricsInput("2022-350T00:10:00.000000", 1, "DSS-14", 3, 533_744_343, 25_000, 0.0)
+    );
+
+    private static Map<String, String> baseKernels;
+    private static List<List<String>> candidates;
+    private static InProcessSpiceBackend inProcess;
+    private static SpiceWorkerPool pool;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        baseKernels = new LinkedHashMap<>();
+        baseKernels.put(NH_KERNELS.resolve("lsk/naif0012.tls").toAbsolutePath().toString(), "lsk");
+
+        // each candidate differs from the last in the clock change rate of its latest triplet, as a preview's would
+        final List<String> sclkKernelLines = Files.readAllLines(NH_KERNELS.resolve("sclk/new-horizons_1454.tsc"));
+        candidates = new ArrayList<>();
+        for (int i = 0; i < NUM_CANDIDATES; i++) {
+            final String rate = String.format("1.%011d", 1162 + i);
+            candidates.add(sclkKernelLines.stream()
+                    .map(line -> LAST_TRIPLET_RATE.matcher(line).replaceFirst("$1" + rate + "$2"))
+                    .collect(Collectors.toList()));
+        }
+
+        inProcess = new InProcessSpiceBackend(new LockingSpiceKernelScope());
+        pool = new SpiceWorkerPool(2, List.of("-Xmx128m"));
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void inMemoryKernelMatchesKernelFile(@TempDir Path tempDir) throws Exception {
+        for (int i : new int[] {0, NUM_CANDIDATES - 1}) {
+            final Path candidateFile = tempDir.resolve(String.format("candidate_%d.tsc", i));
+            Files.write(candidateFile, candidates.get(i));
+
+            final Map<String, String> kernelsWithFile = new LinkedHashMap<>(baseKernels);
+            kernelsWithFile.put(candidateFile.toAbsolutePath().toString(), "sclk");
+
+            final List<SpiceBackend.FrameMetrics> expected = inProcess.calculateFrameMetrics(kernelsWithFile, PARAMS, INPUTS);
+            assertEquals(expected, inProcess.calculateFrameMetrics(baseKernels, candidates.get(i), PARAMS, INPUTS));
+            assertEquals(expected, pool.calculateFrameMetrics(baseKernels, candidates.get(i), PARAMS, INPUTS));
+        }
+
+        // the candidates' differing rates must be reflected in their results
+        assertNotEquals(
+                inProcess.calculateFrameMetrics(baseKernels, candidates.get(0), PARAMS, INPUTS),
+                inProcess.calculateFrameMetrics(baseKernels, candidates.get(NUM_CANDIDATES - 1), PARAMS, INPUTS)
+        );
+    }
+
+    @Test
+    public void concurrentPreviewsCreateNoFiles() throws Exception {
+        final Path tmpDir = Paths.get(System.getProperty("java.io.tmpdir"));
+        final Set<Path> kernelFilesBefore = listKernelFiles(tmpDir);
+
+        for (SpiceBackend backend : Arrays.asList(inProcess, pool)) {
+            final ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                final long start = System.nanoTime();
+
+                final List<Future<List<SpiceBackend.FrameMetrics>>> futures = new ArrayList<>();
+                for (List<String> candidate : candidates) {
+                    futures.add(executor.submit(() -> backend.calculateFrameMetrics(baseKernels, candidate, PARAMS, INPUTS)));
+                }
+
+                final Set<List<SpiceBackend.FrameMetrics>> distinctResults = new HashSet<>();
+                for (Future<List<SpiceBackend.FrameMetrics>> future : futures) {
+                    distinctResults.add(future.get());
+                }
+
+                final long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                logger.info(USER_NOTICE, String.format("%d concurrent in-memory previews via %s: %d ms", NUM_CANDIDATES, backend.getClass().getSimpleName(), elapsedMs));
+
+                assertEquals(NUM_CANDIDATES, distinctResults.size());
+                assertTrue(elapsedMs < 30_000, "Previews took " + elapsedMs + " ms");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        assertEquals(kernelFilesBefore, listKernelFiles(tmpDir));
+        assertFalse(Files.exists(Paths.get("/tmp/mmtc/previews")) && ! listKernelFiles(Paths.get("/tmp/mmtc/previews")).isEmpty());
+    }
+
+    private static Set<Path> listKernelFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(p -> p.getFileName().toString().endsWith(".tsc") || p.getFileName().toString().contains("sclk"))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import edu.jhuapl.sd.sig.mmtc.util.TimeConvert;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Mirrors the web application's global SPICE mutex for in-process calculations in tests.
+ */
+class LockingSpiceKernelScope implements SpiceKernelScope {
+    private static final Object lock = new Object();
+
+    @Override
+    public <T> T withKernels(Map<String, String> kernelsToLoad, Callable<T> callable) throws MmtcException {
+        synchronized (lock) {
+            try {
+                TimeConvert.loadSpiceLib();
+                TimeConvert.loadSpiceKernels(kernelsToLoad);
+                return callable.call();
+            } catch (Exception e) {
+                throw new MmtcException(e);
+            } finally {
+                TimeConvert.unloadSpiceKernels();
+            }
+        }
+    }
+}
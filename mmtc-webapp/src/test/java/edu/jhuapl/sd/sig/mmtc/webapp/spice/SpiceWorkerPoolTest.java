@@ -0,0 +1,122 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import edu.jhuapl.sd.sig.mmtc.app.MmtcException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the SPICE worker pool produces the same results as in-process calculations, and (when benchmarks
+ * are run with the 'benchmark' Gradle task) compares their throughput under concurrent load.
+ */
+public class SpiceWorkerPoolTest {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int NUM_WORKERS = 4;
+    private static final int UTC_PRECISION = 6;
+
+    private static Map<String, String> kernels;
+    private static SpiceWorkerPool pool;
+    private static InProcessSpiceBackend inProcess;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        kernels = new LinkedHashMap<>();
+        kernels.put(Paths.get(System.getenv("TK_CONFIG_PATH"), "nh_kernels/lsk/naif0012.tls").toAbsolutePath().toString(), "lsk");
+
+        pool = new SpiceWorkerPool(NUM_WORKERS, List.of("-Xmx128m"));
+        inProcess = new InProcessSpiceBackend(new LockingSpiceKernelScope());
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void poolMatchesInProcessResults() throws MmtcException {
+        final List<String> tdtCalStrs = tdtCalStrs(500);
+
+        final List<SpiceBackend.TdtConversion> expected = inProcess.convertTdtCalStrs(kernels, tdtCalStrs, UTC_PRECISION);
+        final List<SpiceBackend.TdtConversion> actual = pool.convertTdtCalStrs(kernels, tdtCalStrs, UTC_PRECISION);
+
+        assertEquals(expected, actual);
+        assertEquals(NUM_WORKERS, pool.getNumWorkers());
+    }
+
+    @Test
+    public void workerErrorsAreReportedAndWorkersAreReused() throws MmtcException {
+        final Map<String, String> missingKernels = new LinkedHashMap<>();
+        missingKernels.put(Paths.get(System.getenv("TK_CONFIG_PATH"), "nh_kernels/lsk/no-such-kernel.tls").toAbsolutePath().toString(), "lsk");
+
+        for (int i = 0; i < NUM_WORKERS * 2; i++) {
+            assertThrows(MmtcException.class, () -> pool.convertTdtCalStrs(missingKernels, tdtCalStrs(1), UTC_PRECISION));
+        }
+
+        // every worker should still be usable afterward
+        final List<String> tdtCalStrs = tdtCalStrs(10);
+        for (int i = 0; i < NUM_WORKERS * 2; i++) {
+            assertEquals(inProcess.convertTdtCalStrs(kernels, tdtCalStrs, UTC_PRECISION), pool.convertTdtCalStrs(kernels, tdtCalStrs, UTC_PRECISION));
+        }
+        assertEquals(NUM_WORKERS, pool.getNumWorkers());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "mmtc.benchmarks", matches = "true")
+    public void benchmarkConcurrentThroughput() throws Exception {
+        final int numRequests = 64;
+        final List<String> tdtCalStrs = tdtCalStrs(20_000);
+
+        // warm up both backends
+        runConcurrently(inProcess, NUM_WORKERS, tdtCalStrs);
+        runConcurrently(pool, NUM_WORKERS, tdtCalStrs);
+
+        final long inProcessNanos = runConcurrently(inProcess, numRequests, tdtCalStrs);
+        final long poolNanos = runConcurrently(pool, numRequests, tdtCalStrs);
+
+        logger.info(USER_NOTICE, String.format("%d concurrent requests of %d conversions: in-process %.1f ms, %d-worker pool %.1f ms (%.2fx)",
+                numRequests, tdtCalStrs.size(), inProcessNanos / 1e6, NUM_WORKERS, poolNanos / 1e6, (double) inProcessNanos / poolNanos));
+    }
+
+    private static long runConcurrently(SpiceBackend backend, int numRequests, List<String> tdtCalStrs) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_WORKERS * 2);
+        try {
+            final long start = System.nanoTime();
+            final List<Future<List<SpiceBackend.TdtConversion>>> futures = new ArrayList<>();
+            for (int i = 0; i < numRequests; i++) {
+                futures.add(executor.submit(() -> backend.convertTdtCalStrs(kernels, tdtCalStrs, UTC_PRECISION)));
+            }
+            for (Future<List<SpiceBackend.TdtConversion>> future : futures) {
+                assertEquals(tdtCalStrs.size(), future.get().size());
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> tdtCalStrs(int count) {
+        final List<String> tdtCalStrs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tdtCalStrs.add(String.format("2017-%03dT%02d:%02d:%02d.184000", 1 + (i % 365), i % 24, i % 60, (i * 7) % 60));
+        }
+        return tdtCalStrs;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.spice;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpiceWorkerProtocolTest {
+
+    @Test
+    public void kernelsRoundTripInLoadOrder() throws IOException {
+        final Map<String, String> kernels = new LinkedHashMap<>();
+        kernels.put("/kernels/naif0012.tls", "lsk");
+        kernels.put("/kernels/de430.bsp", "spk");
+        kernels.put("/kernels/new-horizons_1454.tsc", "sclk");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SpiceWorkerProtocol.writeKernels(new DataOutputStream(bytes), kernels);
+
+        final Map<String, String> read = SpiceWorkerProtocol.readKernels(in(bytes));
+        assertEquals(new ArrayList<>(kernels.entrySet()), new ArrayList<>(read.entrySet()));
+    }
+
+    @Test
+    public void frameMetricsRequestAndResponseRoundTrip() throws IOException {
+        final SpiceBackend.FrameMetricsParams params = new SpiceBackend.FrameMetricsParams(-98, 50000, true, 12.5, 0.0013, 0.000001);
+        final List<SpiceBackend.FrameMetricsInput> inputs = Arrays.asList(
+                new SpiceBackend.FrameMetricsInput("2019-001T00:00:00.123456", 3, "DSS-14", 1, 123456789, 42, 0.25),
+                new SpiceBackend.FrameMetricsInput("2019-001T00:01:00.000000", 4, "DSS-43", 2, 123456849, 0, -0.5)
+        );
+
+        final ByteArrayOutputStream request = new ByteArrayOutputStream();
+        SpiceWorkerProtocol.writeFrameMetricsRequest(new DataOutputStream(request), params, inputs);
+
+        final DataInputStream requestIn = in(request);
+        assertEquals(params, SpiceWorkerProtocol.readFrameMetricsParams(requestIn));
+        assertEquals(inputs, SpiceWorkerProtocol.readFrameMetricsInputs(requestIn));
+        assertEquals(-1, requestIn.read());
+
+        final List<SpiceBackend.FrameMetrics> results = Arrays.asList(
+                new SpiceBackend.FrameMetrics(599_572_869.184, "2019-001T00:00:00.123456", -1234.0, 21_600.123),
+                new SpiceBackend.FrameMetrics(599_572_929.184, "2019-001T00:01:00.000000", Double.MIN_VALUE, 0)
+        );
+
+        final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        SpiceWorkerProtocol.writeFrameMetrics(new DataOutputStream(response), results);
+        assertEquals(results, SpiceWorkerProtocol.readFrameMetrics(in(response)));
+    }
+
+    @Test
+    public void tdtConversionRequestAndResponseRoundTrip() throws IOException {
+        final List<String> tdtCalStrs = Arrays.asList("@2019-001T00:01:09.184", "@2019-002T12:00:00.000");
+
+        final ByteArrayOutputStream request = new ByteArrayOutputStream();
+        SpiceWorkerProtocol.writeTdtConversionsRequest(new DataOutputStream(request), tdtCalStrs, 6);
+
+        final DataInputStream requestIn = in(request);
+        assertEquals(6, SpiceWorkerProtocol.readUtcPrecision(requestIn));
+        assertEquals(tdtCalStrs, SpiceWorkerProtocol.readTdtCalStrs(requestIn));
+
+        final List<SpiceBackend.TdtConversion> results = Arrays.asList(
+                new SpiceBackend.TdtConversion(599_572_869.184, "2019-001T00:00:00.000000"),
+                new SpiceBackend.TdtConversion(599_659_200.0, "2019-002T11:58:50.816000")
+        );
+
+        final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        SpiceWorkerProtocol.writeTdtConversions(new DataOutputStream(response), results);
+        assertEquals(results, SpiceWorkerProtocol.readTdtConversions(in(response)));
+    }
+
+    @Test
+    public void emptyBatchesRoundTrip() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SpiceWorkerProtocol.writeTdtConversions(new DataOutputStream(bytes), new ArrayList<>());
+        assertTrue(SpiceWorkerProtocol.readTdtConversions(in(bytes)).isEmpty());
+    }
+
+    private static DataInputStream in(ByteArrayOutputStream bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
@@ -0,0 +1,75 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import edu.jhuapl.sd.sig.mmtc.products.util.GenericCsv;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static edu.jhuapl.sd.sig.mmtc.app.MmtcCli.USER_NOTICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the latency of reading the final page of a large table via a row offset index against parsing the whole
+ * file.  Run with the 'benchmark' Gradle task.
+ */
+@EnabledIfSystemProperty(named = "mmtc.benchmarks", matches = "true")
+public class CsvRowIndexBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int NUM_ROWS = 1_000_000;
+    private static final int NUM_COLS = 20;
+    private static final int PAGE_SIZE = 100;
+    private static final int ITERATIONS = 20;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void tailPageLatency() throws Exception {
+        final Path csv = tempDir.resolve("TimeHistoryFile.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            for (int col = 0; col < NUM_COLS; col++) {
+                writer.write((col == 0 ? "" : ",") + "Column " + col);
+            }
+            writer.newLine();
+            for (int row = 0; row < NUM_ROWS; row++) {
+                for (int col = 0; col < NUM_COLS; col++) {
+                    writer.write((col == 0 ? "" : ",") + (row * 31L + col));
+                }
+                writer.newLine();
+            }
+        }
+
+        long start = System.nanoTime();
+        final CsvRowIndex index = CsvRowIndex.build(csv);
+        final long indexBuildNanos = System.nanoTime() - start;
+
+        List<Map<String, String>> tailPage = null;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            tailPage = index.readRows(csv, NUM_ROWS - PAGE_SIZE, NUM_ROWS, index.getHeaders());
+        }
+        final long indexedTailPageNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        final List<Map<String, String>> allRows = new GenericCsv(csv).getRows();
+        final long fullParseNanos = System.nanoTime() - start;
+
+        assertEquals(allRows.subList(NUM_ROWS - PAGE_SIZE, NUM_ROWS), tailPage);
+
+        logger.info(USER_NOTICE, String.format("Rows: %d, columns: %d%n" +
+                        "Index build:                 %8.2f ms%n" +
+                        "Indexed tail page (%d rows): %8.3f ms%n" +
+                        "Full parse:                  %8.2f ms",
+                NUM_ROWS, NUM_COLS, indexBuildNanos / 1e6, PAGE_SIZE, indexedTailPageNanos / 1e6, fullParseNanos / 1e6));
+    }
+}
@@ -0,0 +1,108 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import edu.jhuapl.sd.sig.mmtc.products.util.GenericCsv;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvRowIndexTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void everyPageMatchesFullParse() throws Exception {
+        final Path csv = writeCsv(25);
+        final CsvRowIndex index = CsvRowIndex.build(csv);
+        final List<Map<String, String>> allRows = new GenericCsv(csv).getRows();
+
+        assertEquals(25, index.getRowCount());
+        assertEquals(Arrays.asList("Run ID", "Run Time", "Args"), index.getHeaders());
+
+        // cover pages that start and end on every boundary, including empty and full-table pages
+        for (int from = 0; from <= 25; from++) {
+            for (int to = from; to <= 25; to++) {
+                assertEquals(allRows.subList(from, to), index.readRows(csv, from, to, index.getHeaders()), from + " to " + to);
+            }
+        }
+    }
+
+    @Test
+    public void quotedNewlinesAndCommasDoNotSplitRows() throws Exception {
+        final Path csv = tempDir.resolve("quoted.csv");
+        Files.write(csv, (
+                "Run ID,Args\r\n" +
+                "1,\"--a, --b\"\r\n" +
+                "2,\"first line\nsecond \"\"line\"\"\"\r\n" +
+                "\r\n" +
+                "3,plain\r\n"
+        ).getBytes(StandardCharsets.UTF_8));
+
+        final CsvRowIndex index = CsvRowIndex.build(csv);
+        assertEquals(3, index.getRowCount());
+        assertEquals(new GenericCsv(csv).getRows(), index.readRows(csv, 0, 3, index.getHeaders()));
+        assertEquals("first line\nsecond \"line\"", index.readRows(csv, 1, 2, index.getHeaders()).get(0).get("Args"));
+        assertEquals("plain", index.readRows(csv, 2, 3, index.getHeaders()).get(0).get("Args"));
+    }
+
+    @Test
+    public void fileWithoutTrailingNewline() throws Exception {
+        final Path csv = tempDir.resolve("no-trailing-newline.csv");
+        Files.write(csv, "a,b\n1,2\n3,4".getBytes(StandardCharsets.UTF_8));
+
+        final CsvRowIndex index = CsvRowIndex.build(csv);
+        assertEquals(2, index.getRowCount());
+        assertEquals("4", index.readRows(csv, 1, 2, index.getHeaders()).get(0).get("b"));
+    }
+
+    @Test
+    public void headerOnlyFileHasNoRows() throws Exception {
+        final Path csv = tempDir.resolve("header-only.csv");
+        Files.write(csv, "a,b\n".getBytes(StandardCharsets.UTF_8));
+
+        final CsvRowIndex index = CsvRowIndex.build(csv);
+        assertEquals(0, index.getRowCount());
+        assertTrue(index.readRows(csv, 0, 0, index.getHeaders()).isEmpty());
+    }
+
+    @Test
+    public void columnsAreProjectedInRequestedOrder() throws Exception {
+        final Path csv = writeCsv(5);
+        final CsvRowIndex index = CsvRowIndex.build(csv);
+
+        final List<Map<String, String>> rows = index.readRows(csv, 3, 5, Arrays.asList("Args", "Run ID"));
+        assertEquals(2, rows.size());
+        assertEquals(Arrays.asList("Args", "Run ID"), rows.get(0).keySet().stream().toList());
+        assertEquals("4", rows.get(1).get("Run ID"));
+        assertFalse(rows.get(1).containsKey("Run Time"));
+    }
+
+    @Test
+    public void invalidRequestsAreRejected() throws Exception {
+        final Path csv = writeCsv(5);
+        final CsvRowIndex index = CsvRowIndex.build(csv);
+
+        assertThrows(IllegalArgumentException.class, () -> index.readRows(csv, 0, 6, index.getHeaders()));
+        assertThrows(IllegalArgumentException.class, () -> index.readRows(csv, 3, 2, index.getHeaders()));
+        assertThrows(IllegalArgumentException.class, () -> index.readRows(csv, 0, 1, Arrays.asList("No Such Column")));
+    }
+
+    private Path writeCsv(int numRows) throws IOException {
+        final StringBuilder sb = new StringBuilder("Run ID,Run Time,Args\n");
+        for (int i = 0; i < numRows; i++) {
+            sb.append(i).append(",2024-").append(String.format("%03d", i + 1)).append("T00:00:00,\"--opt ").append(i).append(", x\"\n");
+        }
+
+        final Path csv = tempDir.resolve("table.csv");
+        Files.write(csv, sb.toString().getBytes(StandardCharsets.UTF_8));
+        return csv;
+    }
+}
@@ -0,0 +1,107 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileIdentityCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void unchangedFileIsParsedOnce() throws Exception {
+        final Path product = writeAged("product.csv", "a,b\n1,2\n");
+        final FileIdentityCache<List<String>> cache = new FileIdentityCache<>(4, Files::readAllLines);
+
+        final FileIdentityCache.Entry<List<String>> first = cache.get(product);
+        final FileIdentityCache.Entry<List<String>> second = cache.get(product);
+
+        assertEquals(1, cache.getLoadCount());
+        assertEquals(1, cache.getHitCount());
+        assertSame(first.value(), second.value());
+        assertEquals(first.identity().toEtag(), second.identity().toEtag());
+    }
+
+    @Test
+    public void appendedFileIsReparsed() throws Exception {
+        final Path runHistory = writeAged("RunHistoryFile.csv", "Run ID\n1\n");
+        final FileIdentityCache<List<String>> cache = new FileIdentityCache<>(4, Files::readAllLines);
+
+        final FileIdentityCache.Entry<List<String>> before = cache.get(runHistory);
+        assertEquals(2, before.value().size());
+
+        // a new correlation appends a record
+        Files.write(runHistory, "2\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        final FileIdentityCache.Entry<List<String>> after = cache.get(runHistory);
+        assertEquals(2, cache.getLoadCount());
+        assertEquals(3, after.value().size());
+        assertNotEquals(before.identity().toEtag(), after.identity().toEtag());
+    }
+
+    @Test
+    public void sameSizeRewriteIsReparsed() throws Exception {
+        final Path product = writeAged("product.csv", "a\n1\n");
+        final FileIdentityCache<List<String>> cache = new FileIdentityCache<>(4, Files::readAllLines);
+        cache.get(product);
+
+        // a rollback could restore content of the same length; only the modification time differs
+        Files.write(product, "a\n2\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(product, FileTime.from(Instant.now().minus(30, ChronoUnit.MINUTES)));
+
+        assertEquals("2", cache.get(product).value().get(1));
+        assertEquals(2, cache.getLoadCount());
+    }
+
+    @Test
+    public void recentlyModifiedFilesAreNotRetained() throws Exception {
+        final Path product = tempDir.resolve("product.csv");
+        Files.write(product, "a\n".getBytes(StandardCharsets.UTF_8));
+        final FileIdentityCache<List<String>> cache = new FileIdentityCache<>(4, Files::readAllLines);
+
+        cache.get(product);
+        cache.get(product);
+
+        assertEquals(2, cache.getLoadCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() throws Exception {
+        final Path a = writeAged("a.csv", "a\n");
+        final Path b = writeAged("b.csv", "b\n");
+        final Path c = writeAged("c.csv", "c\n");
+        final FileIdentityCache<List<String>> cache = new FileIdentityCache<>(2, Files::readAllLines);
+
+        cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        cache.get(c);
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getLoadCount());
+
+        cache.get(a);
+        assertEquals(3, cache.getLoadCount());
+
+        cache.get(b);
+        assertEquals(4, cache.getLoadCount());
+    }
+
+    private Path writeAged(String filename, String contents) throws IOException {
+        final Path path = tempDir.resolve(filename);
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+        return path;
+    }
+}
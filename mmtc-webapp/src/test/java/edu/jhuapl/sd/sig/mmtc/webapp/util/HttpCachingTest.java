@@ -0,0 +1,104 @@
+package edu.jhuapl.sd.sig.mmtc.webapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpCachingTest {
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-03-01T12:30:45.123Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void matchingEtagIsNotModified() {
+        assertTrue(HttpCaching.isNotModified("\"abc\"", null, "\"abc\"", LAST_MODIFIED));
+        assertTrue(HttpCaching.isNotModified("W/\"abc\"", null, "\"abc\"", LAST_MODIFIED));
+        assertTrue(HttpCaching.isNotModified("\"xyz\", \"abc\"", null, "\"abc\"", LAST_MODIFIED));
+        assertTrue(HttpCaching.isNotModified("*", null, "\"abc\"", LAST_MODIFIED));
+    }
+
+    @Test
+    public void mismatchedEtagIsModified() {
+        assertFalse(HttpCaching.isNotModified("\"xyz\"", null, "\"abc\"", LAST_MODIFIED));
+        assertFalse(HttpCaching.isNotModified("\"xyz\", \"def\"", null, "\"abc\"", LAST_MODIFIED));
+        assertFalse(HttpCaching.isNotModified(null, null, "\"abc\"", LAST_MODIFIED));
+    }
+
+    @Test
+    public void ifNoneMatchTakesPrecedenceOverIfModifiedSince() {
+        final String future = HttpCaching.formatHttpDate(LAST_MODIFIED.plus(1, ChronoUnit.DAYS));
+        assertFalse(HttpCaching.isNotModified("\"xyz\"", future, "\"abc\"", LAST_MODIFIED));
+    }
+
+    @Test
+    public void ifModifiedSinceComparesAtSecondPrecision() {
+        assertTrue(HttpCaching.isNotModified(null, HttpCaching.formatHttpDate(LAST_MODIFIED), "\"abc\"", LAST_MODIFIED));
+        assertTrue(HttpCaching.isNotModified(null, HttpCaching.formatHttpDate(LAST_MODIFIED.plusSeconds(10)), "\"abc\"", LAST_MODIFIED));
+        assertFalse(HttpCaching.isNotModified(null, HttpCaching.formatHttpDate(LAST_MODIFIED.minusSeconds(1)), "\"abc\"", LAST_MODIFIED));
+        assertFalse(HttpCaching.isNotModified(null, "not a date", "\"abc\"", LAST_MODIFIED));
+    }
+
+    @Test
+    public void etagChangesWhenFileIsAppendedTo() throws IOException {
+        final Path runHistory = tempDir.resolve("RunHistoryFile.csv");
+        Files.write(runHistory, "Run ID,Run Time\n1,2024-001T00:00:00\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(runHistory, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        final FileIdentity before = FileIdentity.of(runHistory);
+        assertTrue(before.isStable(Instant.now()));
+        assertEquals(before.toEtag(), FileIdentity.of(runHistory).toEtag());
+        assertTrue(HttpCaching.isNotModified(before.toEtag(), null, FileIdentity.of(runHistory).toEtag(), before.lastModified()));
+
+        // simulate a new correlation appending a row
+        Files.write(runHistory, "2,2024-002T00:00:00\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        final FileIdentity after = FileIdentity.of(runHistory);
+        assertNotEquals(before, after);
+        assertFalse(HttpCaching.isNotModified(before.toEtag(), null, after.toEtag(), after.lastModified()));
+    }
+
+    @Test
+    public void recentlyModifiedFilesAreNotStable() throws IOException {
+        final Path product = tempDir.resolve("product.csv");
+        Files.write(product, "a,b\n".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(FileIdentity.of(product).isStable(Instant.now()));
+        assertFalse(FileIdentity.allStable(Arrays.asList(FileIdentity.of(product)), Instant.now()));
+    }
+
+    @Test
+    public void missingFilesHaveAbsentIdentity() throws IOException {
+        final FileIdentity missing = FileIdentity.of(tempDir.resolve("missing.csv"));
+        assertEquals(FileIdentity.ABSENT, missing);
+        assertFalse(missing.exists());
+    }
+
+    @Test
+    public void compositeEtagChangesWhenDirectoryContentsChange() throws IOException {
+        final Path dirA = Files.createDirectory(tempDir.resolve("a"));
+        final Path dirB = Files.createDirectory(tempDir.resolve("b"));
+        final FileTime anHourAgo = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(dirA, anHourAgo);
+        Files.setLastModifiedTime(dirB, anHourAgo);
+
+        final String before = FileIdentity.toEtag(Arrays.asList(FileIdentity.of(dirA), FileIdentity.of(dirB)));
+        assertEquals(before, FileIdentity.toEtag(Arrays.asList(FileIdentity.of(dirA), FileIdentity.of(dirB))));
+
+        Files.write(dirB.resolve("new_product.tsc"), new byte[] {1});
+
+        final String after = FileIdentity.toEtag(Arrays.asList(FileIdentity.of(dirA), FileIdentity.of(dirB)));
+        assertNotEquals(before, after);
+    }
+}